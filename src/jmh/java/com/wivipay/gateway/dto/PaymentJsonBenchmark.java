@@ -0,0 +1,74 @@
+package com.wivipay.gateway.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentJsonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private ObjectReader responseReader;
+    private byte[] requestJson;
+    private byte[] responseJson;
+    private PaymentResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Mesma configuração do ObjectMapper do Spring Boot (JavaTimeModule, datas ISO)
+        ObjectMapper mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        requestReader = mapper.readerFor(PaymentRequest.class);
+        responseReader = mapper.readerFor(PaymentResponse.class);
+        responseWriter = mapper.writerFor(PaymentResponse.class);
+
+        requestJson = ("{\"amount\":150.75,\"currency\":\"BRL\",\"paymentMethod\":\"card_123456789\","
+                + "\"provider\":\"cielo\",\"description\":\"Pedido 123\",\"customerId\":\"CLI001\","
+                + "\"metadata\":\"{\\\"orderId\\\": \\\"123\\\"}\"}").getBytes();
+
+        response = new PaymentResponse();
+        response.setId(UUID.randomUUID());
+        response.setProvider("cielo");
+        response.setProviderTransactionId("24bc8366-fc31-4d6c-8555-17049a836a07");
+        response.setMoney(Money.ofMinor(15075, CurrencyCode.BRL));
+        response.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
+        response.setPaymentMethod("card_123456789");
+        response.setDescription("Pedido 123");
+        response.setCustomerId("CLI001");
+        response.setMetadata("{\"orderId\": \"123\"}");
+        response.setCreatedAt(LocalDateTime.now());
+        response.setUpdatedAt(LocalDateTime.now());
+        responseJson = responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public PaymentRequest deserializeRequest() throws Exception {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public PaymentResponse deserializeResponse() throws Exception {
+        return responseReader.readValue(responseJson);
+    }
+}
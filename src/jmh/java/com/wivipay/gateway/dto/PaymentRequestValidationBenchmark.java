@@ -0,0 +1,59 @@
+package com.wivipay.gateway.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentRequestValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private PaymentRequest validRequest;
+    private PaymentRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        validRequest = new PaymentRequest();
+        validRequest.setAmount(new BigDecimal("150.75"));
+        validRequest.setCurrency("BRL");
+        validRequest.setPaymentMethod("card_123456789");
+        validRequest.setProvider("cielo");
+        validRequest.setCustomerId("CLI001");
+
+        invalidRequest = new PaymentRequest();
+        invalidRequest.setAmount(new BigDecimal("0.001"));
+        invalidRequest.setCurrency("USD");
+        invalidRequest.setPaymentMethod("card_123456789");
+        invalidRequest.setProvider("cielo");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PaymentRequest>> validRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PaymentRequest>> invalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
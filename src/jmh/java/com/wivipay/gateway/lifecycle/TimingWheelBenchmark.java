@@ -0,0 +1,60 @@
+package com.wivipay.gateway.lifecycle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agendar e cancelar um prazo com a roda já cheia ({@code pending} prazos espalhados por 30 dias),
+ * contra a mesma operação numa fila de prioridade, em que o custo cresce com o tamanho.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final long TICK = 1000;
+    private static final long HORIZON = 30L * 24 * 3600 * 1000;
+
+    @Param({"10000", "1000000"})
+    private int pending;
+
+    private TimingWheel<Long> wheel;
+    private PriorityQueue<Long> queue;
+    private long[] deadlines;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        wheel = new TimingWheel<>(TICK, 0);
+        queue = new PriorityQueue<>(pending);
+        for (int i = 0; i < pending; i++) {
+            long deadline = (long) (random.nextDouble() * HORIZON);
+            wheel.schedule(deadline, deadline);
+            queue.add(deadline);
+        }
+        deadlines = new long[4096];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = (long) (random.nextDouble() * HORIZON);
+        }
+    }
+
+    @Benchmark
+    public boolean timingWheel() {
+        long deadline = deadlines[next++ & (deadlines.length - 1)];
+        return wheel.cancel(wheel.schedule(deadline, deadline));
+    }
+
+    @Benchmark
+    public boolean priorityQueue() {
+        Long deadline = deadlines[next++ & (deadlines.length - 1)];
+        queue.add(deadline);
+        return queue.remove(deadline);
+    }
+}
@@ -0,0 +1,54 @@
+package com.wivipay.gateway.provider;
+
+import com.wivipay.gateway.dto.PaymentRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderPayloadBenchmark {
+
+    private CieloProvider cieloProvider;
+    private PayPalProvider payPalProvider;
+    private PaymentRequest cieloRequest;
+    private PaymentRequest payPalRequest;
+
+    @Setup
+    public void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        cieloProvider = new CieloProvider(restTemplate, "http://localhost", "http://localhost", "merchant", "key");
+        payPalProvider = new PayPalProvider(restTemplate, "http://localhost", "client", "secret");
+
+        cieloRequest = new PaymentRequest();
+        cieloRequest.setAmount(new BigDecimal("150.75"));
+        cieloRequest.setCurrency("BRL");
+        cieloRequest.setPaymentMethod("card_123456789");
+        cieloRequest.setProvider("cielo");
+        cieloRequest.setCustomerId("CLI001");
+
+        payPalRequest = new PaymentRequest();
+        payPalRequest.setAmount(new BigDecimal("150.75"));
+        payPalRequest.setCurrency("USD");
+        payPalRequest.setPaymentMethod("paypal_123456789");
+        payPalRequest.setProvider("paypal");
+        payPalRequest.setCustomerId("CLI001");
+    }
+
+    @Benchmark
+    public Map<String, Object> cieloAuthorizePayload() {
+        return cieloProvider.buildAuthorizePayload(cieloRequest);
+    }
+
+    @Benchmark
+    public Map<String, Object> payPalAuthorizePayload() {
+        return payPalProvider.buildAuthorizePayload(payPalRequest);
+    }
+}
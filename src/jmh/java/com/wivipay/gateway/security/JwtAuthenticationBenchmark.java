@@ -0,0 +1,89 @@
+package com.wivipay.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da autenticação do filtro Bearer (decode, validação e conversão em
+ * {@code JwtAuthenticationToken}) para um token do Keycloak reusado pelo PDV: verificando a assinatura
+ * RSA toda vez, como antes, e com o {@link CachingJwtDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private JwtAuthenticationProvider verifying;
+    private JwtAuthenticationProvider caching;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("k1").generate();
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256,
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK()))));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefault());
+        JwtDecoder cached = new CachingJwtDecoder(decoder, 10_000, new SimpleMeterRegistry(), Clock.systemUTC());
+
+        verifying = new JwtAuthenticationProvider(decoder);
+        caching = new JwtAuthenticationProvider(cached);
+
+        // Claims de um token de cliente do Keycloak
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("k1").build(),
+                new JWTClaimsSet.Builder()
+                        .issuer("http://localhost:8080/auth/realms/gateway")
+                        .subject("5f0c2a7e-3b1d-4d8e-9a61-2c7f0e4b8d13")
+                        .audience("account")
+                        .claim("azp", "pdv-loja-001")
+                        .claim("typ", "Bearer")
+                        .claim("scope", "payments:write payments:read")
+                        .claim("realm_access", Map.of("roles", List.of("offline_access", "uma_authorization")))
+                        .issueTime(new Date())
+                        .expirationTime(new Date(System.currentTimeMillis() + 3_600_000))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+    }
+
+    @Benchmark
+    public Authentication verifyEveryRequest() {
+        return verifying.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+
+    @Benchmark
+    public Authentication cachedToken() {
+        return caching.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+}
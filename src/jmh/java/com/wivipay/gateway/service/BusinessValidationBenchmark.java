@@ -0,0 +1,86 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.dto.PaymentRequest;
+import com.wivipay.gateway.model.CreditCard;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o pipeline de passada única com a validação anterior ({@link LegacyBusinessValidation}).
+ * Rode com {@code -prof gc} para ver a alocação por operação no caminho de sucesso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessValidationBenchmark {
+
+    // valid: requisição aceita; invalid: moeda e token inválidos (o legado para na primeira falha)
+    @Param({"valid", "invalid"})
+    private String scenario;
+
+    private BusinessValidationService service;
+    private LegacyBusinessValidation legacy;
+    private PaymentRequest request;
+    private CreditCard creditCard;
+
+    @Setup
+    public void setUp() {
+        // Sem customerId o repositório não é consultado, medindo só as regras em memória
+        service = new BusinessValidationService(null, null);
+        legacy = new LegacyBusinessValidation();
+
+        boolean valid = "valid".equals(scenario);
+        request = new PaymentRequest();
+        request.setAmount(new BigDecimal("150.75"));
+        request.setCurrency(valid ? "BRL" : "JPY");
+        request.setPaymentMethod(valid ? "tok_1Nq9Xr2eZvKYlo2C0QvJ2eZv" : "pm_1Nq9Xr2eZvKYlo2C0QvJ2eZv");
+        request.setProvider("stripe");
+
+        creditCard = new CreditCard();
+        creditCard.setBrand("VISA");
+        creditCard.setLastFourDigits(valid ? "4242" : "42a2");
+        creditCard.setExpirationMonth(12);
+        creditCard.setExpirationYear(LocalDate.now().getYear() + 2);
+    }
+
+    @Benchmark
+    public Object pipeline() {
+        try {
+            service.validatePaymentRequest(request);
+            return request;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object legacy() {
+        try {
+            legacy.validatePaymentRequest(request);
+            return request;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object pipelineCreditCard() {
+        try {
+            service.validateCreditCard(creditCard);
+            return creditCard;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean legacyLastFourDigits() {
+        return legacy.validateLastFourDigits(creditCard.getLastFourDigits());
+    }
+}
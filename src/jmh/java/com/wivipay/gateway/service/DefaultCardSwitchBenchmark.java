@@ -0,0 +1,92 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.GatewayApplication;
+import com.wivipay.gateway.model.CreditCard;
+import com.wivipay.gateway.model.Customer;
+import com.wivipay.gateway.repository.CreditCardRepository;
+import com.wivipay.gateway.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Troca do cartão padrão contra o H2 em memória: UPDATE em lote ({@link CreditCardService}) versus
+ * o carregamento e salvamento cartão a cartão ({@link LegacyDefaultCardSwitch}), para clientes com
+ * poucos e muitos cartões.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultCardSwitchBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int cards;
+
+    private ConfigurableApplicationContext context;
+    private CreditCardService service;
+    private LegacyDefaultCardSwitch legacy;
+    private TransactionTemplate transactionTemplate;
+    private List<UUID> cardIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Argumentos de linha de comando: sobrepõem o application-h2.yml (show-sql, porta)
+        context = new SpringApplicationBuilder(GatewayApplication.class)
+                .profiles("h2")
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        service = context.getBean(CreditCardService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        CreditCardRepository repository = context.getBean(CreditCardRepository.class);
+        legacy = new LegacyDefaultCardSwitch(repository);
+
+        Customer customer = new Customer();
+        customer.setExternalId("bench-" + cards);
+        customer.setName("Cliente Benchmark");
+        customer = context.getBean(CustomerRepository.class).save(customer);
+
+        List<CreditCard> batch = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            CreditCard card = new CreditCard();
+            card.setCustomer(customer);
+            card.setProviderCardId("card_bench_" + cards + "_" + i);
+            card.setLastFourDigits(String.format("%04d", i % 10_000));
+            card.setBrand("VISA");
+            card.setExpirationMonth(12);
+            card.setExpirationYear(2030);
+            card.setIsDefault(i == 0);
+            batch.add(card);
+        }
+        cardIds = repository.saveAll(batch).stream().map(CreditCard::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object bulkUpdate() {
+        return service.setDefaultCreditCard(nextCardId());
+    }
+
+    @Benchmark
+    public Object loadAndSaveEach() {
+        return transactionTemplate.execute(status -> legacy.setDefaultCreditCard(nextCardId()));
+    }
+
+    private UUID nextCardId() {
+        UUID id = cardIds.get(next);
+        next = (next + 1) % cardIds.size();
+        return id;
+    }
+}
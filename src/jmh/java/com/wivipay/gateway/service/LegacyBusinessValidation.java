@@ -0,0 +1,112 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.dto.PaymentRequest;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cópia da validação de pagamentos anterior ao pipeline de passada única, mantida só como base
+ * de comparação no {@link BusinessValidationBenchmark}. Não valida cliente (sem repositório).
+ */
+class LegacyBusinessValidation {
+
+    private static final List<String> STRIPE_CURRENCIES = Arrays.asList("BRL", "USD", "EUR", "GBP");
+    private static final List<String> CIELO_CURRENCIES = Arrays.asList("BRL");
+    private static final List<String> PAYPAL_CURRENCIES = Arrays.asList("BRL", "USD", "EUR", "GBP");
+
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    private static final BigDecimal MAX_AMOUNT_BRL = new BigDecimal("999999.99");
+    private static final BigDecimal MAX_AMOUNT_OTHER = new BigDecimal("999999.99");
+
+    void validatePaymentRequest(PaymentRequest request) {
+        validateAmount(request.getAmount());
+        validateCurrency(request.getCurrency());
+        validateProvider(request.getProvider());
+        validateProviderCurrencyCompatibility(request.getProvider(), request.getCurrency());
+        validateAmountCurrencyCompatibility(request.getAmount(), request.getCurrency());
+        validatePaymentMethod(request.getPaymentMethod(), request.getProvider());
+    }
+
+    boolean validateLastFourDigits(String lastFourDigits) {
+        return lastFourDigits != null && lastFourDigits.length() == 4 && lastFourDigits.matches("\\d{4}");
+    }
+
+    private void validateAmount(BigDecimal amount) {
+        if (amount == null) {
+            throw new RuntimeException("Valor é obrigatório");
+        }
+        if (amount.compareTo(MIN_AMOUNT) < 0) {
+            throw new RuntimeException("Valor deve ser maior que " + MIN_AMOUNT);
+        }
+    }
+
+    private void validateCurrency(String currency) {
+        if (currency == null || currency.trim().isEmpty()) {
+            throw new RuntimeException("Moeda é obrigatória");
+        }
+        List<String> supportedCurrencies = Arrays.asList("BRL", "USD", "EUR", "GBP");
+        if (!supportedCurrencies.contains(currency.toUpperCase())) {
+            throw new RuntimeException("Moeda não suportada: " + currency + ". Moedas suportadas: " + supportedCurrencies);
+        }
+    }
+
+    private void validateProvider(String provider) {
+        if (provider == null || provider.trim().isEmpty()) {
+            throw new RuntimeException("Provedor é obrigatório");
+        }
+        List<String> supportedProviders = Arrays.asList("stripe", "cielo", "paypal");
+        if (!supportedProviders.contains(provider.toLowerCase())) {
+            throw new RuntimeException("Provedor não suportado: " + provider + ". Provedores suportados: " + supportedProviders);
+        }
+    }
+
+    private void validateProviderCurrencyCompatibility(String provider, String currency) {
+        List<String> supportedCurrencies = switch (provider.toLowerCase()) {
+            case "stripe" -> STRIPE_CURRENCIES;
+            case "cielo" -> CIELO_CURRENCIES;
+            case "paypal" -> PAYPAL_CURRENCIES;
+            default -> throw new RuntimeException("Provedor não suportado: " + provider);
+        };
+        if (!supportedCurrencies.contains(currency.toUpperCase())) {
+            throw new RuntimeException("Moeda " + currency + " não é suportada pelo provedor " + provider);
+        }
+    }
+
+    private void validateAmountCurrencyCompatibility(BigDecimal amount, String currency) {
+        BigDecimal maxAmount = "BRL".equals(currency) ? MAX_AMOUNT_BRL : MAX_AMOUNT_OTHER;
+        if (amount.compareTo(maxAmount) > 0) {
+            throw new RuntimeException("Valor não pode exceder " + maxAmount + " para moeda " + currency);
+        }
+        int maxScale = 2;
+        if (amount.scale() > maxScale) {
+            throw new RuntimeException("Valor não pode ter mais de " + maxScale + " casas decimais");
+        }
+    }
+
+    private void validatePaymentMethod(String paymentMethod, String provider) {
+        if (paymentMethod == null || paymentMethod.trim().isEmpty()) {
+            throw new RuntimeException("Método de pagamento é obrigatório");
+        }
+        switch (provider.toLowerCase()) {
+            case "stripe" -> {
+                if (!paymentMethod.startsWith("tok_") && !paymentMethod.startsWith("card_")) {
+                    throw new RuntimeException("Token do Stripe deve começar com 'tok_' ou 'card_'");
+                }
+            }
+            case "cielo" -> {
+                if (!paymentMethod.startsWith("card_")) {
+                    throw new RuntimeException("Token da Cielo deve começar com 'card_'");
+                }
+            }
+            case "paypal" -> {
+                if (!paymentMethod.startsWith("paypal_")) {
+                    throw new RuntimeException("Token do PayPal deve começar com 'paypal_'");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.model.CreditCard;
+import com.wivipay.gateway.repository.CreditCardRepository;
+
+import java.util.UUID;
+
+/**
+ * Troca de cartão padrão como era antes do UPDATE em lote: carrega todos os cartões do cliente e
+ * salva um a um. Mantida só para comparação no {@link DefaultCardSwitchBenchmark}.
+ */
+class LegacyDefaultCardSwitch {
+
+    private final CreditCardRepository repository;
+
+    LegacyDefaultCardSwitch(CreditCardRepository repository) {
+        this.repository = repository;
+    }
+
+    CreditCard setDefaultCreditCard(UUID id) {
+        CreditCard creditCard = repository.findById(id).orElseThrow();
+
+        repository.findByCustomerId(creditCard.getCustomer().getId()).stream()
+                .filter(CreditCard::getIsDefault)
+                .forEach(card -> {
+                    card.setIsDefault(false);
+                    repository.save(card);
+                });
+
+        creditCard.setIsDefault(true);
+        return repository.save(creditCard);
+    }
+}
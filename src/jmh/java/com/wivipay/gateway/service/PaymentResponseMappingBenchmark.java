@@ -0,0 +1,47 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentResponseMappingBenchmark {
+
+    private PaymentService service;
+    private PaymentTransaction transaction;
+
+    @Setup
+    public void setUp() {
+        service = new PaymentService(List.of(), null, null, null, null, null, null, null, null);
+
+        transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProvider("cielo");
+        transaction.setProviderTransactionId("24bc8366-fc31-4d6c-8555-17049a836a07");
+        transaction.setMoney(Money.ofMinor(15075, CurrencyCode.BRL));
+        transaction.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
+        transaction.setPaymentMethod("card_123456789");
+        transaction.setDescription("Pedido 123");
+        transaction.setCustomerId("CLI001");
+        transaction.setMetadata("{\"orderId\": \"123\"}");
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public PaymentResponse mapToPaymentResponse() {
+        return service.mapToPaymentResponse(transaction);
+    }
+}
@@ -0,0 +1,78 @@
+package com.wivipay.gateway.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos de argumentos {@code --nome=valor}.
+ */
+public record LoadTestOptions(
+        double rate,
+        Duration duration,
+        Duration warmup,
+        Duration drainTimeout,
+        Arrival arrival,
+        Map<Operation, Integer> mix,
+        String provider,
+        String target,
+        String token,
+        int clientThreads,
+        long seed,
+        Path output,
+        String label) {
+
+    public enum Arrival {
+        // Intervalo constante entre chegadas
+        UNIFORM,
+        // Intervalos exponenciais (processo de Poisson)
+        POISSON
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new java.util.HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (use --nome=valor)");
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String label = values.getOrDefault("label",
+                "loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+        return new LoadTestOptions(
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("drain-timeout", "PT30S")),
+                Arrival.valueOf(values.getOrDefault("arrival", "poisson").toUpperCase()),
+                parseMix(values.getOrDefault("mix", "authorize=40,capture=25,refund=10,read=25")),
+                values.getOrDefault("provider", "cielo"),
+                values.get("target"),
+                values.get("token"),
+                Integer.parseInt(values.getOrDefault("client-threads", "16")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("output", "target/loadtest")),
+                label);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + entry + " (use operacao=peso)");
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix sem pesos positivos: " + mix);
+        }
+        return weights;
+    }
+}
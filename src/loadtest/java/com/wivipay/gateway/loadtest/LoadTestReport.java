@@ -0,0 +1,186 @@
+package com.wivipay.gateway.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula as latências por operação e grava o resultado em JSON e em arquivos .hgrm.
+ * <p>
+ * A latência principal é medida a partir do instante em que a requisição deveria ter saído
+ * (agenda open-loop), corrigindo a omissão coordenada; o tempo de serviço, medido a partir do
+ * envio efetivo, é mantido à parte para comparação.
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder incomplete = new LongAdder();
+    private volatile long measuredNanos;
+
+    public LoadTestReport() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationStats());
+        }
+    }
+
+    void scheduled() {
+        scheduled.increment();
+    }
+
+    void substituted(Operation requested) {
+        operations.get(requested).substituted.increment();
+    }
+
+    void record(Operation operation, long intendedNanos, long sentNanos, long completedNanos, int status) {
+        OperationStats stats = operations.get(operation);
+        stats.latency.recordValue(toMicros(completedNanos - intendedNanos));
+        stats.serviceTime.recordValue(toMicros(completedNanos - sentNanos));
+        stats.statusCodes.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            stats.errors.increment();
+        }
+    }
+
+    void incomplete(long count) {
+        incomplete.add(count);
+    }
+
+    void measuredNanos(long nanos) {
+        this.measuredNanos = nanos;
+    }
+
+    public long completed() {
+        return operations.values().stream().mapToLong(s -> s.latency.getTotalCount()).sum();
+    }
+
+    public long errors() {
+        return operations.values().stream().mapToLong(s -> s.errors.sum()).sum();
+    }
+
+    public double throughput() {
+        return measuredNanos == 0 ? 0 : completed() / (measuredNanos / 1e9);
+    }
+
+    public Histogram latency(Operation operation) {
+        return operations.get(operation).latency;
+    }
+
+    /**
+     * Grava {@code <label>.json} com o resumo e um {@code <label>-<operação>.hgrm} por operação.
+     */
+    public Path write(LoadTestOptions options, String target) throws IOException {
+        Files.createDirectories(options.output());
+
+        Histogram all = new Histogram(3);
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+            OperationStats stats = entry.getValue();
+            String name = entry.getKey().name().toLowerCase();
+            all.add(stats.latency);
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("count", stats.latency.getTotalCount());
+            operation.put("errors", stats.errors.sum());
+            operation.put("substituted", stats.substituted.sum());
+            Map<String, Long> statusCodes = new TreeMap<>();
+            stats.statusCodes.forEach((status, count) -> statusCodes.put(String.valueOf(status), count.sum()));
+            operation.put("statusCodes", statusCodes);
+            operation.put("latencyMs", summarize(stats.latency));
+            operation.put("serviceTimeMs", summarize(stats.serviceTime));
+            perOperation.put(name, operation);
+
+            writeHgrm(options.output().resolve(options.label() + "-" + name + ".hgrm"), stats.latency);
+        }
+        writeHgrm(options.output().resolve(options.label() + "-all.hgrm"), all);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scheduled", scheduled.sum());
+        summary.put("completed", completed());
+        summary.put("incomplete", incomplete.sum());
+        summary.put("errors", errors());
+        summary.put("throughputPerSecond", throughput());
+        summary.put("latencyMs", summarize(all));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", options.label());
+        result.put("finishedAt", Instant.now().toString());
+        result.put("target", target);
+        result.put("options", describe(options));
+        result.put("summary", summary);
+        result.put("operations", perOperation);
+
+        Path json = options.output().resolve(options.label() + ".json");
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(json.toFile(), result);
+        return json;
+    }
+
+    private static Map<String, Object> describe(LoadTestOptions options) {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("rate", options.rate());
+        described.put("arrival", options.arrival().name().toLowerCase());
+        described.put("duration", options.duration().toString());
+        described.put("warmup", options.warmup().toString());
+        described.put("provider", options.provider());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.name().toLowerCase(), weight));
+        described.put("mix", mix);
+        described.put("seed", options.seed());
+        return described;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (histogram.getTotalCount() == 0) {
+            return summary;
+        }
+        summary.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            summary.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", "_"),
+                    histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        summary.put("max", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    private static void writeHgrm(Path path, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            // Valores em microssegundos, relatados em milissegundos
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private static final class OperationStats {
+
+        // Auto-redimensionáveis: com o alvo saturado a latência corrigida cresce sem limite conhecido
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        private final ConcurrentHistogram serviceTime = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder substituted = new LongAdder();
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    }
+}
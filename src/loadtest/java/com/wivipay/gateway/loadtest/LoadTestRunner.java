@@ -0,0 +1,89 @@
+package com.wivipay.gateway.loadtest;
+
+import com.wivipay.gateway.GatewayApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Teste de carga ponta a ponta contra os endpoints do {@code PaymentController}.
+ * <p>
+ * Sem {@code --target}, sobe o gateway no mesmo processo com os perfis {@code h2,simulator}
+ * (provedores simulados) e um emissor JWT local. Com {@code --target}, usa um gateway já em
+ * execução, que deve aceitar o token informado em {@code --token} ou apontar o
+ * {@code jwk-set-uri} para o emissor local impresso no início da execução.
+ */
+public class LoadTestRunner {
+
+    private static final String SCOPE = "payments:write payments:read";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Duration tokenValidity = options.warmup().plus(options.duration()).plus(options.drainTimeout()).plusHours(1);
+
+        ConfigurableApplicationContext context = null;
+        try (JwtIssuerStub issuer = new JwtIssuerStub()) {
+            String target = options.target();
+            if (target == null) {
+                context = startGateway(issuer);
+                target = localTarget(context);
+            } else if (options.token() == null) {
+                System.out.println("Configure o gateway alvo com "
+                        + "spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + issuer.jwkSetUri());
+            }
+            String token = options.token() != null ? options.token() : issuer.issueToken(SCOPE, tokenValidity);
+
+            System.out.printf("Teste de carga: %.0f req/s (%s) por %s após %s de aquecimento contra %s%n",
+                    options.rate(), options.arrival().name().toLowerCase(), options.duration(), options.warmup(), target);
+
+            LoadTestReport report = new OpenLoopDriver(options, URI.create(withTrailingSlash(target)), token).run();
+            Path json = report.write(options, target);
+
+            System.out.printf("Concluídas: %d, erros: %d, vazão: %.1f req/s%n",
+                    report.completed(), report.errors(), report.throughput());
+            for (Operation operation : Operation.values()) {
+                var latency = report.latency(operation);
+                if (latency.getTotalCount() > 0) {
+                    System.out.printf("  %-9s n=%-7d p50=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms%n",
+                            operation.name().toLowerCase(), latency.getTotalCount(),
+                            latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                            latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0);
+                }
+            }
+            System.out.println("Resultado gravado em " + json.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startGateway(JwtIssuerStub issuer) {
+        // Passados como argumentos de linha de comando para prevalecer sobre application-h2.yml
+        return new SpringApplicationBuilder(GatewayApplication.class)
+                .profiles("h2", "simulator")
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.wivipay=WARN",
+                        // Todo o tráfego sai de um único cliente: com o limite por cliente ligado, quase tudo seria 429
+                        "--wivipay.rate-limit.enabled=false",
+                        "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer.issuer(),
+                        "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + issuer.jwkSetUri());
+    }
+
+    private static String localTarget(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        return "http://localhost:" + port + contextPath;
+    }
+
+    private static String withTrailingSlash(String target) {
+        return target.endsWith("/") ? target : target + "/";
+    }
+}
@@ -0,0 +1,231 @@
+package com.wivipay.gateway.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispara requisições numa agenda open-loop: o instante de cada chegada é calculado antes do
+ * envio e não depende das respostas anteriores, como acontece com clientes reais.
+ * <p>
+ * Capturas e estornos consomem pagamentos autorizados/capturados nesta mesma execução; quando
+ * ainda não há nenhum disponível, a chegada vira uma autorização (contada em {@code substituted}).
+ */
+public class OpenLoopDriver {
+
+    private static final int RECENT_IDS = 8192;
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final String authorization;
+    private final LoadTestReport report;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+    private final ExecutorService executor;
+    private final HttpClient client;
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final ConcurrentLinkedQueue<Payment> authorized = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Payment> captured = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<UUID> recent = new AtomicReferenceArray<>(RECENT_IDS);
+    private final AtomicLong recentCursor = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public OpenLoopDriver(LoadTestOptions options, URI baseUri, String token) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.authorization = "Bearer " + token;
+        this.report = new LoadTestReport();
+        this.random = new Random(options.seed());
+        this.executor = Executors.newFixedThreadPool(options.clientThreads());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        this.operations = options.mix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        double meanGapNanos = 1e9 / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        double next = start;
+        while (next < end) {
+            long intended = (long) next;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Se o disparador atrasar, a requisição sai atrasada mas a latência continua contada
+            // a partir do instante agendado
+            dispatch(intended, intended >= measureFrom);
+            next += options.arrival() == LoadTestOptions.Arrival.POISSON
+                    ? -meanGapNanos * Math.log(1.0 - random.nextDouble())
+                    : meanGapNanos;
+        }
+        report.measuredNanos(end - measureFrom);
+
+        long drainDeadline = System.nanoTime() + options.drainTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        report.incomplete(inFlight.get());
+        executor.shutdownNow();
+        return report;
+    }
+
+    private void dispatch(long intended, boolean measured) {
+        Operation requested = pickOperation();
+        Payment payment = switch (requested) {
+            case CAPTURE -> authorized.poll();
+            case REFUND -> captured.poll();
+            case READ -> randomRecent();
+            case AUTHORIZE -> null;
+        };
+        Operation operation = payment == null ? Operation.AUTHORIZE : requested;
+        if (measured) {
+            report.scheduled();
+            if (operation != requested) {
+                report.substituted(requested);
+            }
+        }
+
+        HttpRequest request = buildRequest(operation, payment);
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    long completed = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    int status = error == null ? response.statusCode() : 0;
+                    if (measured) {
+                        report.record(operation, intended, sent, completed, status);
+                    }
+                    if (error == null && status == 200) {
+                        advance(operation, payment, response.body());
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation, Payment payment) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(60));
+        return switch (operation) {
+            case AUTHORIZE -> builder
+                    .uri(baseUri.resolve("payments/authorize"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(authorizeBody()))
+                    .build();
+            case CAPTURE -> builder
+                    .uri(baseUri.resolve("payments/capture/" + payment.id()))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case REFUND -> builder
+                    .uri(baseUri.resolve("payments/refund/" + payment.id() + "?amount=" + payment.amount().toPlainString()))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case READ -> builder
+                    .uri(baseUri.resolve("payments/" + payment.id()))
+                    .GET()
+                    .build();
+        };
+    }
+
+    private byte[] authorizeBody() {
+        BigDecimal amount = BigDecimal.valueOf(1_000 + random.nextInt(49_000), 2);
+        String paymentMethod = switch (options.provider()) {
+            case "stripe" -> "tok_visa";
+            case "paypal" -> "paypal_" + Long.toHexString(random.nextLong());
+            default -> "card_" + Long.toHexString(random.nextLong());
+        };
+        try {
+            return objectMapper.writeValueAsBytes(Map.of(
+                    "amount", amount,
+                    "currency", "BRL",
+                    "paymentMethod", paymentMethod,
+                    "provider", options.provider(),
+                    "description", "Teste de carga"));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void advance(Operation operation, Payment payment, byte[] body) {
+        try {
+            switch (operation) {
+                case AUTHORIZE -> {
+                    JsonNode json = objectMapper.readTree(body);
+                    if ("AUTHORIZED".equals(json.path("status").asText()) && json.hasNonNull("id")) {
+                        Payment authorizedPayment = new Payment(
+                                UUID.fromString(json.get("id").asText()), json.get("amount").decimalValue());
+                        authorized.offer(authorizedPayment);
+                        remember(authorizedPayment.id());
+                    }
+                }
+                case CAPTURE -> {
+                    if ("CAPTURED".equals(objectMapper.readTree(body).path("status").asText())) {
+                        captured.offer(payment);
+                    }
+                }
+                default -> {
+                }
+            }
+        } catch (Exception ignored) {
+            // Resposta inesperada: o pagamento simplesmente não volta para os pools
+        }
+    }
+
+    private void remember(UUID id) {
+        recent.set((int) (recentCursor.getAndIncrement() % RECENT_IDS), id);
+    }
+
+    private Payment randomRecent() {
+        long filled = Math.min(recentCursor.get(), RECENT_IDS);
+        if (filled == 0) {
+            return null;
+        }
+        UUID id = recent.get(random.nextInt((int) filled));
+        return id == null ? null : new Payment(id, BigDecimal.ZERO);
+    }
+
+    private Operation pickOperation() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private record Payment(UUID id, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.wivipay.gateway.loadtest;
+
+/**
+ * Operações sorteadas pelo teste de carga, cada uma mapeada para um endpoint do {@code PaymentController}.
+ */
+public enum Operation {
+    AUTHORIZE,
+    CAPTURE,
+    REFUND,
+    READ
+}
@@ -0,0 +1,16 @@
+package com.wivipay.gateway.archive;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Linha de {@code transaction_logs} guardada num segmento do arquivo.
+ */
+public record ArchivedLog(UUID id, UUID transactionId, String status, String message, LocalDateTime createdAt) {
+
+    // Ordem dentro do segmento: o índice esparso depende dos logs de uma transação estarem juntos
+    static final Comparator<ArchivedLog> SEGMENT_ORDER = Comparator.comparing(ArchivedLog::transactionId)
+            .thenComparing(ArchivedLog::createdAt)
+            .thenComparing(ArchivedLog::id);
+}
@@ -0,0 +1,91 @@
+package com.wivipay.gateway.archive;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Filtro de Bloom de transações por segmento: ids aleatórios caem no intervalo de quase todo
+ * segmento, então sem ele cada consulta descomprimiria um bloco de cada arquivo.
+ * ~10 bits por chave e 7 funções dão ~1% de falso positivo.
+ */
+final class BloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+
+    private final long[] words;
+    private final int hashes;
+
+    private BloomFilter(long[] words, int hashes) {
+        this.words = words;
+        this.hashes = hashes;
+    }
+
+    static BloomFilter forKeys(int expectedKeys) {
+        long bits = Math.max(64L, (long) expectedKeys * BITS_PER_KEY);
+        return new BloomFilter(new long[(int) ((bits + 63) / 64)], HASHES);
+    }
+
+    void add(UUID key) {
+        long h1 = h1(key);
+        long h2 = h2(key, h1);
+        long bitCount = (long) words.length * 64;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(UUID key) {
+        long h1 = h1(key);
+        long h2 = h2(key, h1);
+        long bitCount = (long) words.length * 64;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.putInt(hashes);
+        out.putInt(words.length);
+        for (long word : words) {
+            out.putLong(word);
+        }
+    }
+
+    int serializedSize() {
+        return 8 + words.length * Long.BYTES;
+    }
+
+    static BloomFilter readFrom(ByteBuffer in) {
+        int hashes = in.getInt();
+        long[] words = new long[in.getInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.getLong();
+        }
+        return new BloomFilter(words, hashes);
+    }
+
+    private static long h1(UUID key) {
+        return mix(key.getMostSignificantBits() ^ mix(key.getLeastSignificantBits()));
+    }
+
+    // Ímpar para percorrer todas as posições
+    private static long h2(UUID key, long h1) {
+        return mix(h1 ^ key.getLeastSignificantBits()) | 1L;
+    }
+
+    // Finalizador do MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
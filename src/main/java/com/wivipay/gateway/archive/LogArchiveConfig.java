@@ -0,0 +1,40 @@
+package com.wivipay.gateway.archive;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(LogArchiveProperties.class)
+public class LogArchiveConfig {
+
+    @Bean
+    public LogSegmentStore logSegmentStore(LogArchiveProperties properties, MeterRegistry meterRegistry) {
+        LogSegmentStore store = new LogSegmentStore(Path.of(properties.getDirectory()), properties.getBlockSize());
+        store.refresh();
+        Gauge.builder("wivipay.log_archive.segments", store, LogSegmentStore::segmentCount)
+                .description("Segmentos de logs arquivados abertos")
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wivipay.log-archive", name = "enabled", havingValue = "true")
+    public TransactionLogArchiver transactionLogArchiver(LogArchiveProperties properties,
+                                                         LogSegmentStore store,
+                                                         JdbcTemplate jdbcTemplate,
+                                                         PlatformTransactionManager transactionManager,
+                                                         MeterRegistry meterRegistry) {
+        return new TransactionLogArchiver(properties, store, jdbcTemplate, new TransactionTemplate(transactionManager),
+                meterRegistry, Clock.systemDefaultZone());
+    }
+}
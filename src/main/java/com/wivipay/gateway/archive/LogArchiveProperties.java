@@ -0,0 +1,26 @@
+package com.wivipay.gateway.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.log-archive")
+public class LogArchiveProperties {
+
+    // Liga a exportação; a leitura dos segmentos existentes funciona sempre
+    private boolean enabled = false;
+
+    // Compartilhado entre instâncias (volume de rede) ou só uma instância enxerga o histórico exportado
+    private String directory = "data/log-archive";
+
+    // Logs mais antigos que isto saem do banco para os segmentos
+    private Duration olderThan = Duration.ofDays(90);
+
+    // Registros por segmento; cada lote é ordenado em memória antes da gravação
+    private int segmentMaxRecords = 100_000;
+
+    // Tamanho aproximado de um bloco antes da compressão (unidade de leitura)
+    private int blockSize = 64 * 1024;
+}
@@ -0,0 +1,312 @@
+package com.wivipay.gateway.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento imutável de logs arquivados, lido por mmap.
+ *
+ * <pre>
+ * cabeçalho  MAGIC, VERSION
+ * blocos     registros ordenados por (transação, created_at), comprimidos com deflate
+ * índice     por bloco: primeira transação, offset, tamanho comprimido e original
+ * bloom      filtro das transações do segmento
+ * metadados  menor e maior created_at, total de registros
+ * rodapé     offset do índice, MAGIC
+ * </pre>
+ *
+ * O índice é esparso (uma entrada por bloco) e fica em memória; uma busca lê no máximo um bloco.
+ */
+public final class LogSegment {
+
+    static final String SUFFIX = ".seg";
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x57564C53; // "WVLS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int INDEX_ENTRY_SIZE = 32;
+    private static final int METADATA_SIZE = 32;
+    private static final int FOOTER_SIZE = 12;
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final UUID[] firstTransactions;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final BloomFilter transactions;
+    private final LocalDateTime minCreatedAt;
+    private final LocalDateTime maxCreatedAt;
+    private final long recordCount;
+
+    private LogSegment(Path path, MappedByteBuffer data) throws IOException {
+        this.path = path;
+        this.data = data;
+        int size = data.capacity();
+        if (size < HEADER_SIZE + FOOTER_SIZE || data.getInt(0) != MAGIC || data.getInt(size - Integer.BYTES) != MAGIC) {
+            throw new IOException("Segmento inválido: " + path);
+        }
+        if (data.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Versão de segmento não suportada em " + path + ": " + data.getInt(Integer.BYTES));
+        }
+
+        ByteBuffer meta = data.duplicate().position((int) data.getLong(size - FOOTER_SIZE));
+        int blocks = meta.getInt();
+        firstTransactions = new UUID[blocks];
+        offsets = new long[blocks];
+        compressedLengths = new int[blocks];
+        rawLengths = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            firstTransactions[i] = new UUID(meta.getLong(), meta.getLong());
+            offsets[i] = meta.getLong();
+            compressedLengths[i] = meta.getInt();
+            rawLengths[i] = meta.getInt();
+        }
+        transactions = BloomFilter.readFrom(meta);
+        minCreatedAt = LocalDateTime.ofEpochSecond(meta.getLong(), meta.getInt(), ZoneOffset.UTC);
+        maxCreatedAt = LocalDateTime.ofEpochSecond(meta.getLong(), meta.getInt(), ZoneOffset.UTC);
+        recordCount = meta.getLong();
+    }
+
+    public static LogSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segmento maior que 2 GB: " + path);
+            }
+            // O mapeamento continua válido depois que o canal fecha
+            return new LogSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Grava os logs num segmento novo. O arquivo só recebe o nome final depois do fsync, então um
+     * segmento {@code .seg} visível está sempre completo.
+     */
+    public static Path write(Path directory, String name, List<ArchivedLog> logs, int blockSize) throws IOException {
+        if (logs.isEmpty()) {
+            throw new IllegalArgumentException("Segmento sem registros");
+        }
+        List<ArchivedLog> sorted = new ArrayList<>(logs);
+        sorted.sort(ArchivedLog.SEGMENT_ORDER);
+
+        Path temp = directory.resolve(name + TEMP_SUFFIX);
+        Path target = directory.resolve(name + SUFFIX);
+        BloomFilter transactions = BloomFilter.forKeys(sorted.size());
+        List<BlockEntry> index = new ArrayList<>();
+        LocalDateTime min = sorted.get(0).createdAt();
+        LocalDateTime max = min;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+
+            ByteArrayOutputStream block = new ByteArrayOutputStream(blockSize + 1024);
+            DataOutputStream out = new DataOutputStream(block);
+            Deflater deflater = new Deflater();
+            try {
+                UUID first = null;
+                UUID previous = null;
+                for (ArchivedLog log : sorted) {
+                    // Um bloco nunca divide os logs de uma transação: a busca lê um bloco só
+                    if (block.size() >= blockSize && !log.transactionId().equals(previous)) {
+                        index.add(flush(channel, deflater, block, first));
+                        first = null;
+                    }
+                    if (first == null) {
+                        first = log.transactionId();
+                    }
+                    previous = log.transactionId();
+                    encode(out, log);
+                    transactions.add(log.transactionId());
+                    min = log.createdAt().isBefore(min) ? log.createdAt() : min;
+                    max = log.createdAt().isAfter(max) ? log.createdAt() : max;
+                }
+                index.add(flush(channel, deflater, block, first));
+            } finally {
+                deflater.end();
+            }
+
+            long indexOffset = channel.position();
+            ByteBuffer meta = ByteBuffer.allocate(Integer.BYTES + index.size() * INDEX_ENTRY_SIZE
+                    + transactions.serializedSize() + METADATA_SIZE + FOOTER_SIZE);
+            meta.putInt(index.size());
+            for (BlockEntry entry : index) {
+                meta.putLong(entry.firstTransaction().getMostSignificantBits());
+                meta.putLong(entry.firstTransaction().getLeastSignificantBits());
+                meta.putLong(entry.offset());
+                meta.putInt(entry.compressedLength());
+                meta.putInt(entry.rawLength());
+            }
+            transactions.writeTo(meta);
+            meta.putLong(min.toEpochSecond(ZoneOffset.UTC)).putInt(min.getNano());
+            meta.putLong(max.toEpochSecond(ZoneOffset.UTC)).putInt(max.getNano());
+            meta.putLong(sorted.size());
+            meta.putLong(indexOffset).putInt(MAGIC);
+            writeFully(channel, meta.flip());
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+        return target;
+    }
+
+    /**
+     * Logs da transação neste segmento, em ordem de criação.
+     */
+    public List<ArchivedLog> find(UUID transactionId) {
+        if (!transactions.mightContain(transactionId)) {
+            return List.of();
+        }
+        int block = Arrays.binarySearch(firstTransactions, transactionId);
+        if (block < 0) {
+            block = -block - 2; // último bloco que começa antes da transação
+        }
+        if (block < 0) {
+            return List.of();
+        }
+
+        ByteBuffer records = ByteBuffer.wrap(inflate(block));
+        List<ArchivedLog> found = new ArrayList<>();
+        while (records.hasRemaining()) {
+            ArchivedLog log = decode(records);
+            int order = log.transactionId().compareTo(transactionId);
+            if (order == 0) {
+                found.add(log);
+            } else if (order > 0) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public LocalDateTime minCreatedAt() {
+        return minCreatedAt;
+    }
+
+    public LocalDateTime maxCreatedAt() {
+        return maxCreatedAt;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    private byte[] inflate(int block) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.slice((int) offsets[block], compressedLengths[block]));
+            byte[] raw = new byte[rawLengths[block]];
+            int read = 0;
+            while (read < raw.length) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new DataFormatException("bloco truncado");
+                }
+                read += n;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Bloco " + block + " corrompido em " + path, e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static BlockEntry flush(FileChannel channel, Deflater deflater, ByteArrayOutputStream block,
+                                    UUID first) throws IOException {
+        byte[] raw = block.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        long offset = channel.position();
+        writeFully(channel, ByteBuffer.wrap(compressed.toByteArray()));
+        block.reset();
+        return new BlockEntry(first, offset, compressed.size(), raw.length);
+    }
+
+    private static void encode(DataOutputStream out, ArchivedLog log) throws IOException {
+        out.writeLong(log.id().getMostSignificantBits());
+        out.writeLong(log.id().getLeastSignificantBits());
+        out.writeLong(log.transactionId().getMostSignificantBits());
+        out.writeLong(log.transactionId().getLeastSignificantBits());
+        out.writeLong(log.createdAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(log.createdAt().getNano());
+        writeString(out, log.status());
+        writeString(out, log.message());
+    }
+
+    private static ArchivedLog decode(ByteBuffer in) {
+        UUID id = new UUID(in.getLong(), in.getLong());
+        UUID transactionId = new UUID(in.getLong(), in.getLong());
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        return new ArchivedLog(id, transactionId, readString(in), readString(in), createdAt);
+    }
+
+    // -1 = null; message é TEXT e pode passar do limite de 64 KB do writeUTF
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Persiste o rename; alguns sistemas de arquivos não permitem fsync em diretório
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // o segmento já está no disco; no pior caso o rename se perde e a exportação é refeita
+        }
+    }
+
+    private record BlockEntry(UUID firstTransaction, long offset, int compressedLength, int rawLength) {
+    }
+}
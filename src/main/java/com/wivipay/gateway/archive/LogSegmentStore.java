@@ -0,0 +1,99 @@
+package com.wivipay.gateway.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diretório de segmentos de logs arquivados. Segmentos só são acrescentados, nunca alterados;
+ * os já abertos ficam mapeados em memória e novos arquivos (de outra instância no mesmo volume)
+ * são descobertos pelo {@link #refresh()}.
+ */
+@Slf4j
+public class LogSegmentStore {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final Path directory;
+    private final int blockSize;
+    private final Map<Path, LogSegment> segments = new ConcurrentHashMap<>();
+
+    public LogSegmentStore(Path directory, int blockSize) {
+        this.directory = directory;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Logs arquivados da transação, ignorando segmentos que terminam antes de {@code since}.
+     */
+    public List<ArchivedLog> find(UUID transactionId, LocalDateTime since) {
+        List<ArchivedLog> found = new ArrayList<>();
+        for (LogSegment segment : segments.values()) {
+            if (!segment.maxCreatedAt().isBefore(since)) {
+                found.addAll(segment.find(transactionId));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Grava os logs num segmento novo e passa a servi-lo nas buscas.
+     */
+    public LogSegment append(List<ArchivedLog> logs) {
+        try {
+            Files.createDirectories(directory);
+            String name = "logs-" + LocalDateTime.now().format(NAME_FORMAT) + "-" + UUID.randomUUID().toString().substring(0, 8);
+            LogSegment segment = LogSegment.open(LogSegment.write(directory, name, logs, blockSize));
+            segments.put(segment.path(), segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar segmento de logs em " + directory, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wivipay.log-archive.rescan-interval:PT1M}")
+    public void refresh() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + LogSegment.SUFFIX)) {
+            for (Path file : files) {
+                if (!segments.containsKey(file)) {
+                    open(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível listar os segmentos de {}: {}", directory, e.getMessage());
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long recordCount() {
+        return segments.values().stream().mapToLong(LogSegment::recordCount).sum();
+    }
+
+    private void open(Path file) {
+        try {
+            segments.putIfAbsent(file, LogSegment.open(file));
+            log.debug("Segmento de logs {} aberto", file.getFileName());
+        } catch (IOException e) {
+            // Segmento corrompido fica fora das buscas, mas não impede os demais
+            log.error("Segmento de logs {} ignorado: {}", file, e.getMessage());
+        }
+    }
+}
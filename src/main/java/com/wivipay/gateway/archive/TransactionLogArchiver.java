@@ -0,0 +1,94 @@
+package com.wivipay.gateway.archive;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Move os logs mais antigos que {@code older-than} de {@code transaction_logs} para segmentos
+ * comprimidos. O segmento é gravado (com fsync) antes de as linhas saírem do banco: uma falha no
+ * meio deixa o log nos dois lugares, e a leitura descarta a duplicata pelo id.
+ */
+@Slf4j
+@Workload(WorkloadType.LOGGING)
+public class TransactionLogArchiver {
+
+    private static final String SELECT_SQL =
+            "SELECT id, transaction_id, status, message, created_at FROM transaction_logs " +
+            "WHERE created_at < ? ORDER BY created_at LIMIT ?";
+
+    // created_at no filtro restringe cada DELETE à partição da linha
+    private static final String DELETE_SQL = "DELETE FROM transaction_logs WHERE id = ? AND created_at = ?";
+
+    private static final RowMapper<ArchivedLog> ROW_MAPPER = (rs, rowNum) -> new ArchivedLog(
+            rs.getObject("id", UUID.class),
+            rs.getObject("transaction_id", UUID.class),
+            rs.getString("status"),
+            rs.getString("message"),
+            rs.getObject("created_at", LocalDateTime.class));
+
+    private final LogArchiveProperties properties;
+    private final LogSegmentStore store;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archived;
+    private final Clock clock;
+
+    public TransactionLogArchiver(LogArchiveProperties properties, LogSegmentStore store, JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.store = store;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.archived = Counter.builder("wivipay.log_archive.archived")
+                .description("Logs de transação movidos do banco para os segmentos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return total de logs movidos nesta execução
+     */
+    @Scheduled(cron = "${wivipay.log-archive.cron:0 45 3 * * *}")
+    public long archive() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getOlderThan());
+        int limit = properties.getSegmentMaxRecords();
+        long total = 0;
+        try {
+            List<ArchivedLog> batch;
+            do {
+                batch = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, cutoff, limit);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                LogSegment segment = store.append(batch);
+                delete(batch);
+                archived.increment(batch.size());
+                total += batch.size();
+                log.info("{} logs anteriores a {} exportados para {}", batch.size(), cutoff, segment.path().getFileName());
+            } while (batch.size() == limit);
+        } catch (RuntimeException e) {
+            log.error("Falha ao exportar logs de transação: {}", e.getMessage());
+        }
+        return total;
+    }
+
+    private void delete(List<ArchivedLog> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(DELETE_SQL, batch, 1000, (ps, entry) -> {
+                    ps.setObject(1, entry.id());
+                    ps.setObject(2, entry.createdAt());
+                }));
+    }
+}
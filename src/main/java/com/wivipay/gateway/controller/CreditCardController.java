@@ -9,10 +9,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -73,13 +75,19 @@ public class CreditCardController {
     @Operation(summary = "Listar cartões do cliente", description = "Lista todos os cartões de crédito de um cliente")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de cartões"),
+        @ApiResponse(responseCode = "304", description = "Cartões não mudaram desde o ETag de If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Não autorizado")
     })
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasAuthority('SCOPE_credit_cards:read')")
-    public ResponseEntity<List<CreditCardResponse>> getCustomerCreditCards(@PathVariable UUID customerId) {
+    public ResponseEntity<List<CreditCardResponse>> getCustomerCreditCards(@PathVariable UUID customerId,
+                                                                           WebRequest request) {
+        String etag = creditCardService.getCustomerCreditCardsETag(customerId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<CreditCardResponse> creditCards = creditCardService.getCustomerCreditCards(customerId);
-        return ResponseEntity.ok(creditCards);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag).body(creditCards);
     }
 
     @Operation(summary = "Consultar cartão padrão", description = "Consulta o cartão padrão de um cliente")
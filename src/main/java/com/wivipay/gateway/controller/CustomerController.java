@@ -9,10 +9,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -60,14 +62,19 @@ public class CustomerController {
     @Operation(summary = "Consultar cliente", description = "Consulta um cliente por ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente encontrado"),
+        @ApiResponse(responseCode = "304", description = "Cliente não mudou desde o ETag de If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('SCOPE_customers:read')")
-    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable UUID id) {
+    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable UUID id, WebRequest request) {
+        String etag = customerService.getCustomerETag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         CustomerResponse customer = customerService.getCustomer(id);
-        return ResponseEntity.ok(customer);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag).body(customer);
     }
 
     @Operation(summary = "Consultar cliente por ID externo", description = "Consulta um cliente por ID externo")
@@ -0,0 +1,56 @@
+package com.wivipay.gateway.controller;
+
+import com.wivipay.gateway.dto.ImportReport;
+import com.wivipay.gateway.importer.ImportFormat;
+import com.wivipay.gateway.service.BulkImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/imports")
+@RequiredArgsConstructor
+@Tag(name = "Importação", description = "Importação em lote de clientes e cartões (CSV ou NDJSON)")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    @Operation(summary = "Importar clientes",
+               description = "Campos: externalId, name, email, document, phone. Clientes já cadastrados são ignorados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída, com os erros por registro"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "415", description = "Formato não suportado")
+    })
+    @PostMapping(value = "/customers", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority('SCOPE_customers:write')")
+    public ResponseEntity<ImportReport> importCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importCustomers(body, ImportFormat.fromContentType(contentType)));
+    }
+
+    @Operation(summary = "Importar cartões de crédito",
+               description = "Campos: customerExternalId, providerCardId, lastFourDigits, brand, expirationMonth, "
+                       + "expirationYear, isDefault. Cartões já cadastrados para o mesmo cliente são ignorados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída, com os erros por registro"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "415", description = "Formato não suportado")
+    })
+    @PostMapping(value = "/credit-cards", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority('SCOPE_credit_cards:write')")
+    public ResponseEntity<ImportReport> importCreditCards(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importCreditCards(body, ImportFormat.fromContentType(contentType)));
+    }
+}
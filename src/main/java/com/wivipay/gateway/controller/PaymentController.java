@@ -9,11 +9,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -29,6 +34,8 @@ public class PaymentController {
         @ApiResponse(responseCode = "200", description = "Pagamento autorizado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "402", description = "Pagamento recusado pelo provedor"),
+        @ApiResponse(responseCode = "503", description = "Provedor indisponível"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PostMapping("/authorize")
@@ -42,6 +49,8 @@ public class PaymentController {
         @ApiResponse(responseCode = "200", description = "Pagamento capturado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "402", description = "Pagamento recusado pelo provedor"),
+        @ApiResponse(responseCode = "503", description = "Provedor indisponível"),
         @ApiResponse(responseCode = "404", description = "Transação não encontrada"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
@@ -56,6 +65,8 @@ public class PaymentController {
         @ApiResponse(responseCode = "200", description = "Pagamento estornado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "402", description = "Pagamento recusado pelo provedor"),
+        @ApiResponse(responseCode = "503", description = "Provedor indisponível"),
         @ApiResponse(responseCode = "404", description = "Transação não encontrada"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
@@ -67,14 +78,46 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.refund(transactionId, amount));
     }
 
+    @GetMapping
+    @PreAuthorize("hasAuthority('SCOPE_payments:read')")
+    @Operation(summary = "Listar pagamentos por período", description = "Lista os pagamentos criados em [from, to), mais recentes primeiro")
+    @ApiResponse(responseCode = "200", description = "Pagamentos do período")
+    @ApiResponse(responseCode = "400", description = "Período ou tamanho inválido")
+    @ApiResponse(responseCode = "401", description = "Não autorizado")
+    public ResponseEntity<List<PaymentResponse>> listPayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(paymentService.listPayments(from, to, size));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('SCOPE_payments:read')")
+    @Operation(summary = "Buscar pagamentos por metadado", description = "Lista os pagamentos com o metadado key igual a value (ex.: key=orderId), mais recentes primeiro")
+    @ApiResponse(responseCode = "200", description = "Pagamentos encontrados")
+    @ApiResponse(responseCode = "400", description = "Chave, valor ou tamanho inválido")
+    @ApiResponse(responseCode = "401", description = "Não autorizado")
+    public ResponseEntity<List<PaymentResponse>> searchByMetadata(
+            @RequestParam String key,
+            @RequestParam String value,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(paymentService.searchByMetadata(key, value, size));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('SCOPE_payments:read')")
     @Operation(summary = "Consultar pagamento", description = "Consulta o status de um pagamento")
     @ApiResponse(responseCode = "200", description = "Pagamento encontrado")
+    @ApiResponse(responseCode = "304", description = "Pagamento não mudou desde o ETag de If-None-Match")
     @ApiResponse(responseCode = "404", description = "Transação não encontrada")
     @ApiResponse(responseCode = "401", description = "Não autorizado")
-    public ResponseEntity<PaymentResponse> getPayment(@PathVariable UUID id) {
+    public ResponseEntity<PaymentResponse> getPayment(@PathVariable UUID id, WebRequest request) {
+        // Confere a versão antes de carregar e serializar o pagamento
+        String etag = paymentService.getPaymentETag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         PaymentResponse payment = paymentService.getPayment(id);
-        return ResponseEntity.ok(payment);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(etag).body(payment);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.wivipay.gateway.controller;
+
+import com.wivipay.gateway.dto.ReconciliationReport;
+import com.wivipay.gateway.service.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/reconciliations")
+@RequiredArgsConstructor
+@Tag(name = "Conciliação", description = "Conciliação dos arquivos de liquidação dos provedores")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @Operation(summary = "Conciliar arquivo de liquidação",
+               description = "CSV com transactionId, amount, currency, status. Compara com as transações do "
+                       + "provedor criadas em [from, to) e aponta ausentes, valores e status divergentes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conciliação concluída"),
+        @ApiResponse(responseCode = "400", description = "Provedor ou período inválido"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @PostMapping(value = "/{provider}", consumes = "text/csv")
+    @PreAuthorize("hasAuthority('SCOPE_payments:read')")
+    public ResponseEntity<ReconciliationReport> reconcile(
+            @PathVariable String provider,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            InputStream body) {
+        return ResponseEntity.ok(reconciliationService.reconcile(provider, from, to, body));
+    }
+
+    @Operation(summary = "Baixar divergências", description = "CSV com todas as divergências da conciliação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arquivo de divergências"),
+        @ApiResponse(responseCode = "404", description = "Conciliação não encontrada ou expirada")
+    })
+    @GetMapping(value = "/{reconciliationId}/mismatches", produces = "text/csv")
+    @PreAuthorize("hasAuthority('SCOPE_payments:read')")
+    public ResponseEntity<Resource> mismatches(@PathVariable UUID reconciliationId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("divergencias-" + reconciliationId + ".csv").build().toString())
+                .body(new FileSystemResource(reconciliationService.mismatchesFile(reconciliationId)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.wivipay.gateway.controller;
+
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import com.wivipay.gateway.exception.WebhookSignatureException;
+import com.wivipay.gateway.webhook.ProviderWebhook;
+import com.wivipay.gateway.webhook.WebhookInbox;
+import com.wivipay.gateway.webhook.WebhookNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recebe as notificações dos provedores. Só verifica a assinatura e grava o evento na fila
+ * ({@link WebhookInbox}); a mudança de status é aplicada em lote pelo WebhookEventProcessor.
+ */
+@RestController
+@RequestMapping("/webhooks")
+@Tag(name = "Webhooks", description = "Notificações dos provedores de pagamento")
+public class WebhookController {
+
+    private final Map<String, ProviderWebhook> webhooks;
+    private final WebhookInbox inbox;
+    private final MeterRegistry meterRegistry;
+
+    public WebhookController(List<ProviderWebhook> webhooks, WebhookInbox inbox, MeterRegistry meterRegistry) {
+        this.webhooks = webhooks.stream().collect(Collectors.toMap(ProviderWebhook::provider, Function.identity()));
+        this.inbox = inbox;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Operation(summary = "Receber notificação", description = "Endpoint cadastrado na Stripe, no PayPal e na Cielo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Notificação recebida"),
+        @ApiResponse(responseCode = "401", description = "Assinatura inválida"),
+        @ApiResponse(responseCode = "404", description = "Provedor desconhecido")
+    })
+    @PostMapping("/{provider}")
+    public ResponseEntity<Void> receive(@PathVariable String provider,
+                                        @RequestHeader HttpHeaders headers,
+                                        @RequestBody String body) {
+        ProviderWebhook webhook = webhooks.get(provider);
+        if (webhook == null) {
+            throw new ResourceNotFoundException("Provedor de notificações desconhecido: " + provider);
+        }
+        Optional<WebhookNotification> notification;
+        try {
+            notification = webhook.parse(headers, body);
+        } catch (WebhookSignatureException e) {
+            count(provider, "rejected");
+            throw e;
+        }
+        // Eventos sem efeito no pagamento e reenvios também recebem 200, senão o provedor insiste
+        if (notification.isEmpty()) {
+            count(provider, "ignored");
+        } else {
+            count(provider, inbox.enqueue(notification.get()) ? "queued" : "duplicate");
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private void count(String provider, String outcome) {
+        meterRegistry.counter("wivipay.webhooks.received", "provider", provider, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,145 @@
+package com.wivipay.gateway.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ativado quando há réplicas em {@code wivipay.datasource.replicas} ou pools por carga de trabalho
+ * em {@code wivipay.datasource.workloads}; sem nenhum dos dois o DataSource continua sendo o do
+ * Spring Boot. Cada pool registra as métricas {@code hikaricp.*} com a tag {@code pool}.
+ * <p>
+ * Camadas: proxy preguiçoso → leitura/escrita (se houver réplicas) → carga de trabalho (se houver
+ * pools próprios) → pools Hikari.
+ */
+@Configuration
+@Conditional(DataSourceRoutingConfig.RoutingConfigured.class)
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaPools replicaPools,
+                                               DataSourceRoutingProperties properties,
+                                               MeterRegistry meterRegistry) {
+        // Primeira medição no agendador, logo após a subida: medir aqui seguraria a inicialização até o
+        // timeout de conexão de cada réplica fora do ar. Até lá as leituras vão para o primário
+        return new ReplicaLagMonitor(replicaPools.pools(), properties.getLagQuery(), meterRegistry);
+    }
+
+    @Bean
+    public ReplicaPools replicaPools(DataSourceRoutingProperties properties, MeterRegistry meterRegistry) {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(name);
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername());
+            config.setPassword(replica.getPassword());
+            if (replica.getDriverClassName() != null) {
+                config.setDriverClassName(replica.getDriverClassName());
+            }
+            config.setMaximumPoolSize(replica.getMaximumPoolSize());
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(name, new HikariDataSource(config));
+        }
+        return new ReplicaPools(pools);
+    }
+
+    @Bean
+    public DataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                        Environment environment,
+                                        ReplicaPools replicaPools,
+                                        ReplicaLagMonitor replicaLagMonitor,
+                                        DataSourceRoutingProperties properties,
+                                        MeterRegistry meterRegistry) {
+        HikariDataSource defaultPool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // Mesmas opções de spring.datasource.hikari que o pool padrão do Spring Boot usaria
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(defaultPool));
+        defaultPool.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        defaultPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        DataSource primary = defaultPool;
+        if (!properties.getWorkloads().isEmpty()) {
+            primary = new WorkloadRoutingDataSource(defaultPool, workloadPools(defaultPool, properties, meterRegistry));
+        }
+        if (replicaPools.pools().isEmpty()) {
+            return primary;
+        }
+        return new ReadWriteRoutingDataSource(primary, replicaPools.pools(), replicaLagMonitor, properties,
+                DataSourceRoutingConfig::currentUser, System::currentTimeMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static Map<WorkloadType, DataSource> workloadPools(HikariDataSource defaultPool,
+                                                               DataSourceRoutingProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        Map<WorkloadType, DataSource> pools = new EnumMap<>(WorkloadType.class);
+        properties.getWorkloads().forEach((workload, pool) -> {
+            // URL, credenciais e demais opções vêm do pool padrão; só tamanho e espera mudam
+            HikariConfig config = new HikariConfig();
+            defaultPool.copyStateTo(config);
+            config.setPoolName(workload.poolName());
+            config.setMaximumPoolSize(pool.getMaximumPoolSize());
+            config.setMinimumIdle(pool.getMinimumIdle() != null ? pool.getMinimumIdle() : pool.getMaximumPoolSize());
+            config.setConnectionTimeout(pool.getAcquireTimeout().toMillis());
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(workload, new HikariDataSource(config));
+        });
+        return pools;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    /**
+     * Pools das réplicas, fechados junto com o contexto pelo {@link ReadWriteRoutingDataSource}.
+     */
+    public record ReplicaPools(Map<String, DataSource> pools) {
+    }
+
+    static class RoutingConfigured implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return Binder.get(context.getEnvironment())
+                    .bind("wivipay.datasource", DataSourceRoutingProperties.class)
+                    .map(properties -> !properties.getReplicas().isEmpty() || !properties.getWorkloads().isEmpty())
+                    .orElse(false);
+        }
+    }
+}
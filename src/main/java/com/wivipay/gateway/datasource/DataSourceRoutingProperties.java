@@ -0,0 +1,54 @@
+package com.wivipay.gateway.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.datasource")
+public class DataSourceRoutingProperties {
+
+    // Réplicas de leitura; sem nenhuma configurada, tudo vai para o primário (spring.datasource)
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Após uma escrita, leituras do mesmo usuário vão ao primário por esta janela (read-your-writes)
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    // Réplicas com atraso maior que este saem do rodízio até alcançarem o primário
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    // Consulta executada na réplica que devolve o atraso em segundos; vazia = atraso zero (ex.: H2)
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    // Pools próprios no primário por carga de trabalho (@Workload); cargas fora do mapa usam o pool padrão
+    private Map<WorkloadType, WorkloadPool> workloads = new EnumMap<>(WorkloadType.class);
+
+    @Data
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+
+    @Data
+    public static class WorkloadPool {
+
+        private int maximumPoolSize = 10;
+        // null = igual ao máximo (pool de tamanho fixo, recomendação do Hikari)
+        private Integer minimumIdle;
+        // Tempo máximo esperando uma conexão livre antes de falhar a requisição
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,134 @@
+package com.wivipay.gateway.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Envia transações {@code readOnly} para uma réplica (rodízio entre as que estão dentro do atraso
+ * máximo) e todo o resto para o primário.
+ * <p>
+ * A decisão depende do flag de somente leitura da transação, que o Spring só publica depois de
+ * abrir a conexão; por isso este roteador deve ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Duration readYourWritesWindow;
+    private final Duration maxReplicaLag;
+    private final Supplier<String> sessionKey;
+    private final LongSupplier clock;
+
+    // Última escrita por usuário, para read-your-writes; entradas vencidas são podadas em purge()
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter recentWriteReads;
+    private final Counter fallbackReads;
+    private final Map<String, Counter> replicaReads = new HashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      Map<String, DataSource> replicas,
+                                      ReplicaLagMonitor lagMonitor,
+                                      DataSourceRoutingProperties properties,
+                                      Supplier<String> sessionKey,
+                                      LongSupplier clock,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesWindow = properties.getReadYourWritesWindow();
+        this.maxReplicaLag = properties.getMaxReplicaLag();
+        this.sessionKey = sessionKey;
+        this.clock = clock;
+
+        writes = routed(meterRegistry, PRIMARY, "write");
+        recentWriteReads = routed(meterRegistry, PRIMARY, "recent-write");
+        fallbackReads = routed(meterRegistry, PRIMARY, "replica-unavailable");
+        replicaNames.forEach(name -> replicaReads.put(name, routed(meterRegistry, name, "read")));
+
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                lastWrites.put(sessionKey.get(), clock.getAsLong());
+            }
+            writes.increment();
+            return PRIMARY;
+        }
+
+        Long lastWrite = lastWrites.get(sessionKey.get());
+        if (lastWrite != null && clock.getAsLong() - lastWrite < readYourWritesWindow.toMillis()) {
+            recentWriteReads.increment();
+            return PRIMARY;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicaNames.size());
+        for (int i = 0; i < replicaNames.size(); i++) {
+            String name = replicaNames.get((start + i) % replicaNames.size());
+            if (lagMonitor.isWithin(name, maxReplicaLag)) {
+                replicaReads.get(name).increment();
+                return name;
+            }
+        }
+        fallbackReads.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Remove marcas de escrita que já saíram da janela de read-your-writes.
+     */
+    @Scheduled(fixedDelayString = "${wivipay.datasource.lag-check-interval:PT1S}")
+    public void purge() {
+        long expired = clock.getAsLong() - readYourWritesWindow.toMillis();
+        lastWrites.values().removeIf(lastWrite -> lastWrite <= expired);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("wivipay.datasource.routing")
+                .description("Conexões entregues por destino e motivo da escolha")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
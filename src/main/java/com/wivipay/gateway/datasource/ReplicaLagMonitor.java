@@ -0,0 +1,67 @@
+package com.wivipay.gateway.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mede periodicamente o atraso de replicação de cada réplica. Réplica que não responde ou que
+ * ainda não foi medida conta como indisponível, e as leituras vão para o primário.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final double UNAVAILABLE = Double.NaN;
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, String lagQuery, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        replicas.keySet().forEach(name -> {
+            lagSeconds.put(name, UNAVAILABLE);
+            Gauge.builder("wivipay.datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(name, UNAVAILABLE))
+                    .description("Atraso de replicação medido, em segundos (NaN = indisponível)")
+                    .tag("pool", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${wivipay.datasource.lag-check-interval:PT1S}")
+    public void check() {
+        replicas.forEach((name, dataSource) -> lagSeconds.put(name, measure(name, dataSource)));
+    }
+
+    public boolean isWithin(String replica, Duration maxLag) {
+        double lag = lagSeconds.getOrDefault(replica, UNAVAILABLE);
+        return !Double.isNaN(lag) && lag * 1000 <= maxLag.toMillis();
+    }
+
+    private double measure(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(1) ? 0 : UNAVAILABLE;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(lagQuery)) {
+                return result.next() ? result.getDouble(1) : UNAVAILABLE;
+            }
+        } catch (SQLException e) {
+            log.warn("Réplica {} indisponível: {}", name, e.getMessage());
+            return UNAVAILABLE;
+        }
+    }
+}
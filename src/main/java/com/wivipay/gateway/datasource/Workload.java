@@ -0,0 +1,22 @@
+package com.wivipay.gateway.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indica de qual pool de conexões o serviço (ou método) deve usar. Na anotação de método vale
+ * sobre a da classe; chamadas aninhadas usam a classe mais interna até retornarem.
+ * <p>
+ * A conexão é escolhida no primeiro comando SQL da transação: um serviço de outra classe chamado
+ * dentro de uma transação já aberta continua na conexão dela.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Workload {
+
+    WorkloadType value();
+}
@@ -0,0 +1,40 @@
+package com.wivipay.gateway.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica em {@link WorkloadContext} a carga de trabalho de serviços anotados com {@link Workload}.
+ * Roda antes do {@code @Transactional}, para que a conexão da transação já saia do pool certo.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+    @Around("@within(com.wivipay.gateway.datasource.Workload) || @annotation(com.wivipay.gateway.datasource.Workload)")
+    public Object withWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload workload = resolve(joinPoint);
+        WorkloadType previous = WorkloadContext.enter(workload.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private static Workload resolve(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Workload onMethod = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Workload.class);
+        if (onMethod != null) {
+            return onMethod;
+        }
+        return AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Workload.class);
+    }
+}
@@ -0,0 +1,34 @@
+package com.wivipay.gateway.datasource;
+
+/**
+ * Carga de trabalho da thread atual, definida pelo {@link WorkloadAspect}. {@code null} quando
+ * nenhum serviço anotado está na pilha; nesse caso vale o pool padrão.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Define a carga de trabalho e devolve a anterior, a ser passada para {@link #restore}.
+     */
+    static WorkloadType enter(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.wivipay.gateway.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entrega a conexão do pool da carga de trabalho atual ({@link WorkloadContext}). Cargas sem pool
+ * próprio, e código fora de serviços anotados, usam o pool padrão.
+ * <p>
+ * Assim como o {@link ReadWriteRoutingDataSource}, precisa ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final DataSource defaultPool;
+    private final Map<WorkloadType, DataSource> pools;
+
+    public WorkloadRoutingDataSource(DataSource defaultPool, Map<WorkloadType, DataSource> pools) {
+        this.defaultPool = defaultPool;
+        this.pools = pools;
+        setTargetDataSources(new LinkedHashMap<>(pools));
+        setDefaultTargetDataSource(defaultPool);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools.values()) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (defaultPool instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.wivipay.gateway.datasource;
+
+public enum WorkloadType {
+    // Caminho quente: autorização, captura e estorno
+    PAYMENTS,
+    // Cadastro e listagens de clientes e cartões (back-office)
+    CRUD,
+    // Gravação e consulta dos logs de auditoria
+    LOGGING;
+
+    /**
+     * Nome do pool Hikari, usado na tag {@code pool} das métricas {@code hikaricp.*}.
+     */
+    public String poolName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,36 @@
+package com.wivipay.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@Schema(description = "Resposta de erro")
+public class ErrorResponse {
+    
+    @Schema(description = "Status HTTP", example = "400")
+    private int status;
+    
+    @Schema(description = "Código do erro", example = "VALIDATION_ERROR")
+    private String code;
+    
+    @Schema(description = "Mensagem do erro", example = "Moeda é obrigatória")
+    private String message;
+    
+    @Schema(description = "Todas as violações de validação encontradas")
+    private List<String> violations;
+    
+    @Schema(description = "Código de recusa informado pelo provedor", example = "card_declined")
+    private String declineCode;
+    
+    @Schema(description = "Momento do erro", example = "2024-01-15T10:30:00Z")
+    private Instant timestamp;
+}
@@ -0,0 +1,50 @@
+package com.wivipay.gateway.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de uma importação em lote")
+public class ImportReport {
+
+    @Schema(description = "ID da importação", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID importId;
+
+    @Schema(description = "Registros lidos do arquivo", example = "100000")
+    private long totalRows;
+
+    @Schema(description = "Registros gravados", example = "99870")
+    private long created;
+
+    @Schema(description = "Registros já cadastrados, ignorados sem erro", example = "120")
+    private long skipped;
+
+    @Schema(description = "Registros rejeitados (ver errors)", example = "10")
+    private long rejected;
+
+    @Schema(description = "Erros por registro, em ordem de linha")
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Erro de um registro da importação")
+    public static class RowError {
+
+        @Schema(description = "Número do registro no arquivo (1 = primeiro após o cabeçalho)", example = "42")
+        private long line;
+
+        @Schema(description = "Chave do registro (ID externo do cliente ou ID do cartão no provedor)", example = "CLI042")
+        private String key;
+
+        @Schema(description = "Motivo da rejeição", example = "Email já cadastrado")
+        private String message;
+    }
+}
@@ -1,5 +1,8 @@
 package com.wivipay.gateway.dto;
 
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.ProviderType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -7,8 +10,6 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -48,47 +49,39 @@ public class PaymentRequest {
     @Schema(description = "Metadados adicionais", example = "{\"orderId\": \"123\"}")
     private String metadata;
     
+    @Min(value = 1, message = "O prazo da captura automática deve ser de pelo menos 1 minuto")
+    @Max(value = 43200, message = "O prazo da captura automática não pode exceder 30 dias")
+    @Schema(description = "Captura automática, em minutos após a autorização; sem ele a captura fica com o lojista", example = "120")
+    private Integer captureDelayMinutes;
+    
     // Validações de negócio
     @AssertTrue(message = "Valor e moeda devem ser compatíveis")
     public boolean isAmountAndCurrencyCompatible() {
-        if (amount == null || currency == null) {
+        CurrencyCode currencyCode = CurrencyCode.fromCode(currency);
+        if (amount == null || currencyCode == null) {
             return true; // Validação básica já tratada
         }
         
-        // BRL: máximo 2 casas decimais
-        if ("BRL".equals(currency)) {
-            return amount.scale() <= 2;
-        }
-        
-        // USD, EUR, GBP: máximo 2 casas decimais
-        if (Arrays.asList("USD", "EUR", "GBP").contains(currency)) {
-            return amount.scale() <= 2;
-        }
-        
-        return true;
+        // Casas decimais conforme a moeda (2 para BRL, USD, EUR e GBP)
+        return amount.scale() <= currencyCode.getFractionDigits();
     }
     
     @AssertTrue(message = "Provedor e moeda devem ser compatíveis")
     public boolean isProviderAndCurrencyCompatible() {
-        if (provider == null || currency == null) {
+        ProviderType providerType = ProviderType.fromCode(provider);
+        CurrencyCode currencyCode = CurrencyCode.fromCode(currency);
+        if (providerType == null || currencyCode == null) {
             return true; // Validação básica já tratada
         }
         
-        // Cielo: apenas BRL
-        if ("cielo".equals(provider) && !"BRL".equals(currency)) {
-            return false;
-        }
-        
-        // Stripe: todas as moedas suportadas
-        if ("stripe".equals(provider)) {
-            return Arrays.asList("BRL", "USD", "EUR", "GBP").contains(currency);
-        }
-        
-        // PayPal: todas as moedas suportadas
-        if ("paypal".equals(provider)) {
-            return Arrays.asList("BRL", "USD", "EUR", "GBP").contains(currency);
-        }
-        
-        return true;
+        // Cielo: apenas BRL; Stripe e PayPal: todas as moedas suportadas
+        return providerType.supports(currencyCode);
+    }
+    
+    /**
+     * Valor em unidades mínimas da moeda; chamar só depois da validação de valor e moeda.
+     */
+    public Money toMoney() {
+        return Money.of(amount, CurrencyCode.fromCode(currency));
     }
 } 
\ No newline at end of file
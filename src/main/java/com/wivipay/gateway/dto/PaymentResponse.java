@@ -1,9 +1,15 @@
 package com.wivipay.gateway.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
 import com.wivipay.gateway.model.PaymentTransaction;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
@@ -24,11 +30,9 @@ public class PaymentResponse {
     @Schema(description = "ID da transação no provedor", example = "123456789")
     private String providerTransactionId;
     
-    @Schema(description = "Valor do pagamento", example = "100.00")
-    private BigDecimal amount;
-    
-    @Schema(description = "Moeda do pagamento", example = "BRL")
-    private String currency;
+    // Valor e moeda como Money; só viram amount/currency na serialização (ver getAmount/getCurrency)
+    @JsonIgnore
+    private Money money;
     
     @Schema(description = "Status do pagamento", example = "AUTHORIZED")
     private PaymentTransaction.PaymentStatus status;
@@ -48,9 +52,42 @@ public class PaymentResponse {
     @Schema(description = "Mensagem de erro, se houver", example = "Cartão recusado")
     private String errorMessage;
     
+    @Schema(description = "Data agendada para a captura automática, se pedida")
+    private LocalDateTime captureAt;
+    
+    @Schema(description = "Fim da validade da autorização no provedor")
+    private LocalDateTime expiresAt;
+    
     @Schema(description = "Data de criação da transação")
     private LocalDateTime createdAt;
     
     @Schema(description = "Data da última atualização")
     private LocalDateTime updatedAt;
+    
+    // Corpo da resposta do provedor, guardado em payment_payloads; nunca sai na API
+    @JsonIgnore
+    @ToString.Exclude
+    private String rawPayload;
+    
+    @JsonProperty("amount")
+    @Schema(description = "Valor do pagamento", example = "100.00")
+    public BigDecimal getAmount() {
+        return money == null ? null : money.toBigDecimal();
+    }
+    
+    @JsonProperty("currency")
+    @Schema(description = "Moeda do pagamento", example = "BRL")
+    public String getCurrency() {
+        return money == null ? null : money.currency().name();
+    }
+    
+    // Leitura do JSON (clientes e benchmarks): amount e currency chegam separados e só juntos formam o Money
+    @JsonCreator
+    static PaymentResponse fromJson(@JsonProperty("amount") BigDecimal amount, @JsonProperty("currency") String currency) {
+        PaymentResponse response = new PaymentResponse();
+        if (amount != null && currency != null) {
+            response.setMoney(Money.of(amount, CurrencyCode.fromCode(currency)));
+        }
+        return response;
+    }
 } 
\ No newline at end of file
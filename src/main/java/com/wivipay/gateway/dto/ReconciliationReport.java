@@ -0,0 +1,67 @@
+package com.wivipay.gateway.dto;
+
+import com.wivipay.gateway.reconciliation.Mismatch;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da conciliação de um arquivo de liquidação")
+public class ReconciliationReport {
+
+    @Schema(description = "ID da conciliação; as divergências completas estão em /reconciliations/{id}/mismatches",
+            example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID reconciliationId;
+
+    @Schema(description = "Provedor", example = "stripe")
+    private String provider;
+
+    @Schema(description = "Início do período (inclusivo), em created_at")
+    private LocalDateTime from;
+
+    @Schema(description = "Fim do período (exclusivo)")
+    private LocalDateTime to;
+
+    @Schema(description = "Linhas válidas do arquivo", example = "1000000")
+    private long settlementRows;
+
+    @Schema(description = "Transações do gateway no período", example = "1000250")
+    private long gatewayRows;
+
+    @Schema(description = "Linhas que conferem em valor e status", example = "999990")
+    private long matched;
+
+    @Schema(description = "Linhas sem transação no gateway", example = "2")
+    private long missingInGateway;
+
+    @Schema(description = "Transações liquidáveis (capturadas, estornadas, contestadas) fora do arquivo", example = "5")
+    private long missingInSettlement;
+
+    @Schema(description = "Valor ou moeda diferentes", example = "3")
+    private long amountDiffers;
+
+    @Schema(description = "Status diferentes", example = "4")
+    private long statusDiffers;
+
+    @Schema(description = "Transações repetidas no arquivo", example = "1")
+    private long duplicates;
+
+    @Schema(description = "Linhas rejeitadas (ver errors)", example = "0")
+    private long rejected;
+
+    @Schema(description = "Período grande demais para a memória, conciliado em partições no disco")
+    private boolean spilled;
+
+    @Schema(description = "Primeiras divergências, até wivipay.reconciliation.report-limit")
+    private List<Mismatch> mismatches;
+
+    @Schema(description = "Linhas rejeitadas, em ordem de linha, até o mesmo limite")
+    private List<ImportReport.RowError> errors;
+}
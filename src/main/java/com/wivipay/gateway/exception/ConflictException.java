@@ -0,0 +1,11 @@
+package com.wivipay.gateway.exception;
+
+/**
+ * Operação em conflito com o estado atual, como cadastro duplicado.
+ */
+public class ConflictException extends GatewayException {
+
+    public ConflictException(String message) {
+        super("CONFLICT", message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.wivipay.gateway.exception;
+
+/**
+ * Base das exceções de domínio do gateway, mapeadas para respostas HTTP pelo {@link GlobalExceptionHandler}.
+ * <p>
+ * Não preenchem stack trace: o tipo, o código e a mensagem já identificam a falha, e preencher a
+ * pilha a cada requisição inválida ou recusada custa mais CPU do que o próprio tratamento. Quando há
+ * uma causa (erro de I/O, SDK do provedor), ela é mantida com a pilha original.
+ */
+public abstract class GatewayException extends RuntimeException {
+
+    private final String code;
+
+    protected GatewayException(String code, String message) {
+        this(code, message, null);
+    }
+
+    protected GatewayException(String code, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,176 @@
+package com.wivipay.gateway.exception;
+
+import com.wivipay.gateway.dto.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Converte as exceções de domínio em respostas HTTP com corpo {@link ErrorResponse}.
+ * <p>
+ * Falhas esperadas (validação, recurso inexistente, recusa do provedor) são registradas numa linha,
+ * sem stack trace; só erros inesperados vão para o log com a pilha completa.
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Única restrição que falha por corrida entre requisições (troca de cartão padrão, verificada no commit)
+    static final String DEFAULT_CARD_CONSTRAINT = "credit_cards_single_default_per_customer";
+    // exclusion_violation do PostgreSQL; só a restrição acima é de exclusão
+    static final String EXCLUSION_VIOLATION = "23P01";
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ErrorResponse> handleValidation(ValidationException e) {
+        log.debug("Requisição inválida: {}", e.getViolations());
+        return respond(HttpStatus.BAD_REQUEST, e.getCode(), e.getMessage(), e.getViolations(), null);
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(ResourceNotFoundException e) {
+        log.debug("Recurso não encontrado: {}", e.getMessage());
+        return respond(HttpStatus.NOT_FOUND, e.getCode(), e.getMessage(), null, null);
+    }
+
+    @ExceptionHandler(WebhookSignatureException.class)
+    public ResponseEntity<ErrorResponse> handleWebhookSignature(WebhookSignatureException e) {
+        log.warn("Notificação rejeitada: {}", e.getMessage());
+        return respond(HttpStatus.UNAUTHORIZED, e.getCode(), e.getMessage(), null, null);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(ConflictException e) {
+        log.debug("Conflito: {}", e.getMessage());
+        return respond(HttpStatus.CONFLICT, e.getCode(), e.getMessage(), null, null);
+    }
+
+    // Versão desatualizada: outra requisição alterou o mesmo registro
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentModification(RuntimeException e) {
+        log.warn("Alteração concorrente rejeitada pelo banco: {}", e.getClass().getSimpleName());
+        return respond(HttpStatus.CONFLICT, "CONFLICT", "Registro alterado por outra requisição; tente novamente", null, null);
+    }
+
+    // Só a restrição do cartão padrão indica corrida; as demais (NOT NULL, tamanho, chave) são dado que a
+    // validação deixou passar, e repetir a requisição daria o mesmo erro
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleIntegrityViolation(DataIntegrityViolationException e) {
+        if (isDefaultCardRace(e)) {
+            return handleConcurrentModification(e);
+        }
+        log.error("Restrição do banco violada", e);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Erro interno do servidor", null, null);
+    }
+
+    @ExceptionHandler(ProviderDeclinedException.class)
+    public ResponseEntity<ErrorResponse> handleDeclined(ProviderDeclinedException e) {
+        return respond(HttpStatus.PAYMENT_REQUIRED, e.getCode(), e.getMessage(), null, e.getDeclineCode());
+    }
+
+    @ExceptionHandler(ProviderUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUnavailable(ProviderUnavailableException e) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (e.getRetryAfter() != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, e.getRetryAfter().toSeconds())));
+        }
+        return builder.body(body(HttpStatus.SERVICE_UNAVAILABLE, e.getCode(), e.getMessage(), null, null));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimit(RateLimitExceededException e) {
+        // Arredondado para cima: repetir antes do Retry-After seria recusado de novo
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(body(HttpStatus.TOO_MANY_REQUESTS, e.getCode(), e.getMessage(), null, null));
+    }
+
+    // Pool da carga de trabalho esgotado (acquire-timeout) ou banco fora do ar: o cliente pode repetir
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(RuntimeException e) {
+        log.warn("Sem conexão com o banco: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body(HttpStatus.SERVICE_UNAVAILABLE, "DATABASE_UNAVAILABLE", "Banco de dados indisponível; tente novamente", null, null));
+    }
+
+    @ExceptionHandler({
+        MethodArgumentNotValidException.class,
+        MethodArgumentTypeMismatchException.class,
+        MissingServletRequestParameterException.class,
+        HttpMessageNotReadableException.class
+    })
+    public ResponseEntity<ErrorResponse> handleBadRequest(Exception e) {
+        if (e instanceof MethodArgumentNotValidException invalid) {
+            List<String> violations = invalid.getBindingResult().getAllErrors().stream()
+                    .map(error -> error.getDefaultMessage())
+                    .toList();
+            return respond(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", violations.isEmpty() ? "Requisição inválida" : violations.get(0), violations, null);
+        }
+        if (e instanceof MethodArgumentTypeMismatchException mismatch) {
+            return respond(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Parâmetro inválido: " + mismatch.getName(), null, null);
+        }
+        if (e instanceof MissingServletRequestParameterException missing) {
+            return respond(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Parâmetro obrigatório: " + missing.getParameterName(), null, null);
+        }
+        return respond(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Corpo da requisição inválido", null, null);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleUnexpected(Exception e) throws Exception {
+        // Erros de segurança seguem para os handlers do Spring Security
+        if (e instanceof AccessDeniedException || e instanceof AuthenticationException) {
+            throw e;
+        }
+        // Exceções do Spring MVC que já carregam o status (rota inexistente, método não suportado)
+        if (e instanceof org.springframework.web.ErrorResponse errorResponse) {
+            HttpStatusCode status = errorResponse.getStatusCode();
+            return ResponseEntity.status(status)
+                    .body(body(status, "REQUEST_ERROR", errorResponse.getBody().getDetail(), null, null));
+        }
+        log.error("Erro inesperado ao processar requisição", e);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Erro interno do servidor", null, null);
+    }
+
+    static boolean isDefaultCardRace(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && DEFAULT_CARD_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, String code, String message,
+                                                         List<String> violations, String declineCode) {
+        return ResponseEntity.status(status).body(body(status, code, message, violations, declineCode));
+    }
+
+    private static ErrorResponse body(HttpStatusCode status, String code, String message,
+                                      List<String> violations, String declineCode) {
+        return new ErrorResponse(status.value(), code, message, violations, declineCode, Instant.now());
+    }
+}
@@ -0,0 +1,24 @@
+package com.wivipay.gateway.exception;
+
+/**
+ * O provedor recebeu e recusou a operação (cartão recusado, token inválido, valor não permitido).
+ */
+public class ProviderDeclinedException extends GatewayException {
+
+    private final String provider;
+    private final String declineCode;
+
+    public ProviderDeclinedException(String provider, String declineCode, String message) {
+        super("PAYMENT_DECLINED", message);
+        this.provider = provider;
+        this.declineCode = declineCode;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getDeclineCode() {
+        return declineCode;
+    }
+}
@@ -0,0 +1,51 @@
+package com.wivipay.gateway.exception;
+
+import java.time.Duration;
+
+/**
+ * O provedor não respondeu a tempo, limitou a taxa ou falhou internamente; a operação pode ser repetida.
+ * <p>
+ * Sem resposta (timeout, erro 5xx) não se sabe se o provedor executou a operação; só recusas antes do
+ * processamento (conexão recusada, limite de taxa) são marcadas com {@link #isNotExecuted()}.
+ */
+public class ProviderUnavailableException extends GatewayException {
+
+    private final String provider;
+    private final Duration retryAfter;
+    private final boolean notExecuted;
+
+    public ProviderUnavailableException(String provider, String message, Throwable cause) {
+        this(provider, message, cause, null);
+    }
+
+    public ProviderUnavailableException(String provider, String message, Throwable cause, Duration retryAfter) {
+        this(provider, message, cause, retryAfter, false);
+    }
+
+    public ProviderUnavailableException(String provider, String message, Throwable cause, Duration retryAfter,
+                                        boolean notExecuted) {
+        super("PROVIDER_UNAVAILABLE", message, cause);
+        this.provider = provider;
+        this.retryAfter = retryAfter;
+        this.notExecuted = notExecuted;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * Espera sugerida pelo provedor ({@code Retry-After}), ou {@code null} quando não informada.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * {@code true} quando a requisição foi recusada antes de o provedor processá-la; {@code false} quando
+     * o resultado é desconhecido e a operação pode ter sido executada.
+     */
+    public boolean isNotExecuted() {
+        return notExecuted;
+    }
+}
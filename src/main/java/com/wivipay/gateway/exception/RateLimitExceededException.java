@@ -0,0 +1,20 @@
+package com.wivipay.gateway.exception;
+
+import java.time.Duration;
+
+/**
+ * O cliente passou do limite de requisições do endpoint; pode repetir depois de {@link #getRetryAfter()}.
+ */
+public class RateLimitExceededException extends GatewayException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super("RATE_LIMIT_EXCEEDED", message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.wivipay.gateway.exception;
+
+/**
+ * Recurso (cliente, cartão, transação) inexistente.
+ */
+public class ResourceNotFoundException extends GatewayException {
+
+    public ResourceNotFoundException(String message) {
+        super("NOT_FOUND", message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.wivipay.gateway.exception;
+
+import java.util.List;
+
+/**
+ * Falha de validação com todas as violações encontradas; a mensagem é a primeira delas.
+ */
+public class ValidationException extends GatewayException {
+
+    private final List<String> violations;
+
+    public ValidationException(String message) {
+        this(List.of(message));
+    }
+
+    public ValidationException(List<String> violations) {
+        super("VALIDATION_ERROR", violations.get(0));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
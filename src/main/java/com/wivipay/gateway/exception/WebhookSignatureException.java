@@ -0,0 +1,11 @@
+package com.wivipay.gateway.exception;
+
+/**
+ * Notificação de provedor com assinatura ausente ou inválida.
+ */
+public class WebhookSignatureException extends GatewayException {
+
+    public WebhookSignatureException(String message) {
+        super("INVALID_SIGNATURE", message);
+    }
+}
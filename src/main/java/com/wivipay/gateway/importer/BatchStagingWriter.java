@@ -0,0 +1,49 @@
+package com.wivipay.gateway.importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Insert com JDBC batch, para bancos sem COPY (H2 nos testes e no perfil local).
+ */
+class BatchStagingWriter implements StagingWriter {
+
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+
+    BatchStagingWriter(Connection connection, String table, List<String> columns, int batchSize) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        this.statement = connection.prepareStatement(
+                "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        if (++pending == batchSize) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+}
@@ -0,0 +1,109 @@
+package com.wivipay.gateway.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV no formato da RFC 4180: campos entre aspas podem conter vírgulas, quebras de linha e aspas
+ * duplicadas ({@code ""}). A primeira linha é o cabeçalho com os nomes dos campos.
+ */
+class CsvRecordReader implements ImportRecordReader {
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private List<String> header;
+    private long lineNumber;
+
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (header == null) {
+            header = readRow();
+            if (header == null) {
+                return null;
+            }
+            header.replaceAll(String::strip);
+        }
+
+        List<String> values;
+        do {
+            values = readRow();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+
+        lineNumber++;
+        if (values.size() != header.size()) {
+            return new ImportRecord(lineNumber, Map.of(), "Registro com " + values.size()
+                    + " campos; o cabeçalho tem " + header.size());
+        }
+        Map<String, String> fields = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                fields.put(header.get(i), values.get(i));
+            }
+        }
+        return new ImportRecord(lineNumber, fields, null);
+    }
+
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // Aspas sem fechamento no fim do arquivo: o campo vai até o fim
+                    values.add(field.toString());
+                    return values;
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                values.add(field.toString());
+                return values;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                values.add(field.toString());
+                return values;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
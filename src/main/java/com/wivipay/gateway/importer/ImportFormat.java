@@ -0,0 +1,38 @@
+package com.wivipay.gateway.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public enum ImportFormat {
+    // Primeira linha com os nomes dos campos, separados por vírgula (RFC 4180)
+    CSV("text/csv"),
+    // Um objeto JSON por linha
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    ImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+
+    public static ImportFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (ImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    public ImportRecordReader open(InputStream body, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        return this == CSV ? new CsvRecordReader(reader) : new NdjsonRecordReader(reader, objectMapper);
+    }
+}
@@ -0,0 +1,14 @@
+package com.wivipay.gateway.importer;
+
+import java.util.Map;
+
+/**
+ * Um registro lido do arquivo. Campos ausentes ou vazios não aparecem no mapa; {@code error}
+ * vem preenchido quando o próprio registro não pôde ser interpretado.
+ */
+public record ImportRecord(long lineNumber, Map<String, String> fields, String error) {
+
+    public String get(String field) {
+        return fields.get(field);
+    }
+}
@@ -0,0 +1,15 @@
+package com.wivipay.gateway.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lê o corpo da importação um registro por vez, sem carregar o arquivo em memória.
+ */
+public interface ImportRecordReader extends Closeable {
+
+    /**
+     * @return o próximo registro, ou {@code null} no fim do arquivo
+     */
+    ImportRecord next() throws IOException;
+}
@@ -0,0 +1,62 @@
+package com.wivipay.gateway.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Um objeto JSON por linha. Uma linha inválida vira erro só daquele registro; linhas em branco
+ * são ignoradas.
+ */
+class NdjsonRecordReader implements ImportRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        lineNumber++;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return new ImportRecord(lineNumber, Map.of(), "JSON inválido: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return new ImportRecord(lineNumber, Map.of(), "Registro deve ser um objeto JSON");
+        }
+
+        Map<String, String> fields = new HashMap<>(node.size() * 2);
+        node.fields().forEachRemaining(entry -> {
+            JsonNode value = entry.getValue();
+            if (!value.isNull() && !value.isContainerNode() && !value.asText().isEmpty()) {
+                fields.put(entry.getKey(), value.asText());
+            }
+        });
+        return new ImportRecord(lineNumber, fields, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.wivipay.gateway.importer;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Grava linhas na área de preparação pelo caminho mais rápido do banco: COPY no PostgreSQL,
+ * insert em lote (JDBC batch) nos demais.
+ */
+public interface StagingWriter extends AutoCloseable {
+
+    void write(Object... values) throws SQLException;
+
+    /**
+     * Envia o que estiver pendente; depois disso o writer não aceita mais linhas.
+     */
+    void finish() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    static StagingWriter open(Connection connection, String table, List<String> columns, int batchSize)
+            throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new CopyStagingWriter(connection.unwrap(PGConnection.class), table, columns);
+        }
+        return new BatchStagingWriter(connection, table, columns, batchSize);
+    }
+}
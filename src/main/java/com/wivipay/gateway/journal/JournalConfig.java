@@ -0,0 +1,36 @@
+package com.wivipay.gateway.journal;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfig {
+
+    @Bean
+    public PaymentJournal paymentJournal(JournalProperties properties, MeterRegistry meterRegistry) throws IOException {
+        if (!properties.isEnabled()) {
+            return PaymentJournal.disabled();
+        }
+        MappedPaymentJournal journal = new MappedPaymentJournal(Path.of(properties.getDirectory()),
+                Math.toIntExact(properties.getSegmentSize().toBytes()));
+        Gauge.builder("wivipay.journal.pending", journal, MappedPaymentJournal::pendingCount)
+                .description("Autorizações no diário ainda não confirmadas no banco")
+                .register(meterRegistry);
+        FunctionCounter.builder("wivipay.journal.records", journal, MappedPaymentJournal::recordCount)
+                .description("Registros acrescentados ao diário")
+                .register(meterRegistry);
+        // records / fsyncs = tamanho médio do grupo de cada fsync
+        FunctionCounter.builder("wivipay.journal.fsyncs", journal, MappedPaymentJournal::fsyncCount)
+                .description("Fsyncs do diário")
+                .register(meterRegistry);
+        return journal;
+    }
+}
@@ -0,0 +1,60 @@
+package com.wivipay.gateway.journal;
+
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.PaymentPayload;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resultado de uma autorização como gravado no diário: o suficiente para recriar a linha de
+ * {@code payment_transactions} com o mesmo id e a mesma data, e a resposta do provedor em
+ * {@code payment_payloads}.
+ */
+public record JournalEntry(UUID id,
+                           String provider,
+                           String providerTransactionId,
+                           long amountMinor,
+                           String currency,
+                           PaymentStatus status,
+                           String paymentMethod,
+                           String rawResponse,
+                           String description,
+                           String customerId,
+                           String metadata,
+                           LocalDateTime createdAt,
+                           LocalDateTime captureAt,
+                           LocalDateTime expiresAt) {
+
+    public static JournalEntry of(PaymentTransaction transaction, String rawResponse) {
+        return new JournalEntry(transaction.getId(), transaction.getProvider(), transaction.getProviderTransactionId(),
+                transaction.getAmountMinor(), transaction.getCurrency().name(), transaction.getStatus(),
+                transaction.getPaymentMethod(), rawResponse, transaction.getDescription(),
+                transaction.getCustomerId(), transaction.getMetadata(), transaction.getCreatedAt(),
+                transaction.getCaptureAt(), transaction.getExpiresAt());
+    }
+
+    public PaymentTransaction toTransaction() {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(id);
+        transaction.setProvider(provider);
+        transaction.setProviderTransactionId(providerTransactionId);
+        transaction.setAmountMinor(amountMinor);
+        transaction.setCurrency(CurrencyCode.fromCode(currency));
+        transaction.setStatus(status);
+        transaction.setPaymentMethod(paymentMethod);
+        transaction.setDescription(description);
+        transaction.setCustomerId(customerId);
+        transaction.setMetadata(metadata);
+        transaction.setCreatedAt(createdAt);
+        transaction.setCaptureAt(captureAt);
+        transaction.setExpiresAt(expiresAt);
+        return transaction;
+    }
+
+    public PaymentPayload toPayload() {
+        return rawResponse == null ? null : PaymentPayload.of(id, status, rawResponse, createdAt);
+    }
+}
@@ -0,0 +1,23 @@
+package com.wivipay.gateway.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.journal")
+public class JournalProperties {
+
+    private boolean enabled = true;
+
+    // Disco local da instância; cada instância reaplica o próprio diário
+    private String directory = "data/journal";
+
+    // Tamanho pré-alocado de cada segmento; segmentos sem pendências são apagados na troca
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    // Intervalo entre tentativas de gravar no banco as autorizações pendentes
+    private Duration replayInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,415 @@
+package com.wivipay.gateway.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wivipay.gateway.model.PaymentTransaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Diário em segmentos pré-alocados e mapeados em memória ({@code journal-<seq>.wal}).
+ *
+ * <p>Cada registro é {@code [tamanho][crc32][tipo][payload]}: {@code AUTHORIZED} com a transação em
+ * JSON, {@code APPLIED} com o id quando ela chega ao banco e {@code ABANDONED} quando o banco a recusa
+ * de vez. O fsync é em grupo: quem chega enquanto
+ * um {@code force} está em andamento espera o próximo, que cobre todos os registros acumulados.
+ * Na abertura os segmentos são relidos até o primeiro registro incompleto (crc inválido) e as
+ * autorizações sem {@code APPLIED} nem {@code ABANDONED} voltam como pendentes. Segmentos sem pendências são apagados.
+ */
+@Slf4j
+public class MappedPaymentJournal implements PaymentJournal, Closeable {
+
+    private static final int MAGIC = 0x57504A4E; // "WPJN"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER = 8;
+    private static final int RECORD_HEADER = 9;
+    private static final byte AUTHORIZED = 1;
+    private static final byte APPLIED = 2;
+    private static final byte ABANDONED = 3;
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    // Estado abaixo protegido por lock. Posições são LSNs: bytes acrescentados desde a abertura.
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<UUID, Pending> entries = new LinkedHashMap<>();
+    private Segment active;
+    private long written;
+    private long durable;
+    private boolean flushing;
+    private long records;
+    private long fsyncs;
+
+    public MappedPaymentJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    @Override
+    public boolean record(PaymentTransaction transaction, String rawResponse) {
+        JournalEntry entry = JournalEntry.of(transaction, rawResponse);
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(entry);
+            long position;
+            lock.lock();
+            try {
+                position = append(AUTHORIZED, payload);
+                entries.put(entry.id(), new Pending(entry, active, true));
+                active.pending++;
+            } finally {
+                lock.unlock();
+            }
+            awaitDurable(position);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            // Se o registro chegou ao disco, volta como pendente no próximo restart
+            forget(entry.id());
+            log.error("Falha ao gravar a transação {} no diário: {}", entry.id(), e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void applied(UUID transactionId) {
+        // Sem esperar o fsync: se o APPLIED se perder, a reaplicação encontra a transação no banco
+        complete(transactionId, APPLIED, "gravada");
+    }
+
+    @Override
+    public void abandon(UUID transactionId) {
+        // Sem esperar o fsync: se o ABANDONED se perder, a reaplicação recebe o mesmo erro e abandona de novo
+        complete(transactionId, ABANDONED, "abandonada");
+    }
+
+    @Override
+    public void release(UUID transactionId) {
+        lock.lock();
+        try {
+            Pending pending = entries.get(transactionId);
+            if (pending != null) {
+                pending.inFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<JournalEntry> pending() {
+        lock.lock();
+        try {
+            return entries.values().stream()
+                    .filter(pending -> !pending.inFlight)
+                    .map(pending -> pending.entry)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long recordCount() {
+        lock.lock();
+        try {
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long fsyncCount() {
+        lock.lock();
+        try {
+            return fsyncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            active.buffer.force();
+            durable = written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable(long position) {
+        lock.lock();
+        try {
+            while (durable < position) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                // Líder do grupo: um force cobre tudo o que foi acrescentado até aqui
+                flushing = true;
+                Segment segment = active;
+                long target = written;
+                int from = (int) Math.max(0, durable - segment.baseLsn);
+                int to = (int) (target - segment.baseLsn);
+                lock.unlock();
+                try {
+                    segment.buffer.force(from, to - from);
+                } finally {
+                    lock.lock();
+                    flushing = false;
+                    flushed.signalAll();
+                }
+                durable = Math.max(durable, target);
+                fsyncs++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long append(byte type, byte[] payload) {
+        int size = RECORD_HEADER + payload.length;
+        if (active.buffer.remaining() < size) {
+            rollover(size);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        active.buffer.putInt(payload.length + 1).putInt((int) crc.getValue()).put(type).put(payload);
+        written += size;
+        records++;
+        return written;
+    }
+
+    private void rollover(int recordSize) {
+        Segment previous = active;
+        previous.buffer.force();
+        durable = written;
+        active = createSegment(previous.sequence + 1, Math.max(segmentSize, SEGMENT_HEADER + recordSize));
+        active.baseLsn = written - SEGMENT_HEADER;
+        deleteIfDone(previous);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "journal-*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null); // sequência com zeros à esquerda: ordem alfabética = ordem de gravação
+
+        for (Path file : files) {
+            Segment segment = openSegment(file);
+            segments.put(segment.sequence, segment);
+            scan(segment);
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(1, segmentSize);
+        } else {
+            active = segments.lastEntry().getValue();
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                deleteIfDone(segment);
+            }
+        }
+        active.baseLsn = -active.buffer.position();
+        if (!entries.isEmpty()) {
+            log.warn("{} autorizações do diário ainda não gravadas no banco serão reaplicadas", entries.size());
+        }
+    }
+
+    private void scan(Segment segment) throws IOException {
+        MappedByteBuffer buffer = segment.buffer;
+        if (buffer.capacity() < SEGMENT_HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Segmento do diário inválido: " + segment.path);
+        }
+        int position = SEGMENT_HEADER;
+        while (buffer.capacity() - position >= RECORD_HEADER) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 1 || length > buffer.capacity() - position - 8) {
+                discardTail(segment, position);
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + 8, body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                discardTail(segment, position);
+                break;
+            }
+            apply(segment, body[0], Arrays.copyOfRange(body, 1, body.length));
+            position += 8 + length;
+        }
+        buffer.position(position);
+    }
+
+    private void apply(Segment segment, byte type, byte[] payload) throws IOException {
+        if (type == AUTHORIZED) {
+            JournalEntry entry = objectMapper.readValue(payload, JournalEntry.class);
+            entries.put(entry.id(), new Pending(entry, segment, false));
+            segment.pending++;
+        } else if (type == APPLIED || type == ABANDONED) {
+            Pending pending = entries.remove(fromBytes(payload));
+            if (pending != null) {
+                pending.segment.pending--;
+            }
+        }
+    }
+
+    // Registro cortado por um crash: nada depois dele foi confirmado a ninguém
+    private void discardTail(Segment segment, int position) {
+        log.warn("Registro incompleto em {} na posição {}; o restante do segmento foi descartado",
+                segment.path.getFileName(), position);
+        byte[] zeros = new byte[8192];
+        for (int offset = position; offset < segment.buffer.capacity(); offset += zeros.length) {
+            segment.buffer.put(offset, zeros, 0, Math.min(zeros.length, segment.buffer.capacity() - offset));
+        }
+        segment.buffer.force();
+    }
+
+    private void deleteIfDone(Segment segment) {
+        if (segment == active || segment.pending > 0) {
+            return;
+        }
+        segments.remove(segment.sequence);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o segmento {} do diário: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private void complete(UUID transactionId, byte type, String outcome) {
+        lock.lock();
+        try {
+            Pending pending = entries.remove(transactionId);
+            if (pending == null) {
+                return;
+            }
+            append(type, toBytes(transactionId));
+            pending.segment.pending--;
+            deleteIfDone(pending.segment);
+        } catch (UncheckedIOException e) {
+            log.warn("Falha ao marcar a transação {} como {} no diário: {}", transactionId, outcome, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(UUID transactionId) {
+        lock.lock();
+        try {
+            Pending pending = entries.remove(transactionId);
+            if (pending != null) {
+                pending.segment.pending--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment createSegment(long sequence, int size) {
+        Path path = directory.resolve(String.format("journal-%020d%s", sequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            buffer.force();
+            Segment segment = new Segment(sequence, path, buffer);
+            segments.put(sequence, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o segmento " + path, e);
+        }
+    }
+
+    private static Segment openSegment(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long sequence = Long.parseLong(name.substring("journal-".length(), name.length() - SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static final class Segment {
+
+        private final long sequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        // LSN correspondente à posição 0 do arquivo
+        private long baseLsn;
+        private int pending;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Pending {
+
+        private final JournalEntry entry;
+        private final Segment segment;
+        // Gravação normal em andamento: a reaplicação não mexe até o release
+        private boolean inFlight;
+
+        private Pending(JournalEntry entry, Segment segment, boolean inFlight) {
+            this.entry = entry;
+            this.segment = segment;
+            this.inFlight = inFlight;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.wivipay.gateway.journal;
+
+import com.wivipay.gateway.model.PaymentTransaction;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Diário local das autorizações. O resultado do provedor é gravado (com fsync) antes do insert em
+ * {@code payment_transactions}; se o banco falhar, a entrada fica pendente e o
+ * {@link PaymentJournalReplayer} grava a transação quando o banco voltar.
+ */
+public interface PaymentJournal {
+
+    /**
+     * Grava a transação, com a resposta bruta do provedor, e só retorna depois que ela está no disco.
+     *
+     * @return false quando o diário está desligado ou não conseguiu gravar
+     */
+    boolean record(PaymentTransaction transaction, String rawResponse);
+
+    /**
+     * A transação chegou ao banco; a entrada deixa de ser pendente.
+     */
+    void applied(UUID transactionId);
+
+    /**
+     * A gravação normal falhou com o banco indisponível; a entrada passa para a fila de reaplicação.
+     */
+    void release(UUID transactionId);
+
+    /**
+     * A transação foi recusada pelo banco com um erro que se repetiria em toda reaplicação; a entrada
+     * sai da fila. A autorização no provedor fica para cancelamento manual.
+     */
+    void abandon(UUID transactionId);
+
+    /**
+     * Entradas aguardando reaplicação, na ordem em que foram gravadas. Entradas com gravação normal
+     * ainda em andamento não aparecem.
+     */
+    List<JournalEntry> pending();
+
+    /**
+     * Falhas passageiras do banco, que o diário cobre. As demais (ex.: violação de constraint)
+     * continuam chegando ao cliente e se repetiriam na reaplicação.
+     */
+    static boolean isDatabaseUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    static PaymentJournal disabled() {
+        return new PaymentJournal() {
+            @Override
+            public boolean record(PaymentTransaction transaction, String rawResponse) {
+                return false;
+            }
+
+            @Override
+            public void applied(UUID transactionId) {
+            }
+
+            @Override
+            public void release(UUID transactionId) {
+            }
+
+            @Override
+            public void abandon(UUID transactionId) {
+            }
+
+            @Override
+            public List<JournalEntry> pending() {
+                return List.of();
+            }
+        };
+    }
+}
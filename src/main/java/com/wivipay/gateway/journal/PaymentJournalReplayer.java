@@ -0,0 +1,74 @@
+package com.wivipay.gateway.journal;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.lifecycle.PaymentDeadlines;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentPayload;
+import com.wivipay.gateway.repository.PaymentPayloadRepository;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import com.wivipay.gateway.service.EntityCountService;
+import com.wivipay.gateway.service.TransactionLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grava no banco as autorizações que ficaram só no diário. Para na primeira falha de banco
+ * indisponível (a próxima rodada tenta de novo, na mesma ordem). Outros erros se repetiriam em toda
+ * rodada: a entrada é abandonada, com o id no provedor no log para o cancelamento manual.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Workload(WorkloadType.PAYMENTS)
+public class PaymentJournalReplayer {
+
+    private final PaymentJournal journal;
+    private final PaymentTransactionRepository repository;
+    private final PaymentPayloadRepository payloadRepository;
+    private final TransactionLogService transactionLogService;
+    private final EntityCountService entityCountService;
+    private final PaymentDeadlines deadlines;
+
+    /**
+     * @return quantas transações foram gravadas nesta rodada
+     */
+    @Scheduled(fixedDelayString = "${wivipay.journal.replay-interval:PT5S}")
+    public int replay() {
+        int replayed = 0;
+        for (JournalEntry entry : journal.pending()) {
+            try {
+                // O insert pode ter sido confirmado sem que o APPLIED chegasse ao diário
+                if (repository.existsCurrentById(entry.id())) {
+                    journal.applied(entry.id());
+                    continue;
+                }
+                PaymentTransaction transaction = entry.toTransaction();
+                repository.save(transaction);
+                journal.applied(entry.id());
+                PaymentPayload payload = entry.toPayload();
+                if (payload != null) {
+                    payloadRepository.save(payload);
+                }
+                entityCountService.transactionCreated();
+                deadlines.schedule(transaction);
+                transactionLogService.logPaymentAuthorization(transaction);
+                replayed++;
+            } catch (RuntimeException e) {
+                if (PaymentJournal.isDatabaseUnavailable(e)) {
+                    log.warn("Banco ainda indisponível para a transação {} do diário: {}", entry.id(), e.getMessage());
+                    break;
+                }
+                journal.abandon(entry.id());
+                log.error("Transação {} do diário recusada pelo banco e abandonada; cancelar a autorização {} no provedor {}: {}",
+                        entry.id(), entry.providerTransactionId(), entry.provider(), e.getMessage());
+            }
+        }
+        if (replayed > 0) {
+            log.info("{} autorizações reaplicadas a partir do diário", replayed);
+        }
+        return replayed;
+    }
+}
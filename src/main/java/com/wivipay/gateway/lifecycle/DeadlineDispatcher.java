@@ -0,0 +1,129 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.exception.ConflictException;
+import com.wivipay.gateway.exception.ProviderDeclinedException;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import com.wivipay.gateway.lifecycle.PaymentDeadline.Action;
+import com.wivipay.gateway.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dispara pelo {@link PaymentService} os prazos que a roda de tempo venceu: primeiro as capturas
+ * automáticas, uma a uma pelo mesmo caminho da API, depois as expirações em lotes de
+ * {@code batch-size}. As capturas param no {@code batch-size} ou quando o disparo passa de
+ * {@code capture-budget}, o que vier antes, para a thread do agendador não ficar presa atrás de uma
+ * fila de chamadas ao provedor; o restante volta para o tick seguinte. Em várias instâncias o mesmo
+ * prazo pode disparar em mais de uma; o UPDATE condicional das transições deixa só uma chegar ao
+ * provedor e as demais recebem conflito.
+ */
+@Slf4j
+@Workload(WorkloadType.PAYMENTS)
+public class DeadlineDispatcher {
+
+    private final TimingWheelDeadlines deadlines;
+    private final PaymentService paymentService;
+    private final LifecycleProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public DeadlineDispatcher(TimingWheelDeadlines deadlines, PaymentService paymentService,
+                              LifecycleProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.deadlines = deadlines;
+        this.paymentService = paymentService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * @return prazos processados neste disparo
+     */
+    @Scheduled(fixedDelayString = "${wivipay.lifecycle.tick:PT1S}")
+    public int dispatch() {
+        List<PaymentDeadline> due = deadlines.due();
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<PaymentDeadline> captures = new ArrayList<>();
+        List<PaymentDeadline> expiries = new ArrayList<>();
+        for (PaymentDeadline deadline : due) {
+            (deadline.action() == Action.CAPTURE ? captures : expiries).add(deadline);
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        int batchSize = properties.getBatchSize();
+        long budgetEnd = clock.millis() + properties.getCaptureBudget().toMillis();
+        int captured = 0;
+        for (PaymentDeadline capture : captures) {
+            if (captured < batchSize && clock.millis() < budgetEnd) {
+                capture(capture, now);
+                captured++;
+            } else {
+                // Não segura o disparo das expirações atrás de uma fila longa de chamadas ao provedor
+                deadlines.schedule(capture, now);
+            }
+        }
+        if (captured < captures.size()) {
+            count(Action.CAPTURE, "deferred", captures.size() - captured);
+        }
+        for (int from = 0; from < expiries.size(); from += batchSize) {
+            expire(expiries.subList(from, Math.min(from + batchSize, expiries.size())), now);
+        }
+        return captured + expiries.size();
+    }
+
+    private void capture(PaymentDeadline deadline, LocalDateTime now) {
+        try {
+            paymentService.capture(deadline.transactionId());
+            count(Action.CAPTURE, "applied");
+            log.info("Transação {} capturada automaticamente", deadline.transactionId());
+        } catch (ConflictException | ResourceNotFoundException e) {
+            // Já capturada, estornada ou expirada por outra requisição ou instância
+            count(Action.CAPTURE, "skipped");
+        } catch (ProviderDeclinedException e) {
+            count(Action.CAPTURE, "declined");
+            log.warn("Captura automática da transação {} recusada pelo provedor: {}",
+                    deadline.transactionId(), e.getMessage());
+        } catch (RuntimeException e) {
+            count(Action.CAPTURE, "retry");
+            log.warn("Captura automática da transação {} falhou; nova tentativa em {}: {}",
+                    deadline.transactionId(), properties.getRetryDelay(), e.getMessage());
+            deadlines.schedule(deadline, now.plus(properties.getRetryDelay()));
+        }
+    }
+
+    private void expire(List<PaymentDeadline> batch, LocalDateTime now) {
+        try {
+            int expired = paymentService.expireAuthorizations(batch, now);
+            count(Action.EXPIRE, "applied", expired);
+            count(Action.EXPIRE, "skipped", batch.size() - expired);
+        } catch (RuntimeException e) {
+            count(Action.EXPIRE, "retry", batch.size());
+            log.warn("Falha ao expirar {} autorizações; nova tentativa em {}: {}",
+                    batch.size(), properties.getRetryDelay(), e.getMessage());
+            for (PaymentDeadline deadline : batch) {
+                deadlines.schedule(deadline, now.plus(properties.getRetryDelay()));
+            }
+        }
+    }
+
+    private void count(Action action, String outcome) {
+        count(action, outcome, 1);
+    }
+
+    private void count(Action action, String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("wivipay.lifecycle.deadlines", "action", action.name().toLowerCase(),
+                    "outcome", outcome).increment(amount);
+        }
+    }
+}
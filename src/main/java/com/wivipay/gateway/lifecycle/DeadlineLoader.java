@@ -0,0 +1,107 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.lifecycle.PaymentDeadline.Action;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Recria a roda de tempo a partir das autorizações em aberto. Na subida lê todas (cursor com fetch size
+ * pelo índice parcial da V15, só linhas AUTHORIZED com prazo); depois, a cada {@code resync-interval},
+ * só as criadas desde a leitura anterior, que incluem as autorizadas por outras instâncias.
+ * <p>
+ * Lê do primário: numa réplica atrasada as autorizações recentes ainda não estariam lá.
+ */
+@Slf4j
+@Workload(WorkloadType.PAYMENTS)
+public class DeadlineLoader {
+
+    private static final String DEADLINES_SQL =
+            "SELECT id, created_at, capture_at, expires_at FROM payment_transactions " +
+            "WHERE status = 'AUTHORIZED' AND expires_at IS NOT NULL";
+
+    // created_at limita a leitura às partições recentes
+    private static final String RECENT_DEADLINES_SQL = DEADLINES_SQL + " AND created_at >= ?";
+
+    private final JdbcTemplate cursor;
+    private final TransactionTemplate transactionTemplate;
+    private final TimingWheelDeadlines deadlines;
+    private final LifecycleProperties properties;
+    private final Clock clock;
+    private volatile LocalDateTime loadedAt;
+
+    public DeadlineLoader(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          TimingWheelDeadlines deadlines, LifecycleProperties properties, Clock clock) {
+        this.cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursor.setFetchSize(properties.getFetchSize());
+        this.transactionTemplate = transactionTemplate;
+        this.deadlines = deadlines;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @return prazos agendados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int rebuild() {
+        LocalDateTime started = LocalDateTime.now(clock);
+        int scheduled = load(DEADLINES_SQL);
+        loadedAt = started;
+        log.info("Roda de tempo recriada: {} prazos de captura e expiração agendados", scheduled);
+        return scheduled;
+    }
+
+    /**
+     * @return prazos novos agendados; os que já estavam na roda são ignorados
+     */
+    @Scheduled(fixedDelayString = "${wivipay.lifecycle.resync-interval:PT1M}")
+    public int resync() {
+        LocalDateTime previous = loadedAt;
+        if (previous == null) {
+            return 0;
+        }
+        LocalDateTime started = LocalDateTime.now(clock);
+        // Sobreposição de um intervalo: cobre inserts que ainda não tinham commit na leitura anterior
+        int scheduled = load(RECENT_DEADLINES_SQL, previous.minus(properties.getResyncInterval()));
+        loadedAt = started;
+        if (scheduled > 0) {
+            log.debug("{} prazos de outras instâncias agendados", scheduled);
+        }
+        return scheduled;
+    }
+
+    private int load(String sql, Object... args) {
+        int[] scheduled = {0};
+        transactionTemplate.executeWithoutResult(status -> cursor.query(sql, rs -> {
+            scheduled[0] += schedule(rs);
+        }, args));
+        return scheduled[0];
+    }
+
+    private int schedule(ResultSet rs) throws SQLException {
+        UUID id = rs.getObject("id", UUID.class);
+        LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+        LocalDateTime captureAt = rs.getObject("capture_at", LocalDateTime.class);
+        LocalDateTime expiresAt = rs.getObject("expires_at", LocalDateTime.class);
+        int scheduled = 0;
+        if (captureAt != null && deadlines.schedule(new PaymentDeadline(id, createdAt, Action.CAPTURE), captureAt)) {
+            scheduled++;
+        }
+        if (deadlines.schedule(new PaymentDeadline(id, createdAt, Action.EXPIRE), expiresAt)) {
+            scheduled++;
+        }
+        return scheduled;
+    }
+}
@@ -0,0 +1,54 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.service.PaymentService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(LifecycleProperties.class)
+public class LifecycleConfig {
+
+    // Desligado: nenhum prazo é gravado nem agendado, e pedidos de captura automática são recusados
+    @Bean
+    @ConditionalOnProperty(prefix = "wivipay.lifecycle", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public PaymentDeadlines disabledPaymentDeadlines() {
+        return PaymentDeadlines.disabled();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "wivipay.lifecycle", name = "enabled", havingValue = "true")
+    static class TimingWheelConfig {
+
+        @Bean
+        public TimingWheelDeadlines paymentDeadlines(LifecycleProperties properties, MeterRegistry meterRegistry) {
+            TimingWheelDeadlines deadlines = new TimingWheelDeadlines(properties, Clock.systemDefaultZone());
+            Gauge.builder("wivipay.lifecycle.pending", deadlines, TimingWheelDeadlines::pending)
+                    .description("Prazos de captura e expiração agendados na roda de tempo")
+                    .register(meterRegistry);
+            return deadlines;
+        }
+
+        @Bean
+        public DeadlineLoader deadlineLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                             TimingWheelDeadlines deadlines, LifecycleProperties properties) {
+            return new DeadlineLoader(jdbcTemplate, new TransactionTemplate(transactionManager), deadlines, properties,
+                    Clock.systemDefaultZone());
+        }
+
+        @Bean
+        public DeadlineDispatcher deadlineDispatcher(TimingWheelDeadlines deadlines, PaymentService paymentService,
+                                                     LifecycleProperties properties, MeterRegistry meterRegistry) {
+            return new DeadlineDispatcher(deadlines, paymentService, properties, meterRegistry,
+                    Clock.systemDefaultZone());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.wivipay.gateway.lifecycle;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.lifecycle")
+public class LifecycleProperties {
+
+    private boolean enabled = false;
+
+    // Resolução da roda de tempo e intervalo do disparo: um prazo atrasa no máximo isto
+    private Duration tick = Duration.ofSeconds(1);
+
+    // Validade da autorização em cada provedor; provedor fora do mapa usa defaultAuthorizationValidity
+    private Map<String, Duration> authorizationValidity = new HashMap<>(Map.of(
+            "stripe", Duration.ofDays(7), "paypal", Duration.ofDays(29), "cielo", Duration.ofDays(15)));
+    private Duration defaultAuthorizationValidity = Duration.ofDays(7);
+
+    // Captura automática tem de ficar pelo menos isto antes da expiração, para sobrar tempo de nova tentativa
+    private Duration captureMargin = Duration.ofHours(1);
+
+    // Espera antes de tentar de novo uma captura automática que falhou por indisponibilidade
+    private Duration retryDelay = Duration.ofMinutes(5);
+
+    // Teto de capturas e tamanho do lote de expirações por disparo; o excedente vai para o tick seguinte
+    private int batchSize = 100;
+
+    // Tempo máximo gasto em capturas por disparo; cada uma é uma chamada síncrona ao provedor
+    private Duration captureBudget = Duration.ofMillis(500);
+
+    // Busca das autorizações criadas em outras instâncias desde a última leitura
+    private Duration resyncInterval = Duration.ofMinutes(1);
+
+    private int fetchSize = 5000;
+
+    public Duration validityFor(String provider) {
+        return authorizationValidity.getOrDefault(provider, defaultAuthorizationValidity);
+    }
+}
@@ -0,0 +1,18 @@
+package com.wivipay.gateway.lifecycle;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Prazo de uma autorização na roda de tempo. O created_at vai junto para que as leituras e os UPDATEs
+ * do disparo fiquem na partição da transação.
+ */
+public record PaymentDeadline(UUID transactionId, LocalDateTime createdAt, Action action) {
+
+    public enum Action {
+        // Captura automática pedida pelo lojista (captureAt)
+        CAPTURE,
+        // Fim da validade da autorização no provedor (expiresAt)
+        EXPIRE
+    }
+}
@@ -0,0 +1,59 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.model.PaymentTransaction;
+
+import java.time.Duration;
+
+/**
+ * Prazos das autorizações: captura automática e expiração. Os prazos são gravados na transação
+ * (capture_at, expires_at) no mesmo insert da autorização e agendados em memória; o
+ * {@link DeadlineDispatcher} dispara os vencidos pelo PaymentService.
+ */
+public interface PaymentDeadlines {
+
+    /**
+     * Chamado antes do provedor, para que um pedido inválido não vire uma autorização.
+     *
+     * @param captureDelay null quando a captura fica com o lojista
+     */
+    void validateCaptureDelay(String provider, Duration captureDelay);
+
+    /**
+     * Preenche expiresAt e, se pedida, captureAt de uma autorização recém-criada, antes do insert.
+     */
+    void assign(PaymentTransaction transaction, Duration captureDelay);
+
+    /**
+     * Agenda os prazos da transação gravada; sem efeito fora de AUTHORIZED ou se já agendados.
+     */
+    void schedule(PaymentTransaction transaction);
+
+    /**
+     * A transação saiu de AUTHORIZED; os prazos dela deixam de valer.
+     */
+    void cancel(PaymentTransaction transaction);
+
+    static PaymentDeadlines disabled() {
+        return new PaymentDeadlines() {
+            @Override
+            public void validateCaptureDelay(String provider, Duration captureDelay) {
+                if (captureDelay != null) {
+                    throw new ValidationException("Captura automática não está habilitada");
+                }
+            }
+
+            @Override
+            public void assign(PaymentTransaction transaction, Duration captureDelay) {
+            }
+
+            @Override
+            public void schedule(PaymentTransaction transaction) {
+            }
+
+            @Override
+            public void cancel(PaymentTransaction transaction) {
+            }
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package com.wivipay.gateway.lifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roda de tempo hierárquica (Varghese e Lauck, como a dos timers do Linux): {@value #LEVELS} níveis de
+ * {@value #SLOTS} posições, cada nível com posições {@value #SLOTS} vezes mais largas que o anterior.
+ * Agendar e cancelar custam O(1), independentemente de quantos prazos estão na roda; um prazo distante
+ * desce de nível quando a posição dele é alcançada, até disparar no nível 0.
+ * <p>
+ * O tempo anda em ticks de {@code tickMillis}: um prazo nunca dispara antes da hora e pode atrasar até
+ * um tick. Não é thread-safe; {@link TimingWheelDeadlines} serializa o acesso.
+ */
+public final class TimingWheel<T> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 5;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Slot<T>[][] wheels;
+    // Próximo tick a processar
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick da roda deve ser de pelo menos 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.wheels = new Slot[LEVELS][SLOTS];
+        for (Slot<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * Agenda {@code payload} para {@code deadlineMillis}; prazo já vencido dispara no próximo tick.
+     *
+     * @throws IllegalArgumentException prazo além de {@link #horizonMillis()}
+     */
+    public Timer<T> schedule(T payload, long deadlineMillis) {
+        // Arredonda para cima: o prazo não dispara antes da hora
+        long tick = -Math.floorDiv(-deadlineMillis, tickMillis);
+        if (tick - currentTick >= 1L << (SLOT_BITS * LEVELS)) {
+            throw new IllegalArgumentException("Prazo além do horizonte da roda de tempo");
+        }
+        Timer<T> timer = new Timer<>(payload, deadlineMillis, tick);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return false se o timer já disparou ou já foi cancelado
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.slot == null) {
+            return false;
+        }
+        timer.slot.unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Processa os ticks até {@code nowMillis}.
+     *
+     * @return payloads dos prazos vencidos, na ordem dos ticks
+     */
+    public List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        for (; currentTick <= nowTick; currentTick++) {
+            // Na virada de cada nível, a posição alcançada desce para os níveis de baixo
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                Timer<T> timer = wheels[level][index(currentTick, level)].detach();
+                while (timer != null) {
+                    Timer<T> next = timer.next;
+                    place(timer);
+                    timer = next;
+                }
+            }
+            Timer<T> timer = wheels[0][index(currentTick, 0)].detach();
+            while (timer != null) {
+                expired.add(timer.payload);
+                size--;
+                timer = timer.next;
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Distância máxima, a partir do tick atual, de um prazo aceito por {@link #schedule}.
+     */
+    public long horizonMillis() {
+        return ((1L << (SLOT_BITS * LEVELS)) - 1) * tickMillis;
+    }
+
+    private void place(Timer<T> timer) {
+        long tick = Math.max(timer.tick, currentTick);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (delta >>> (SLOT_BITS * (level + 1)) != 0) {
+            level++;
+        }
+        wheels[level][index(tick, level)].link(timer);
+    }
+
+    private static int index(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & MASK);
+    }
+
+    public static final class Timer<T> {
+
+        private final T payload;
+        private final long deadlineMillis;
+        private final long tick;
+        private Slot<T> slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T payload, long deadlineMillis, long tick) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public boolean isPending() {
+            return slot != null;
+        }
+    }
+
+    // Lista duplamente ligada: remover um timer do meio é O(1)
+    private static final class Slot<T> {
+
+        private Timer<T> head;
+
+        void link(Timer<T> timer) {
+            timer.slot = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        void unlink(Timer<T> timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.slot = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        // Esvazia a posição; a lista devolvida continua encadeada por next
+        Timer<T> detach() {
+            Timer<T> first = head;
+            head = null;
+            for (Timer<T> timer = first; timer != null; timer = timer.next) {
+                timer.slot = null;
+                timer.prev = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.lifecycle.PaymentDeadline.Action;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link PaymentDeadlines} sobre uma {@link TimingWheel}. O índice por prazo permite cancelar em O(1)
+ * quando a transação é capturada, estornada ou muda por notificação; um lock curto protege roda e
+ * índice, porque agendamentos chegam das threads das requisições.
+ * <p>
+ * A roda é só memória: depois de um restart o {@link DeadlineLoader} a reconstrói a partir de
+ * capture_at e expires_at.
+ */
+@Slf4j
+public class TimingWheelDeadlines implements PaymentDeadlines {
+
+    private final LifecycleProperties properties;
+    private final Clock clock;
+    private final TimingWheel<PaymentDeadline> wheel;
+    private final Map<PaymentDeadline, TimingWheel.Timer<PaymentDeadline>> timers = new HashMap<>();
+
+    public TimingWheelDeadlines(LifecycleProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), clock.millis());
+    }
+
+    @Override
+    public void validateCaptureDelay(String provider, Duration captureDelay) {
+        if (captureDelay == null) {
+            return;
+        }
+        Duration latest = properties.validityFor(provider).minus(properties.getCaptureMargin());
+        if (captureDelay.compareTo(latest) > 0) {
+            throw new ValidationException("Captura automática em " + provider + " deve ocorrer em até "
+                    + latest.toMinutes() + " minutos, antes da expiração da autorização");
+        }
+    }
+
+    @Override
+    public void assign(PaymentTransaction transaction, Duration captureDelay) {
+        if (transaction.getStatus() != PaymentStatus.AUTHORIZED) {
+            return;
+        }
+        LocalDateTime authorizedAt = transaction.getCreatedAt();
+        transaction.setExpiresAt(authorizedAt.plus(properties.validityFor(transaction.getProvider())));
+        if (captureDelay != null) {
+            transaction.setCaptureAt(authorizedAt.plus(captureDelay));
+        }
+    }
+
+    @Override
+    public void schedule(PaymentTransaction transaction) {
+        if (transaction.getStatus() != PaymentStatus.AUTHORIZED) {
+            return;
+        }
+        if (transaction.getCaptureAt() != null) {
+            schedule(new PaymentDeadline(transaction.getId(), transaction.getCreatedAt(), Action.CAPTURE),
+                    transaction.getCaptureAt());
+        }
+        if (transaction.getExpiresAt() != null) {
+            schedule(new PaymentDeadline(transaction.getId(), transaction.getCreatedAt(), Action.EXPIRE),
+                    transaction.getExpiresAt());
+        }
+    }
+
+    /**
+     * Também usado para uma nova tentativa de um prazo que já disparou.
+     *
+     * @return false se o prazo já estava agendado (ex.: lido de novo pelo {@link DeadlineLoader})
+     */
+    public boolean schedule(PaymentDeadline deadline, LocalDateTime at) {
+        long millis = at.atZone(clock.getZone()).toInstant().toEpochMilli();
+        synchronized (this) {
+            if (timers.containsKey(deadline)) {
+                return false;
+            }
+            try {
+                timers.put(deadline, wheel.schedule(deadline, millis));
+            } catch (IllegalArgumentException e) {
+                log.error("Prazo {} da transação {} em {} fora do alcance da roda de tempo",
+                        deadline.action(), deadline.transactionId(), at);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void cancel(PaymentTransaction transaction) {
+        synchronized (this) {
+            for (Action action : Action.values()) {
+                TimingWheel.Timer<PaymentDeadline> timer =
+                        timers.remove(new PaymentDeadline(transaction.getId(), transaction.getCreatedAt(), action));
+                if (timer != null) {
+                    wheel.cancel(timer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Avança a roda até agora.
+     *
+     * @return prazos vencidos desde a chamada anterior; deixam de estar agendados
+     */
+    public synchronized List<PaymentDeadline> due() {
+        List<PaymentDeadline> due = wheel.advance(clock.millis());
+        for (PaymentDeadline deadline : due) {
+            timers.remove(deadline);
+        }
+        return due;
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.wivipay.gateway.model;
+
+/**
+ * Bandeiras de cartão aceitas no cadastro de cartões.
+ */
+public enum CardBrand {
+    VISA,
+    MASTERCARD,
+    AMEX,
+    ELO,
+    HIPERCARD;
+
+    private static final CardBrand[] VALUES = values();
+
+    /**
+     * Busca sem diferenciar maiúsculas e sem alocar; retorna {@code null} para bandeiras desconhecidas.
+     */
+    public static CardBrand fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (CardBrand brand : VALUES) {
+            if (brand.name().equalsIgnoreCase(code)) {
+                return brand;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Grava texto como bytes, comprimido com deflate quando compensa. O primeiro byte indica o formato
+ * ({@link #PLAIN} ou {@link #DEFLATE}); textos curtos ficam em UTF-8 puro, porque o cabeçalho do
+ * deflate os deixaria maiores.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte PLAIN = 0;
+    static final byte DEFLATE = 1;
+
+    // Abaixo disso o deflate raramente ganha do texto puro
+    private static final int MIN_COMPRESS_LENGTH = 128;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= MIN_COMPRESS_LENGTH) {
+            byte[] compressed = deflate(utf8);
+            if (compressed.length < utf8.length) {
+                return withFormat(DEFLATE, compressed);
+            }
+        }
+        return withFormat(PLAIN, utf8);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        byte[] body = Arrays.copyOfRange(column, 1, column.length);
+        return switch (column[0]) {
+            case PLAIN -> new String(body, StandardCharsets.UTF_8);
+            case DEFLATE -> new String(inflate(body), StandardCharsets.UTF_8);
+            default -> throw new IllegalStateException("Formato de payload desconhecido: " + column[0]);
+        };
+    }
+
+    private static byte[] withFormat(byte format, byte[] body) {
+        byte[] column = new byte[body.length + 1];
+        column[0] = format;
+        System.arraycopy(body, 0, column, 1, body.length);
+        return column;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Payload comprimido truncado");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Payload comprimido corrompido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Área de preparação da importação de cartões; ver {@link CustomerImportRow}.
+ */
+@Data
+@Entity
+@Table(name = "credit_card_import_staging", indexes = {
+    @Index(name = "idx_credit_card_import_provider_card", columnList = "import_id, provider_card_id, line_number"),
+    @Index(name = "idx_credit_card_import_customer", columnList = "import_id, customer_id, line_number")
+})
+public class CreditCardImportRow {
+
+    @EmbeddedId
+    private ImportRowId id;
+
+    // ID que o cartão recebe se a linha for importada
+    @Column(name = "card_id", nullable = false)
+    private UUID cardId;
+
+    @Column(name = "customer_external_id", nullable = false, length = 100)
+    private String customerExternalId;
+
+    // Preenchido na validação a partir de customer_external_id
+    @Column(name = "customer_id")
+    private UUID customerId;
+
+    @Column(name = "provider_card_id", nullable = false, length = 100)
+    private String providerCardId;
+
+    @Column(name = "last_four_digits", nullable = false, length = 4)
+    private String lastFourDigits;
+
+    @Column(nullable = false, length = 20)
+    private String brand;
+
+    @Column(name = "expiration_month", nullable = false)
+    private Integer expirationMonth;
+
+    @Column(name = "expiration_year", nullable = false)
+    private Integer expirationYear;
+
+    @Column(name = "is_default", columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private Boolean isDefault = false;
+
+    // Cartão já cadastrado para o mesmo cliente: a linha é ignorada sem erro
+    @Column(columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private Boolean existing = false;
+
+    @Column(length = 255)
+    private String error;
+}
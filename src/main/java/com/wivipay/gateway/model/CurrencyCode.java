@@ -0,0 +1,47 @@
+package com.wivipay.gateway.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Moedas aceitas pelo gateway, com as casas decimais e o valor máximo por transação.
+ */
+public enum CurrencyCode {
+    BRL(2, new BigDecimal("999999.99")),
+    USD(2, new BigDecimal("999999.99")),
+    EUR(2, new BigDecimal("999999.99")),
+    GBP(2, new BigDecimal("999999.99"));
+
+    // values() clona o array a cada chamada
+    private static final CurrencyCode[] VALUES = values();
+
+    private final int fractionDigits;
+    private final BigDecimal maxAmount;
+
+    CurrencyCode(int fractionDigits, BigDecimal maxAmount) {
+        this.fractionDigits = fractionDigits;
+        this.maxAmount = maxAmount;
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    /**
+     * Busca sem diferenciar maiúsculas e sem alocar; retorna {@code null} para códigos desconhecidos.
+     */
+    public static CurrencyCode fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (CurrencyCode currency : VALUES) {
+            if (currency.name().equalsIgnoreCase(code)) {
+                return currency;
+            }
+        }
+        return null;
+    }
+}
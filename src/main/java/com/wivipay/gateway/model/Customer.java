@@ -13,7 +13,10 @@ import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+    @Index(name = "idx_customers_email", columnList = "email"),
+    @Index(name = "idx_customers_document", columnList = "document")
+})
 public class Customer {
     
     @Id
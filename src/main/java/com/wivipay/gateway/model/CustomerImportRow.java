@@ -0,0 +1,49 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Área de preparação da importação de clientes. Mapeada só para que o schema exista em todos os
+ * perfis: as linhas entram por COPY ou insert em lote e saem por SQL, sem passar pelo JPA.
+ */
+@Data
+@Entity
+@Table(name = "customer_import_staging", indexes = {
+    @Index(name = "idx_customer_import_external_id", columnList = "import_id, external_id, line_number"),
+    @Index(name = "idx_customer_import_email", columnList = "import_id, email, line_number"),
+    @Index(name = "idx_customer_import_document", columnList = "import_id, document, line_number")
+})
+public class CustomerImportRow {
+
+    @EmbeddedId
+    private ImportRowId id;
+
+    // ID que o cliente recebe se a linha for importada
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "external_id", nullable = false, length = 100)
+    private String externalId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String email;
+
+    @Column(length = 20)
+    private String document;
+
+    @Column(length = 20)
+    private String phone;
+
+    // Cliente já cadastrado: a linha é ignorada sem erro
+    @Column(columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private Boolean existing = false;
+
+    @Column(length = 255)
+    private String error;
+}
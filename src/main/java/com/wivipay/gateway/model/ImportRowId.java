@@ -0,0 +1,24 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowId implements Serializable {
+
+    @Column(name = "import_id", nullable = false)
+    private UUID importId;
+
+    // Número do registro no arquivo (1 = primeiro registro após o cabeçalho)
+    @Column(name = "line_number", nullable = false)
+    private Long lineNumber;
+}
@@ -0,0 +1,78 @@
+package com.wivipay.gateway.model;
+
+import com.wivipay.gateway.exception.ValidationException;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Valor monetário imutável em unidades mínimas (centavos para BRL, USD, EUR e GBP).
+ * <p>
+ * É a representação usada entre serviço, provedores e banco; {@link BigDecimal} só aparece na
+ * fronteira JSON, convertido uma vez na entrada ({@link #of}) e na saída ({@link #toBigDecimal}).
+ */
+public record Money(long minor, CurrencyCode currency) {
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long minor, CurrencyCode currency) {
+        return new Money(minor, currency);
+    }
+
+    /**
+     * Converte um valor decimal respeitando as casas decimais da moeda; rejeita frações menores que
+     * a unidade mínima e valores fora do intervalo de {@code long}.
+     */
+    public static Money of(BigDecimal amount, CurrencyCode currency) {
+        try {
+            return new Money(amount.movePointRight(currency.getFractionDigits()).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new ValidationException("Valor " + amount.toPlainString() + " não pode ser representado em " + currency);
+        }
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, currency.getFractionDigits());
+    }
+
+    /**
+     * Representação decimal sem notação científica ({@code 1234.50}), como os provedores esperam.
+     */
+    public String toDecimalString() {
+        int digits = currency.getFractionDigits();
+        if (digits == 0) {
+            return Long.toString(minor);
+        }
+        StringBuilder text = new StringBuilder(24).append(Math.abs(minor));
+        while (text.length() <= digits) {
+            text.insert(0, '0');
+        }
+        text.insert(text.length() - digits, '.');
+        if (minor < 0) {
+            text.insert(0, '-');
+        }
+        return text.toString();
+    }
+
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        requireSameCurrency(other);
+        return minor > other.minor;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (currency != other.currency) {
+            throw new ValidationException("Moedas diferentes: " + currency + " e " + other.currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toDecimalString() + " " + currency;
+    }
+}
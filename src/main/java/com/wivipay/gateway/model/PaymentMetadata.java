@@ -0,0 +1,112 @@
+package com.wivipay.gateway.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.wivipay.gateway.exception.ValidationException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metadados do lojista ({@code {"orderId": "123"}}): um objeto JSON plano de chave e valor.
+ * <p>
+ * Na entrada o JSON vira a forma canônica gravada na coluna: chaves em ordem, valores como texto e
+ * sem espaços. Assim {@code {"orderId": 123}} e {@code {"orderId":"123"}} são o mesmo metadado,
+ * e a busca por chave e valor ({@link #filter}) acha os dois, tanto com o {@code @>} do JSONB
+ * quanto com o LIKE do H2 ({@link #likePattern}).
+ */
+public final class PaymentMetadata {
+
+    public static final int MAX_KEYS = 50;
+    public static final int MAX_KEY_LENGTH = 40;
+    public static final int MAX_VALUE_LENGTH = 500;
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private PaymentMetadata() {
+    }
+
+    /**
+     * Valida e devolve a forma canônica; null para metadados ausentes ou vazios. Valores nulos são
+     * descartados; objetos e listas aninhados são rejeitados.
+     */
+    public static String normalize(String metadata) {
+        if (metadata == null || metadata.isBlank()) {
+            return null;
+        }
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(metadata);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Metadados devem ser um objeto JSON válido");
+        }
+        if (node == null || !node.isObject()) {
+            throw new ValidationException("Metadados devem ser um objeto JSON válido");
+        }
+        if (node.size() > MAX_KEYS) {
+            throw new ValidationException("Metadados podem ter no máximo " + MAX_KEYS + " chaves");
+        }
+
+        Map<String, String> canonical = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isNull()) {
+                continue;
+            }
+            if (value.isContainerNode()) {
+                throw new ValidationException("Metadado " + field.getKey() + " deve ser texto, número ou booleano");
+            }
+            canonical.put(validKey(field.getKey()), validValue(field.getKey(), value.asText()));
+        }
+        return canonical.isEmpty() ? null : write(canonical);
+    }
+
+    /**
+     * Objeto com um único par, na mesma forma canônica da coluna, para busca por contenção.
+     */
+    public static String filter(String key, String value) {
+        return write(Map.of(validKey(key), validValue(key, value)));
+    }
+
+    /**
+     * Padrão LIKE (escape {@code \}) que casa o par dentro da forma canônica. É exato: aspas dentro
+     * de chaves e valores saem escapadas, então {@code "chave":"valor"} só aparece como par.
+     */
+    public static String likePattern(String key, String value) {
+        String pair = filter(key, value);
+        String inner = pair.substring(1, pair.length() - 1);
+        return "%" + inner.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static String validKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new ValidationException("Chave de metadado é obrigatória");
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Chave de metadado não pode exceder " + MAX_KEY_LENGTH + " caracteres");
+        }
+        return key;
+    }
+
+    private static String validValue(String key, String value) {
+        if (value == null) {
+            throw new ValidationException("Valor do metadado " + key + " é obrigatório");
+        }
+        if (value.length() > MAX_VALUE_LENGTH) {
+            throw new ValidationException("Valor do metadado " + key + " não pode exceder " + MAX_VALUE_LENGTH + " caracteres");
+        }
+        return value;
+    }
+
+    private static String write(Map<String, String> metadata) {
+        try {
+            return MAPPER.writeValueAsString(metadata instanceof TreeMap ? metadata : new TreeMap<>(metadata));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar metadados", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resposta bruta do provedor para uma operação (autorização, captura, estorno). Fica fora de
+ * {@code payment_transactions} para que as leituras de status não carreguem o payload, e é
+ * gravada comprimida. Particionada por mês em created_at, como as transações (V11).
+ */
+@Data
+@Entity
+@Table(name = "payment_payloads", indexes = {
+    @Index(name = "idx_payment_payloads_transaction_id", columnList = "transaction_id")
+})
+public class PaymentPayload {
+
+    // Limite da coluna; respostas de provedor ficam na casa dos poucos KB
+    static final int MAX_PAYLOAD_BYTES = 1024 * 1024;
+
+    @Id
+    private UUID id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    // Status que a operação produziu (AUTHORIZED, CAPTURED, REFUNDED)
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private PaymentTransaction.PaymentStatus status;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, length = MAX_PAYLOAD_BYTES)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public static PaymentPayload of(UUID transactionId, PaymentTransaction.PaymentStatus status, String payload,
+                                    LocalDateTime createdAt) {
+        PaymentPayload paymentPayload = new PaymentPayload();
+        paymentPayload.setId(UUID.randomUUID());
+        paymentPayload.setTransactionId(transactionId);
+        paymentPayload.setStatus(status);
+        paymentPayload.setPayload(payload);
+        paymentPayload.setCreatedAt(createdAt);
+        return paymentPayload;
+    }
+}
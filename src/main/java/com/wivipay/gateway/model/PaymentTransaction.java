@@ -2,20 +2,25 @@ package com.wivipay.gateway.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "payment_transactions")
+@Table(name = "payment_transactions", indexes = {
+    // Notificações dos provedores chegam pelo id do provedor
+    @Index(name = "idx_payment_transactions_provider_transaction_id", columnList = "provider, providerTransactionId"),
+    // Varredura das transações paradas, por provedor e status, das mais antigas para as mais novas
+    @Index(name = "idx_payment_transactions_status_sync", columnList = "provider, status, updatedAt")
+})
 public class PaymentTransaction {
     
+    // Atribuído pela aplicação: o diário de pagamentos registra a transação antes do insert
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
     @Column(nullable = false)
@@ -24,11 +29,13 @@ public class PaymentTransaction {
     @Column(nullable = false)
     private String providerTransactionId;
     
-    @Column(nullable = false)
-    private BigDecimal amount;
+    // Unidades mínimas da moeda (centavos); ver getMoney()
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
     
     @Column(nullable = false)
-    private String currency;
+    @Enumerated(EnumType.STRING)
+    private CurrencyCode currency;
     
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -37,9 +44,6 @@ public class PaymentTransaction {
     @Column(nullable = false)
     private String paymentMethod;
     
-    @Column(columnDefinition = "TEXT")
-    private String rawResponse;
-    
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
     
@@ -49,20 +53,94 @@ public class PaymentTransaction {
     @Column(name = "customer_id", length = 100)
     private String customerId;
     
-    @Column(columnDefinition = "TEXT")
+    // JSONB no PostgreSQL (V12, com índice GIN), JSON no H2; sempre na forma canônica de PaymentMetadata
+    @JdbcTypeCode(SqlTypes.JSON)
     private String metadata;
     
-    @CreationTimestamp
+    // Chave de partição (V10): nunca muda depois do insert e entra nos filtros por id para podar partições.
+    // Sem @CreationTimestamp para que a reaplicação do diário mantenha a hora da autorização.
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @UpdateTimestamp
     private LocalDateTime updatedAt;
     
+    // Captura automática pedida pelo lojista; null quando a captura fica com ele
+    @Column(name = "capture_at")
+    private LocalDateTime captureAt;
+    
+    // Fim da validade da autorização no provedor; vencida, a transação vai para EXPIRED
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    // Última consulta do sincronizador de status ao provedor; gravada só por SQL (StaleTransactionClaimer)
+    @Column(name = "status_checked_at", insertable = false, updatable = false)
+    private LocalDateTime statusCheckedAt;
+    
+    // Controle de concorrência otimista; as transições de status usam UPDATE condicional nesta coluna
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
+    public Money getMoney() {
+        return Money.ofMinor(amountMinor, currency);
+    }
+    
+    public void setMoney(Money money) {
+        this.amountMinor = money.minor();
+        this.currency = money.currency();
+    }
+    
     public enum PaymentStatus {
         PENDING,
         AUTHORIZED,
+        CAPTURING,
         CAPTURED,
+        REFUNDING,
         REFUNDED,
-        FAILED
+        FAILED,
+        // Contestação aberta pelo portador; só chega por notificação do provedor
+        CHARGED_BACK,
+        // Autorização não capturada dentro da validade do provedor
+        EXPIRED;
+        
+        /**
+         * Transições permitidas. CAPTURING e REFUNDING marcam a chamada ao provedor em andamento
+         * e voltam ao status anterior se ela falhar.
+         */
+        public boolean canTransitionTo(PaymentStatus target) {
+            return switch (this) {
+                case PENDING -> target == AUTHORIZED || target == FAILED;
+                case AUTHORIZED -> target == CAPTURING || target == REFUNDING || target == FAILED || target == EXPIRED;
+                case CAPTURING -> target == CAPTURED || target == AUTHORIZED;
+                case CAPTURED -> target == REFUNDING;
+                case REFUNDING -> target == REFUNDED || target == AUTHORIZED || target == CAPTURED;
+                case REFUNDED, FAILED, CHARGED_BACK, EXPIRED -> false;
+            };
+        }
+        
+        /**
+         * Mudanças informadas pelo provedor (webhooks): o resultado já aconteceu lá, então não passam
+         * pelos status de chamada em andamento. Em CAPTURING e REFUNDING a própria chamada decide.
+         */
+        public boolean acceptsProviderUpdate(PaymentStatus target) {
+            return switch (this) {
+                case PENDING -> target == AUTHORIZED || target == CAPTURED || target == FAILED;
+                case AUTHORIZED -> target == CAPTURED || target == REFUNDED || target == FAILED;
+                case CAPTURED -> target == REFUNDED || target == CHARGED_BACK;
+                case CAPTURING, REFUNDING, REFUNDED, FAILED, CHARGED_BACK, EXPIRED -> false;
+            };
+        }
+        
+        public boolean isInFlight() {
+            return this == CAPTURING || this == REFUNDING;
+        }
     }
 } 
\ No newline at end of file
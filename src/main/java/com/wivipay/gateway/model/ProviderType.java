@@ -0,0 +1,66 @@
+package com.wivipay.gateway.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Provedores de pagamento suportados, com as moedas aceitas e os prefixos de token válidos.
+ */
+public enum ProviderType {
+    STRIPE("stripe", EnumSet.allOf(CurrencyCode.class),
+            "Token do Stripe deve começar com 'tok_' ou 'card_'", "tok_", "card_"),
+    CIELO("cielo", EnumSet.of(CurrencyCode.BRL),
+            "Token da Cielo deve começar com 'card_'", "card_"),
+    PAYPAL("paypal", EnumSet.allOf(CurrencyCode.class),
+            "Token do PayPal deve começar com 'paypal_'", "paypal_");
+
+    private static final ProviderType[] VALUES = values();
+
+    private final String code;
+    private final Set<CurrencyCode> currencies;
+    private final String invalidTokenMessage;
+    private final String[] tokenPrefixes;
+
+    ProviderType(String code, Set<CurrencyCode> currencies, String invalidTokenMessage, String... tokenPrefixes) {
+        this.code = code;
+        this.currencies = currencies;
+        this.invalidTokenMessage = invalidTokenMessage;
+        this.tokenPrefixes = tokenPrefixes;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public boolean supports(CurrencyCode currency) {
+        return currencies.contains(currency);
+    }
+
+    public boolean acceptsToken(String paymentMethod) {
+        for (String prefix : tokenPrefixes) {
+            if (paymentMethod.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getInvalidTokenMessage() {
+        return invalidTokenMessage;
+    }
+
+    /**
+     * Busca sem diferenciar maiúsculas e sem alocar; retorna {@code null} para provedores desconhecidos.
+     */
+    public static ProviderType fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (ProviderType provider : VALUES) {
+            if (provider.code.equalsIgnoreCase(code)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+}
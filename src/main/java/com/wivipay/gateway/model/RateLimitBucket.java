@@ -0,0 +1,23 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Balde de limite de taxa compartilhado entre instâncias. Mapeado só para que o schema exista em
+ * todos os perfis: o {@code SharedRateLimiter} lê e grava por SQL.
+ */
+@Data
+@Entity
+@Table(name = "rate_limit_buckets")
+public class RateLimitBucket {
+
+    // Cliente e endpoint ("cliente POST /payments/authorize")
+    @Id
+    @Column(name = "bucket_key", length = 255)
+    private String bucketKey;
+
+    // Instante teórico da próxima ficha (GCRA), em microssegundos desde a época
+    @Column(nullable = false)
+    private long tat;
+}
@@ -20,7 +20,8 @@ public class TransactionLog {
     
     @NotNull(message = "Transação é obrigatória")
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "transaction_id", nullable = false)
+    // Sem FK no banco: com payment_transactions particionada a PK passa a ser (id, created_at)
+    @JoinColumn(name = "transaction_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private PaymentTransaction transaction;
     
     @NotBlank(message = "Status é obrigatório")
@@ -31,6 +32,6 @@ public class TransactionLog {
     private String message;
     
     @CreationTimestamp
-    @Column(name = "created_at", nullable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,63 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila das notificações recebidas dos provedores. Mapeada só para que o schema exista em todos os
+ * perfis: o recebimento grava com um INSERT e o {@code WebhookEventProcessor} consome por SQL.
+ */
+@Data
+@Entity
+@Table(name = "webhook_events", indexes = {
+    @Index(name = "idx_webhook_events_status_available", columnList = "status, available_at")
+})
+public class WebhookEvent {
+
+    @EmbeddedId
+    private WebhookEventId id;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "provider_transaction_id", nullable = false, length = 100)
+    private String providerTransactionId;
+
+    // Status informado pelo provedor; nulo quando precisa ser consultado (Cielo)
+    @Column(name = "target_status", length = 20)
+    @Enumerated(EnumType.STRING)
+    private PaymentTransaction.PaymentStatus targetStatus;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    // Próxima tentativa; adiada quando a transação ainda não existe ou estava em andamento
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        APPLIED,
+        IGNORED,
+        FAILED
+    }
+}
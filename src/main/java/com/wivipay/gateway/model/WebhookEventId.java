@@ -0,0 +1,23 @@
+package com.wivipay.gateway.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookEventId implements Serializable {
+
+    @Column(nullable = false, length = 20)
+    private String provider;
+
+    // Id do evento no provedor; reenvios do mesmo evento batem na chave primária
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+}
@@ -0,0 +1,64 @@
+package com.wivipay.gateway.partition;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Partição de um mês de uma tabela particionada por {@code created_at}, com o mesmo nome usado pela
+ * migration V10: {@code <tabela>_pAAAAMM}, cobrindo [primeiro dia do mês, primeiro dia do mês seguinte).
+ */
+public record MonthlyPartition(String table, YearMonth month) {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    public String name() {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    public LocalDateTime from() {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    public LocalDateTime to() {
+        return month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Partições que devem existir: do mês atual até {@code premakeMonths} meses à frente.
+     */
+    public static List<MonthlyPartition> upcoming(String table, YearMonth current, int premakeMonths) {
+        List<MonthlyPartition> partitions = new ArrayList<>();
+        for (int i = 0; i <= premakeMonths; i++) {
+            partitions.add(new MonthlyPartition(table, current.plusMonths(i)));
+        }
+        return partitions;
+    }
+
+    /**
+     * Reconhece partições criadas pela aplicação ou pela V10; outras partições da tabela são ignoradas.
+     */
+    public static Optional<MonthlyPartition> parse(String table, String name) {
+        String prefix = table + "_p";
+        if (!name.startsWith(prefix) || name.length() != prefix.length() + 6) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new MonthlyPartition(table, YearMonth.parse(name.substring(prefix.length()), SUFFIX)));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Fora da retenção quando o mês inteiro é anterior aos últimos {@code retentionMonths} meses
+     * completos; retenção zero ou negativa mantém tudo.
+     */
+    public boolean isExpired(YearMonth current, int retentionMonths) {
+        return retentionMonths > 0 && month.isBefore(current.minusMonths(retentionMonths));
+    }
+}
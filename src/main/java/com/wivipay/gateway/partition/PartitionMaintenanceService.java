@@ -0,0 +1,169 @@
+package com.wivipay.gateway.partition;
+
+import com.wivipay.gateway.service.EntityCountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mantém as tabelas particionadas por mês (V10): cria as partições dos próximos meses e desanexa
+ * as que saíram da retenção, movendo-as para o schema de arquivo. Só atua no PostgreSQL e só em
+ * tabelas que já foram particionadas; no H2 e antes da V10 não faz nada.
+ */
+@Slf4j
+public class PartitionMaintenanceService {
+
+    // Mesma chave em todas as instâncias: só uma faz a manutenção por vez
+    private static final long LOCK_KEY = 0x5769766950617274L;
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))";
+
+    // inhdetachpending: DETACH CONCURRENTLY interrompido no meio, precisa de FINALIZE (PostgreSQL 14+)
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname, i.inhdetachpending FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?)";
+
+    // Única tabela particionada com total em memória (EntityCountService)
+    private static final String TRANSACTIONS_TABLE = "payment_transactions";
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final PartitioningProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCountService entityCountService;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public PartitionMaintenanceService(PartitioningProperties properties, JdbcTemplate jdbcTemplate,
+                                       EntityCountService entityCountService, MeterRegistry meterRegistry,
+                                       Clock clock) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityCountService = entityCountService;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${wivipay.partitioning.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!isPostgres()) {
+            log.debug("Banco não é PostgreSQL; manutenção de partições ignorada");
+            return;
+        }
+        try {
+            // Lock de sessão e DETACH CONCURRENTLY exigem a mesma conexão, fora de transação
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintain(connection);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.error("Falha na manutenção de partições: {}", e.getMessage());
+        }
+    }
+
+    private void maintain(Connection connection) {
+        JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        if (!Boolean.TRUE.equals(session.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, LOCK_KEY))) {
+            log.info("Manutenção de partições em andamento em outra instância");
+            return;
+        }
+        try {
+            YearMonth current = YearMonth.now(clock);
+            for (PartitioningProperties.Table table : properties.getTables()) {
+                try {
+                    maintain(session, table, current);
+                } catch (DataAccessException e) {
+                    log.error("Falha na manutenção das partições de {}: {}", table.getName(), e.getMessage());
+                }
+            }
+        } finally {
+            session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, LOCK_KEY);
+        }
+    }
+
+    private void maintain(JdbcTemplate session, PartitioningProperties.Table table, YearMonth current) {
+        String name = table.getName();
+        if (!Boolean.TRUE.equals(session.queryForObject(IS_PARTITIONED_SQL, Boolean.class, name))) {
+            log.warn("Tabela {} não é particionada; aplique as migrations V10 e V11 para habilitar o particionamento", name);
+            return;
+        }
+
+        Map<String, Boolean> existing = new HashMap<>();
+        session.query(PARTITIONS_SQL, (RowCallbackHandler) rs -> existing.put(rs.getString(1), rs.getBoolean(2)), name);
+
+        for (MonthlyPartition partition : MonthlyPartition.upcoming(name, current, properties.getPremakeMonths())) {
+            if (!existing.containsKey(partition.name())) {
+                create(session, partition);
+            }
+        }
+
+        for (Map.Entry<String, Boolean> entry : existing.entrySet()) {
+            MonthlyPartition.parse(name, entry.getKey())
+                    .filter(partition -> partition.isExpired(current, table.getRetentionMonths()))
+                    .ifPresent(partition -> archive(session, partition, entry.getValue()));
+        }
+    }
+
+    private void create(JdbcTemplate session, MonthlyPartition partition) {
+        session.execute("CREATE TABLE IF NOT EXISTS " + quote(partition.name()) +
+                " PARTITION OF " + quote(partition.table()) +
+                " FOR VALUES FROM ('" + partition.from().format(BOUND) + "') TO ('" + partition.to().format(BOUND) + "')");
+        counter("wivipay.partitions.created", "Partições mensais criadas", partition.table()).increment();
+        log.info("Partição {} criada para {}", partition.name(), partition.month());
+    }
+
+    private void archive(JdbcTemplate session, MonthlyPartition partition, boolean detachPending) {
+        String detach = "ALTER TABLE " + quote(partition.table()) + " DETACH PARTITION " + quote(partition.name());
+        // CONCURRENTLY só pede SHARE UPDATE EXCLUSIVE na tabela pai: inserts e consultas continuam
+        session.execute(detachPending ? detach + " FINALIZE" : detach + " CONCURRENTLY");
+        session.execute("CREATE SCHEMA IF NOT EXISTS " + quote(properties.getArchiveSchema()));
+        session.execute("ALTER TABLE " + quote(partition.name()) + " SET SCHEMA " + quote(properties.getArchiveSchema()));
+        if (TRANSACTIONS_TABLE.equals(partition.table())) {
+            // Partição já desanexada: o total não muda mais e a contagem não disputa com a tabela pai
+            Long rows = session.queryForObject("SELECT count(*) FROM " + quote(properties.getArchiveSchema()) +
+                    "." + quote(partition.name()), Long.class);
+            entityCountService.transactionsArchived(rows == null ? 0 : rows);
+        }
+        counter("wivipay.partitions.archived", "Partições desanexadas e arquivadas", partition.table()).increment();
+        log.info("Partição {} ({}) desanexada e movida para o schema {}",
+                partition.name(), partition.month(), properties.getArchiveSchema());
+    }
+
+    private Counter counter(String metric, String description, String table) {
+        return Counter.builder(metric)
+                .description(description)
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
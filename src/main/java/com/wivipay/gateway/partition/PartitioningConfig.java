@@ -0,0 +1,26 @@
+package com.wivipay.gateway.partition;
+
+import com.wivipay.gateway.service.EntityCountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+@Configuration
+@ConditionalOnProperty(prefix = "wivipay.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(PartitioningProperties.class)
+public class PartitioningConfig {
+
+    @Bean
+    public PartitionMaintenanceService partitionMaintenanceService(PartitioningProperties properties,
+                                                                   JdbcTemplate jdbcTemplate,
+                                                                   EntityCountService entityCountService,
+                                                                   MeterRegistry meterRegistry) {
+        return new PartitionMaintenanceService(properties, jdbcTemplate, entityCountService, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,37 @@
+package com.wivipay.gateway.partition;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.partitioning")
+public class PartitioningProperties {
+
+    private boolean enabled = true;
+
+    // Meses à frente do atual com partição já criada; folga para o job falhar alguns dias sem afetar inserts
+    private int premakeMonths = 3;
+
+    // Schema para onde vão as partições desanexadas
+    private String archiveSchema = "archive";
+
+    // Tabelas particionadas (V10, V11) e quantos meses completos ficam na tabela além do atual (0 = sem arquivamento)
+    private List<Table> tables = new ArrayList<>(List.of(
+            new Table("payment_transactions", 24),
+            new Table("payment_payloads", 24),
+            new Table("transaction_logs", 12)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Table {
+
+        private String name;
+        private int retentionMonths;
+    }
+}
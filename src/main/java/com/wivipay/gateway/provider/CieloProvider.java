@@ -2,6 +2,9 @@ package com.wivipay.gateway.provider;
 
 import com.wivipay.gateway.dto.PaymentRequest;
 import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.exception.ProviderDeclinedException;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
 import com.wivipay.gateway.model.PaymentTransaction;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,16 +24,19 @@ public class CieloProvider implements PaymentProvider {
 
     private final RestTemplate restTemplate;
     private final String apiUrl;
+    private final String queryUrl;
     private final String merchantId;
     private final String merchantKey;
 
     public CieloProvider(
             RestTemplate restTemplate,
             @Value("${cielo.api.url:https://apisandbox.cieloecommerce.cielo.com.br}") String apiUrl,
+            @Value("${cielo.api.query-url:${cielo.api.url:https://apiquerysandbox.cieloecommerce.cielo.com.br}}") String queryUrl,
             @Value("${cielo.merchant.id}") String merchantId,
             @Value("${cielo.merchant.key}") String merchantKey) {
         this.restTemplate = restTemplate;
         this.apiUrl = apiUrl;
+        this.queryUrl = queryUrl;
         this.merchantId = merchantId;
         this.merchantKey = merchantKey;
     }
@@ -44,19 +49,7 @@ public class CieloProvider implements PaymentProvider {
     @Override
     public PaymentResponse authorize(PaymentRequest request) {
         try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("MerchantOrderId", request.getCustomerId());
-            payload.put("Payment", Map.of(
-                "Type", "CreditCard",
-                "Amount", request.getAmount().multiply(BigDecimal.valueOf(100)).intValue(),
-                "Currency", request.getCurrency(),
-                "Installments", 1,
-                "CreditCard", Map.of(
-                    "CardToken", request.getPaymentMethod(),
-                    "Brand", "Visa"
-                ),
-                "Capture", false
-            ));
+            Map<String, Object> payload = buildAuthorizePayload(request);
 
             HttpHeaders headers = createHeaders();
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
@@ -71,18 +64,24 @@ public class CieloProvider implements PaymentProvider {
             Map<String, Object> responseBody = response.getBody();
             Map<String, Object> payment = (Map<String, Object>) responseBody.get("Payment");
 
+            // A Cielo responde 201 mesmo para transações negadas (Status 3)
+            if (Integer.valueOf(3).equals(payment.get("Status"))) {
+                String returnCode = String.valueOf(payment.get("ReturnCode"));
+                log.warn("Pagamento negado pela Cielo: ReturnCode {}", returnCode);
+                throw new ProviderDeclinedException("cielo", returnCode, "Pagamento recusado pelo provedor cielo");
+            }
+
             PaymentResponse paymentResponse = new PaymentResponse();
             paymentResponse.setProvider("cielo");
+            paymentResponse.setRawPayload(ProviderPayloads.toJson(responseBody));
             paymentResponse.setProviderTransactionId(payment.get("PaymentId").toString());
-            paymentResponse.setAmount(request.getAmount());
-            paymentResponse.setCurrency(request.getCurrency());
+            paymentResponse.setMoney(request.toMoney());
             paymentResponse.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
             paymentResponse.setPaymentMethod(request.getPaymentMethod());
 
             return paymentResponse;
         } catch (Exception e) {
-            log.error("Erro ao autorizar pagamento na Cielo", e);
-            throw new RuntimeException("Erro ao processar pagamento: " + e.getMessage());
+            throw ProviderErrors.translate("cielo", "autorizar", e);
         }
     }
 
@@ -104,26 +103,26 @@ public class CieloProvider implements PaymentProvider {
 
             PaymentResponse paymentResponse = new PaymentResponse();
             paymentResponse.setProvider("cielo");
+            paymentResponse.setRawPayload(ProviderPayloads.toJson(responseBody));
             paymentResponse.setProviderTransactionId(transactionId);
-            paymentResponse.setAmount(BigDecimal.valueOf((Integer) payment.get("CapturedAmount")).divide(BigDecimal.valueOf(100)));
-            paymentResponse.setCurrency("BRL");
+            // A Cielo opera só em BRL e informa valores em centavos
+            paymentResponse.setMoney(Money.ofMinor(((Number) payment.get("CapturedAmount")).longValue(), CurrencyCode.BRL));
             paymentResponse.setStatus(PaymentTransaction.PaymentStatus.CAPTURED);
 
             return paymentResponse;
         } catch (Exception e) {
-            log.error("Erro ao capturar pagamento na Cielo", e);
-            throw new RuntimeException("Erro ao capturar pagamento: " + e.getMessage());
+            throw ProviderErrors.translate("cielo", "capturar", e);
         }
     }
 
     @Override
-    public PaymentResponse refund(String transactionId, BigDecimal amount) {
+    public PaymentResponse refund(String transactionId, Money amount) {
         try {
             HttpHeaders headers = createHeaders();
             HttpEntity<Void> entity = new HttpEntity<>(headers);
 
             ResponseEntity<Map> response = restTemplate.exchange(
-                apiUrl + "/1/sales/" + transactionId + "/void?amount=" + amount.multiply(BigDecimal.valueOf(100)).intValue(),
+                apiUrl + "/1/sales/" + transactionId + "/void?amount=" + amount.minor(),
                 HttpMethod.PUT,
                 entity,
                 Map.class
@@ -134,15 +133,32 @@ public class CieloProvider implements PaymentProvider {
 
             PaymentResponse paymentResponse = new PaymentResponse();
             paymentResponse.setProvider("cielo");
+            paymentResponse.setRawPayload(ProviderPayloads.toJson(responseBody));
             paymentResponse.setProviderTransactionId(transactionId);
-            paymentResponse.setAmount(amount);
-            paymentResponse.setCurrency("BRL");
+            paymentResponse.setMoney(amount);
             paymentResponse.setStatus(PaymentTransaction.PaymentStatus.REFUNDED);
 
             return paymentResponse;
         } catch (Exception e) {
-            log.error("Erro ao estornar pagamento na Cielo", e);
-            throw new RuntimeException("Erro ao estornar pagamento: " + e.getMessage());
+            throw ProviderErrors.translate("cielo", "estornar", e);
+        }
+    }
+
+    @Override
+    public PaymentTransaction.PaymentStatus retrieveStatus(String transactionId) {
+        try {
+            // Consultas vão para a API de consulta da Cielo, separada da transacional
+            ResponseEntity<Map> response = restTemplate.exchange(
+                queryUrl + "/1/sales/" + transactionId,
+                HttpMethod.GET,
+                new HttpEntity<Void>(createHeaders()),
+                Map.class
+            );
+
+            Map<String, Object> payment = (Map<String, Object>) response.getBody().get("Payment");
+            return toStatus(((Number) payment.get("Status")).intValue());
+        } catch (Exception e) {
+            throw ProviderErrors.translate("cielo", "consultar", e);
         }
     }
 
@@ -151,6 +167,35 @@ public class CieloProvider implements PaymentProvider {
         return "cielo".equalsIgnoreCase(providerName);
     }
 
+    // Status da Cielo: 1 autorizada, 2 confirmada, 3 negada, 10 cancelada, 11 estornada, 12 pendente, 13 abortada
+    static PaymentTransaction.PaymentStatus toStatus(int status) {
+        return switch (status) {
+            case 1 -> PaymentTransaction.PaymentStatus.AUTHORIZED;
+            case 2 -> PaymentTransaction.PaymentStatus.CAPTURED;
+            case 10, 11 -> PaymentTransaction.PaymentStatus.REFUNDED;
+            case 3, 13 -> PaymentTransaction.PaymentStatus.FAILED;
+            default -> PaymentTransaction.PaymentStatus.PENDING;
+        };
+    }
+
+    Map<String, Object> buildAuthorizePayload(PaymentRequest request) {
+        Money money = request.toMoney();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("MerchantOrderId", request.getCustomerId());
+        payload.put("Payment", Map.of(
+            "Type", "CreditCard",
+            "Amount", money.minor(),
+            "Currency", money.currency().name(),
+            "Installments", 1,
+            "CreditCard", Map.of(
+                "CardToken", request.getPaymentMethod(),
+                "Brand", "Visa"
+            ),
+            "Capture", false
+        ));
+        return payload;
+    }
+
     private HttpHeaders createHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("MerchantId", merchantId);
@@ -2,6 +2,8 @@ package com.wivipay.gateway.provider;
 
 import com.wivipay.gateway.dto.PaymentRequest;
 import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
 import com.wivipay.gateway.model.PaymentTransaction;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -47,27 +49,7 @@ public class PayPalProvider implements PaymentProvider {
         try {
             String token = getAccessToken();
 
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("intent", "AUTHORIZE");
-            
-            Map<String, Object> amount = new HashMap<>();
-            amount.put("currency_code", request.getCurrency());
-            amount.put("value", request.getAmount().toString());
-            
-            Map<String, Object> purchaseUnit = new HashMap<>();
-            purchaseUnit.put("amount", amount);
-            purchaseUnit.put("reference_id", request.getCustomerId());
-            
-            payload.put("purchase_units", List.of(purchaseUnit));
-            
-            Map<String, Object> tokenMap = new HashMap<>();
-            tokenMap.put("id", request.getPaymentMethod());
-            tokenMap.put("type", "PAYMENT_METHOD_TOKEN");
-            
-            Map<String, Object> paymentSource = new HashMap<>();
-            paymentSource.put("token", tokenMap);
-            
-            payload.put("payment_source", paymentSource);
+            Map<String, Object> payload = buildAuthorizePayload(request);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(token);
@@ -86,16 +68,15 @@ public class PayPalProvider implements PaymentProvider {
 
             PaymentResponse paymentResponse = new PaymentResponse();
             paymentResponse.setProvider("paypal");
+            paymentResponse.setRawPayload(ProviderPayloads.toJson(responseBody));
             paymentResponse.setProviderTransactionId(responseBody.get("id").toString());
-            paymentResponse.setAmount(request.getAmount());
-            paymentResponse.setCurrency(request.getCurrency());
+            paymentResponse.setMoney(request.toMoney());
             paymentResponse.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
             paymentResponse.setPaymentMethod(request.getPaymentMethod());
 
             return paymentResponse;
         } catch (Exception e) {
-            log.error("Erro ao autorizar pagamento no PayPal", e);
-            throw new RuntimeException("Erro ao processar pagamento: " + e.getMessage());
+            throw ProviderErrors.translate("paypal", "autorizar", e);
         }
     }
 
@@ -123,27 +104,27 @@ public class PayPalProvider implements PaymentProvider {
 
             PaymentResponse paymentResponse = new PaymentResponse();
             paymentResponse.setProvider("paypal");
+            paymentResponse.setRawPayload(ProviderPayloads.toJson(responseBody));
             paymentResponse.setProviderTransactionId(transactionId);
-            paymentResponse.setAmount(new BigDecimal(amount.get("value").toString()));
-            paymentResponse.setCurrency(amount.get("currency_code").toString());
+            paymentResponse.setMoney(Money.of(new BigDecimal(amount.get("value").toString()),
+                    CurrencyCode.fromCode(amount.get("currency_code").toString())));
             paymentResponse.setStatus(PaymentTransaction.PaymentStatus.CAPTURED);
 
             return paymentResponse;
         } catch (Exception e) {
-            log.error("Erro ao capturar pagamento no PayPal", e);
-            throw new RuntimeException("Erro ao capturar pagamento: " + e.getMessage());
+            throw ProviderErrors.translate("paypal", "capturar", e);
         }
     }
 
     @Override
-    public PaymentResponse refund(String transactionId, BigDecimal amount) {
+    public PaymentResponse refund(String transactionId, Money amount) {
         try {
             String token = getAccessToken();
 
             Map<String, Object> payload = new HashMap<>();
             Map<String, Object> amountMap = new HashMap<>();
-            amountMap.put("value", amount.toString());
-            amountMap.put("currency_code", "BRL");
+            amountMap.put("value", amount.toDecimalString());
+            amountMap.put("currency_code", amount.currency().name());
             payload.put("amount", amountMap);
             payload.put("note_to_payer", "Refund for order " + transactionId);
 
@@ -164,15 +145,33 @@ public class PayPalProvider implements PaymentProvider {
 
             PaymentResponse paymentResponse = new PaymentResponse();
             paymentResponse.setProvider("paypal");
+            paymentResponse.setRawPayload(ProviderPayloads.toJson(responseBody));
             paymentResponse.setProviderTransactionId(responseBody.get("id").toString());
-            paymentResponse.setAmount(amount);
-            paymentResponse.setCurrency("BRL");
+            paymentResponse.setMoney(amount);
             paymentResponse.setStatus(PaymentTransaction.PaymentStatus.REFUNDED);
 
             return paymentResponse;
         } catch (Exception e) {
-            log.error("Erro ao estornar pagamento no PayPal", e);
-            throw new RuntimeException("Erro ao estornar pagamento: " + e.getMessage());
+            throw ProviderErrors.translate("paypal", "estornar", e);
+        }
+    }
+
+    @Override
+    public PaymentTransaction.PaymentStatus retrieveStatus(String transactionId) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(getAccessToken());
+
+            ResponseEntity<Map> response = restTemplate.exchange(
+                apiUrl + "/v2/checkout/orders/" + transactionId,
+                HttpMethod.GET,
+                new HttpEntity<Void>(headers),
+                Map.class
+            );
+
+            return toStatus(String.valueOf(response.getBody().get("status")));
+        } catch (Exception e) {
+            throw ProviderErrors.translate("paypal", "consultar", e);
         }
     }
 
@@ -181,6 +180,42 @@ public class PayPalProvider implements PaymentProvider {
         return "paypal".equalsIgnoreCase(providerName);
     }
 
+    // Status do pedido no PayPal; a ordem criada com intent AUTHORIZE é a nossa autorização
+    static PaymentTransaction.PaymentStatus toStatus(String status) {
+        return switch (status) {
+            case "COMPLETED" -> PaymentTransaction.PaymentStatus.CAPTURED;
+            case "VOIDED" -> PaymentTransaction.PaymentStatus.FAILED;
+            case "PAYER_ACTION_REQUIRED" -> PaymentTransaction.PaymentStatus.PENDING;
+            default -> PaymentTransaction.PaymentStatus.AUTHORIZED;
+        };
+    }
+
+    Map<String, Object> buildAuthorizePayload(PaymentRequest request) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("intent", "AUTHORIZE");
+        
+        Money money = request.toMoney();
+        Map<String, Object> amount = new HashMap<>();
+        amount.put("currency_code", money.currency().name());
+        amount.put("value", money.toDecimalString());
+        
+        Map<String, Object> purchaseUnit = new HashMap<>();
+        purchaseUnit.put("amount", amount);
+        purchaseUnit.put("reference_id", request.getCustomerId());
+        
+        payload.put("purchase_units", List.of(purchaseUnit));
+        
+        Map<String, Object> tokenMap = new HashMap<>();
+        tokenMap.put("id", request.getPaymentMethod());
+        tokenMap.put("type", "PAYMENT_METHOD_TOKEN");
+        
+        Map<String, Object> paymentSource = new HashMap<>();
+        paymentSource.put("token", tokenMap);
+        
+        payload.put("payment_source", paymentSource);
+        return payload;
+    }
+
     private String getAccessToken() {
         if (accessToken != null) {
             return accessToken;
@@ -2,12 +2,15 @@ package com.wivipay.gateway.provider;
 
 import com.wivipay.gateway.dto.PaymentRequest;
 import com.wivipay.gateway.dto.PaymentResponse;
-import java.math.BigDecimal;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction;
 
 public interface PaymentProvider {
     String getName();
     PaymentResponse authorize(PaymentRequest request);
     PaymentResponse capture(String transactionId);
-    PaymentResponse refund(String transactionId, BigDecimal amount);
+    PaymentResponse refund(String transactionId, Money amount);
+    // Status atual no provedor, para notificações que não trazem o novo status
+    PaymentTransaction.PaymentStatus retrieveStatus(String transactionId);
     boolean supports(String providerName);
 } 
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.wivipay.gateway.provider;
+
+import com.wivipay.gateway.exception.GatewayException;
+import com.wivipay.gateway.exception.ProviderDeclinedException;
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
+/**
+ * Classifica as falhas das chamadas HTTP aos provedores (Cielo, PayPal) nas exceções de domínio.
+ * <p>
+ * Recusas e indisponibilidades são esperadas e vão para o log numa linha; só falhas que não se
+ * encaixam em nenhuma categoria (resposta inesperada, erro de programação) levam a pilha.
+ */
+@Slf4j
+final class ProviderErrors {
+
+    private ProviderErrors() {
+    }
+
+    static GatewayException translate(String provider, String operation, Exception e) {
+        if (e instanceof GatewayException gatewayException) {
+            return gatewayException;
+        }
+
+        if (e instanceof HttpStatusCodeException http) {
+            int status = http.getStatusCode().value();
+            if (status == 404) {
+                log.warn("Transação não encontrada na {} ao {} pagamento", provider, operation);
+                return new ResourceNotFoundException("Transação não encontrada no provedor " + provider);
+            }
+            if (status == 429 || http.getStatusCode().is5xxServerError()) {
+                log.warn("{} indisponível ao {} pagamento: HTTP {}", provider, operation, status);
+                // 429 é recusa antes do processamento; num 5xx o provedor pode ter executado a operação
+                return new ProviderUnavailableException(provider,
+                        "Provedor " + provider + " indisponível (HTTP " + status + ")", e, retryAfter(http), status == 429);
+            }
+            log.warn("Pagamento recusado pela {} ao {}: HTTP {}", provider, operation, status);
+            return new ProviderDeclinedException(provider, Integer.toString(status),
+                    "Pagamento recusado pelo provedor " + provider);
+        }
+
+        if (e instanceof ResourceAccessException) {
+            log.warn("{} inacessível ao {} pagamento: {}", provider, operation, e.getMessage());
+            return new ProviderUnavailableException(provider, "Provedor " + provider + " não respondeu", e, null,
+                    isConnectFailure(e));
+        }
+
+        log.error("Erro inesperado ao {} pagamento na {}", operation, provider, e);
+        return new ProviderUnavailableException(provider, "Erro ao comunicar com o provedor " + provider, e);
+    }
+
+    /**
+     * A conexão não chegou a ser aberta, então a requisição não foi enviada. Um timeout de leitura não
+     * entra aqui: a requisição pode ter sido processada sem que a resposta chegasse.
+     */
+    static boolean isConnectFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Duration retryAfter(HttpStatusCodeException http) {
+        HttpHeaders headers = http.getResponseHeaders();
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+            // Retry-After em formato de data HTTP: sem sugestão
+            return null;
+        }
+    }
+}
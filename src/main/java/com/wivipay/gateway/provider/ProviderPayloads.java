@@ -0,0 +1,28 @@
+package com.wivipay.gateway.provider;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Serializa o corpo das respostas HTTP dos provedores (Cielo, PayPal) para guardar em
+ * {@code payment_payloads} como o provedor devolveu.
+ */
+final class ProviderPayloads {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private ProviderPayloads() {
+    }
+
+    static String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            // O payload é só registro: não vale derrubar uma operação que o provedor já executou
+            return String.valueOf(body);
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package com.wivipay.gateway.provider;
 
 import com.stripe.Stripe;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.RateLimitException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Charge;
 import com.stripe.model.Refund;
 import com.wivipay.gateway.dto.PaymentRequest;
 import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.exception.GatewayException;
+import com.wivipay.gateway.exception.ProviderDeclinedException;
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
 import com.wivipay.gateway.model.PaymentTransaction;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,9 +32,15 @@ public class StripeProvider implements PaymentProvider {
     @Value("${stripe.api.key}")
     private String stripeApiKey;
 
+    @Value("${stripe.api.url:}")
+    private String stripeApiUrl;
+
     @PostConstruct
     public void init() {
         Stripe.apiKey = stripeApiKey;
+        if (stripeApiUrl != null && !stripeApiUrl.isBlank()) {
+            Stripe.overrideApiBase(stripeApiUrl);
+        }
     }
 
     @Override
@@ -36,9 +51,10 @@ public class StripeProvider implements PaymentProvider {
     @Override
     public PaymentResponse authorize(PaymentRequest request) {
         try {
+            Money money = request.toMoney();
             Map<String, Object> chargeParams = new HashMap<>();
-            chargeParams.put("amount", request.getAmount().multiply(BigDecimal.valueOf(100)).longValue());
-            chargeParams.put("currency", request.getCurrency().toLowerCase());
+            chargeParams.put("amount", money.minor());
+            chargeParams.put("currency", money.currency().name().toLowerCase());
             chargeParams.put("source", request.getPaymentMethod());
             chargeParams.put("description", request.getDescription());
             chargeParams.put("capture", false);
@@ -48,15 +64,14 @@ public class StripeProvider implements PaymentProvider {
             PaymentResponse response = new PaymentResponse();
             response.setProvider("stripe");
             response.setProviderTransactionId(charge.getId());
-            response.setAmount(request.getAmount());
-            response.setCurrency(request.getCurrency());
+            response.setRawPayload(charge.toJson());
+            response.setMoney(money);
             response.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
             response.setPaymentMethod(request.getPaymentMethod());
 
             return response;
         } catch (StripeException e) {
-            log.error("Erro ao autorizar pagamento no Stripe", e);
-            throw new RuntimeException("Erro ao processar pagamento: " + e.getMessage());
+            throw translate("autorizar", e);
         }
     }
 
@@ -69,25 +84,24 @@ public class StripeProvider implements PaymentProvider {
             PaymentResponse response = new PaymentResponse();
             response.setProvider("stripe");
             response.setProviderTransactionId(capturedCharge.getId());
-            response.setAmount(BigDecimal.valueOf(capturedCharge.getAmount()).divide(BigDecimal.valueOf(100)));
-            response.setCurrency(capturedCharge.getCurrency().toUpperCase());
+            response.setRawPayload(capturedCharge.toJson());
+            response.setMoney(Money.ofMinor(capturedCharge.getAmount(), CurrencyCode.fromCode(capturedCharge.getCurrency())));
             response.setStatus(PaymentTransaction.PaymentStatus.CAPTURED);
             response.setPaymentMethod(capturedCharge.getSource().getId());
 
             return response;
         } catch (StripeException e) {
-            log.error("Erro ao capturar pagamento no Stripe", e);
-            throw new RuntimeException("Erro ao capturar pagamento: " + e.getMessage());
+            throw translate("capturar", e);
         }
     }
 
     @Override
-    public PaymentResponse refund(String transactionId, BigDecimal amount) {
+    public PaymentResponse refund(String transactionId, Money amount) {
         try {
             Map<String, Object> params = new HashMap<>();
             params.put("charge", transactionId);
             if (amount != null) {
-                params.put("amount", amount.multiply(BigDecimal.valueOf(100)).longValue());
+                params.put("amount", amount.minor());
             }
 
             Refund refund = Refund.create(params);
@@ -95,19 +109,67 @@ public class StripeProvider implements PaymentProvider {
             PaymentResponse response = new PaymentResponse();
             response.setProvider("stripe");
             response.setProviderTransactionId(refund.getId());
-            response.setAmount(BigDecimal.valueOf(refund.getAmount()).divide(BigDecimal.valueOf(100)));
-            response.setCurrency(refund.getCurrency().toUpperCase());
+            response.setRawPayload(refund.toJson());
+            response.setMoney(Money.ofMinor(refund.getAmount(), CurrencyCode.fromCode(refund.getCurrency())));
             response.setStatus(PaymentTransaction.PaymentStatus.REFUNDED);
 
             return response;
         } catch (StripeException e) {
-            log.error("Erro ao estornar pagamento no Stripe", e);
-            throw new RuntimeException("Erro ao estornar pagamento: " + e.getMessage());
+            throw translate("estornar", e);
+        }
+    }
+
+    @Override
+    public PaymentTransaction.PaymentStatus retrieveStatus(String transactionId) {
+        try {
+            return toStatus(Charge.retrieve(transactionId));
+        } catch (StripeException e) {
+            throw translate("consultar", e);
+        }
+    }
+
+    static PaymentTransaction.PaymentStatus toStatus(Charge charge) {
+        if (Boolean.TRUE.equals(charge.getDisputed())) {
+            return PaymentTransaction.PaymentStatus.CHARGED_BACK;
+        }
+        if (Boolean.TRUE.equals(charge.getRefunded())) {
+            return PaymentTransaction.PaymentStatus.REFUNDED;
         }
+        return switch (charge.getStatus()) {
+            case "failed" -> PaymentTransaction.PaymentStatus.FAILED;
+            case "pending" -> PaymentTransaction.PaymentStatus.PENDING;
+            default -> Boolean.TRUE.equals(charge.getCaptured())
+                    ? PaymentTransaction.PaymentStatus.CAPTURED
+                    : PaymentTransaction.PaymentStatus.AUTHORIZED;
+        };
     }
 
     @Override
     public boolean supports(String providerName) {
         return "stripe".equalsIgnoreCase(providerName);
     }
+
+    // Recusas e indisponibilidades vão para o log numa linha; só o inesperado leva a pilha
+    private GatewayException translate(String operation, StripeException e) {
+        if (e instanceof CardException card) {
+            log.warn("Pagamento recusado pelo Stripe ao {}: {}", operation, card.getCode());
+            return new ProviderDeclinedException("stripe", card.getCode(), "Pagamento recusado pelo provedor stripe");
+        }
+        if (e instanceof InvalidRequestException && Integer.valueOf(404).equals(e.getStatusCode())) {
+            log.warn("Transação não encontrada no Stripe ao {} pagamento", operation);
+            return new ResourceNotFoundException("Transação não encontrada no provedor stripe");
+        }
+        if (e instanceof InvalidRequestException) {
+            log.warn("Requisição recusada pelo Stripe ao {}: {}", operation, e.getCode());
+            return new ProviderDeclinedException("stripe", e.getCode(), "Pagamento recusado pelo provedor stripe");
+        }
+        if (e instanceof RateLimitException || e instanceof ApiConnectionException
+                || (e.getStatusCode() != null && e.getStatusCode() >= 500)) {
+            log.warn("Stripe indisponível ao {} pagamento: {}", operation, e.getMessage());
+            boolean notExecuted = e instanceof RateLimitException || ProviderErrors.isConnectFailure(e);
+            return new ProviderUnavailableException("stripe", "Provedor stripe indisponível", e, null, notExecuted);
+        }
+        log.error("Erro inesperado ao {} pagamento no Stripe", operation, e);
+        return new ProviderUnavailableException("stripe", "Erro ao comunicar com o provedor stripe", e);
+    }
 } 
\ No newline at end of file
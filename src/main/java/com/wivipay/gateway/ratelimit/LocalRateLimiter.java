@@ -0,0 +1,48 @@
+package com.wivipay.gateway.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Baldes em memória, um por chave, sem lock no caminho da requisição. Com várias instâncias cada uma
+ * tem o próprio orçamento; para um orçamento único, {@link SharedRateLimiter}.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Duration idleTimeout;
+    private final LongSupplier nanoTime;
+
+    public LocalRateLimiter(Duration idleTimeout, LongSupplier nanoTime) {
+        this.idleTimeout = idleTimeout;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Decision tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long now = nanoTime.getAsLong();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    // Um balde removido enquanto uma requisição o usa perde no máximo aquela ficha
+    @Override
+    @Scheduled(fixedDelayString = "${wivipay.rate-limit.idle-timeout:PT10M}")
+    public int evictIdle() {
+        long idleSince = nanoTime.getAsLong() - idleTimeout.toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFullSince(idleSince));
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.wivipay.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "wivipay.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, JdbcTemplate jdbcTemplate) {
+        LocalRateLimiter local = new LocalRateLimiter(properties.getIdleTimeout(), System::nanoTime);
+        if (properties.getStore() == RateLimitProperties.Store.LOCAL) {
+            return local;
+        }
+        return new SharedRateLimiter(jdbcTemplate, local, properties.getLeaseDuration(), properties.getIdleTimeout(),
+                Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public ThrottledClients throttledClients(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new ThrottledClients(properties.getTopClients(), meterRegistry);
+    }
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(RateLimiter rateLimiter, RateLimitProperties properties,
+                                                     ThrottledClients throttledClients, MeterRegistry meterRegistry) {
+        return new RateLimitInterceptor(rateLimiter, properties, throttledClients, meterRegistry);
+    }
+
+    @Configuration
+    static class RateLimitWebConfig implements WebMvcConfigurer {
+
+        private final RateLimitInterceptor interceptor;
+
+        RateLimitWebConfig(RateLimitInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(interceptor);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.wivipay.gateway.ratelimit;
+
+import com.wivipay.gateway.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limita cada cliente (claim {@code azp} do JWT, ou {@code sub}) em cada endpoint. O limite vem do
+ * escopo que o endpoint exige no {@code @PreAuthorize} ({@code payments:write}, {@code payments:read}),
+ * ou de {@code endpoints} quando o endpoint tem limite próprio; endpoints sem escopo configurado não
+ * são limitados. Acima do limite a requisição recebe 429 com Retry-After, antes de chegar ao controller.
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Pattern SCOPE = Pattern.compile("SCOPE_([\\w:.-]+)");
+
+    private final RateLimiter limiter;
+    private final RateLimitProperties properties;
+    private final ThrottledClients throttledClients;
+    private final MeterRegistry meterRegistry;
+    // Resolvido na primeira requisição de cada método; vazio para endpoints sem limite
+    private final Map<Method, Optional<Endpoint>> endpoints = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimiter limiter, RateLimitProperties properties,
+                                ThrottledClients throttledClients, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.properties = properties;
+        this.throttledClients = throttledClients;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        // Sem JWT (rotas públicas, webhooks): a autenticação já decidiu
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken token)) {
+            return true;
+        }
+        Endpoint endpoint = endpoints.computeIfAbsent(handlerMethod.getMethod(),
+                method -> resolve(handlerMethod, request)).orElse(null);
+        if (endpoint == null) {
+            return true;
+        }
+
+        String client = clientId(token);
+        RateLimiter.Decision decision = limiter.tryAcquire(client + " " + endpoint.name(), endpoint.limit());
+        if (decision.allowed()) {
+            endpoint.allowed().increment();
+            return true;
+        }
+        endpoint.throttled().increment();
+        throttledClients.record(client);
+        log.debug("Cliente {} limitado em {}; nova tentativa em {}", client, endpoint.name(), decision.retryAfter());
+        throw new RateLimitExceededException("Limite de requisições excedido para " + endpoint.name(),
+                decision.retryAfter());
+    }
+
+    private Optional<Endpoint> resolve(HandlerMethod handlerMethod, HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String name = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        String scope = scope(handlerMethod);
+
+        RateLimitProperties.Limit limit = properties.getEndpoints().get(name);
+        if (limit == null && scope != null) {
+            limit = properties.getScopes().getOrDefault(scope, properties.getDefaultLimit());
+        }
+        if (limit == null) {
+            return Optional.empty();
+        }
+        String tag = scope != null ? scope : "none";
+        return Optional.of(new Endpoint(name, limit,
+                meterRegistry.counter("wivipay.rate_limit.requests", "scope", tag, "endpoint", name, "outcome", "allowed"),
+                meterRegistry.counter("wivipay.rate_limit.requests", "scope", tag, "endpoint", name, "outcome", "throttled")));
+    }
+
+    // Primeiro escopo exigido pelo @PreAuthorize do método (ou da classe)
+    static String scope(HandlerMethod handlerMethod) {
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return null;
+        }
+        Matcher matcher = SCOPE.matcher(preAuthorize.value());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    // azp identifica a aplicação cliente; tokens sem ele (ex.: emitidos para um usuário) usam o sub
+    static String clientId(JwtAuthenticationToken token) {
+        String azp = token.getToken().getClaimAsString("azp");
+        return azp != null ? azp : token.getName();
+    }
+
+    private record Endpoint(String name, RateLimitProperties.Limit limit, Counter allowed, Counter throttled) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.wivipay.gateway.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    // LOCAL: baldes em memória, por instância; SHARED: orçamento único no banco para todas as instâncias
+    private Store store = Store.LOCAL;
+
+    // Limite de cada cliente em cada endpoint, pelo escopo que o endpoint exige no @PreAuthorize.
+    // No YAML as chaves com ':' vão entre colchetes: "[payments:write]"
+    private Map<String, Limit> scopes = new HashMap<>(Map.of(
+            "payments:write", new Limit(20, 40),
+            "payments:read", new Limit(50, 100)));
+
+    // Limite próprio de um endpoint ("POST /payments/authorize"), no lugar do limite do escopo
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    // Escopos fora do mapa; sem ele, os endpoints desses escopos ficam sem limite
+    private Limit defaultLimit;
+
+    // SHARED: cada instância reserva no banco as fichas deste intervalo de uma vez, em vez de uma por requisição
+    private Duration leaseDuration = Duration.ofMillis(100);
+
+    // Baldes cheios há mais que isto saem da memória (e do banco, em SHARED)
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // Clientes mais limitados publicados em wivipay.rate_limit.top_throttled, por janela
+    private int topClients = 10;
+    private Duration topClientsWindow = Duration.ofMinutes(1);
+
+    public enum Store {
+        LOCAL,
+        SHARED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        // Requisições por segundo, em regime
+        private double rate;
+        // Rajada aceita acima do regime (capacidade do balde)
+        private int burst;
+    }
+}
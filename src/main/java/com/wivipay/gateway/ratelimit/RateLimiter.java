@@ -0,0 +1,30 @@
+package com.wivipay.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Baldes de fichas por chave (cliente e endpoint).
+ */
+public interface RateLimiter {
+
+    /**
+     * Consome uma ficha do balde de {@code key}, criado com {@code limit} no primeiro uso.
+     */
+    Decision tryAcquire(String key, RateLimitProperties.Limit limit);
+
+    /**
+     * Descarta os baldes cheios sem uso há mais de {@code idle-timeout}.
+     *
+     * @return baldes descartados
+     */
+    int evictIdle();
+
+    record Decision(boolean allowed, Duration retryAfter) {
+
+        static final Decision ALLOWED = new Decision(true, Duration.ZERO);
+
+        static Decision throttled(Duration retryAfter) {
+            return new Decision(false, retryAfter);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.wivipay.gateway.ratelimit;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orçamento único para todas as instâncias, no banco ({@code rate_limit_buckets}, V16): o mesmo GCRA
+ * do {@link TokenBucket}, com o TAT numa linha por chave e consumido por um UPDATE condicional.
+ * <p>
+ * Para não ir ao banco a cada requisição, a instância reserva de uma vez as fichas de
+ * {@code lease-duration} e as consome em memória sem lock; as que sobram quando a reserva vence se
+ * perdem. Uma chave recusada fica recusada em memória até o Retry-After, então um cliente inundando a
+ * API custa no máximo uma ida ao banco por intervalo. Se o banco falhar, vale o balde local da instância.
+ */
+@Slf4j
+@Workload(WorkloadType.PAYMENTS)
+public class SharedRateLimiter implements RateLimiter {
+
+    private static final String TAKE_SQL =
+            "UPDATE rate_limit_buckets SET tat = GREATEST(tat, ?) + ? " +
+            "WHERE bucket_key = ? AND GREATEST(tat, ?) + ? - ? <= ?";
+
+    private static final String INSERT_SQL = "INSERT INTO rate_limit_buckets (bucket_key, tat) VALUES (?, ?)";
+
+    private static final String TAT_SQL = "SELECT tat FROM rate_limit_buckets WHERE bucket_key = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM rate_limit_buckets WHERE tat < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalRateLimiter fallback;
+    private final Duration leaseDuration;
+    private final Duration idleTimeout;
+    private final Clock clock;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public SharedRateLimiter(JdbcTemplate jdbcTemplate, LocalRateLimiter fallback, Duration leaseDuration,
+                             Duration idleTimeout, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fallback = fallback;
+        this.leaseDuration = leaseDuration;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public Decision tryAcquire(String key, RateLimitProperties.Limit limit) {
+        Lease lease = leases.get(key);
+        if (lease == null) {
+            lease = leases.computeIfAbsent(key, k -> new Lease());
+        }
+        if (lease.tryTake(micros())) {
+            return Decision.ALLOWED;
+        }
+        // Só uma requisição por chave vai ao banco; as outras esperam a reserva dela
+        synchronized (lease) {
+            long now = micros();
+            if (lease.tryTake(now)) {
+                return Decision.ALLOWED;
+            }
+            if (now < lease.deniedUntil) {
+                return Decision.throttled(Duration.of(lease.deniedUntil - now, ChronoUnit.MICROS));
+            }
+            try {
+                return reserve(key, limit, lease, now);
+            } catch (DataAccessException e) {
+                log.warn("Limite compartilhado indisponível; usando o balde local para {}: {}", key, e.getMessage());
+                return fallback.tryAcquire(key, limit);
+            }
+        }
+    }
+
+    private Decision reserve(String key, RateLimitProperties.Limit limit, Lease lease, long now) {
+        long interval = Math.max(1, TokenBucket.intervalNanos(limit) / 1000);
+        long burst = interval * Math.max(1, limit.getBurst());
+        int size = (int) Math.max(1, Math.min(limit.getBurst(), limit.getRate() * leaseDuration.toNanos() / 1e9));
+
+        for (int tokens : size > 1 ? List.of(size, 1) : List.of(1)) {
+            if (take(key, tokens * interval, burst, now)) {
+                // Uma das fichas é desta requisição
+                lease.grant(tokens - 1, now + leaseDuration.toNanos() / 1000);
+                return Decision.ALLOWED;
+            }
+        }
+
+        List<Long> tat = jdbcTemplate.queryForList(TAT_SQL, Long.class, key);
+        if (tat.isEmpty()) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, key, now + interval);
+                return Decision.ALLOWED;
+            } catch (DuplicateKeyException e) {
+                // Outra instância criou a linha ao mesmo tempo
+                if (take(key, interval, burst, now)) {
+                    return Decision.ALLOWED;
+                }
+                tat = jdbcTemplate.queryForList(TAT_SQL, Long.class, key);
+            }
+        }
+        long retryAfter = Math.max(1, Math.max(tat.get(0), now) + interval - burst - now);
+        lease.deniedUntil = now + retryAfter;
+        return Decision.throttled(Duration.of(retryAfter, ChronoUnit.MICROS));
+    }
+
+    private boolean take(String key, long cost, long burst, long now) {
+        return jdbcTemplate.update(TAKE_SQL, now, cost, key, now, cost, burst, now) == 1;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${wivipay.rate-limit.idle-timeout:PT10M}")
+    public int evictIdle() {
+        long now = micros();
+        leases.values().removeIf(lease -> lease.isIdle(now));
+        fallback.evictIdle();
+        try {
+            return jdbcTemplate.update(PURGE_SQL, now - idleTimeout.toNanos() / 1000);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao remover baldes ociosos do limite compartilhado: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    // Microssegundos desde a época: o TAT é comparado entre instâncias, então vem do relógio de parede
+    private long micros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, clock.instant());
+    }
+
+    private static final class Lease {
+
+        private final AtomicInteger tokens = new AtomicInteger();
+        private volatile long expiresAt;
+        private volatile long deniedUntil;
+
+        boolean tryTake(long now) {
+            if (now >= expiresAt) {
+                return false;
+            }
+            int current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void grant(int granted, long until) {
+            tokens.set(granted);
+            expiresAt = until;
+        }
+
+        boolean isIdle(long now) {
+            return now >= expiresAt && now >= deniedUntil;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.wivipay.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clientes mais limitados na última janela, em {@code wivipay.rate_limit.top_throttled{client}}. Só os
+ * {@code top-clients} primeiros viram tag, para a cardinalidade da métrica não crescer com a base de
+ * clientes; a contagem da janela recomeça a cada publicação.
+ */
+public class ThrottledClients {
+
+    // Teto de clientes distintos contados por janela; além dele a contagem vai para "outros"
+    static final int MAX_TRACKED = 10_000;
+    static final String OTHERS = "outros";
+
+    private final int top;
+    private final MultiGauge gauge;
+    private volatile Map<String, LongAdder> window = new ConcurrentHashMap<>();
+
+    public ThrottledClients(int top, MeterRegistry meterRegistry) {
+        this.top = top;
+        this.gauge = MultiGauge.builder("wivipay.rate_limit.top_throttled")
+                .description("Requisições recusadas por limite de taxa na última janela, pelos clientes mais limitados")
+                .register(meterRegistry);
+    }
+
+    public void record(String client) {
+        Map<String, LongAdder> counts = window;
+        LongAdder count = counts.get(client);
+        if (count == null) {
+            String key = counts.size() < MAX_TRACKED ? client : OTHERS;
+            count = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Fecha a janela e publica os mais limitados dela.
+     */
+    @Scheduled(fixedDelayString = "${wivipay.rate-limit.top-clients-window:PT1M}")
+    public List<Map.Entry<String, Long>> publish() {
+        Map<String, LongAdder> closed = window;
+        window = new ConcurrentHashMap<>();
+        List<Map.Entry<String, Long>> ranking = closed.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .toList();
+        gauge.register(ranking.stream()
+                .<MultiGauge.Row<?>>map(entry -> MultiGauge.Row.of(Tags.of("client", entry.getKey()), entry.getValue()))
+                .toList(), true);
+        return ranking;
+    }
+}
@@ -0,0 +1,52 @@
+package com.wivipay.gateway.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem lock, na forma do GCRA: o estado é um único instante, o TAT ("theoretical
+ * arrival time"), num AtomicLong. Cada ficha empurra o TAT um intervalo (1 / rate) à frente; a
+ * requisição passa se o TAT não ficar mais que {@code burst} intervalos à frente de agora. Equivale a
+ * um balde de capacidade {@code burst} reposto a {@code rate} fichas por segundo, sem reposição em
+ * segundo plano e com um compareAndSet por requisição.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong tat;
+
+    public TokenBucket(RateLimitProperties.Limit limit, long nowNanos) {
+        this.intervalNanos = intervalNanos(limit);
+        this.burstNanos = intervalNanos * Math.max(1, limit.getBurst());
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    public RateLimiter.Decision tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long allowedAt = next - burstNanos;
+            if (allowedAt > nowNanos) {
+                return RateLimiter.Decision.throttled(Duration.ofNanos(allowedAt - nowNanos));
+            }
+            if (tat.compareAndSet(current, next)) {
+                return RateLimiter.Decision.ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * Cheio desde {@code sinceNanos}: equivale a um balde novo e pode ser descartado.
+     */
+    public boolean isFullSince(long sinceNanos) {
+        return tat.get() <= sinceNanos;
+    }
+
+    static long intervalNanos(RateLimitProperties.Limit limit) {
+        if (limit.getRate() <= 0) {
+            throw new IllegalArgumentException("Taxa do limite deve ser maior que zero");
+        }
+        return Math.max(1, Math.round(1_000_000_000d / limit.getRate()));
+    }
+}
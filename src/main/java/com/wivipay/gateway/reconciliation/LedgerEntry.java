@@ -0,0 +1,9 @@
+package com.wivipay.gateway.reconciliation;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+
+/**
+ * Transação do gateway, reduzida ao que a conciliação compara.
+ */
+public record LedgerEntry(String providerTransactionId, long amountMinor, String currency, PaymentStatus status) {
+}
@@ -0,0 +1,50 @@
+package com.wivipay.gateway.reconciliation;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+
+/**
+ * Divergência entre o arquivo de liquidação e o gateway. Os campos do lado ausente ficam nulos.
+ *
+ * @param line linha do arquivo (1 = primeiro registro após o cabeçalho); 0 quando só existe no gateway
+ */
+public record Mismatch(Type type,
+                       String providerTransactionId,
+                       long line,
+                       Long settlementAmountMinor,
+                       Long gatewayAmountMinor,
+                       String currency,
+                       PaymentStatus settlementStatus,
+                       PaymentStatus gatewayStatus) {
+
+    public enum Type {
+        // No arquivo e não no gateway
+        MISSING_IN_GATEWAY,
+        // Capturada no gateway e fora do arquivo
+        MISSING_IN_SETTLEMENT,
+        // Valor ou moeda diferentes
+        AMOUNT_DIFFERS,
+        STATUS_DIFFERS,
+        // Mesma transação em mais de uma linha do arquivo
+        DUPLICATE_IN_SETTLEMENT
+    }
+
+    static Mismatch missingInGateway(SettlementLine line) {
+        return new Mismatch(Type.MISSING_IN_GATEWAY, line.providerTransactionId(), line.line(), line.amountMinor(),
+                null, line.currency(), line.status(), null);
+    }
+
+    static Mismatch missingInSettlement(LedgerEntry entry) {
+        return new Mismatch(Type.MISSING_IN_SETTLEMENT, entry.providerTransactionId(), 0, null, entry.amountMinor(),
+                entry.currency(), null, entry.status());
+    }
+
+    static Mismatch duplicate(SettlementLine line) {
+        return new Mismatch(Type.DUPLICATE_IN_SETTLEMENT, line.providerTransactionId(), line.line(), line.amountMinor(),
+                null, line.currency(), line.status(), null);
+    }
+
+    static Mismatch of(Type type, SettlementLine line, LedgerEntry entry) {
+        return new Mismatch(type, line.providerTransactionId(), line.line(), line.amountMinor(), entry.amountMinor(),
+                line.currency(), line.status(), entry.status());
+    }
+}
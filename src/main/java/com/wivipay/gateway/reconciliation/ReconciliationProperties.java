@@ -0,0 +1,29 @@
+package com.wivipay.gateway.reconciliation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.reconciliation")
+public class ReconciliationProperties {
+
+    // Arquivos de divergências de cada conciliação e partições temporárias do join
+    private String directory = "data/reconciliation";
+
+    // Transações do período mantidas em memória (~200 bytes cada); acima disso o join vai para disco
+    private int maxInMemoryEntries = 1_000_000;
+
+    // Partições do join em disco; comporta até maxInMemoryEntries * spillPartitions transações
+    private int spillPartitions = 64;
+
+    // Linhas trazidas por ida ao banco pelo cursor
+    private int fetchSize = 5000;
+
+    // Divergências e erros devolvidos na resposta; a lista completa fica no arquivo
+    private int reportLimit = 1000;
+
+    // Arquivos de divergências mais antigos que isto são apagados
+    private Duration retention = Duration.ofDays(30);
+}
@@ -0,0 +1,325 @@
+package com.wivipay.gateway.reconciliation;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.reconciliation.Mismatch.Type;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hash join entre as transações do gateway (lado de construção, vindas do cursor) e as linhas do
+ * arquivo de liquidação (lado de sondagem, lidas em streaming). Nenhum dos lados é guardado
+ * inteiro: o arquivo passa linha a linha e a tabela guarda só as transações do período.
+ * <p>
+ * Se o período tiver mais de {@code maxInMemoryEntries} transações, os dois lados são divididos em
+ * {@code partitions} arquivos pelo hash do id (grace hash join) e cada partição é conciliada
+ * sozinha, com a tabela cabendo em memória.
+ * <p>
+ * Linhas sem transação no período são consultadas em lote por id ({@code lookup}) antes de virarem
+ * {@link Type#MISSING_IN_GATEWAY}: liquidações de transações criadas pouco antes do início do período
+ * são comparadas normalmente.
+ */
+@Slf4j
+public class SettlementJoin implements AutoCloseable {
+
+    // Status que o provedor liquida; os demais não precisam estar no arquivo
+    private static final Set<PaymentStatus> SETTLED =
+            Set.of(PaymentStatus.CAPTURED, PaymentStatus.REFUNDED, PaymentStatus.CHARGED_BACK);
+
+    private static final int LOOKUP_BATCH = 500;
+
+    // Marca a transação já encontrada no arquivo, liberando a entrada
+    private static final LedgerEntry MATCHED = new LedgerEntry(null, 0, null, null);
+
+    private final int maxInMemoryEntries;
+    private final int partitions;
+    private final Path spillDirectory;
+    private final Function<Collection<String>, List<LedgerEntry>> lookup;
+    private final Consumer<Mismatch> sink;
+
+    private final Map<String, LedgerEntry> table = new HashMap<>();
+    private final List<SettlementLine> unmatched = new ArrayList<>(LOOKUP_BATCH);
+    private final Map<Type, Long> mismatches = new EnumMap<>(Type.class);
+    private long ledgerEntries;
+    private long settlementLines;
+    private long matched;
+
+    private DataOutputStream[] ledgerSpill;
+    private DataOutputStream[] settlementSpill;
+
+    public SettlementJoin(int maxInMemoryEntries, int partitions, Path spillDirectory,
+                          Function<Collection<String>, List<LedgerEntry>> lookup, Consumer<Mismatch> sink) {
+        this.maxInMemoryEntries = maxInMemoryEntries;
+        this.partitions = partitions;
+        this.spillDirectory = spillDirectory;
+        this.lookup = lookup;
+        this.sink = sink;
+    }
+
+    /**
+     * Fase de construção: todas as transações do período, antes da primeira linha do arquivo.
+     */
+    public void addLedger(LedgerEntry entry) {
+        ledgerEntries++;
+        if (ledgerSpill != null) {
+            writeLedger(ledgerSpill[partition(entry.providerTransactionId())], entry);
+            return;
+        }
+        table.put(entry.providerTransactionId(), entry);
+        if (table.size() > maxInMemoryEntries) {
+            spill();
+        }
+    }
+
+    public void probe(SettlementLine line) {
+        settlementLines++;
+        if (settlementSpill != null) {
+            writeSettlement(settlementSpill[partition(line.providerTransactionId())], line);
+        } else {
+            match(line);
+        }
+    }
+
+    /**
+     * Concilia o que falta (partições em disco, linhas pendentes de consulta e transações fora do
+     * arquivo) e devolve o resultado.
+     */
+    public Result finish() {
+        if (ledgerSpill == null) {
+            flushUnmatched();
+            sweep();
+        } else {
+            closeAll(ledgerSpill);
+            closeAll(settlementSpill);
+            for (int partition = 0; partition < partitions; partition++) {
+                joinPartition(partition);
+            }
+        }
+        return new Result(ledgerEntries, settlementLines, matched, Map.copyOf(mismatches), ledgerSpill != null);
+    }
+
+    private void match(SettlementLine line) {
+        LedgerEntry entry = table.get(line.providerTransactionId());
+        if (entry == MATCHED) {
+            emit(Mismatch.duplicate(line));
+        } else if (entry == null) {
+            unmatched.add(line);
+            if (unmatched.size() == LOOKUP_BATCH) {
+                flushUnmatched();
+            }
+        } else {
+            table.put(line.providerTransactionId(), MATCHED);
+            compare(line, entry);
+        }
+    }
+
+    private void compare(SettlementLine line, LedgerEntry entry) {
+        if (line.amountMinor() != entry.amountMinor() || !line.currency().equals(entry.currency())) {
+            emit(Mismatch.of(Type.AMOUNT_DIFFERS, line, entry));
+        } else if (line.status() != entry.status()) {
+            emit(Mismatch.of(Type.STATUS_DIFFERS, line, entry));
+        } else {
+            matched++;
+        }
+    }
+
+    // Linhas sem transação no período: uma consulta por lote, pelo índice do id do provedor
+    private void flushUnmatched() {
+        if (unmatched.isEmpty()) {
+            return;
+        }
+        Map<String, LedgerEntry> found = lookup.apply(unmatched.stream().map(SettlementLine::providerTransactionId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(LedgerEntry::providerTransactionId, Function.identity(), (a, b) -> a));
+        for (SettlementLine line : unmatched) {
+            LedgerEntry entry = found.get(line.providerTransactionId());
+            if (entry == null) {
+                emit(Mismatch.missingInGateway(line));
+            } else {
+                compare(line, entry);
+            }
+        }
+        unmatched.clear();
+    }
+
+    private void sweep() {
+        for (LedgerEntry entry : table.values()) {
+            if (entry != MATCHED && SETTLED.contains(entry.status())) {
+                emit(Mismatch.missingInSettlement(entry));
+            }
+        }
+        table.clear();
+    }
+
+    private void emit(Mismatch mismatch) {
+        mismatches.merge(mismatch.type(), 1L, Long::sum);
+        sink.accept(mismatch);
+    }
+
+    private int partition(String providerTransactionId) {
+        return Math.floorMod(providerTransactionId.hashCode() * 0x9E3779B9, partitions);
+    }
+
+    private void spill() {
+        log.info("Conciliação com mais de {} transações: particionando em {} arquivos em {}",
+                maxInMemoryEntries, partitions, spillDirectory);
+        try {
+            Files.createDirectories(spillDirectory);
+            ledgerSpill = open("ledger");
+            settlementSpill = open("settlement");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar os arquivos de conciliação", e);
+        }
+        for (LedgerEntry entry : table.values()) {
+            writeLedger(ledgerSpill[partition(entry.providerTransactionId())], entry);
+        }
+        table.clear();
+    }
+
+    private void joinPartition(int partition) {
+        try (DataInputStream ledger = input("ledger", partition);
+             DataInputStream settlement = input("settlement", partition)) {
+            LedgerEntry entry;
+            while ((entry = readLedger(ledger)) != null) {
+                table.put(entry.providerTransactionId(), entry);
+            }
+            SettlementLine line;
+            while ((line = readSettlement(settlement)) != null) {
+                match(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a partição " + partition + " da conciliação", e);
+        }
+        flushUnmatched();
+        sweep();
+    }
+
+    private DataOutputStream[] open(String side) throws IOException {
+        DataOutputStream[] outputs = new DataOutputStream[partitions];
+        for (int partition = 0; partition < partitions; partition++) {
+            outputs[partition] = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file(side, partition)), 16 * 1024));
+        }
+        return outputs;
+    }
+
+    private DataInputStream input(String side, int partition) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file(side, partition)), 64 * 1024));
+    }
+
+    private Path file(String side, int partition) {
+        return spillDirectory.resolve(side + "-" + partition + ".bin");
+    }
+
+    private static void writeLedger(DataOutputStream out, LedgerEntry entry) {
+        try {
+            out.writeUTF(entry.providerTransactionId());
+            out.writeLong(entry.amountMinor());
+            out.writeUTF(entry.currency());
+            out.writeByte(entry.status().ordinal());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a partição da conciliação", e);
+        }
+    }
+
+    private static void writeSettlement(DataOutputStream out, SettlementLine line) {
+        try {
+            out.writeLong(line.line());
+            out.writeUTF(line.providerTransactionId());
+            out.writeLong(line.amountMinor());
+            out.writeUTF(line.currency());
+            out.writeByte(line.status().ordinal());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a partição da conciliação", e);
+        }
+    }
+
+    private static LedgerEntry readLedger(DataInputStream in) throws IOException {
+        String id;
+        try {
+            id = in.readUTF();
+        } catch (EOFException e) {
+            return null;
+        }
+        return new LedgerEntry(id, in.readLong(), in.readUTF(), PaymentStatus.values()[in.readByte()]);
+    }
+
+    private static SettlementLine readSettlement(DataInputStream in) throws IOException {
+        long line;
+        try {
+            line = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        return new SettlementLine(line, in.readUTF(), in.readLong(), in.readUTF(), PaymentStatus.values()[in.readByte()]);
+    }
+
+    private static void closeAll(DataOutputStream[] outputs) {
+        IOException failure = null;
+        for (DataOutputStream output : outputs) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Falha ao gravar a partição da conciliação", failure);
+        }
+    }
+
+    /**
+     * Apaga os arquivos de partição, se houver; também depois de uma falha no meio da conciliação.
+     */
+    @Override
+    public void close() {
+        if (ledgerSpill == null) {
+            return;
+        }
+        try {
+            closeAll(ledgerSpill);
+            closeAll(settlementSpill);
+        } catch (UncheckedIOException e) {
+            // Os arquivos serão apagados de qualquer forma
+        }
+        try (var files = Files.list(spillDirectory)) {
+            for (Iterator<Path> it = files.iterator(); it.hasNext(); ) {
+                Files.deleteIfExists(it.next());
+            }
+            Files.deleteIfExists(spillDirectory);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar os arquivos de conciliação em {}: {}", spillDirectory, e.getMessage());
+        }
+    }
+
+    /**
+     * @param spilled true se o período não coube em memória e foi conciliado por partições
+     */
+    public record Result(long ledgerEntries, long settlementLines, long matched, Map<Type, Long> mismatches,
+                         boolean spilled) {
+
+        public long count(Type type) {
+            return mismatches.getOrDefault(type, 0L);
+        }
+    }
+}
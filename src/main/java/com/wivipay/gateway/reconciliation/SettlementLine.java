@@ -0,0 +1,56 @@
+package com.wivipay.gateway.reconciliation;
+
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.importer.ImportRecord;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Linha do arquivo de liquidação do provedor: {@code transactionId,amount,currency,status}, com o
+ * valor em unidades da moeda ({@code 1234.50}).
+ */
+public record SettlementLine(long line, String providerTransactionId, long amountMinor, String currency,
+                             PaymentStatus status) {
+
+    public static SettlementLine parse(ImportRecord record) {
+        if (record.error() != null) {
+            throw new ValidationException(record.error());
+        }
+        String id = record.get("transactionId");
+        if (id == null) {
+            throw new ValidationException("transactionId é obrigatório");
+        }
+        CurrencyCode currency = CurrencyCode.fromCode(record.get("currency"));
+        if (currency == null) {
+            throw new ValidationException("Moeda inválida: " + record.get("currency"));
+        }
+        String amount = record.get("amount");
+        Money money;
+        try {
+            money = Money.of(new BigDecimal(amount == null ? "" : amount.strip()), currency);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Valor inválido: " + amount);
+        }
+        return new SettlementLine(record.lineNumber(), id, money.minor(), currency.name(), status(record.get("status")));
+    }
+
+    // Os relatórios dos provedores usam termos próprios para a mesma situação. REVERSED é a captura
+    // revertida por disputa, como em PAYMENT.CAPTURE.REVERSED do PayPal, e não um estorno
+    private static PaymentStatus status(String status) {
+        if (status == null) {
+            throw new ValidationException("status é obrigatório");
+        }
+        return switch (status.strip().toUpperCase(Locale.ROOT)) {
+            case "CAPTURED", "SETTLED", "PAID", "COMPLETED" -> PaymentStatus.CAPTURED;
+            case "REFUNDED" -> PaymentStatus.REFUNDED;
+            case "CHARGED_BACK", "CHARGEBACK", "DISPUTED", "REVERSED" -> PaymentStatus.CHARGED_BACK;
+            case "AUTHORIZED" -> PaymentStatus.AUTHORIZED;
+            case "FAILED", "DECLINED", "VOIDED" -> PaymentStatus.FAILED;
+            default -> throw new ValidationException("Status desconhecido: " + status);
+        };
+    }
+}
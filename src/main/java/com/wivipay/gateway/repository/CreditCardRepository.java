@@ -3,8 +3,12 @@ package com.wivipay.gateway.repository;
 import com.wivipay.gateway.model.CreditCard;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,9 +19,35 @@ public interface CreditCardRepository extends JpaRepository<CreditCard, UUID>,
     
     List<CreditCard> findByCustomerId(UUID customerId);
     
+    // Projeção fechada: só as colunas do ETag da lista de cartões do cliente
+    List<CardVersion> findVersionsByCustomerIdOrderById(UUID customerId);
+    
     Optional<CreditCard> findByProviderCardId(String providerCardId);
     
     Optional<CreditCard> findByCustomerIdAndIsDefaultTrue(UUID customerId);
     
     boolean existsByProviderCardId(String providerCardId);
+    
+    /**
+     * Marca {@code cardId} como padrão e desmarca o anterior num único UPDATE que só toca essas duas
+     * linhas, independentemente de quantos cartões o cliente tem. A regra de um padrão por cliente
+     * é verificada no commit (ver V8): numa troca concorrente, a segunda transação falha com
+     * violação de integridade em vez de deixar dois cartões padrão.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditCard c SET c.isDefault = CASE WHEN c.id = :cardId THEN TRUE ELSE FALSE END " +
+           "WHERE c.customer.id = :customerId AND (c.isDefault = TRUE OR c.id = :cardId)")
+    int switchDefaultCard(@Param("customerId") UUID customerId, @Param("cardId") UUID cardId);
+    
+    /**
+     * O {@link #switchDefaultCard} não passa pela entidade e não muda o updated_at: por isso o
+     * {@code isDefault} entra no ETag junto com ele.
+     */
+    interface CardVersion {
+        UUID getId();
+        
+        LocalDateTime getUpdatedAt();
+        
+        Boolean getIsDefault();
+    }
 }
@@ -3,8 +3,11 @@ package com.wivipay.gateway.repository;
 import com.wivipay.gateway.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,4 +22,8 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID>,
     boolean existsByEmail(String email);
     
     boolean existsByDocument(String document);
+    
+    // ETag do GET condicional, sem carregar o cliente
+    @Query("SELECT c.updatedAt FROM Customer c WHERE c.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") UUID id);
 }
@@ -0,0 +1,17 @@
+package com.wivipay.gateway.repository;
+
+import com.wivipay.gateway.model.PaymentTransaction;
+
+import java.util.List;
+
+/**
+ * Busca por par de metadado, com SQL próprio de cada banco: contenção JSONB ({@code @>}, pelo
+ * índice GIN da V12) no PostgreSQL e LIKE sobre a forma canônica no H2.
+ */
+public interface PaymentMetadataSearch {
+
+    /**
+     * Transações cujo metadado {@code key} vale {@code value}, mais recentes primeiro.
+     */
+    List<PaymentTransaction> findByMetadata(String key, String value, int limit);
+}
@@ -0,0 +1,37 @@
+package com.wivipay.gateway.repository;
+
+import com.wivipay.gateway.model.PaymentMetadata;
+import com.wivipay.gateway.model.PaymentTransaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+
+class PaymentMetadataSearchImpl implements PaymentMetadataSearch {
+
+    private static final String POSTGRES_QUERY =
+            "SELECT * FROM payment_transactions WHERE metadata @> CAST(:filter AS jsonb) " +
+            "ORDER BY created_at DESC LIMIT :limit";
+
+    private static final String LIKE_QUERY =
+            "SELECT * FROM payment_transactions WHERE CAST(metadata AS VARCHAR) LIKE :filter ESCAPE '\\' " +
+            "ORDER BY created_at DESC LIMIT :limit";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<PaymentTransaction> findByMetadata(String key, String value, int limit) {
+        boolean postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return entityManager.createNativeQuery(postgres ? POSTGRES_QUERY : LIKE_QUERY, PaymentTransaction.class)
+                .setParameter("filter", postgres
+                        ? PaymentMetadata.filter(key, value)
+                        : PaymentMetadata.likePattern(key, value))
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.wivipay.gateway.repository;
+
+import com.wivipay.gateway.model.PaymentPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface PaymentPayloadRepository extends JpaRepository<PaymentPayload, UUID> {
+}
@@ -1,15 +1,74 @@
 package com.wivipay.gateway.repository;
 
 import com.wivipay.gateway.model.PaymentTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PaymentTransactionRepository extends JpaRepository<PaymentTransaction, UUID>, 
-                                                    JpaSpecificationExecutor<PaymentTransaction> {
+                                                    JpaSpecificationExecutor<PaymentTransaction>,
+                                                    PaymentMetadataSearch {
     
     PaymentTransaction findByProviderTransactionId(String providerTransactionId);
+    
+    List<PaymentTransaction> findByProviderAndProviderTransactionIdIn(String provider, Collection<String> providerTransactionIds);
+    
+    /*
+     * Leituras que precedem um UPDATE condicional (transitionStatus) ou um insert. Os métodos do Spring
+     * Data são readOnly e iriam para uma réplica, cujo status e versão atrasados fariam o compare-and-set
+     * falhar ou agir sobre um estado velho; @Transactional sem readOnly as mantém no primário.
+     */
+    
+    @Transactional
+    Optional<PaymentTransaction> findCurrentById(UUID id);
+    
+    // Reaplicação do diário: uma réplica atrasada não veria o insert e a transação seria gravada de novo
+    @Transactional
+    boolean existsCurrentById(UUID id);
+    
+    // Um SELECT por lote de notificações, pelo índice de (provider, provider_transaction_id)
+    @Transactional
+    List<PaymentTransaction> findCurrentByProviderAndProviderTransactionIdIn(String provider,
+                                                                             Collection<String> providerTransactionIds);
+    
+    // Lote de prazos vencidos; o intervalo em created_at restringe a busca às partições do lote
+    @Transactional
+    List<PaymentTransaction> findByIdInAndCreatedAtBetween(Collection<UUID> ids, LocalDateTime from, LocalDateTime to);
+    
+    // Intervalo em created_at: o planejador só visita as partições dos meses pedidos
+    List<PaymentTransaction> findByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtDesc(
+            LocalDateTime from, LocalDateTime to, Pageable pageable);
+    
+    @Query("SELECT t.createdAt FROM PaymentTransaction t WHERE t.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") UUID id);
+    
+    // ETag do GET condicional: só a versão, sem carregar payload, metadados e demais colunas
+    @Query("SELECT t.version FROM PaymentTransaction t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+    
+    /**
+     * Troca o status só se a linha ainda estiver no status e na versão lidos (compare-and-set).
+     * Retorna 0 quando outra requisição chegou antes. O created_at restringe o UPDATE à partição da linha.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PaymentTransaction t SET t.status = :target, t.version = t.version + 1, t.updatedAt = LOCAL DATETIME " +
+           "WHERE t.id = :id AND t.createdAt = :createdAt AND t.status = :expected AND t.version = :version")
+    int transitionStatus(@Param("id") UUID id,
+                         @Param("createdAt") LocalDateTime createdAt,
+                         @Param("expected") PaymentTransaction.PaymentStatus expected,
+                         @Param("version") long version,
+                         @Param("target") PaymentTransaction.PaymentStatus target);
 } 
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.wivipay.gateway.repository;
 
 import com.wivipay.gateway.model.TransactionLog;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,7 +14,13 @@ import java.util.UUID;
 public interface TransactionLogRepository extends JpaRepository<TransactionLog, UUID>, 
                                                JpaSpecificationExecutor<TransactionLog> {
     
-    List<TransactionLog> findByTransactionIdOrderByCreatedAtDesc(UUID transactionId);
+    // A transação vem junto: sem open-in-view o proxy lazy não pode ser serializado depois.
+    // O limite inferior em created_at descarta as partições anteriores à transação.
+    @EntityGraph(attributePaths = "transaction")
+    List<TransactionLog> findByTransactionIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(UUID transactionId,
+                                                                                          LocalDateTime since);
     
-    List<TransactionLog> findByTransactionIdAndStatus(UUID transactionId, String status);
+    @EntityGraph(attributePaths = "transaction")
+    List<TransactionLog> findByTransactionIdAndStatusAndCreatedAtGreaterThanEqual(UUID transactionId, String status,
+                                                                                  LocalDateTime since);
 }
@@ -0,0 +1,95 @@
+package com.wivipay.gateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda os tokens já verificados pelo {@code delegate}, pelo SHA-256 do token, até o {@code exp}
+ * deles. Um PDV reusa o mesmo token milhares de vezes: só a primeira requisição paga o parse e a
+ * verificação RSA; as demais custam um hash. Falhas não entram no cache, e tokens sem {@code exp}
+ * são verificados toda vez.
+ * <p>
+ * Com o cache cheio, os expirados saem (no máximo uma varredura por segundo); se nenhum tiver
+ * expirado, o token novo é verificado sem ser guardado.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofSeconds(1);
+
+    private final JwtDecoder delegate;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Jwt> cache = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private volatile Instant lastPurge = Instant.EPOCH;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("wivipay.jwt.decode", "outcome", "hit");
+        this.misses = meterRegistry.counter("wivipay.jwt.decode", "outcome", "miss");
+        meterRegistry.gaugeMapSize("wivipay.jwt.cache.size", Tags.empty(), cache);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Instant now = clock.instant();
+        String key = hash(token);
+        Jwt cached = cache.get(key);
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt())) {
+                hits.increment();
+                return cached;
+            }
+            cache.remove(key, cached);
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt()) && hasRoom(now)) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private boolean hasRoom(Instant now) {
+        if (cache.size() < maxSize) {
+            return true;
+        }
+        if (now.isBefore(lastPurge.plus(PURGE_INTERVAL))) {
+            return false;
+        }
+        lastPurge = now;
+        cache.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+        return cache.size() < maxSize;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.wivipay.gateway.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.URI;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig {
+
+    @Bean
+    public PrefetchingJwkSource jwkSource(
+            JwtProperties properties, RestTemplateBuilder builder,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:http://localhost:8080/auth/realms/gateway/protocol/openid-connect/certs}") String jwkSetUri) {
+        PrefetchingJwkSource source = new PrefetchingJwkSource(
+                builder.setConnectTimeout(properties.getJwkConnectTimeout())
+                        .setReadTimeout(properties.getJwkReadTimeout())
+                        .build(),
+                URI.create(jwkSetUri), properties.getJwkMinRefreshInterval(),
+                new SimpleAsyncTaskExecutor("jwk-refresh-"), Clock.systemDefaultZone());
+        // Na subida, antes da primeira requisição; se o Keycloak estiver fora, o primeiro token pede nova leitura
+        source.refresh();
+        return source;
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(PrefetchingJwkSource jwkSource, JwtProperties properties, MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims validados pelo JwtValidators, como no decoder padrão do Spring
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefault());
+        if (properties.getCacheSize() <= 0) {
+            return decoder;
+        }
+        return new CachingJwtDecoder(decoder, properties.getCacheSize(), meterRegistry, Clock.systemDefaultZone());
+    }
+}
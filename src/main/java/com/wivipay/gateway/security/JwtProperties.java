@@ -0,0 +1,23 @@
+package com.wivipay.gateway.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.jwt")
+public class JwtProperties {
+
+    // Tokens já verificados guardados até a expiração; 0 desliga o cache
+    private int cacheSize = 10_000;
+
+    // Chaves do Keycloak relidas em segundo plano neste intervalo
+    private Duration jwkRefreshInterval = Duration.ofMinutes(5);
+
+    // Intervalo mínimo entre leituras pedidas por tokens com kid desconhecido (rotação de chave)
+    private Duration jwkMinRefreshInterval = Duration.ofSeconds(30);
+
+    private Duration jwkConnectTimeout = Duration.ofSeconds(2);
+    private Duration jwkReadTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,122 @@
+package com.wivipay.gateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chaves públicas do Keycloak em memória, indexadas por {@code kid}. São lidas na subida e relidas em
+ * segundo plano a cada {@code jwk-refresh-interval}; a verificação de um token nunca espera pelo
+ * Keycloak. Se a leitura falhar, as chaves anteriores continuam valendo.
+ * <p>
+ * Um token com {@code kid} desconhecido (chave recém-rotacionada) é recusado na hora e pede uma
+ * releitura em segundo plano, no máximo uma a cada {@code jwk-min-refresh-interval}.
+ */
+@Slf4j
+public class PrefetchingJwkSource implements JWKSource<SecurityContext> {
+
+    private final RestOperations restOperations;
+    private final URI jwkSetUri;
+    private final Duration minRefreshInterval;
+    private final Executor executor;
+    private final Clock clock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Keys keys = new Keys(new JWKSet(), Map.of());
+    private volatile Instant lastAttempt = Instant.EPOCH;
+
+    public PrefetchingJwkSource(RestOperations restOperations, URI jwkSetUri, Duration minRefreshInterval,
+                                Executor executor, Clock clock) {
+        this.restOperations = restOperations;
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshInterval = minRefreshInterval;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) {
+        Keys current = keys;
+        JWKMatcher matcher = selector.getMatcher();
+        Set<String> kids = matcher.getKeyIDs();
+        List<JWK> found;
+        if (kids != null && kids.size() == 1) {
+            JWK key = current.byKid().get(kids.iterator().next());
+            found = key != null && matcher.matches(key) ? List.of(key) : List.of();
+        } else {
+            found = selector.select(current.set());
+        }
+        if (found.isEmpty()) {
+            requestRefresh();
+        }
+        return found;
+    }
+
+    /**
+     * @return false se a leitura falhou; as chaves anteriores são mantidas
+     */
+    @Scheduled(fixedDelayString = "${wivipay.jwt.jwk-refresh-interval:PT5M}",
+            initialDelayString = "${wivipay.jwt.jwk-refresh-interval:PT5M}")
+    public boolean refresh() {
+        lastAttempt = clock.instant();
+        try {
+            JWKSet set = JWKSet.parse(restOperations.getForObject(jwkSetUri, String.class)).toPublicJWKSet();
+            Map<String, JWK> byKid = new HashMap<>();
+            for (JWK key : set.getKeys()) {
+                if (key.getKeyID() != null) {
+                    byKid.put(key.getKeyID(), key);
+                }
+            }
+            keys = new Keys(set, Map.copyOf(byKid));
+            log.debug("{} chaves públicas lidas de {}", set.getKeys().size(), jwkSetUri);
+            return true;
+        } catch (RestClientException | ParseException | NullPointerException e) {
+            log.warn("Falha ao ler as chaves públicas de {}; mantendo as {} anteriores: {}",
+                    jwkSetUri, keys.set().getKeys().size(), e.getMessage());
+            return false;
+        }
+    }
+
+    public int size() {
+        return keys.set().getKeys().size();
+    }
+
+    private void requestRefresh() {
+        if (clock.instant().isBefore(lastAttempt.plus(minRefreshInterval)) || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+    }
+
+    private record Keys(JWKSet set, Map<String, JWK> byKid) {
+    }
+}
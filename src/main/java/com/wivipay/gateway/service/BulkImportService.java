@@ -0,0 +1,361 @@
+package com.wivipay.gateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.dto.ImportReport;
+import com.wivipay.gateway.dto.ImportReport.RowError;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.importer.ImportFormat;
+import com.wivipay.gateway.importer.ImportRecord;
+import com.wivipay.gateway.importer.ImportRecordReader;
+import com.wivipay.gateway.importer.StagingWriter;
+import com.wivipay.gateway.model.CreditCard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Importação em lote de clientes e cartões, para o onboarding de lojistas com centenas de milhares
+ * de registros.
+ * <p>
+ * O arquivo é lido em streaming e cada registro passa pelas validações de formato em memória; os
+ * válidos vão para uma área de preparação (COPY no PostgreSQL, insert em lote nos demais). As
+ * regras que dependem do banco (duplicados no arquivo e contra {@code customers}/{@code credit_cards})
+ * são alguns {@code UPDATE}s sobre a área de preparação inteira, e a gravação final é um
+ * {@code INSERT ... SELECT} por bloco de linhas, cada bloco na sua transação.
+ * <p>
+ * Se um bloco falhar (por exemplo, um cliente cadastrado por outra requisição durante a importação),
+ * os blocos anteriores permanecem gravados; reenviar o arquivo é seguro, pois registros já
+ * cadastrados são ignorados.
+ */
+@Slf4j
+@Service
+@Workload(WorkloadType.CRUD)
+public class BulkImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern DOCUMENT = Pattern.compile("^\\d{11}|\\d{14}$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?\\d{10,14}$");
+
+    private static final Plan CUSTOMERS = new Plan(
+            "customer_import_staging",
+            List.of("import_id", "line_number", "customer_id", "external_id", "name", "email", "document", "phone"),
+            "external_id", "externalId",
+            List.of(
+                    // Mesmo ID externo mais de uma vez no arquivo: vale o primeiro
+                    """
+                    UPDATE customer_import_staging s SET error = 'ID externo repetido no arquivo'
+                    WHERE s.import_id = ? AND EXISTS (
+                        SELECT 1 FROM customer_import_staging o
+                        WHERE o.import_id = s.import_id AND o.external_id = s.external_id
+                          AND o.line_number < s.line_number)
+                    """,
+                    """
+                    UPDATE customer_import_staging s SET existing = TRUE
+                    WHERE s.import_id = ? AND s.error IS NULL AND EXISTS (
+                        SELECT 1 FROM customers c WHERE c.external_id = s.external_id)
+                    """,
+                    """
+                    UPDATE customer_import_staging s SET error = 'Email repetido no arquivo'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE AND s.email IS NOT NULL
+                      AND EXISTS (
+                        SELECT 1 FROM customer_import_staging o
+                        WHERE o.import_id = s.import_id AND o.email = s.email
+                          AND o.line_number < s.line_number AND o.error IS NULL AND o.existing = FALSE)
+                    """,
+                    """
+                    UPDATE customer_import_staging s SET error = 'Documento repetido no arquivo'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE AND s.document IS NOT NULL
+                      AND EXISTS (
+                        SELECT 1 FROM customer_import_staging o
+                        WHERE o.import_id = s.import_id AND o.document = s.document
+                          AND o.line_number < s.line_number AND o.error IS NULL AND o.existing = FALSE)
+                    """,
+                    """
+                    UPDATE customer_import_staging s SET error = 'Email já cadastrado'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE
+                      AND EXISTS (SELECT 1 FROM customers c WHERE c.email = s.email)
+                    """,
+                    """
+                    UPDATE customer_import_staging s SET error = 'Documento já cadastrado'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE
+                      AND EXISTS (SELECT 1 FROM customers c WHERE c.document = s.document)
+                    """),
+            """
+            INSERT INTO customers (id, external_id, name, email, document, phone, created_at, updated_at)
+            SELECT s.customer_id, s.external_id, s.name, s.email, s.document, s.phone, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM customer_import_staging s
+            WHERE s.import_id = ? AND s.line_number > ? AND s.line_number <= ?
+              AND s.error IS NULL AND s.existing = FALSE
+            """);
+
+    private static final Plan CREDIT_CARDS = new Plan(
+            "credit_card_import_staging",
+            List.of("import_id", "line_number", "card_id", "customer_external_id", "provider_card_id",
+                    "last_four_digits", "brand", "expiration_month", "expiration_year", "is_default"),
+            "provider_card_id", "providerCardId",
+            List.of(
+                    """
+                    UPDATE credit_card_import_staging s SET error = 'Cartão repetido no arquivo'
+                    WHERE s.import_id = ? AND EXISTS (
+                        SELECT 1 FROM credit_card_import_staging o
+                        WHERE o.import_id = s.import_id AND o.provider_card_id = s.provider_card_id
+                          AND o.line_number < s.line_number)
+                    """,
+                    """
+                    UPDATE credit_card_import_staging s
+                    SET customer_id = (SELECT c.id FROM customers c WHERE c.external_id = s.customer_external_id)
+                    WHERE s.import_id = ? AND s.error IS NULL
+                    """,
+                    """
+                    UPDATE credit_card_import_staging s SET error = 'Cliente não encontrado'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.customer_id IS NULL
+                    """,
+                    """
+                    UPDATE credit_card_import_staging s SET existing = TRUE
+                    WHERE s.import_id = ? AND s.error IS NULL AND EXISTS (
+                        SELECT 1 FROM credit_cards cc
+                        WHERE cc.provider_card_id = s.provider_card_id AND cc.customer_id = s.customer_id)
+                    """,
+                    """
+                    UPDATE credit_card_import_staging s SET error = 'Cartão já cadastrado para outro cliente'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE
+                      AND EXISTS (SELECT 1 FROM credit_cards cc WHERE cc.provider_card_id = s.provider_card_id)
+                    """,
+                    """
+                    UPDATE credit_card_import_staging s SET error = 'Mais de um cartão padrão para o cliente no arquivo'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE AND s.is_default = TRUE
+                      AND EXISTS (
+                        SELECT 1 FROM credit_card_import_staging o
+                        WHERE o.import_id = s.import_id AND o.customer_id = s.customer_id AND o.is_default = TRUE
+                          AND o.line_number < s.line_number AND o.error IS NULL AND o.existing = FALSE)
+                    """,
+                    """
+                    UPDATE credit_card_import_staging s SET error = 'Cliente já possui cartão padrão'
+                    WHERE s.import_id = ? AND s.error IS NULL AND s.existing = FALSE AND s.is_default = TRUE
+                      AND EXISTS (
+                        SELECT 1 FROM credit_cards cc WHERE cc.customer_id = s.customer_id AND cc.is_default = TRUE)
+                    """),
+            """
+            INSERT INTO credit_cards (id, customer_id, provider_card_id, last_four_digits, brand,
+                                      expiration_month, expiration_year, is_default, created_at, updated_at)
+            SELECT s.card_id, s.customer_id, s.provider_card_id, s.last_four_digits, s.brand,
+                   s.expiration_month, s.expiration_year, s.is_default, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM credit_card_import_staging s
+            WHERE s.import_id = ? AND s.line_number > ? AND s.line_number <= ?
+              AND s.error IS NULL AND s.existing = FALSE
+            """);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessValidationService businessValidationService;
+    private final EntityCountService entityCountService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             BusinessValidationService businessValidationService,
+                             EntityCountService entityCountService,
+                             ObjectMapper objectMapper,
+                             @Value("${wivipay.import.chunk-size:5000}") int chunkSize,
+                             @Value("${wivipay.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.businessValidationService = businessValidationService;
+        this.entityCountService = entityCountService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importCustomers(InputStream body, ImportFormat format) {
+        return run(CUSTOMERS, body, format, this::customerRow, entityCountService::customersImported);
+    }
+
+    public ImportReport importCreditCards(InputStream body, ImportFormat format) {
+        return run(CREDIT_CARDS, body, format, this::creditCardRow, entityCountService::creditCardsImported);
+    }
+
+    private ImportReport run(Plan plan, InputStream body, ImportFormat format,
+                             RowMapper rowMapper, LongConsumer onCreated) {
+        UUID importId = UUID.randomUUID();
+        long started = System.nanoTime();
+        List<RowError> errors = new ArrayList<>();
+        try {
+            long lastLine = stage(plan, importId, format.open(body, objectMapper), rowMapper, errors);
+
+            transactionTemplate.executeWithoutResult(status ->
+                    plan.validations().forEach(sql -> jdbcTemplate.update(sql, importId)));
+
+            long created = 0;
+            for (long chunk = 0; chunk < lastLine; chunk += chunkSize) {
+                long from = chunk;
+                created += transactionTemplate.execute(status -> {
+                    int inserted = jdbcTemplate.update(plan.merge(), importId, from, from + chunkSize);
+                    onCreated.accept(inserted);
+                    return (long) inserted;
+                });
+            }
+
+            errors.addAll(jdbcTemplate.query(
+                    "SELECT line_number, " + plan.keyColumn() + ", error FROM " + plan.table()
+                            + " WHERE import_id = ? AND error IS NOT NULL",
+                    (rs, i) -> new RowError(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                    importId));
+            errors.sort(Comparator.comparingLong(RowError::getLine));
+            Long skipped = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + plan.table() + " WHERE import_id = ? AND existing = TRUE",
+                    Long.class, importId);
+
+            double seconds = (System.nanoTime() - started) / 1e9;
+            log.info("Importação {} em {}: {} registros, {} gravados, {} ignorados, {} rejeitados em {}s ({} registros/s)",
+                    importId, plan.table(), lastLine, created, skipped, errors.size(),
+                    String.format("%.2f", seconds), Math.round(lastLine / Math.max(seconds, 1e-3)));
+            return new ImportReport(importId, lastLine, created, skipped, errors.size(), errors);
+        } finally {
+            jdbcTemplate.update("DELETE FROM " + plan.table() + " WHERE import_id = ?", importId);
+        }
+    }
+
+    /**
+     * Lê o arquivo e grava os registros válidos na área de preparação numa única transação.
+     *
+     * @return número do último registro lido
+     */
+    private long stage(Plan plan, UUID importId, ImportRecordReader reader,
+                       RowMapper rowMapper, List<RowError> errors) {
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            long lastLine = 0;
+            try (reader; StagingWriter writer = StagingWriter.open(connection, plan.table(), plan.columns(), batchSize)) {
+                ImportRecord record;
+                while ((record = reader.next()) != null) {
+                    lastLine = record.lineNumber();
+                    if (record.error() != null) {
+                        errors.add(new RowError(lastLine, null, record.error()));
+                        continue;
+                    }
+                    try {
+                        writer.write(rowMapper.toRow(importId, record));
+                    } catch (ValidationException e) {
+                        errors.add(new RowError(lastLine, record.get(plan.keyField()), String.join("; ", e.getViolations())));
+                    }
+                }
+                writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler o arquivo de importação", e);
+            }
+            return lastLine;
+        }));
+    }
+
+    private Object[] customerRow(UUID importId, ImportRecord record) {
+        List<String> violations = new ArrayList<>(0);
+        String externalId = required(record, "externalId", 100, "ID externo é obrigatório", violations);
+        String name = required(record, "name", 100, "Nome é obrigatório", violations);
+        String email = matching(record, "email", EMAIL, 100, "Email deve ser válido", violations);
+        String document = matching(record, "document", DOCUMENT, 20,
+                "CPF deve ter 11 dígitos ou CNPJ deve ter 14 dígitos", violations);
+        String phone = matching(record, "phone", PHONE, 20, "Telefone deve ser válido", violations);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations);
+        }
+        return new Object[] {importId, record.lineNumber(), UUID.randomUUID(), externalId, name, email, document, phone};
+    }
+
+    private Object[] creditCardRow(UUID importId, ImportRecord record) {
+        List<String> violations = new ArrayList<>(0);
+        String customerExternalId = required(record, "customerExternalId", 100,
+                "ID externo do cliente é obrigatório", violations);
+        String providerCardId = required(record, "providerCardId", 100,
+                "ID do cartão no provedor é obrigatório", violations);
+        // Mês e ano ilegíveis ficam nulos e são reportados pelas regras de cartão
+        Integer month = integer(record, "expirationMonth");
+        Integer year = integer(record, "expirationYear");
+        String isDefault = record.get("isDefault");
+        if (isDefault != null && !"true".equalsIgnoreCase(isDefault) && !"false".equalsIgnoreCase(isDefault)) {
+            violations.add("isDefault deve ser true ou false");
+        }
+
+        CreditCard card = new CreditCard();
+        card.setLastFourDigits(record.get("lastFourDigits"));
+        card.setBrand(record.get("brand"));
+        card.setExpirationMonth(month);
+        card.setExpirationYear(year);
+        try {
+            businessValidationService.validateCreditCard(card);
+        } catch (ValidationException e) {
+            violations.addAll(e.getViolations());
+        }
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations);
+        }
+        return new Object[] {importId, record.lineNumber(), UUID.randomUUID(), customerExternalId, providerCardId,
+                card.getLastFourDigits(), card.getBrand(), month, year, Boolean.parseBoolean(isDefault)};
+    }
+
+    private static String required(ImportRecord record, String field, int maxLength, String message,
+                                   List<String> violations) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) {
+            violations.add(message);
+        } else if (value.length() > maxLength) {
+            violations.add(field + " excede " + maxLength + " caracteres");
+        }
+        return value;
+    }
+
+    private static String matching(ImportRecord record, String field, Pattern pattern, int maxLength, String message,
+                                   List<String> violations) {
+        String value = record.get(field);
+        if (value != null && (value.length() > maxLength || !pattern.matcher(value).matches())) {
+            violations.add(message);
+        }
+        return value;
+    }
+
+    private static Integer integer(ImportRecord record, String field) {
+        String value = record.get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapper {
+
+        /**
+         * @throws ValidationException com todas as violações de formato do registro
+         */
+        Object[] toRow(UUID importId, ImportRecord record);
+    }
+
+    /**
+     * Tabela de preparação, colunas gravadas pelo COPY, regras set-based (na ordem) e o
+     * {@code INSERT ... SELECT} de um bloco de linhas.
+     */
+    private record Plan(String table, List<String> columns, String keyColumn, String keyField,
+                        List<String> validations, String merge) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.wivipay.gateway.service;
 
 import com.wivipay.gateway.dto.PaymentRequest;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.model.CardBrand;
 import com.wivipay.gateway.model.CreditCard;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.ProviderType;
 import com.wivipay.gateway.repository.CustomerRepository;
 import com.wivipay.gateway.repository.CreditCardRepository;
 import lombok.RequiredArgsConstructor;
@@ -10,9 +14,17 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Regras de negócio de pagamentos e cartões, verificadas numa única passada sobre os campos.
+ * <p>
+ * As tabelas de moedas, provedores e bandeiras vêm dos enums do modelo; a lista de violações só é
+ * criada quando a primeira falha aparece, de modo que uma requisição válida não aloca nada.
+ * Todas as violações são reunidas numa {@link ValidationException}, cuja mensagem é a primeira delas.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -21,162 +33,154 @@ public class BusinessValidationService {
     private final CustomerRepository customerRepository;
     private final CreditCardRepository creditCardRepository;
     
-    // Moedas suportadas por provedor
-    private static final List<String> STRIPE_CURRENCIES = Arrays.asList("BRL", "USD", "EUR", "GBP");
-    private static final List<String> CIELO_CURRENCIES = Arrays.asList("BRL");
-    private static final List<String> PAYPAL_CURRENCIES = Arrays.asList("BRL", "USD", "EUR", "GBP");
-    
-    // Limites de valores
     private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
-    private static final BigDecimal MAX_AMOUNT_BRL = new BigDecimal("999999.99");
-    private static final BigDecimal MAX_AMOUNT_OTHER = new BigDecimal("999999.99");
     
-    public void validatePaymentRequest(PaymentRequest request) {
-        validateAmount(request.getAmount());
-        validateCurrency(request.getCurrency());
-        validateProvider(request.getProvider());
-        validateProviderCurrencyCompatibility(request.getProvider(), request.getCurrency());
-        validateAmountCurrencyCompatibility(request.getAmount(), request.getCurrency());
-        validatePaymentMethod(request.getPaymentMethod(), request.getProvider());
-        validateCustomer(request.getCustomerId());
-    }
+    // Listagens usadas só nas mensagens de erro, montadas uma única vez
+    private static final String SUPPORTED_CURRENCIES = Arrays.toString(CurrencyCode.values());
+    private static final String SUPPORTED_PROVIDERS = Arrays.stream(ProviderType.values())
+            .map(ProviderType::getCode)
+            .toList()
+            .toString();
+    private static final String SUPPORTED_BRANDS = Arrays.toString(CardBrand.values());
     
-    public void validateCustomer(String customerId) {
-        if (customerId != null && !customerRepository.existsByExternalId(customerId)) {
-            throw new RuntimeException("Cliente não encontrado: " + customerId);
-        }
-    }
+    private static final int MAX_EXPIRATION_YEARS = 20;
     
-    public void validateCreditCard(CreditCard creditCard) {
-        validateCardExpiration(creditCard.getExpirationMonth(), creditCard.getExpirationYear());
-        validateCardBrand(creditCard.getBrand());
-        validateLastFourDigits(creditCard.getLastFourDigits());
-    }
+    // Limites das colunas (e dos @Size do PaymentRequest, que não são verificados em tempo de execução)
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int MAX_CUSTOMER_ID_LENGTH = 100;
+    private static final int MAX_METADATA_LENGTH = 1000;
     
-    private void validateAmount(BigDecimal amount) {
+    public void validatePaymentRequest(PaymentRequest request) {
+        List<String> violations = null;
+        
+        BigDecimal amount = request.getAmount();
         if (amount == null) {
-            throw new RuntimeException("Valor é obrigatório");
+            violations = add(violations, "Valor é obrigatório");
+        } else if (amount.compareTo(MIN_AMOUNT) < 0) {
+            violations = add(violations, "Valor deve ser maior que " + MIN_AMOUNT);
         }
         
-        if (amount.compareTo(MIN_AMOUNT) < 0) {
-            throw new RuntimeException("Valor deve ser maior que " + MIN_AMOUNT);
-        }
-    }
-    
-    private void validateCurrency(String currency) {
-        if (currency == null || currency.trim().isEmpty()) {
-            throw new RuntimeException("Moeda é obrigatória");
+        String currencyCode = request.getCurrency();
+        CurrencyCode currency = CurrencyCode.fromCode(currencyCode);
+        if (currencyCode == null || currencyCode.isBlank()) {
+            violations = add(violations, "Moeda é obrigatória");
+        } else if (currency == null) {
+            violations = add(violations, "Moeda não suportada: " + currencyCode + ". Moedas suportadas: " + SUPPORTED_CURRENCIES);
         }
         
-        List<String> supportedCurrencies = Arrays.asList("BRL", "USD", "EUR", "GBP");
-        if (!supportedCurrencies.contains(currency.toUpperCase())) {
-            throw new RuntimeException("Moeda não suportada: " + currency + ". Moedas suportadas: " + supportedCurrencies);
+        String providerCode = request.getProvider();
+        ProviderType provider = ProviderType.fromCode(providerCode);
+        if (providerCode == null || providerCode.isBlank()) {
+            violations = add(violations, "Provedor é obrigatório");
+        } else if (provider == null) {
+            violations = add(violations, "Provedor não suportado: " + providerCode + ". Provedores suportados: " + SUPPORTED_PROVIDERS);
         }
-    }
-    
-    private void validateProvider(String provider) {
-        if (provider == null || provider.trim().isEmpty()) {
-            throw new RuntimeException("Provedor é obrigatório");
+        
+        if (provider != null && currency != null && !provider.supports(currency)) {
+            violations = add(violations, "Moeda " + currencyCode + " não é suportada pelo provedor " + providerCode);
         }
         
-        List<String> supportedProviders = Arrays.asList("stripe", "cielo", "paypal");
-        if (!supportedProviders.contains(provider.toLowerCase())) {
-            throw new RuntimeException("Provedor não suportado: " + provider + ". Provedores suportados: " + supportedProviders);
+        if (amount != null && currency != null) {
+            if (amount.compareTo(currency.getMaxAmount()) > 0) {
+                violations = add(violations, "Valor não pode exceder " + currency.getMaxAmount() + " para moeda " + currencyCode);
+            }
+            if (amount.scale() > currency.getFractionDigits()) {
+                violations = add(violations, "Valor não pode ter mais de " + currency.getFractionDigits() + " casas decimais");
+            }
         }
-    }
-    
-    private void validateProviderCurrencyCompatibility(String provider, String currency) {
-        List<String> supportedCurrencies = getSupportedCurrencies(provider);
         
-        if (!supportedCurrencies.contains(currency.toUpperCase())) {
-            throw new RuntimeException("Moeda " + currency + " não é suportada pelo provedor " + provider);
+        String paymentMethod = request.getPaymentMethod();
+        if (paymentMethod == null || paymentMethod.isBlank()) {
+            violations = add(violations, "Método de pagamento é obrigatório");
+        } else if (provider != null && !provider.acceptsToken(paymentMethod)) {
+            violations = add(violations, provider.getInvalidTokenMessage());
         }
-    }
-    
-    private void validateAmountCurrencyCompatibility(BigDecimal amount, String currency) {
-        BigDecimal maxAmount = "BRL".equals(currency) ? MAX_AMOUNT_BRL : MAX_AMOUNT_OTHER;
         
-        if (amount.compareTo(maxAmount) > 0) {
-            throw new RuntimeException("Valor não pode exceder " + maxAmount + " para moeda " + currency);
+        // Antes de chamar o provedor: um valor que não cabe na coluna falharia só no insert,
+        // com o pagamento já autorizado
+        if (exceeds(request.getDescription(), MAX_DESCRIPTION_LENGTH)) {
+            violations = add(violations, "Descrição não pode exceder " + MAX_DESCRIPTION_LENGTH + " caracteres");
+        }
+        if (exceeds(request.getCustomerId(), MAX_CUSTOMER_ID_LENGTH)) {
+            violations = add(violations, "ID do cliente não pode exceder " + MAX_CUSTOMER_ID_LENGTH + " caracteres");
+        }
+        if (exceeds(request.getMetadata(), MAX_METADATA_LENGTH)) {
+            violations = add(violations, "Metadados não podem exceder " + MAX_METADATA_LENGTH + " caracteres");
         }
         
-        // Validação de casas decimais
-        int maxScale = 2;
-        if (amount.scale() > maxScale) {
-            throw new RuntimeException("Valor não pode ter mais de " + maxScale + " casas decimais");
+        if (violations != null) {
+            throw new ValidationException(violations);
         }
+        
+        // Única regra que consulta o banco: só roda quando o restante já passou
+        validateCustomer(request.getCustomerId());
     }
     
-    private void validatePaymentMethod(String paymentMethod, String provider) {
-        if (paymentMethod == null || paymentMethod.trim().isEmpty()) {
-            throw new RuntimeException("Método de pagamento é obrigatório");
-        }
-        
-        // Validações específicas por provedor
-        switch (provider.toLowerCase()) {
-            case "stripe":
-                if (!paymentMethod.startsWith("tok_") && !paymentMethod.startsWith("card_")) {
-                    throw new RuntimeException("Token do Stripe deve começar com 'tok_' ou 'card_'");
-                }
-                break;
-            case "cielo":
-                if (!paymentMethod.startsWith("card_")) {
-                    throw new RuntimeException("Token da Cielo deve começar com 'card_'");
-                }
-                break;
-            case "paypal":
-                if (!paymentMethod.startsWith("paypal_")) {
-                    throw new RuntimeException("Token do PayPal deve começar com 'paypal_'");
-                }
-                break;
+    public void validateCustomer(String customerId) {
+        if (customerId != null && !customerRepository.existsByExternalId(customerId)) {
+            throw new ValidationException(List.of("Cliente não encontrado: " + customerId));
         }
     }
     
-    private void validateCardExpiration(Integer month, Integer year) {
-        if (month == null || month < 1 || month > 12) {
-            throw new RuntimeException("Mês de expiração deve estar entre 1 e 12");
+    public void validateCreditCard(CreditCard creditCard) {
+        List<String> violations = null;
+        
+        Integer month = creditCard.getExpirationMonth();
+        Integer year = creditCard.getExpirationYear();
+        boolean validMonth = month != null && month >= 1 && month <= 12;
+        if (!validMonth) {
+            violations = add(violations, "Mês de expiração deve estar entre 1 e 12");
         }
         
         if (year == null) {
-            throw new RuntimeException("Ano de expiração é obrigatório");
+            violations = add(violations, "Ano de expiração é obrigatório");
+        } else {
+            LocalDate today = LocalDate.now();
+            if (year > today.getYear() + MAX_EXPIRATION_YEARS) {
+                violations = add(violations, "Ano de expiração deve ser válido");
+            } else if (validMonth && (year < today.getYear()
+                    || (year == today.getYear() && month < today.getMonthValue()))) {
+                // O cartão vale até o último dia do mês de expiração
+                violations = add(violations, "Cartão expirado");
+            }
         }
         
-        // Validar se o ano não é muito distante no futuro
-        int currentYear = LocalDate.now().getYear();
-        if (year > currentYear + 20) {
-            throw new RuntimeException("Ano de expiração deve ser válido");
+        String brand = creditCard.getBrand();
+        if (CardBrand.fromCode(brand) == null) {
+            violations = add(violations, "Bandeira não suportada: " + brand + ". Bandeiras suportadas: " + SUPPORTED_BRANDS);
         }
         
-        // Verificar se o cartão não expirou
-        LocalDate expirationDate = LocalDate.of(year, month, 1).plusMonths(1).minusDays(1);
-        if (expirationDate.isBefore(LocalDate.now())) {
-            throw new RuntimeException("Cartão expirado");
+        if (!isFourDigits(creditCard.getLastFourDigits())) {
+            violations = add(violations, "Últimos 4 dígitos devem ter exatamente 4 números");
+        }
+        
+        if (violations != null) {
+            throw new ValidationException(violations);
         }
     }
     
-    private void validateCardBrand(String brand) {
-        List<String> supportedBrands = Arrays.asList("VISA", "MASTERCARD", "AMEX", "ELO", "HIPERCARD");
-        if (!supportedBrands.contains(brand.toUpperCase())) {
-            throw new RuntimeException("Bandeira não suportada: " + brand + ". Bandeiras suportadas: " + supportedBrands);
-        }
+    private static boolean exceeds(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
     }
     
-    private void validateLastFourDigits(String lastFourDigits) {
-        if (lastFourDigits == null || lastFourDigits.length() != 4 || !lastFourDigits.matches("\\d{4}")) {
-            throw new RuntimeException("Últimos 4 dígitos devem ter exatamente 4 números");
+    private static boolean isFourDigits(String value) {
+        if (value == null || value.length() != 4) {
+            return false;
+        }
+        for (int i = 0; i < 4; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
         }
+        return true;
     }
     
-    private List<String> getSupportedCurrencies(String provider) {
-        switch (provider.toLowerCase()) {
-            case "stripe":
-                return STRIPE_CURRENCIES;
-            case "cielo":
-                return CIELO_CURRENCIES;
-            case "paypal":
-                return PAYPAL_CURRENCIES;
-            default:
-                throw new RuntimeException("Provedor não suportado: " + provider);
+    private static List<String> add(List<String> violations, String violation) {
+        if (violations == null) {
+            violations = new ArrayList<>(4);
         }
+        violations.add(violation);
+        return violations;
     }
 }
@@ -1,11 +1,17 @@
 package com.wivipay.gateway.service;
 
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
 import com.wivipay.gateway.dto.CreditCardRequest;
 import com.wivipay.gateway.dto.CreditCardResponse;
+import com.wivipay.gateway.exception.ConflictException;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import com.wivipay.gateway.exception.ValidationException;
 import com.wivipay.gateway.model.CreditCard;
 import com.wivipay.gateway.model.Customer;
 import com.wivipay.gateway.repository.CreditCardRepository;
 import com.wivipay.gateway.repository.CustomerRepository;
+import com.wivipay.gateway.support.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,18 +24,20 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Workload(WorkloadType.CRUD)
 public class CreditCardService {
     
     private final CreditCardRepository repository;
     private final CustomerRepository customerRepository;
     private final BusinessValidationService businessValidationService;
+    private final EntityCountService entityCountService;
     
     @Transactional
     public CreditCardResponse createCreditCard(CreditCardRequest request) {
         validateCreditCardRequest(request);
         
         Customer customer = customerRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado"));
         
         CreditCard creditCard = new CreditCard();
         creditCard.setCustomer(customer);
@@ -43,12 +51,13 @@ public class CreditCardService {
         // Validações de negócio
         businessValidationService.validateCreditCard(creditCard);
         
+        CreditCard savedCard = repository.save(creditCard);
+        
         // Se for o cartão padrão, desmarca os outros
         if (Boolean.TRUE.equals(request.getIsDefault())) {
-            unsetDefaultCards(customer.getId());
+            repository.switchDefaultCard(customer.getId(), savedCard.getId());
         }
-        
-        CreditCard savedCard = repository.save(creditCard);
+        entityCountService.creditCardCreated();
         log.info("Cartão de crédito criado com sucesso: {}", savedCard.getId());
         
         return mapToCreditCardResponse(savedCard);
@@ -57,7 +66,7 @@ public class CreditCardService {
     @Transactional
     public CreditCardResponse updateCreditCard(UUID id, CreditCardRequest request) {
         CreditCard creditCard = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cartão de crédito não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cartão de crédito não encontrado"));
         
         validateCreditCardRequest(request);
         
@@ -66,14 +75,14 @@ public class CreditCardService {
         creditCard.setBrand(request.getBrand());
         creditCard.setExpirationMonth(request.getExpirationMonth());
         creditCard.setExpirationYear(request.getExpirationYear());
+        creditCard.setIsDefault(request.getIsDefault());
+        
+        CreditCard updatedCard = repository.save(creditCard);
         
         // Se for o cartão padrão, desmarca os outros
         if (Boolean.TRUE.equals(request.getIsDefault())) {
-            unsetDefaultCards(creditCard.getCustomer().getId());
+            repository.switchDefaultCard(updatedCard.getCustomer().getId(), updatedCard.getId());
         }
-        creditCard.setIsDefault(request.getIsDefault());
-        
-        CreditCard updatedCard = repository.save(creditCard);
         log.info("Cartão de crédito atualizado com sucesso: {}", updatedCard.getId());
         
         return mapToCreditCardResponse(updatedCard);
@@ -82,7 +91,7 @@ public class CreditCardService {
     @Transactional(readOnly = true)
     public CreditCardResponse getCreditCard(UUID id) {
         CreditCard creditCard = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cartão de crédito não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cartão de crédito não encontrado"));
         
         return mapToCreditCardResponse(creditCard);
     }
@@ -94,10 +103,21 @@ public class CreditCardService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * ETag de getCustomerCreditCards: resumo de id, updated_at e cartão padrão de cada cartão, lidos
+     * sem carregar as entidades. Cadastro, alteração, exclusão e troca do padrão mudam o resumo.
+     */
+    @Transactional(readOnly = true)
+    public String getCustomerCreditCardsETag(UUID customerId) {
+        return ETags.digest(repository.findVersionsByCustomerIdOrderById(customerId).stream()
+                .map(card -> card.getId() + " " + ETags.of(card.getUpdatedAt()) + " " + card.getIsDefault())
+                .toList());
+    }
+    
     @Transactional(readOnly = true)
     public CreditCardResponse getDefaultCreditCard(UUID customerId) {
         CreditCard defaultCard = repository.findByCustomerIdAndIsDefaultTrue(customerId)
-                .orElseThrow(() -> new RuntimeException("Cliente não possui cartão padrão"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente não possui cartão padrão"));
         
         return mapToCreditCardResponse(defaultCard);
     }
@@ -105,50 +125,42 @@ public class CreditCardService {
     @Transactional
     public void deleteCreditCard(UUID id) {
         if (!repository.existsById(id)) {
-            throw new RuntimeException("Cartão de crédito não encontrado");
+            throw new ResourceNotFoundException("Cartão de crédito não encontrado");
         }
         
         repository.deleteById(id);
+        entityCountService.creditCardDeleted();
         log.info("Cartão de crédito deletado com sucesso: {}", id);
     }
     
     @Transactional
     public CreditCardResponse setDefaultCreditCard(UUID id) {
         CreditCard creditCard = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cartão de crédito não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cartão de crédito não encontrado"));
         
-        unsetDefaultCards(creditCard.getCustomer().getId());
+        repository.switchDefaultCard(creditCard.getCustomer().getId(), id);
         
+        // O UPDATE em lote já gravou; a entidade foi desanexada e só reflete o novo estado
         creditCard.setIsDefault(true);
-        CreditCard updatedCard = repository.save(creditCard);
         
-        log.info("Cartão de crédito definido como padrão: {}", updatedCard.getId());
-        return mapToCreditCardResponse(updatedCard);
+        log.info("Cartão de crédito definido como padrão: {}", creditCard.getId());
+        return mapToCreditCardResponse(creditCard);
     }
     
     private void validateCreditCardRequest(CreditCardRequest request) {
         if (repository.existsByProviderCardId(request.getProviderCardId())) {
-            throw new RuntimeException("Cartão já cadastrado");
+            throw new ConflictException("Cartão já cadastrado");
         }
         
         if (request.getExpirationMonth() < 1 || request.getExpirationMonth() > 12) {
-            throw new RuntimeException("Mês de expiração inválido");
+            throw new ValidationException("Mês de expiração inválido");
         }
         
         if (request.getExpirationYear() < 2024) {
-            throw new RuntimeException("Ano de expiração inválido");
+            throw new ValidationException("Ano de expiração inválido");
         }
     }
     
-    private void unsetDefaultCards(UUID customerId) {
-        repository.findByCustomerId(customerId).stream()
-                .filter(CreditCard::getIsDefault)
-                .forEach(card -> {
-                    card.setIsDefault(false);
-                    repository.save(card);
-                });
-    }
-    
     private CreditCardResponse mapToCreditCardResponse(CreditCard creditCard) {
         CreditCardResponse response = new CreditCardResponse();
         response.setId(creditCard.getId());
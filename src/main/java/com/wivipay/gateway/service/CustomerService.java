@@ -1,9 +1,14 @@
 package com.wivipay.gateway.service;
 
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
 import com.wivipay.gateway.dto.CustomerRequest;
 import com.wivipay.gateway.dto.CustomerResponse;
+import com.wivipay.gateway.exception.ConflictException;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
 import com.wivipay.gateway.model.Customer;
 import com.wivipay.gateway.repository.CustomerRepository;
+import com.wivipay.gateway.support.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,10 +21,12 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Workload(WorkloadType.CRUD)
 public class CustomerService {
     
     private final CustomerRepository repository;
     private final BusinessValidationService businessValidationService;
+    private final EntityCountService entityCountService;
     
     @Transactional
     public CustomerResponse createCustomer(CustomerRequest request) {
@@ -33,6 +40,7 @@ public class CustomerService {
         customer.setPhone(request.getPhone());
         
         Customer savedCustomer = repository.save(customer);
+        entityCountService.customerCreated();
         log.info("Cliente criado com sucesso: {}", savedCustomer.getId());
         
         return mapToCustomerResponse(savedCustomer);
@@ -41,7 +49,7 @@ public class CustomerService {
     @Transactional
     public CustomerResponse updateCustomer(UUID id, CustomerRequest request) {
         Customer customer = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado"));
         
         validateCustomerRequest(request);
         
@@ -60,15 +68,23 @@ public class CustomerService {
     @Transactional(readOnly = true)
     public CustomerResponse getCustomer(UUID id) {
         Customer customer = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado"));
         
         return mapToCustomerResponse(customer);
     }
     
+    // ETag de getCustomer, pelo updated_at
+    @Transactional(readOnly = true)
+    public String getCustomerETag(UUID id) {
+        return repository.findUpdatedAtById(id)
+                .map(ETags::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado"));
+    }
+    
     @Transactional(readOnly = true)
     public CustomerResponse getCustomerByExternalId(String externalId) {
         Customer customer = repository.findByExternalId(externalId)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado"));
         
         return mapToCustomerResponse(customer);
     }
@@ -83,24 +99,25 @@ public class CustomerService {
     @Transactional
     public void deleteCustomer(UUID id) {
         if (!repository.existsById(id)) {
-            throw new RuntimeException("Cliente não encontrado");
+            throw new ResourceNotFoundException("Cliente não encontrado");
         }
         
         repository.deleteById(id);
+        entityCountService.customerDeleted();
         log.info("Cliente deletado com sucesso: {}", id);
     }
     
     private void validateCustomerRequest(CustomerRequest request) {
         if (request.getEmail() != null && repository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email já cadastrado");
+            throw new ConflictException("Email já cadastrado");
         }
         
         if (request.getDocument() != null && repository.existsByDocument(request.getDocument())) {
-            throw new RuntimeException("Documento já cadastrado");
+            throw new ConflictException("Documento já cadastrado");
         }
         
         if (repository.existsByExternalId(request.getExternalId())) {
-            throw new RuntimeException("ID externo já cadastrado");
+            throw new ConflictException("ID externo já cadastrado");
         }
     }
     
@@ -0,0 +1,182 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.repository.CreditCardRepository;
+import com.wivipay.gateway.repository.CustomerRepository;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém os totais de clientes, cartões e transações em memória para os gauges,
+ * evitando um {@code count(*)} a cada scrape.
+ */
+@Slf4j
+@Service
+public class EntityCountService {
+
+    // Estimativa do planejador do PostgreSQL (reltuples = -1 quando a tabela nunca foi analisada)
+    private static final String ESTIMATE_SQL =
+            "SELECT reltuples::bigint FROM pg_class WHERE relname = ? AND relkind IN ('r', 'p')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TrackedCount customers;
+    private final TrackedCount creditCards;
+    private final TrackedCount transactions;
+
+    public EntityCountService(CustomerRepository customerRepository,
+                              CreditCardRepository creditCardRepository,
+                              PaymentTransactionRepository paymentTransactionRepository,
+                              JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.customers = new TrackedCount("customers", customerRepository,
+                "wivipay.customers.total", "Total de clientes", meterRegistry);
+        this.creditCards = new TrackedCount("credit_cards", creditCardRepository,
+                "wivipay.credit_cards.total", "Total de cartões de crédito", meterRegistry);
+        this.transactions = new TrackedCount("payment_transactions", paymentTransactionRepository,
+                "wivipay.transactions.total", "Total de transações de pagamento", meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        boolean postgres = isPostgres();
+        seed(customers, postgres);
+        seed(creditCards, postgres);
+        seed(transactions, postgres);
+    }
+
+    @Scheduled(fixedDelayString = "${wivipay.metrics.counts.reconcile-interval:PT1H}",
+               initialDelayString = "${wivipay.metrics.counts.reconcile-interval:PT1H}")
+    public void reconcile() {
+        reconcile(customers);
+        reconcile(creditCards);
+        reconcile(transactions);
+    }
+
+    public void customerCreated() {
+        customers.add(1);
+    }
+
+    public void customersImported(long count) {
+        customers.add(count);
+    }
+
+    public void customerDeleted() {
+        customers.add(-1);
+    }
+
+    public void creditCardCreated() {
+        creditCards.add(1);
+    }
+
+    public void creditCardsImported(long count) {
+        creditCards.add(count);
+    }
+
+    public void creditCardDeleted() {
+        creditCards.add(-1);
+    }
+
+    public void transactionCreated() {
+        transactions.add(1);
+    }
+
+    // Partição mensal desanexada e arquivada: as linhas saem da tabela contada
+    public void transactionsArchived(long count) {
+        transactions.add(-count);
+    }
+
+    public long getCustomerCount() {
+        return customers.value.get();
+    }
+
+    public long getCreditCardCount() {
+        return creditCards.value.get();
+    }
+
+    public long getTransactionCount() {
+        return transactions.value.get();
+    }
+
+    private void seed(TrackedCount count, boolean postgres) {
+        try {
+            Long estimate = postgres
+                    ? jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, count.table)
+                    : null;
+            if (estimate != null && estimate >= 0) {
+                count.value.set(estimate);
+                log.info("Total de {} inicializado pela estimativa do planejador: {}", count.table, estimate);
+            } else {
+                reconcile(count);
+            }
+        } catch (Exception e) {
+            log.warn("Não foi possível inicializar o total de {}: {}", count.table, e.getMessage());
+        }
+    }
+
+    private void reconcile(TrackedCount count) {
+        try {
+            long actual = count.repository.count();
+            long previous = count.value.getAndSet(actual);
+            if (previous != actual) {
+                log.debug("Total de {} reconciliado: {} -> {}", count.table, previous, actual);
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao reconciliar o total de {}: {}", count.table, e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static final class TrackedCount {
+
+        private final String table;
+        private final JpaRepository<?, ?> repository;
+        private final AtomicLong value = new AtomicLong();
+
+        private TrackedCount(String table, JpaRepository<?, ?> repository,
+                             String metric, String description, MeterRegistry meterRegistry) {
+            this.table = table;
+            this.repository = repository;
+            Gauge.builder(metric, value, AtomicLong::get)
+                    .description(description)
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+
+        // Só aplica o delta após o commit, para que rollbacks não desviem o total
+        private void add(long delta) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        value.addAndGet(delta);
+                    }
+                });
+            } else {
+                value.addAndGet(delta);
+            }
+        }
+    }
+}
@@ -206,19 +206,4 @@ public class MetricsService {
             amount);
         log.debug("Métrica de valor de pagamento registrada: {} {} {}", provider, currency, amount);
     }
-
-    public void recordCustomerCount(long count) {
-        meterRegistry.gauge("wivipay.customers.total", count);
-        log.debug("Métrica de total de clientes registrada: {}", count);
-    }
-
-    public void recordCreditCardCount(long count) {
-        meterRegistry.gauge("wivipay.credit_cards.total", count);
-        log.debug("Métrica de total de cartões registrada: {}", count);
-    }
-
-    public void recordTransactionCount(long count) {
-        meterRegistry.gauge("wivipay.transactions.total", count);
-        log.debug("Métrica de total de transações registrada: {}", count);
-    }
 }
@@ -0,0 +1,61 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.support.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Junta capturas e estornos repetidos da mesma transação enquanto o primeiro ainda está no
+ * provedor (terminais costumam reenviar a captura). O segundo chamador recebe a mesma resposta
+ * em vez de um 409 do controle otimista.
+ */
+@Slf4j
+@Component
+public class PaymentOperationCoalescer {
+
+    private record OperationKey(UUID transactionId, String operation, BigDecimal amount) {
+    }
+
+    private final SingleFlight<OperationKey, PaymentResponse> inFlight = new SingleFlight<>();
+    private final Counter coalescedCaptures;
+    private final Counter coalescedRefunds;
+
+    public PaymentOperationCoalescer(MeterRegistry meterRegistry) {
+        coalescedCaptures = coalescedCounter(meterRegistry, "capture");
+        coalescedRefunds = coalescedCounter(meterRegistry, "refund");
+        Gauge.builder("wivipay.payments.inflight", inFlight, SingleFlight::inFlight)
+                .description("Operações de captura e estorno em andamento no provedor")
+                .register(meterRegistry);
+    }
+
+    public PaymentResponse capture(UUID transactionId, Supplier<PaymentResponse> operation) {
+        return inFlight.execute(new OperationKey(transactionId, "capture", null), operation, () -> {
+            coalescedCaptures.increment();
+            log.info("Captura repetida da transação {} aguardando a chamada em andamento", transactionId);
+        });
+    }
+
+    public PaymentResponse refund(UUID transactionId, BigDecimal amount, Supplier<PaymentResponse> operation) {
+        // stripTrailingZeros: 10.0 e 10.00 são o mesmo estorno
+        OperationKey key = new OperationKey(transactionId, "refund", amount.stripTrailingZeros());
+        return inFlight.execute(key, operation, () -> {
+            coalescedRefunds.increment();
+            log.info("Estorno repetido da transação {} aguardando a chamada em andamento", transactionId);
+        });
+    }
+
+    private static Counter coalescedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("wivipay.payments.coalesced")
+                .description("Chamadas que reutilizaram o resultado de uma operação em andamento")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
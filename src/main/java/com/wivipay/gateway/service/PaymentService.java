@@ -1,33 +1,68 @@
 package com.wivipay.gateway.service;
 
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
 import com.wivipay.gateway.dto.PaymentRequest;
 import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.exception.ConflictException;
+import com.wivipay.gateway.exception.ProviderDeclinedException;
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.journal.PaymentJournal;
+import com.wivipay.gateway.lifecycle.PaymentDeadline;
+import com.wivipay.gateway.lifecycle.PaymentDeadlines;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentMetadata;
+import com.wivipay.gateway.model.PaymentPayload;
 import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
 import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.repository.PaymentPayloadRepository;
 import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import com.wivipay.gateway.support.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Workload(WorkloadType.PAYMENTS)
 public class PaymentService {
 
+    // Limita quantas partições mensais uma listagem pode visitar
+    static final Duration MAX_LIST_PERIOD = Duration.ofDays(93);
+    static final int MAX_LIST_SIZE = 500;
+
     private final List<PaymentProvider> providers;
     private final PaymentTransactionRepository repository;
+    private final PaymentPayloadRepository payloadRepository;
     private final TransactionLogService transactionLogService;
     private final BusinessValidationService businessValidationService;
+    private final EntityCountService entityCountService;
+    private final PaymentOperationCoalescer coalescer;
+    private final PaymentJournal journal;
+    private final PaymentDeadlines deadlines;
 
-    @Transactional
+    // Sem @Transactional: nenhuma conexão do pool fica presa durante a chamada ao provedor
     public PaymentResponse authorize(PaymentRequest request) {
         // Validações de negócio
         businessValidationService.validatePaymentRequest(request);
+        // Antes do provedor: metadado inválido não pode virar uma autorização sem registro
+        String metadata = PaymentMetadata.normalize(request.getMetadata());
+        Duration captureDelay = request.getCaptureDelayMinutes() == null
+                ? null : Duration.ofMinutes(request.getCaptureDelayMinutes());
+        deadlines.validateCaptureDelay(request.getProvider(), captureDelay);
         
         PaymentProvider provider = findProvider(request.getProvider());
         
@@ -36,9 +71,39 @@ public class PaymentService {
         // Adicionar campos da requisição à resposta
         response.setDescription(request.getDescription());
         response.setCustomerId(request.getCustomerId());
-        response.setMetadata(request.getMetadata());
+        response.setMetadata(metadata);
         
-        PaymentTransaction transaction = saveTransaction(response);
+        PaymentTransaction transaction = newTransaction(response);
+        deadlines.assign(transaction, captureDelay);
+        response.setId(transaction.getId());
+        response.setCaptureAt(transaction.getCaptureAt());
+        response.setExpiresAt(transaction.getExpiresAt());
+        String rawResponse = rawPayload(response);
+        
+        // O provedor já autorizou: o resultado vai para o diário antes do banco, para não se perder
+        // se o insert falhar (failover, espera de lock, pool esgotado)
+        boolean journaled = journal.record(transaction, rawResponse);
+        try {
+            repository.save(transaction);
+        } catch (RuntimeException e) {
+            if (journaled && PaymentJournal.isDatabaseUnavailable(e)) {
+                journal.release(transaction.getId());
+                log.warn("Banco indisponível ao gravar a transação {}; ela será gravada a partir do diário: {}",
+                        transaction.getId(), e.getMessage());
+                return response;
+            }
+            // Reaplicar daria o mesmo erro: a autorização existe só no provedor e precisa ser cancelada lá
+            if (journaled) {
+                journal.abandon(transaction.getId());
+            }
+            log.error("Transação {} autorizada mas não gravada; cancelar a autorização {} no provedor {}: {}",
+                    transaction.getId(), transaction.getProviderTransactionId(), transaction.getProvider(), e.getMessage());
+            throw e;
+        }
+        journal.applied(transaction.getId());
+        entityCountService.transactionCreated();
+        deadlines.schedule(transaction);
+        savePayload(PaymentPayload.of(transaction.getId(), transaction.getStatus(), rawResponse, transaction.getCreatedAt()));
         
         // Log da transação
         transactionLogService.logPaymentAuthorization(transaction);
@@ -46,15 +111,31 @@ public class PaymentService {
         return response;
     }
 
-    @Transactional
     public PaymentResponse capture(UUID transactionId) {
-        PaymentTransaction transaction = repository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transação não encontrada"));
+        return coalescer.capture(transactionId, () -> doCapture(transactionId));
+    }
+
+    public PaymentResponse refund(UUID transactionId, BigDecimal amount) {
+        return coalescer.refund(transactionId, amount, () -> doRefund(transactionId, amount));
+    }
+
+    private PaymentResponse doCapture(UUID transactionId) {
+        PaymentTransaction transaction = repository.findCurrentById(transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada"));
         
         PaymentProvider provider = findProvider(transaction.getProvider());
-        PaymentResponse response = provider.capture(transaction.getProviderTransactionId());
+        PaymentStatus previous = transaction.getStatus();
+        long version = claim(transaction, PaymentStatus.CAPTURING);
+        
+        PaymentResponse response;
+        try {
+            response = provider.capture(transaction.getProviderTransactionId());
+        } catch (RuntimeException e) {
+            releaseIfNotExecuted(transaction, PaymentStatus.CAPTURING, version, previous, e);
+            throw e;
+        }
         
-        updateTransaction(transaction, response);
+        complete(transaction, PaymentStatus.CAPTURING, version, PaymentStatus.CAPTURED, response);
         
         // Log da transação
         transactionLogService.logPaymentCapture(transaction);
@@ -62,18 +143,35 @@ public class PaymentService {
         return response;
     }
 
-    @Transactional
-    public PaymentResponse refund(UUID transactionId, BigDecimal amount) {
-        PaymentTransaction transaction = repository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transação não encontrada"));
+    private PaymentResponse doRefund(UUID transactionId, BigDecimal amount) {
+        PaymentTransaction transaction = repository.findCurrentById(transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada"));
+        
+        Money original = transaction.getMoney();
+        Money refundAmount = Money.of(amount, original.currency());
+        if (!refundAmount.isPositive()) {
+            throw new ValidationException("Valor do estorno deve ser maior que zero");
+        }
+        if (refundAmount.isGreaterThan(original)) {
+            throw new ValidationException("Valor do estorno excede o valor da transação");
+        }
         
         PaymentProvider provider = findProvider(transaction.getProvider());
-        PaymentResponse response = provider.refund(transaction.getProviderTransactionId(), amount);
+        PaymentStatus previous = transaction.getStatus();
+        long version = claim(transaction, PaymentStatus.REFUNDING);
+        
+        PaymentResponse response;
+        try {
+            response = provider.refund(transaction.getProviderTransactionId(), refundAmount);
+        } catch (RuntimeException e) {
+            releaseIfNotExecuted(transaction, PaymentStatus.REFUNDING, version, previous, e);
+            throw e;
+        }
         
-        updateTransaction(transaction, response);
+        complete(transaction, PaymentStatus.REFUNDING, version, PaymentStatus.REFUNDED, response);
         
         // Log da transação
-        transactionLogService.logPaymentRefund(transaction, amount.toString());
+        transactionLogService.logPaymentRefund(transaction, refundAmount.toDecimalString());
         
         return response;
     }
@@ -81,27 +179,196 @@ public class PaymentService {
     @Transactional(readOnly = true)
     public PaymentResponse getPayment(UUID transactionId) {
         PaymentTransaction transaction = repository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transação não encontrada"));
+                .orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada"));
         
         return mapToPaymentResponse(transaction);
     }
 
+    /**
+     * ETag de {@link #getPayment}: a versão da linha, que muda a cada transição de status e a cada
+     * gravação da entidade.
+     */
+    @Transactional(readOnly = true)
+    public String getPaymentETag(UUID transactionId) {
+        return repository.findVersionById(transactionId)
+                .map(ETags::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada"));
+    }
+
+    /**
+     * Transações criadas em [from, to), mais recentes primeiro. O período é obrigatório para que a
+     * consulta fique nas partições dos meses pedidos em vez de varrer o histórico inteiro.
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> listPayments(LocalDateTime from, LocalDateTime to, int size) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Início do período deve ser anterior ao fim");
+        }
+        if (Duration.between(from, to).compareTo(MAX_LIST_PERIOD) > 0) {
+            throw new ValidationException("Período máximo da consulta é de " + MAX_LIST_PERIOD.toDays() + " dias");
+        }
+        if (size < 1 || size > MAX_LIST_SIZE) {
+            throw new ValidationException("Tamanho da página deve estar entre 1 e " + MAX_LIST_SIZE);
+        }
+        
+        return repository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtDesc(
+                        from, to, PageRequest.of(0, size))
+                .stream()
+                .map(this::mapToPaymentResponse)
+                .toList();
+    }
+
+    /**
+     * Transações com o metadado {@code key} igual a {@code value} (ex.: orderId), mais recentes primeiro.
+     * Números e booleanos são comparados como texto, como foram gravados.
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> searchByMetadata(String key, String value, int size) {
+        if (size < 1 || size > MAX_LIST_SIZE) {
+            throw new ValidationException("Tamanho da página deve estar entre 1 e " + MAX_LIST_SIZE);
+        }
+        
+        return repository.findByMetadata(key, value, size)
+                .stream()
+                .map(this::mapToPaymentResponse)
+                .toList();
+    }
+
+    /**
+     * Aplica um status que o provedor informou fora de uma operação da API (notificação ou
+     * sincronização), com o mesmo UPDATE condicional das operações. Não chama o provedor.
+     *
+     * @param transaction status e versão lidos; atualizados quando a mudança é gravada
+     * @param source      origem da mudança, registrada no log da transação
+     */
+    public ProviderStatusUpdate applyProviderStatus(PaymentTransaction transaction, PaymentStatus target, String source) {
+        PaymentStatus current = transaction.getStatus();
+        if (current == target) {
+            return ProviderStatusUpdate.UNCHANGED;
+        }
+        if (current.isInFlight()) {
+            return ProviderStatusUpdate.IN_FLIGHT;
+        }
+        if (!current.acceptsProviderUpdate(target)) {
+            return ProviderStatusUpdate.REJECTED;
+        }
+        long version = transaction.getVersion();
+        if (repository.transitionStatus(transaction.getId(), transaction.getCreatedAt(), current, version, target) == 0) {
+            return ProviderStatusUpdate.CONFLICT;
+        }
+        transaction.setStatus(target);
+        transaction.setVersion(version + 1);
+        deadlines.cancel(transaction);
+        transactionLogService.logTransactionStatus(transaction, target.name(), "Status atualizado por " + source);
+        return ProviderStatusUpdate.APPLIED;
+    }
+
+    /**
+     * Resolve uma transação parada em CAPTURING ou REFUNDING com o status que o provedor informa. É o
+     * caso de uma queda entre a reserva e a conclusão, ou de uma chamada sem resposta. Só para linhas
+     * paradas há mais tempo que qualquer chamada ao provedor; antes disso a própria chamada decide.
+     * <p>
+     * CAPTURING vai para CAPTURED ou volta para AUTHORIZED. REFUNDING só avança para REFUNDED: o status
+     * da cobrança não mostra estornos (estorno parcial no Stripe continua CAPTURED, pedido estornado no
+     * PayPal continua COMPLETED), e devolver a transação aceitaria um segundo estorno. Os demais casos
+     * ficam em REFUNDING para a conciliação ou o tratamento manual.
+     *
+     * @param transaction status e versão lidos; atualizados quando a mudança é gravada
+     * @param source      origem da mudança, registrada no log da transação
+     */
+    public ProviderStatusUpdate resolveInFlight(PaymentTransaction transaction, PaymentStatus target, String source) {
+        PaymentStatus current = transaction.getStatus();
+        if (!current.isInFlight()) {
+            return applyProviderStatus(transaction, target, source);
+        }
+        if (current == PaymentStatus.REFUNDING && target != PaymentStatus.REFUNDED) {
+            log.warn("Transação {} parada em REFUNDING e o provedor informa {}; verificar o estorno no provedor",
+                    transaction.getId(), target);
+            return ProviderStatusUpdate.IN_FLIGHT;
+        }
+        if (!current.canTransitionTo(target)) {
+            return ProviderStatusUpdate.REJECTED;
+        }
+        long version = transaction.getVersion();
+        if (repository.transitionStatus(transaction.getId(), transaction.getCreatedAt(), current, version, target) == 0) {
+            return ProviderStatusUpdate.CONFLICT;
+        }
+        transaction.setStatus(target);
+        transaction.setVersion(version + 1);
+        if (target != PaymentStatus.AUTHORIZED) {
+            deadlines.cancel(transaction);
+        }
+        transactionLogService.logTransactionStatus(transaction, target.name(), "Status de " + current + " resolvido por " + source);
+        return ProviderStatusUpdate.APPLIED;
+    }
+
+    /**
+     * Expira as autorizações do lote cujo prazo venceu (AUTHORIZED -> EXPIRED). Um SELECT por lote,
+     * limitado às partições do lote pelo created_at, e o UPDATE condicional por transação: uma captura
+     * ou notificação que chegou antes vence.
+     *
+     * @return transações expiradas
+     */
+    public int expireAuthorizations(List<PaymentDeadline> batch, LocalDateTime now) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime from = batch.stream().map(PaymentDeadline::createdAt).min(Comparator.naturalOrder()).get();
+        LocalDateTime to = batch.stream().map(PaymentDeadline::createdAt).max(Comparator.naturalOrder()).get();
+        List<UUID> ids = batch.stream().map(PaymentDeadline::transactionId).toList();
+        
+        int expired = 0;
+        for (PaymentTransaction transaction : repository.findByIdInAndCreatedAtBetween(ids, from, to)) {
+            if (transaction.getStatus() != PaymentStatus.AUTHORIZED
+                    || transaction.getExpiresAt() == null || transaction.getExpiresAt().isAfter(now)) {
+                continue;
+            }
+            long version = transaction.getVersion();
+            if (repository.transitionStatus(transaction.getId(), transaction.getCreatedAt(), PaymentStatus.AUTHORIZED,
+                    version, PaymentStatus.EXPIRED) == 0) {
+                continue;
+            }
+            transaction.setStatus(PaymentStatus.EXPIRED);
+            transaction.setVersion(version + 1);
+            deadlines.cancel(transaction);
+            transactionLogService.logTransactionStatus(transaction, PaymentStatus.EXPIRED.name(),
+                    "Autorização expirada em " + transaction.getExpiresAt());
+            expired++;
+        }
+        if (expired > 0) {
+            log.info("{} autorizações expiradas", expired);
+        }
+        return expired;
+    }
+
+    public enum ProviderStatusUpdate {
+        APPLIED,
+        // Já estava no status informado
+        UNCHANGED,
+        // Captura ou estorno em andamento: a própria chamada decide
+        IN_FLIGHT,
+        // Transição que o provedor não pode causar (ex.: REFUNDED -> CAPTURED)
+        REJECTED,
+        // Outra requisição alterou a transação depois da leitura
+        CONFLICT
+    }
+
     private PaymentProvider findProvider(String providerName) {
         return providers.stream()
                 .filter(p -> p.supports(providerName))
                 .findFirst()
-                .orElseThrow(() -> new RuntimeException("Provedor não suportado: " + providerName));
+                .orElseThrow(() -> new ValidationException("Provedor não suportado: " + providerName));
     }
 
-    private PaymentTransaction saveTransaction(PaymentResponse response) {
+    private PaymentTransaction newTransaction(PaymentResponse response) {
         PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setCreatedAt(LocalDateTime.now());
         transaction.setProvider(response.getProvider());
         transaction.setProviderTransactionId(response.getProviderTransactionId());
-        transaction.setAmount(response.getAmount());
-        transaction.setCurrency(response.getCurrency());
+        transaction.setMoney(response.getMoney());
         transaction.setStatus(response.getStatus());
         transaction.setPaymentMethod(response.getPaymentMethod());
-        transaction.setRawResponse(response.toString());
         
         // Campos adicionais se disponíveis na requisição
         if (response.getDescription() != null) {
@@ -114,28 +381,102 @@ public class PaymentService {
             transaction.setMetadata(response.getMetadata());
         }
         
-        repository.save(transaction);
         return transaction;
     }
 
-    private void updateTransaction(PaymentTransaction transaction, PaymentResponse response) {
-        transaction.setStatus(response.getStatus());
-        transaction.setRawResponse(response.toString());
-        repository.save(transaction);
+    /**
+     * Reserva a transação para a operação com um UPDATE condicional em status e versão, antes de
+     * chamar o provedor. Quem perde a corrida recebe 409 sem chegar ao provedor.
+     *
+     * @return a versão gravada pela reserva
+     */
+    private long claim(PaymentTransaction transaction, PaymentStatus inFlight) {
+        PaymentStatus current = transaction.getStatus();
+        if (!current.canTransitionTo(inFlight)) {
+            throw new ConflictException("Transação no status " + current + " não permite esta operação");
+        }
+        long version = transaction.getVersion();
+        if (repository.transitionStatus(transaction.getId(), transaction.getCreatedAt(), current, version, inFlight) == 0) {
+            log.warn("Transação {} alterada por outra requisição antes de {}", transaction.getId(), inFlight);
+            throw new ConflictException("Transação está sendo processada por outra requisição");
+        }
+        transaction.setStatus(inFlight);
+        transaction.setVersion(version + 1);
+        return version + 1;
+    }
+
+    /*
+     * Só devolve a transação ao status anterior quando a falha prova que o provedor não executou a
+     * operação (recusa, transação inexistente, conexão recusada, limite de taxa). Sem resposta, a
+     * operação pode ter acontecido lá: a transação fica em CAPTURING/REFUNDING e a sincronização de
+     * status consulta o resultado real (resolveInFlight). Devolvê-la permitiria uma segunda captura ou
+     * estorno.
+     */
+    private void releaseIfNotExecuted(PaymentTransaction transaction, PaymentStatus inFlight, long version,
+                                      PaymentStatus previous, RuntimeException e) {
+        boolean notExecuted = e instanceof ProviderDeclinedException
+                || e instanceof ResourceNotFoundException
+                || (e instanceof ProviderUnavailableException unavailable && unavailable.isNotExecuted());
+        if (!notExecuted) {
+            log.warn("Resultado de {} da transação {} desconhecido; fica em {} até a consulta ao provedor: {}",
+                    inFlight, transaction.getId(), inFlight, e.getMessage());
+            return;
+        }
+        release(transaction, inFlight, version, previous);
+    }
+
+    // Devolve a transação ao status anterior, liberando nova tentativa
+    private void release(PaymentTransaction transaction, PaymentStatus inFlight, long version, PaymentStatus previous) {
+        if (repository.transitionStatus(transaction.getId(), transaction.getCreatedAt(), inFlight, version, previous) == 0) {
+            log.error("Não foi possível devolver a transação {} de {} para {}", transaction.getId(), inFlight, previous);
+            return;
+        }
+        transaction.setStatus(previous);
+        transaction.setVersion(version + 1);
+    }
+
+    private void complete(PaymentTransaction transaction, PaymentStatus inFlight, long version,
+                          PaymentStatus target, PaymentResponse response) {
+        // Guardada mesmo se a transição falhar: é a prova do que o provedor executou
+        savePayload(PaymentPayload.of(transaction.getId(), target, rawPayload(response), LocalDateTime.now()));
+        if (repository.transitionStatus(transaction.getId(), transaction.getCreatedAt(), inFlight, version, target) == 0) {
+            // O provedor já executou a operação; a divergência fica registrada para conciliação
+            log.error("Transação {} não pôde ir de {} para {} após resposta do provedor", transaction.getId(), inFlight, target);
+            return;
+        }
+        transaction.setStatus(target);
+        transaction.setVersion(version + 1);
+        deadlines.cancel(transaction);
+    }
+
+    // Corpo devolvido pelo provedor; sem ele, o resumo da resposta como era gravado antes
+    private static String rawPayload(PaymentResponse response) {
+        return response.getRawPayload() != null ? response.getRawPayload() : response.toString();
+    }
+
+    // O payload é registro de auditoria: uma falha ao gravá-lo não desfaz a operação já executada
+    private void savePayload(PaymentPayload payload) {
+        try {
+            payloadRepository.save(payload);
+        } catch (RuntimeException e) {
+            log.error("Não foi possível gravar o payload do provedor da transação {}: {}",
+                    payload.getTransactionId(), e.getMessage());
+        }
     }
 
-    private PaymentResponse mapToPaymentResponse(PaymentTransaction transaction) {
+    PaymentResponse mapToPaymentResponse(PaymentTransaction transaction) {
         PaymentResponse response = new PaymentResponse();
         response.setId(transaction.getId());
         response.setProvider(transaction.getProvider());
         response.setProviderTransactionId(transaction.getProviderTransactionId());
-        response.setAmount(transaction.getAmount());
-        response.setCurrency(transaction.getCurrency());
+        response.setMoney(transaction.getMoney());
         response.setStatus(transaction.getStatus());
         response.setPaymentMethod(transaction.getPaymentMethod());
         response.setDescription(transaction.getDescription());
         response.setCustomerId(transaction.getCustomerId());
         response.setMetadata(transaction.getMetadata());
+        response.setCaptureAt(transaction.getCaptureAt());
+        response.setExpiresAt(transaction.getExpiresAt());
         response.setCreatedAt(transaction.getCreatedAt());
         response.setUpdatedAt(transaction.getUpdatedAt());
         return response;
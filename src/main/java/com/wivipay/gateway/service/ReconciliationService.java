@@ -0,0 +1,232 @@
+package com.wivipay.gateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.dto.ImportReport.RowError;
+import com.wivipay.gateway.dto.ReconciliationReport;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.importer.ImportFormat;
+import com.wivipay.gateway.importer.ImportRecord;
+import com.wivipay.gateway.importer.ImportRecordReader;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.model.ProviderType;
+import com.wivipay.gateway.reconciliation.LedgerEntry;
+import com.wivipay.gateway.reconciliation.Mismatch;
+import com.wivipay.gateway.reconciliation.Mismatch.Type;
+import com.wivipay.gateway.reconciliation.ReconciliationProperties;
+import com.wivipay.gateway.reconciliation.SettlementJoin;
+import com.wivipay.gateway.reconciliation.SettlementLine;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Concilia o arquivo de liquidação de um provedor com as transações do gateway no mesmo período.
+ * <p>
+ * As transações são lidas por um cursor (fetch size, em transação somente leitura, na réplica quando
+ * houver) para o {@link SettlementJoin}; o arquivo é lido em streaming depois. A memória fica
+ * limitada ao período (ou a uma partição dele) e às primeiras divergências da resposta: a lista
+ * completa é gravada em CSV e baixada por {@link #mismatchesFile}.
+ */
+@Slf4j
+@Service
+@Workload(WorkloadType.CRUD)
+public class ReconciliationService {
+
+    // Mesmo limite das listagens: o cursor visita só as partições mensais do período
+    static final Duration MAX_PERIOD = Duration.ofDays(93);
+
+    private static final String LEDGER_SQL =
+            "SELECT provider_transaction_id, amount_minor, currency, status FROM payment_transactions " +
+            "WHERE provider = ? AND created_at >= ? AND created_at < ?";
+
+    private static final String CSV_HEADER =
+            "type,transactionId,line,settlementAmount,gatewayAmount,currency,settlementStatus,gatewayStatus";
+
+    private final JdbcTemplate cursor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PaymentTransactionRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ReconciliationProperties properties;
+
+    public ReconciliationService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 PaymentTransactionRepository repository,
+                                 ObjectMapper objectMapper,
+                                 ReconciliationProperties properties) {
+        this.cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursor.setFetchSize(properties.getFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Concilia as transações de {@code provider} criadas em [from, to) com o CSV
+     * {@code transactionId,amount,currency,status}.
+     */
+    public ReconciliationReport reconcile(String provider, LocalDateTime from, LocalDateTime to, InputStream body) {
+        ProviderType providerType = ProviderType.fromCode(provider);
+        if (providerType == null) {
+            throw new ValidationException("Provedor não suportado: " + provider);
+        }
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Início do período deve ser anterior ao fim");
+        }
+        if (Duration.between(from, to).compareTo(MAX_PERIOD) > 0) {
+            throw new ValidationException("Período máximo da conciliação é de " + MAX_PERIOD.toDays() + " dias");
+        }
+
+        UUID reconciliationId = UUID.randomUUID();
+        String code = providerType.getCode();
+        long started = System.nanoTime();
+        int limit = properties.getReportLimit();
+        List<Mismatch> sample = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        Path directory = Path.of(properties.getDirectory());
+        Path output = directory.resolve(reconciliationId + ".csv");
+        long rejected = 0;
+        SettlementJoin.Result result;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de conciliação", e);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+             SettlementJoin join = new SettlementJoin(properties.getMaxInMemoryEntries(), properties.getSpillPartitions(),
+                     directory.resolve(reconciliationId.toString()), ids -> lookup(code, ids),
+                     mismatch -> write(writer, mismatch, sample, limit));
+             ImportRecordReader reader = ImportFormat.CSV.open(body, objectMapper)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+
+            readOnlyTransaction.executeWithoutResult(status -> cursor.query(LEDGER_SQL,
+                    rs -> {
+                        join.addLedger(new LedgerEntry(rs.getString(1), rs.getLong(2), rs.getString(3),
+                                PaymentStatus.valueOf(rs.getString(4))));
+                    }, code, from, to));
+
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                try {
+                    join.probe(SettlementLine.parse(record));
+                } catch (ValidationException e) {
+                    rejected++;
+                    if (errors.size() < limit) {
+                        errors.add(new RowError(record.lineNumber(), record.get("transactionId"), e.getMessage()));
+                    }
+                }
+            }
+            result = join.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o arquivo de liquidação", e);
+        }
+
+        log.info("Conciliação {} de {} ({} a {}): {} linhas, {} transações, {} conferem, divergências {}{} em {} ms",
+                reconciliationId, code, from, to, result.settlementLines(), result.ledgerEntries(), result.matched(),
+                result.mismatches(), result.spilled() ? " (em partições)" : "",
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return new ReconciliationReport(reconciliationId, code, from, to, result.settlementLines(),
+                result.ledgerEntries(), result.matched(), result.count(Type.MISSING_IN_GATEWAY),
+                result.count(Type.MISSING_IN_SETTLEMENT), result.count(Type.AMOUNT_DIFFERS),
+                result.count(Type.STATUS_DIFFERS), result.count(Type.DUPLICATE_IN_SETTLEMENT), rejected,
+                result.spilled(), sample, errors);
+    }
+
+    /**
+     * CSV com todas as divergências de uma conciliação.
+     */
+    public Path mismatchesFile(UUID reconciliationId) {
+        Path file = Path.of(properties.getDirectory()).resolve(reconciliationId + ".csv");
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Conciliação não encontrada");
+        }
+        return file;
+    }
+
+    @Scheduled(cron = "${wivipay.reconciliation.purge-cron:0 0 5 * * *}")
+    public int purge() {
+        Path directory = Path.of(properties.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(properties.getRetention()));
+        int purged = 0;
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(".csv")
+                        && Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+                    Files.deleteIfExists(file);
+                    purged++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao remover conciliações antigas de {}: {}", directory, e.getMessage());
+        }
+        return purged;
+    }
+
+    private List<LedgerEntry> lookup(String provider, Collection<String> providerTransactionIds) {
+        return repository.findByProviderAndProviderTransactionIdIn(provider, providerTransactionIds).stream()
+                .map(t -> new LedgerEntry(t.getProviderTransactionId(), t.getAmountMinor(), t.getCurrency().name(), t.getStatus()))
+                .toList();
+    }
+
+    private static void write(BufferedWriter writer, Mismatch mismatch, List<Mismatch> sample, int limit) {
+        if (sample.size() < limit) {
+            sample.add(mismatch);
+        }
+        CurrencyCode currency = CurrencyCode.fromCode(mismatch.currency());
+        try {
+            writer.write(mismatch.type() + "," + csv(mismatch.providerTransactionId()) + ","
+                    + (mismatch.line() > 0 ? mismatch.line() : "") + ","
+                    + amount(mismatch.settlementAmountMinor(), currency) + ","
+                    + amount(mismatch.gatewayAmountMinor(), currency) + ","
+                    + (currency == null ? "" : currency) + ","
+                    + (mismatch.settlementStatus() == null ? "" : mismatch.settlementStatus()) + ","
+                    + (mismatch.gatewayStatus() == null ? "" : mismatch.gatewayStatus()));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar as divergências", e);
+        }
+    }
+
+    private static String amount(Long minor, CurrencyCode currency) {
+        return minor == null || currency == null ? "" : Money.ofMinor(minor, currency).toDecimalString();
+    }
+
+    // Ids vêm do arquivo do provedor: aspas só quando precisam (RFC 4180)
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,22 +1,40 @@
 package com.wivipay.gateway.service;
 
+import com.wivipay.gateway.archive.ArchivedLog;
+import com.wivipay.gateway.archive.LogSegmentStore;
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
 import com.wivipay.gateway.model.PaymentTransaction;
 import com.wivipay.gateway.model.TransactionLog;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
 import com.wivipay.gateway.repository.TransactionLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Workload(WorkloadType.LOGGING)
 public class TransactionLogService {
     
+    // Folga para relógios levemente diferentes entre instâncias: um log nunca é muito anterior à transação
+    private static final Duration CLOCK_SKEW_MARGIN = Duration.ofHours(1);
+    
     private final TransactionLogRepository repository;
+    private final PaymentTransactionRepository transactionRepository;
+    private final LogSegmentStore archive;
     
     @Transactional
     public TransactionLog logTransactionStatus(PaymentTransaction transaction, String status, String message) {
@@ -34,12 +52,59 @@ public class TransactionLogService {
     
     @Transactional(readOnly = true)
     public List<TransactionLog> getTransactionLogs(UUID transactionId) {
-        return repository.findByTransactionIdOrderByCreatedAtDesc(transactionId);
+        return logsSince(transactionId)
+                .map(since -> withArchived(transactionId, since, null,
+                        repository.findByTransactionIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(transactionId, since)))
+                .orElseGet(List::of);
     }
     
     @Transactional(readOnly = true)
     public List<TransactionLog> getTransactionLogsByStatus(UUID transactionId, String status) {
-        return repository.findByTransactionIdAndStatus(transactionId, status);
+        return logsSince(transactionId)
+                .map(since -> withArchived(transactionId, since, status,
+                        repository.findByTransactionIdAndStatusAndCreatedAtGreaterThanEqual(transactionId, status, since)))
+                .orElseGet(List::of);
+    }
+    
+    /**
+     * Junta aos logs do banco os que já foram exportados para os segmentos, mais recentes primeiro.
+     * Um log presente nos dois (exportação interrompida antes do DELETE) aparece uma vez só.
+     */
+    private List<TransactionLog> withArchived(UUID transactionId, LocalDateTime since, String status,
+                                              List<TransactionLog> stored) {
+        List<ArchivedLog> archived = archive.find(transactionId, since).stream()
+                .filter(entry -> status == null || status.equals(entry.status()))
+                .toList();
+        if (archived.isEmpty()) {
+            return stored;
+        }
+        
+        PaymentTransaction transaction = stored.isEmpty()
+                ? transactionRepository.findById(transactionId).orElse(null)
+                : stored.get(0).getTransaction();
+        Map<UUID, TransactionLog> merged = new LinkedHashMap<>();
+        stored.forEach(transactionLog -> merged.put(transactionLog.getId(), transactionLog));
+        archived.forEach(entry -> merged.putIfAbsent(entry.id(), toTransactionLog(entry, transaction)));
+        
+        List<TransactionLog> logs = new ArrayList<>(merged.values());
+        logs.sort(Comparator.comparing(TransactionLog::getCreatedAt).reversed());
+        return logs;
+    }
+    
+    private static TransactionLog toTransactionLog(ArchivedLog entry, PaymentTransaction transaction) {
+        TransactionLog transactionLog = new TransactionLog();
+        transactionLog.setId(entry.id());
+        transactionLog.setTransaction(transaction);
+        transactionLog.setStatus(entry.status());
+        transactionLog.setMessage(entry.message());
+        transactionLog.setCreatedAt(entry.createdAt());
+        return transactionLog;
+    }
+    
+    // Os logs nascem depois da transação: a data dela serve de limite inferior para podar partições
+    private Optional<LocalDateTime> logsSince(UUID transactionId) {
+        return transactionRepository.findCreatedAtById(transactionId)
+                .map(createdAt -> createdAt.minus(CLOCK_SKEW_MARGIN));
     }
     
     @Transactional
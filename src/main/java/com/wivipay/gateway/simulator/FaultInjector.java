@@ -0,0 +1,93 @@
+package com.wivipay.gateway.simulator;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sorteia o resultado de cada chamada simulada conforme o perfil do provedor.
+ */
+public class FaultInjector {
+
+    public enum Outcome {
+        OK,
+        TIMEOUT,
+        ERROR,
+        DECLINE,
+        THROTTLE
+    }
+
+    public record Decision(Outcome outcome, long delayMillis) {
+    }
+
+    private final SimulatorProperties properties;
+    private final Supplier<? extends Random> random;
+    private final LongSupplier clock;
+    private final Map<String, RateWindow> windows = new ConcurrentHashMap<>();
+
+    public FaultInjector(SimulatorProperties properties, Supplier<? extends Random> random, LongSupplier clock) {
+        this.properties = properties;
+        this.random = random;
+        this.clock = clock;
+    }
+
+    public Decision decide(String provider) {
+        SimulatorProperties.Profile profile = properties.profileFor(provider);
+
+        if (profile.getMaxRequestsPerSecond() > 0
+                && !windows.computeIfAbsent(provider, p -> new RateWindow()).tryAcquire(profile.getMaxRequestsPerSecond())) {
+            return new Decision(Outcome.THROTTLE, 0);
+        }
+
+        Random random = this.random.get();
+        double roll = random.nextDouble();
+        double threshold = profile.getTimeoutRate();
+        if (roll < threshold) {
+            return new Decision(Outcome.TIMEOUT, profile.getTimeout().toMillis());
+        }
+        long latency = sampleLatency(profile.getLatency(), random);
+        if (roll < (threshold += profile.getErrorRate())) {
+            return new Decision(Outcome.ERROR, latency);
+        }
+        if (roll < (threshold += profile.getDeclineRate())) {
+            return new Decision(Outcome.DECLINE, latency);
+        }
+        if (roll < threshold + profile.getThrottleRate()) {
+            return new Decision(Outcome.THROTTLE, 0);
+        }
+        return new Decision(Outcome.OK, latency);
+    }
+
+    long sampleLatency(SimulatorProperties.Latency latency, Random random) {
+        long min = latency.getMin().toMillis();
+        long max = latency.getMax().toMillis();
+        double mean = latency.getMean().toMillis();
+
+        double sample = switch (latency.getDistribution()) {
+            case FIXED -> mean;
+            case UNIFORM -> min + random.nextDouble() * (max - min);
+            case EXPONENTIAL -> -mean * Math.log(1.0 - random.nextDouble());
+            case LOGNORMAL -> mean * Math.exp(latency.getSigma() * random.nextGaussian());
+        };
+        return Math.max(min, Math.min(max, Math.round(sample)));
+    }
+
+    // Janela fixa de um segundo por provedor
+    private final class RateWindow {
+
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicLong count = new AtomicLong();
+
+        boolean tryAcquire(int limit) {
+            long second = clock.getAsLong() / 1000;
+            long current = window.get();
+            if (current != second && window.compareAndSet(current, second)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.wivipay.gateway.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor HTTP embutido que imita os endpoints da Cielo, do PayPal e do Stripe usados pelos provedores.
+ * Roda em porta e pool de threads próprios para que a latência simulada não consuma threads do Tomcat.
+ */
+@Slf4j
+public class ProviderSimulatorServer implements SmartLifecycle {
+
+    private final SimulatorProperties properties;
+    private final FaultInjector faultInjector;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SimulatedPayment> payments = new ConcurrentHashMap<>();
+    // Ordem de criação dos pagamentos, para descartar os mais antigos ao atingir o limite
+    private final LinkedBlockingQueue<String> storedIds;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public ProviderSimulatorServer(SimulatorProperties properties, FaultInjector faultInjector, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.faultInjector = faultInjector;
+        this.objectMapper = objectMapper;
+        this.storedIds = new LinkedBlockingQueue<>(properties.getMaxStoredPayments());
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(properties.getPort()), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o simulador na porta " + properties.getPort(), e);
+        }
+        executor = Executors.newFixedThreadPool(properties.getThreads());
+        server.setExecutor(executor);
+        server.createContext("/stripe/", exchange -> handle(exchange, "stripe", this::stripe));
+        server.createContext("/cielo/", exchange -> handle(exchange, "cielo", this::cielo));
+        server.createContext("/paypal/", exchange -> handle(exchange, "paypal", this::paypal));
+        server.createContext("/_profiles/", this::profiles);
+        server.start();
+        running = true;
+        log.info("Simulador de provedores escutando na porta {}", server.getAddress().getPort());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Inicia antes do servidor web para que o gateway já encontre os provedores
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1024;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange, String provider, Route route) {
+        try {
+            FaultInjector.Decision decision = faultInjector.decide(provider);
+            sleep(decision.delayMillis());
+
+            switch (decision.outcome()) {
+                case TIMEOUT -> send(exchange, 504, Map.of("message", "Gateway Timeout"));
+                case ERROR -> send(exchange, 500, errorBody(provider));
+                case DECLINE -> send(exchange, declineStatus(provider), declineBody(provider));
+                case THROTTLE -> {
+                    long retryAfter = Math.max(1, properties.profileFor(provider).getRetryAfter().toSeconds());
+                    exchange.getResponseHeaders().set("Retry-After", Long.toString(retryAfter));
+                    send(exchange, 429, Map.of("message", "Too Many Requests"));
+                }
+                case OK -> {
+                    String path = exchange.getRequestURI().getPath().substring(provider.length() + 1);
+                    Object body = route.apply(exchange.getRequestMethod(), path.split("/"), exchange);
+                    if (body == null) {
+                        send(exchange, 404, Map.of("message", "Not Found"));
+                    } else {
+                        send(exchange, 200, body);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Falha no simulador: {}", e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Stripe: /v1/charges, /v1/charges/{id}, /v1/charges/{id}/capture, /v1/refunds
+    private Object stripe(String method, String[] path, HttpExchange exchange) throws IOException {
+        if (path.length == 3 && "POST".equals(method) && "charges".equals(path[2])) {
+            Map<String, String> form = readForm(exchange);
+            SimulatedPayment payment = store("ch_" + shortId(), new SimulatedPayment(
+                    Long.parseLong(form.getOrDefault("amount", "0")),
+                    form.getOrDefault("currency", "brl"),
+                    form.getOrDefault("source", "card_simulated")));
+            return stripeCharge(payment);
+        }
+        if (path.length == 4 && "GET".equals(method) && "charges".equals(path[2])) {
+            SimulatedPayment payment = payments.get(path[3]);
+            return payment == null ? null : stripeCharge(payment);
+        }
+        if (path.length == 5 && "POST".equals(method) && "capture".equals(path[4])) {
+            SimulatedPayment payment = payments.get(path[3]);
+            if (payment == null) {
+                return null;
+            }
+            payment.status = "CAPTURED";
+            return stripeCharge(payment);
+        }
+        if (path.length == 3 && "POST".equals(method) && "refunds".equals(path[2])) {
+            Map<String, String> form = readForm(exchange);
+            SimulatedPayment payment = payments.get(form.get("charge"));
+            if (payment == null) {
+                return null;
+            }
+            payment.status = "REFUNDED";
+            long amount = form.containsKey("amount") ? Long.parseLong(form.get("amount")) : payment.amountMinor;
+            return Map.of("id", "re_" + shortId(), "object", "refund", "amount", amount,
+                    "currency", payment.currency, "charge", payment.id, "status", "succeeded");
+        }
+        return null;
+    }
+
+    // Cielo: /1/sales, /1/sales/{id}, /1/sales/{id}/capture, /1/sales/{id}/void
+    private Object cielo(String method, String[] path, HttpExchange exchange) throws IOException {
+        if (path.length == 3 && "POST".equals(method) && "sales".equals(path[2])) {
+            Map<String, Object> request = readJson(exchange);
+            Map<String, Object> requestPayment = asMap(request.get("Payment"));
+            Map<String, Object> card = asMap(requestPayment.get("CreditCard"));
+            SimulatedPayment payment = store(UUID.randomUUID().toString(), new SimulatedPayment(
+                    ((Number) requestPayment.getOrDefault("Amount", 0)).longValue(),
+                    String.valueOf(requestPayment.getOrDefault("Currency", "BRL")),
+                    String.valueOf(card.getOrDefault("CardToken", ""))));
+            return Map.of("MerchantOrderId", String.valueOf(request.get("MerchantOrderId")),
+                    "Payment", cieloPayment(payment, 1, "4"));
+        }
+        if (path.length == 4 && "GET".equals(method) && "sales".equals(path[2])) {
+            SimulatedPayment payment = payments.get(path[3]);
+            return payment == null ? null : Map.of("Payment", cieloPayment(payment, cieloStatus(payment), "4"));
+        }
+        if (path.length == 5 && "PUT".equals(method) && "capture".equals(path[4])) {
+            SimulatedPayment payment = payments.get(path[3]);
+            if (payment == null) {
+                return null;
+            }
+            payment.status = "CAPTURED";
+            Map<String, Object> body = cieloPayment(payment, 2, "6");
+            body.put("CapturedAmount", payment.amountMinor);
+            return Map.of("Status", 2, "ReturnCode", "6", "Payment", body);
+        }
+        if (path.length == 5 && "PUT".equals(method) && "void".equals(path[4])) {
+            SimulatedPayment payment = payments.get(path[3]);
+            if (payment == null) {
+                return null;
+            }
+            payment.status = "REFUNDED";
+            Map<String, Object> body = cieloPayment(payment, 10, "9");
+            body.put("VoidedAmount", payment.amountMinor);
+            return Map.of("Status", 10, "ReturnCode", "9", "Payment", body);
+        }
+        return null;
+    }
+
+    // PayPal: /v1/oauth2/token, /v2/checkout/orders[/{id}[/capture]], /v2/payments/captures/{id}/refund
+    private Object paypal(String method, String[] path, HttpExchange exchange) throws IOException {
+        if (path.length == 4 && "token".equals(path[3])) {
+            return Map.of("access_token", "SIMULATED-" + shortId(), "token_type", "Bearer", "expires_in", 32400);
+        }
+        if (path.length == 4 && "POST".equals(method) && "orders".equals(path[3])) {
+            Map<String, Object> request = readJson(exchange);
+            List<?> units = (List<?>) request.getOrDefault("purchase_units", List.of());
+            Map<String, Object> amount = units.isEmpty() ? Map.of() : asMap(asMap(units.get(0)).get("amount"));
+            SimulatedPayment payment = store(shortId().toUpperCase(), new SimulatedPayment(
+                    new BigDecimal(String.valueOf(amount.getOrDefault("value", "0"))).movePointRight(2).longValue(),
+                    String.valueOf(amount.getOrDefault("currency_code", "BRL")),
+                    ""));
+            return payPalOrder(payment, "CREATED");
+        }
+        if (path.length == 5 && "GET".equals(method) && "orders".equals(path[3])) {
+            SimulatedPayment payment = payments.get(path[4]);
+            return payment == null ? null : payPalOrder(payment, payPalStatus(payment));
+        }
+        if (path.length == 6 && "POST".equals(method) && "capture".equals(path[5])) {
+            SimulatedPayment payment = payments.get(path[4]);
+            if (payment == null) {
+                return null;
+            }
+            payment.status = "CAPTURED";
+            return payPalOrder(payment, "COMPLETED");
+        }
+        if (path.length == 6 && "POST".equals(method) && "refund".equals(path[5])) {
+            SimulatedPayment payment = payments.get(path[4]);
+            if (payment != null) {
+                payment.status = "REFUNDED";
+            }
+            return Map.of("id", "REFUND-" + shortId().toUpperCase(), "status", "COMPLETED");
+        }
+        return null;
+    }
+
+    // GET/PUT /_profiles/{provider}: consulta ou troca o perfil de falhas em tempo de execução
+    private void profiles(HttpExchange exchange) throws IOException {
+        try {
+            String provider = exchange.getRequestURI().getPath().substring("/_profiles/".length());
+            if ("PUT".equals(exchange.getRequestMethod())) {
+                try (InputStream body = exchange.getRequestBody()) {
+                    SimulatorProperties.Profile profile = objectMapper.readValue(body, SimulatorProperties.Profile.class);
+                    properties.getProviders().put(provider, profile);
+                }
+                log.info("Perfil do simulador atualizado para {}", provider);
+            }
+            send(exchange, 200, properties.profileFor(provider));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private SimulatedPayment store(String id, SimulatedPayment payment) {
+        // Limite de memória para execuções longas de carga: os pagamentos mais antigos saem primeiro
+        payment.id = id;
+        payments.put(id, payment);
+        while (!storedIds.offer(id)) {
+            String eldest = storedIds.poll();
+            if (eldest != null) {
+                payments.remove(eldest);
+            }
+        }
+        return payment;
+    }
+
+    private Map<String, Object> stripeCharge(SimulatedPayment payment) {
+        Map<String, Object> charge = new HashMap<>();
+        charge.put("id", payment.id);
+        charge.put("object", "charge");
+        charge.put("amount", payment.amountMinor);
+        charge.put("amount_refunded", "REFUNDED".equals(payment.status) ? payment.amountMinor : 0);
+        charge.put("currency", payment.currency.toLowerCase());
+        charge.put("captured", !"AUTHORIZED".equals(payment.status));
+        charge.put("refunded", "REFUNDED".equals(payment.status));
+        charge.put("paid", true);
+        charge.put("status", "succeeded");
+        charge.put("source", Map.of("id", payment.source, "object", "card"));
+        return charge;
+    }
+
+    private Map<String, Object> cieloPayment(SimulatedPayment payment, int status, String returnCode) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("PaymentId", payment.id);
+        body.put("Type", "CreditCard");
+        body.put("Amount", payment.amountMinor);
+        body.put("Currency", payment.currency);
+        body.put("Status", status);
+        body.put("ReturnCode", returnCode);
+        return body;
+    }
+
+    private int cieloStatus(SimulatedPayment payment) {
+        return switch (payment.status) {
+            case "CAPTURED" -> 2;
+            case "REFUNDED" -> 10;
+            default -> 1;
+        };
+    }
+
+    private Map<String, Object> payPalOrder(SimulatedPayment payment, String status) {
+        Map<String, Object> amount = Map.of(
+                "currency_code", payment.currency,
+                "value", BigDecimal.valueOf(payment.amountMinor, 2).toPlainString());
+        return Map.of("id", payment.id, "status", status,
+                "purchase_units", List.of(Map.of("amount", amount)));
+    }
+
+    private String payPalStatus(SimulatedPayment payment) {
+        return switch (payment.status) {
+            case "CAPTURED", "REFUNDED" -> "COMPLETED";
+            default -> "APPROVED";
+        };
+    }
+
+    private int declineStatus(String provider) {
+        return switch (provider) {
+            case "stripe" -> 402;
+            case "paypal" -> 422;
+            default -> 400;
+        };
+    }
+
+    private Object declineBody(String provider) {
+        return switch (provider) {
+            case "stripe" -> Map.of("error", Map.of("type", "card_error", "code", "card_declined",
+                    "message", "Your card was declined."));
+            case "paypal" -> Map.of("name", "UNPROCESSABLE_ENTITY", "message", "The requested action could not be performed.",
+                    "details", List.of(Map.of("issue", "INSTRUMENT_DECLINED")));
+            default -> List.of(Map.of("Code", 57, "Message", "Card Expired"));
+        };
+    }
+
+    private Object errorBody(String provider) {
+        return switch (provider) {
+            case "stripe" -> Map.of("error", Map.of("type", "api_error", "message", "Simulated failure"));
+            case "paypal" -> Map.of("name", "INTERNAL_SERVER_ERROR", "message", "Simulated failure");
+            default -> List.of(Map.of("Code", 0, "Message", "Internal error"));
+        };
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return objectMapper.readValue(body, Map.class);
+        }
+    }
+
+    private Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        try (InputStream body = exchange.getRequestBody()) {
+            String raw = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return form;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    private static String shortId() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        Object apply(String method, String[] path, HttpExchange exchange) throws IOException;
+    }
+
+    private static final class SimulatedPayment {
+
+        private String id;
+        private final long amountMinor;
+        private final String currency;
+        private final String source;
+        private volatile String status = "AUTHORIZED";
+
+        private SimulatedPayment(long amountMinor, String currency, String source) {
+            this.amountMinor = amountMinor;
+            this.currency = currency;
+            this.source = source;
+        }
+    }
+}
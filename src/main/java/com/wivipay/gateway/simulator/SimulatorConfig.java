@@ -0,0 +1,27 @@
+package com.wivipay.gateway.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Configuration
+@Profile("simulator")
+@EnableConfigurationProperties(SimulatorProperties.class)
+public class SimulatorConfig {
+
+    @Bean
+    public FaultInjector faultInjector(SimulatorProperties properties) {
+        return new FaultInjector(properties, ThreadLocalRandom::current, System::currentTimeMillis);
+    }
+
+    @Bean
+    public ProviderSimulatorServer providerSimulatorServer(SimulatorProperties properties,
+                                                           FaultInjector faultInjector,
+                                                           ObjectMapper objectMapper) {
+        return new ProviderSimulatorServer(properties, faultInjector, objectMapper);
+    }
+}
@@ -0,0 +1,75 @@
+package com.wivipay.gateway.simulator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Data
+@ConfigurationProperties(prefix = "simulator")
+public class SimulatorProperties {
+
+    // Porta do servidor HTTP embutido, separado do Tomcat do gateway
+    private int port = 8099;
+
+    // Threads do servidor; latências simuladas bloqueiam uma thread por requisição
+    private int threads = 256;
+
+    // Limite de pagamentos mantidos em memória para capturas e estornos
+    private int maxStoredPayments = 1_000_000;
+
+    // Perfil aplicado aos provedores sem configuração própria
+    private Profile defaults = new Profile();
+
+    // Perfis por provedor: stripe, cielo, paypal; alterados em execução por PUT /_profiles/{provedor}
+    private Map<String, Profile> providers = new ConcurrentHashMap<>();
+
+    public Profile profileFor(String provider) {
+        return providers.getOrDefault(provider, defaults);
+    }
+
+    @Data
+    public static class Profile {
+
+        private Latency latency = new Latency();
+
+        // Probabilidades (0.0 a 1.0) de cada falha, avaliadas nesta ordem
+        private double timeoutRate = 0.0;
+        private double errorRate = 0.0;
+        private double declineRate = 0.0;
+        private double throttleRate = 0.0;
+
+        // Tempo de espera antes de responder 504 quando a falha sorteada for timeout
+        private Duration timeout = Duration.ofSeconds(30);
+
+        // Limite de requisições por segundo antes de responder 429 (0 = sem limite)
+        private int maxRequestsPerSecond = 0;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Latency {
+
+        private Distribution distribution = Distribution.FIXED;
+
+        // FIXED e EXPONENTIAL usam a média; LOGNORMAL usa a média como mediana
+        private Duration mean = Duration.ofMillis(50);
+
+        // Limites aplicados a qualquer distribuição; UNIFORM sorteia entre eles
+        private Duration min = Duration.ZERO;
+        private Duration max = Duration.ofSeconds(10);
+
+        // Dispersão da LOGNORMAL (desvio padrão do logaritmo)
+        private double sigma = 0.5;
+    }
+
+    public enum Distribution {
+        FIXED,
+        UNIFORM,
+        EXPONENTIAL,
+        LOGNORMAL
+    }
+}
@@ -0,0 +1,49 @@
+package com.wivipay.gateway.support;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * ETags fortes (entre aspas, sem {@code W/}) a partir da versão ou do updated_at de uma linha, lidos
+ * por uma consulta que não carrega a entidade. Só identificam a representação dentro da mesma URL.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return quote(Long.toString(version));
+    }
+
+    // Microssegundos: a precisão do timestamp no Postgres
+    public static String of(LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return quote(Long.toString(micros, 36));
+    }
+
+    /**
+     * ETag de uma coleção: resumo SHA-256 (truncado em 128 bits) das partes, na ordem dada.
+     */
+    public static String digest(List<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return quote(HexFormat.of().formatHex(digest.digest(), 0, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
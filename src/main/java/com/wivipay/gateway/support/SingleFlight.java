@@ -0,0 +1,61 @@
+package com.wivipay.gateway.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas concorrentes com a mesma chave: só a primeira executa, as demais esperam e
+ * recebem o mesmo resultado (ou a mesma exceção). Chaves diferentes não disputam nada além do
+ * bucket do {@link ConcurrentHashMap}.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> call) {
+        return execute(key, call, () -> { });
+    }
+
+    /**
+     * @param onShared executado quando a chamada pega carona numa execução em andamento
+     */
+    public V execute(K key, Supplier<V> call, Runnable onShared) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = calls.putIfAbsent(key, own);
+        if (running != null) {
+            onShared.run();
+            return await(running);
+        }
+
+        try {
+            V result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, own);
+        }
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.wivipay.gateway.sync;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas com reposição contínua: {@code permitsPerSecond} fichas por segundo, acumulando
+ * no máximo um segundo de fichas. Define quantas consultas uma rodada pode fazer a um provedor.
+ */
+public class RateBudget {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final LongSupplier nanoTime;
+    private double tokens;
+    private long refilledAt;
+
+    public RateBudget(double permitsPerSecond, LongSupplier nanoTime) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * @return quantas fichas foram concedidas, entre 0 e {@code max}
+     */
+    public synchronized int take(int max) {
+        refill();
+        int granted = (int) Math.min(max, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    // Fichas reservadas e não usadas (a rodada achou menos transações que o concedido)
+    public synchronized void giveBack(int unused) {
+        tokens = Math.min(capacity, tokens + unused);
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) / NANOS_PER_SECOND * permitsPerSecond);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,91 @@
+package com.wivipay.gateway.sync;
+
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reserva transações paradas para consulta no provedor. A seleção segue o índice
+ * (provider, status, updated_at) com {@code FOR UPDATE SKIP LOCKED}, e a reserva grava
+ * {@code status_checked_at} na mesma transação: outras instâncias pulam as linhas travadas e, depois
+ * do commit, não as encontram mais até {@code recheck-interval}.
+ */
+public class StaleTransactionClaimer {
+
+    // PENDING primeiro: um pagamento sem resposta é mais urgente que uma autorização sem captura. Capturas
+    // e estornos parados vêm antes das autorizações: enquanto não se resolvem, bloqueiam novas operações
+    static final List<PaymentStatus> STALE_STATUSES = List.of(PaymentStatus.PENDING, PaymentStatus.CAPTURING,
+            PaymentStatus.REFUNDING, PaymentStatus.AUTHORIZED);
+
+    // created_at limita a varredura às partições recentes
+    private static final String SELECT_SQL =
+            "SELECT id, created_at, provider, provider_transaction_id, status, version FROM payment_transactions " +
+            "WHERE provider = ? AND status = ? AND updated_at < ? AND created_at >= ? " +
+            "AND (status_checked_at IS NULL OR status_checked_at < ?) " +
+            "ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_SQL =
+            "UPDATE payment_transactions SET status_checked_at = ? WHERE id = ? AND created_at = ?";
+
+    private static final RowMapper<PaymentTransaction> ROW_MAPPER = (rs, rowNum) -> {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(rs.getObject("id", UUID.class));
+        transaction.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        transaction.setProvider(rs.getString("provider"));
+        transaction.setProviderTransactionId(rs.getString("provider_transaction_id"));
+        transaction.setStatus(PaymentStatus.valueOf(rs.getString("status")));
+        transaction.setVersion(rs.getLong("version"));
+        return transaction;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusSyncProperties properties;
+    private final Clock clock;
+
+    public StaleTransactionClaimer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   StatusSyncProperties properties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @return até {@code limit} transações do provedor, com status e versão do momento da reserva
+     */
+    public List<PaymentTransaction> claim(String provider, int limit) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime staleBefore = now.minus(properties.getStaleAfter());
+        LocalDateTime inFlightStaleBefore = now.minus(properties.getInFlightStaleAfter());
+        LocalDateTime createdAfter = now.minus(properties.getMaxAge());
+        LocalDateTime checkedBefore = now.minus(properties.getRecheckInterval());
+        return transactionTemplate.execute(status -> {
+            List<PaymentTransaction> claimed = new ArrayList<>();
+            for (PaymentStatus stale : STALE_STATUSES) {
+                if (claimed.size() == limit) {
+                    break;
+                }
+                claimed.addAll(jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, provider, stale.name(),
+                        stale.isInFlight() ? inFlightStaleBefore : staleBefore, createdAfter, checkedBefore,
+                        limit - claimed.size()));
+            }
+            if (!claimed.isEmpty()) {
+                jdbcTemplate.batchUpdate(CLAIM_SQL, claimed, claimed.size(), (ps, transaction) -> {
+                    ps.setObject(1, now);
+                    ps.setObject(2, transaction.getId());
+                    ps.setObject(3, transaction.getCreatedAt());
+                });
+            }
+            return claimed;
+        });
+    }
+}
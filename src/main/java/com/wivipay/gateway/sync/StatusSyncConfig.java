@@ -0,0 +1,36 @@
+package com.wivipay.gateway.sync;
+
+import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(StatusSyncProperties.class)
+@ConditionalOnProperty(prefix = "wivipay.status-sync", name = "enabled", havingValue = "true")
+public class StatusSyncConfig {
+
+    @Bean
+    public StaleTransactionClaimer staleTransactionClaimer(JdbcTemplate jdbcTemplate,
+                                                           PlatformTransactionManager transactionManager,
+                                                           StatusSyncProperties properties) {
+        return new StaleTransactionClaimer(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public StatusSynchronizer statusSynchronizer(StaleTransactionClaimer claimer, List<PaymentProvider> providers,
+                                                 PaymentService paymentService, StatusSyncProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        return new StatusSynchronizer(claimer, providers, paymentService, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.wivipay.gateway.sync;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.status-sync")
+public class StatusSyncProperties {
+
+    private boolean enabled = false;
+
+    // PENDING ou AUTHORIZED sem alteração há mais que isto é consultado no provedor
+    private Duration staleAfter = Duration.ofMinutes(15);
+
+    // CAPTURING ou REFUNDING sem alteração há mais que isto: a chamada ao provedor não voltou (queda,
+    // timeout). Tem de passar do connect-timeout mais o read-timeout dos provedores
+    private Duration inFlightStaleAfter = Duration.ofMinutes(2);
+
+    // Intervalo mínimo entre duas consultas da mesma transação
+    private Duration recheckInterval = Duration.ofHours(1);
+
+    // Transações mais antigas ficam de fora (autorizações expiram no provedor em poucos dias)
+    private Duration maxAge = Duration.ofDays(7);
+
+    // Teto de transações reservadas por provedor em cada rodada
+    private int batchSize = 100;
+
+    // Consultas por segundo em cada provedor, por instância; provedor fora do mapa usa defaultRate
+    private Map<String, Double> rates = new HashMap<>(Map.of("stripe", 20.0, "paypal", 10.0, "cielo", 10.0));
+    private double defaultRate = 5.0;
+
+    public double rateFor(String provider) {
+        return rates.getOrDefault(provider, defaultRate);
+    }
+}
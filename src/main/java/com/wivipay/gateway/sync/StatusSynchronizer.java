@@ -0,0 +1,118 @@
+package com.wivipay.gateway.sync;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.service.PaymentService;
+import com.wivipay.gateway.service.PaymentService.ProviderStatusUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consulta no provedor as transações que ficaram em PENDING ou AUTHORIZED (resposta perdida,
+ * notificação que não chegou) e aplica o status encontrado pela máquina de estados de
+ * {@link PaymentService#applyProviderStatus}. Capturas e estornos parados em CAPTURING ou REFUNDING
+ * (queda no meio da operação, provedor sem resposta) são resolvidos por
+ * {@link PaymentService#resolveInFlight}.
+ * <p>
+ * Cada provedor tem seu {@link RateBudget}: a rodada só reserva tantas transações quantas fichas
+ * houver, então a taxa de consultas nunca passa de {@code rates.<provedor>} por instância. Se o
+ * provedor estiver indisponível, a rodada para nele; as transações reservadas voltam a ser
+ * consultadas depois de {@code recheck-interval}.
+ */
+@Slf4j
+@Workload(WorkloadType.PAYMENTS)
+public class StatusSynchronizer {
+
+    private final StaleTransactionClaimer claimer;
+    private final List<PaymentProvider> providers;
+    private final PaymentService paymentService;
+    private final StatusSyncProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RateBudget> budgets = new LinkedHashMap<>();
+
+    public StatusSynchronizer(StaleTransactionClaimer claimer, List<PaymentProvider> providers,
+                              PaymentService paymentService, StatusSyncProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.claimer = claimer;
+        this.providers = providers;
+        this.paymentService = paymentService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (PaymentProvider provider : providers) {
+            budgets.put(provider.getName(), new RateBudget(properties.rateFor(provider.getName()), System::nanoTime));
+        }
+    }
+
+    /**
+     * @return transações consultadas nesta rodada
+     */
+    @Scheduled(fixedDelayString = "${wivipay.status-sync.poll-interval:PT1S}")
+    public int synchronize() {
+        int checked = 0;
+        for (PaymentProvider provider : providers) {
+            try {
+                checked += synchronize(provider);
+            } catch (RuntimeException e) {
+                log.error("Falha na sincronização de status de {}: {}", provider.getName(), e.getMessage());
+            }
+        }
+        return checked;
+    }
+
+    private int synchronize(PaymentProvider provider) {
+        RateBudget budget = budgets.get(provider.getName());
+        int granted = budget.take(properties.getBatchSize());
+        if (granted == 0) {
+            return 0;
+        }
+        List<PaymentTransaction> claimed = claimer.claim(provider.getName(), granted);
+        budget.giveBack(granted - claimed.size());
+
+        int checked = 0;
+        for (PaymentTransaction transaction : claimed) {
+            PaymentStatus target;
+            try {
+                target = provider.retrieveStatus(transaction.getProviderTransactionId());
+            } catch (ProviderUnavailableException e) {
+                count(provider, "error");
+                log.warn("{} indisponível na sincronização de status; {} transações ficam para a próxima consulta",
+                        provider.getName(), claimed.size() - checked);
+                break;
+            } catch (RuntimeException e) {
+                count(provider, "error");
+                log.warn("Consulta de status da transação {} em {} falhou: {}",
+                        transaction.getId(), provider.getName(), e.getMessage());
+                checked++;
+                continue;
+            }
+            checked++;
+            PaymentStatus previous = transaction.getStatus();
+            ProviderStatusUpdate update = previous.isInFlight()
+                    ? paymentService.resolveInFlight(transaction, target, "sincronização de status")
+                    : paymentService.applyProviderStatus(transaction, target, "sincronização de status");
+            count(provider, update.name().toLowerCase());
+            if (update == ProviderStatusUpdate.APPLIED) {
+                log.info("Transação {} sincronizada com {}: {} -> {}", transaction.getId(), provider.getName(),
+                        previous, target);
+            } else if (update == ProviderStatusUpdate.REJECTED) {
+                // Ex.: AUTHORIZED aqui e REFUNDED lá sem passar pela API; fica para a conciliação
+                log.warn("Transação {} está {} e {} informa {}", transaction.getId(), previous, provider.getName(), target);
+            }
+        }
+        return checked;
+    }
+
+    private void count(PaymentProvider provider, String outcome) {
+        meterRegistry.counter("wivipay.status_sync.checked", "provider", provider.getName(), "outcome", outcome)
+                .increment();
+    }
+}
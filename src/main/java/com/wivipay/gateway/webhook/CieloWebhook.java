@@ -0,0 +1,74 @@
+package com.wivipay.gateway.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.exception.WebhookSignatureException;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Post de notificação da Cielo. Ela não assina o corpo: o lojista cadastra um cabeçalho fixo, que
+ * é comparado em tempo constante. A notificação só traz {@code PaymentId} e {@code ChangeType}, então
+ * a mudança de status é consultada na Cielo no processamento.
+ * <p>
+ * Também não há id de evento: a chave é PaymentId, ChangeType e o minuto de recebimento. Um reenvio
+ * fora desse minuto entra de novo, sem efeito, porque o status consultado é o mesmo.
+ */
+public class CieloWebhook implements ProviderWebhook {
+
+    static final String TOKEN_HEADER = "X-Wivipay-Token";
+
+    // ChangeType 1: mudança de status do pagamento; 7: notificação de chargeback
+    private static final int STATUS_CHANGED = 1;
+    private static final int CHARGEBACK = 7;
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final byte[] token;
+    private final Clock clock;
+
+    public CieloWebhook(String token, Clock clock) {
+        this.token = token == null ? new byte[0] : token.getBytes(StandardCharsets.UTF_8);
+        this.clock = clock;
+    }
+
+    @Override
+    public String provider() {
+        return "cielo";
+    }
+
+    @Override
+    public Optional<WebhookNotification> parse(HttpHeaders headers, String body) {
+        String received = headers.getFirst(TOKEN_HEADER);
+        if (token.length == 0 || received == null
+                || !MessageDigest.isEqual(token, received.getBytes(StandardCharsets.UTF_8))) {
+            throw new WebhookSignatureException("Token da notificação da Cielo inválido");
+        }
+
+        JsonNode notification = read(body);
+        String paymentId = notification.path("PaymentId").asText();
+        int changeType = notification.path("ChangeType").asInt();
+        if (paymentId.isEmpty() || (changeType != STATUS_CHANGED && changeType != CHARGEBACK)) {
+            return Optional.empty();
+        }
+        long minute = Instant.now(clock).getEpochSecond() / 60;
+        return Optional.of(new WebhookNotification(provider(), paymentId + ":" + changeType + ":" + minute,
+                "ChangeType " + changeType, paymentId, changeType == CHARGEBACK ? PaymentStatus.CHARGED_BACK : null));
+    }
+
+    private static JsonNode read(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Notificação da Cielo inválida");
+        }
+    }
+}
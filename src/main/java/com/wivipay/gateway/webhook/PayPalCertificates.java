@@ -0,0 +1,55 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.exception.WebhookSignatureException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.security.PublicKey;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Certificados com que o PayPal assina as notificações, baixados uma vez por URL. Só a primeira
+ * notificação de cada certificado paga o download; as demais verificam em memória.
+ */
+public class PayPalCertificates {
+
+    private final RestTemplate restTemplate;
+    private final Map<String, PublicKey> keys = new ConcurrentHashMap<>();
+
+    public PayPalCertificates(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public PublicKey publicKey(String certUrl) {
+        PublicKey key = keys.get(certUrl);
+        if (key == null) {
+            key = download(certUrl);
+            keys.put(certUrl, key);
+        }
+        return key;
+    }
+
+    private PublicKey download(String certUrl) {
+        // A URL vem no cabeçalho da notificação: só certificados servidos pelo próprio PayPal
+        URI uri = URI.create(certUrl);
+        if (!"https".equals(uri.getScheme()) || uri.getHost() == null
+                || !(uri.getHost().equals("paypal.com") || uri.getHost().endsWith(".paypal.com"))) {
+            throw new WebhookSignatureException("Certificado de notificação fora do domínio do PayPal");
+        }
+        try {
+            byte[] pem = restTemplate.getForObject(uri, byte[].class);
+            X509Certificate certificate = (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(pem));
+            certificate.checkValidity();
+            return certificate.getPublicKey();
+        } catch (RestClientException | CertificateException | NullPointerException e) {
+            throw new WebhookSignatureException("Certificado de notificação do PayPal inválido");
+        }
+    }
+}
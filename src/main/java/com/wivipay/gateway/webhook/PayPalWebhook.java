@@ -0,0 +1,100 @@
+package com.wivipay.gateway.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.exception.WebhookSignatureException;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Eventos do PayPal, verificados localmente: assinatura RSA-SHA256 sobre
+ * {@code transmissionId|transmissionTime|webhookId|crc32(corpo)}, com o certificado indicado no
+ * cabeçalho. Evita a chamada a verify-webhook-signature, que custaria uma ida ao PayPal por evento.
+ */
+public class PayPalWebhook implements ProviderWebhook {
+
+    private static final String ALGORITHM = "SHA256withRSA";
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final String webhookId;
+    private final PayPalCertificates certificates;
+
+    public PayPalWebhook(String webhookId, PayPalCertificates certificates) {
+        this.webhookId = webhookId;
+        this.certificates = certificates;
+    }
+
+    @Override
+    public String provider() {
+        return "paypal";
+    }
+
+    @Override
+    public Optional<WebhookNotification> parse(HttpHeaders headers, String body) {
+        verify(headers, body);
+
+        JsonNode event = read(body);
+        String type = event.path("event_type").asText();
+        PaymentStatus target = switch (type) {
+            case "PAYMENT.CAPTURE.COMPLETED" -> PaymentStatus.CAPTURED;
+            case "PAYMENT.CAPTURE.REFUNDED" -> PaymentStatus.REFUNDED;
+            case "PAYMENT.CAPTURE.REVERSED" -> PaymentStatus.CHARGED_BACK;
+            case "PAYMENT.AUTHORIZATION.VOIDED" -> PaymentStatus.FAILED;
+            default -> null;
+        };
+        if (target == null) {
+            return Optional.empty();
+        }
+        // Guardamos o id do pedido; capturas e autorizações apontam para ele em related_ids
+        JsonNode resource = event.path("resource");
+        String orderId = resource.path("supplementary_data").path("related_ids").path("order_id").asText();
+        return Optional.of(new WebhookNotification(provider(), event.path("id").asText(), type,
+                orderId.isEmpty() ? resource.path("id").asText() : orderId, target));
+    }
+
+    private void verify(HttpHeaders headers, String body) {
+        String transmissionId = headers.getFirst("PAYPAL-TRANSMISSION-ID");
+        String transmissionTime = headers.getFirst("PAYPAL-TRANSMISSION-TIME");
+        String signature = headers.getFirst("PAYPAL-TRANSMISSION-SIG");
+        String certUrl = headers.getFirst("PAYPAL-CERT-URL");
+        if (webhookId == null || webhookId.isBlank() || transmissionId == null || transmissionTime == null
+                || signature == null || certUrl == null) {
+            throw new WebhookSignatureException("Assinatura do PayPal ausente");
+        }
+        if (!ALGORITHM.equalsIgnoreCase(headers.getFirst("PAYPAL-AUTH-ALGO"))) {
+            throw new WebhookSignatureException("Algoritmo de assinatura do PayPal não suportado");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        String signed = transmissionId + "|" + transmissionTime + "|" + webhookId + "|" + crc.getValue();
+        try {
+            Signature verifier = Signature.getInstance(ALGORITHM);
+            verifier.initVerify(certificates.publicKey(certUrl));
+            verifier.update(signed.getBytes(StandardCharsets.UTF_8));
+            if (!verifier.verify(Base64.getDecoder().decode(signature))) {
+                throw new WebhookSignatureException("Assinatura do PayPal inválida");
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new WebhookSignatureException("Assinatura do PayPal inválida");
+        }
+    }
+
+    private static JsonNode read(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Notificação do PayPal inválida");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.wivipay.gateway.webhook;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Optional;
+
+/**
+ * Recebimento das notificações de um provedor: verifica a assinatura e extrai o evento, sem acessar
+ * o banco. Precisa responder em milissegundos, porque os provedores reenviam o que demora.
+ */
+public interface ProviderWebhook {
+
+    String provider();
+
+    /**
+     * @return vazio para eventos que não mudam o status de um pagamento
+     * @throws com.wivipay.gateway.exception.WebhookSignatureException se a assinatura não confere
+     */
+    Optional<WebhookNotification> parse(HttpHeaders headers, String body);
+}
@@ -0,0 +1,74 @@
+package com.wivipay.gateway.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.net.Webhook;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.exception.WebhookSignatureException;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Eventos da Stripe, assinados com HMAC-SHA256 no cabeçalho {@code Stripe-Signature}. O corpo é lido
+ * direto do JSON, sem o modelo do SDK, para não depender da versão da API configurada no endpoint.
+ */
+public class StripeWebhook implements ProviderWebhook {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final String secret;
+    private final long toleranceSeconds;
+
+    public StripeWebhook(String secret, Duration tolerance) {
+        this.secret = secret;
+        this.toleranceSeconds = tolerance.toSeconds();
+    }
+
+    @Override
+    public String provider() {
+        return "stripe";
+    }
+
+    @Override
+    public Optional<WebhookNotification> parse(HttpHeaders headers, String body) {
+        String signature = headers.getFirst("Stripe-Signature");
+        if (secret == null || secret.isBlank() || signature == null) {
+            throw new WebhookSignatureException("Assinatura da Stripe ausente");
+        }
+        try {
+            Webhook.Signature.verifyHeader(body, signature, secret, toleranceSeconds);
+        } catch (SignatureVerificationException e) {
+            throw new WebhookSignatureException("Assinatura da Stripe inválida");
+        }
+
+        JsonNode event = read(body);
+        String type = event.path("type").asText();
+        JsonNode object = event.path("data").path("object");
+        PaymentStatus target = switch (type) {
+            case "charge.captured" -> PaymentStatus.CAPTURED;
+            case "charge.refunded" -> PaymentStatus.REFUNDED;
+            case "charge.failed" -> PaymentStatus.FAILED;
+            case "charge.dispute.created" -> PaymentStatus.CHARGED_BACK;
+            default -> null;
+        };
+        if (target == null) {
+            return Optional.empty();
+        }
+        // Na disputa o objeto é a disputa; a cobrança vem em "charge"
+        String chargeId = target == PaymentStatus.CHARGED_BACK ? object.path("charge").asText() : object.path("id").asText();
+        return Optional.of(new WebhookNotification(provider(), event.path("id").asText(), type, chargeId, target));
+    }
+
+    private static JsonNode read(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Notificação da Stripe inválida");
+        }
+    }
+}
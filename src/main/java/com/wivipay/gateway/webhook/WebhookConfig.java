@@ -0,0 +1,54 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import com.wivipay.gateway.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(WebhookProperties.class)
+public class WebhookConfig {
+
+    @Bean
+    public StripeWebhook stripeWebhook(WebhookProperties properties) {
+        return new StripeWebhook(properties.getStripe().getSecret(), properties.getStripe().getTolerance());
+    }
+
+    @Bean
+    public PayPalWebhook payPalWebhook(WebhookProperties properties, RestTemplate restTemplate) {
+        return new PayPalWebhook(properties.getPaypal().getWebhookId(), new PayPalCertificates(restTemplate));
+    }
+
+    @Bean
+    public CieloWebhook cieloWebhook(WebhookProperties properties) {
+        return new CieloWebhook(properties.getCielo().getToken(), Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public WebhookInbox webhookInbox(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     WebhookProperties properties) {
+        return new WebhookInbox(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                Clock.systemDefaultZone());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wivipay.webhooks", name = "processing-enabled", havingValue = "true",
+            matchIfMissing = true)
+    public WebhookEventProcessor webhookEventProcessor(WebhookInbox inbox, PaymentTransactionRepository repository,
+                                                       List<PaymentProvider> providers,
+                                                       PaymentService paymentService,
+                                                       WebhookProperties properties, MeterRegistry meterRegistry) {
+        return new WebhookEventProcessor(inbox, repository, providers, paymentService, properties, meterRegistry);
+    }
+}
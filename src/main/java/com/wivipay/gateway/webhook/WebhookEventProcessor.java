@@ -0,0 +1,145 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.datasource.Workload;
+import com.wivipay.gateway.datasource.WorkloadType;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.model.WebhookEvent;
+import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import com.wivipay.gateway.service.PaymentService;
+import com.wivipay.gateway.webhook.WebhookInbox.QueuedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consome a fila de notificações em lotes: as transações de cada provedor são buscadas num único
+ * SELECT pelo id do provedor, e cada mudança passa por {@link PaymentService#applyProviderStatus}, com
+ * o mesmo UPDATE condicional em status e versão das operações da API. Eventos de uma transação em
+ * captura ou estorno, ou de uma transação ainda não gravada, voltam para a fila.
+ */
+@Slf4j
+@Workload(WorkloadType.PAYMENTS)
+public class WebhookEventProcessor {
+
+    private final WebhookInbox inbox;
+    private final PaymentTransactionRepository repository;
+    private final List<PaymentProvider> providers;
+    private final PaymentService paymentService;
+    private final WebhookProperties properties;
+    private final Map<WebhookEvent.Status, Counter> outcomes = new EnumMap<>(WebhookEvent.Status.class);
+
+    public WebhookEventProcessor(WebhookInbox inbox, PaymentTransactionRepository repository,
+                                 List<PaymentProvider> providers, PaymentService paymentService,
+                                 WebhookProperties properties, MeterRegistry meterRegistry) {
+        this.inbox = inbox;
+        this.repository = repository;
+        this.providers = providers;
+        this.paymentService = paymentService;
+        this.properties = properties;
+        for (WebhookEvent.Status status : WebhookEvent.Status.values()) {
+            outcomes.put(status, Counter.builder("wivipay.webhooks.processed")
+                    .description("Notificações de provedores processadas, por resultado")
+                    .tag("outcome", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return eventos reservados nesta rodada
+     */
+    @Scheduled(fixedDelayString = "${wivipay.webhooks.poll-interval:PT1S}")
+    public int process() {
+        List<QueuedEvent> batch;
+        try {
+            batch = inbox.claim(properties.getBatchSize());
+            Map<String, List<QueuedEvent>> byProvider = batch.stream()
+                    .collect(Collectors.groupingBy(QueuedEvent::provider, LinkedHashMap::new, Collectors.toList()));
+            byProvider.forEach(this::process);
+        } catch (RuntimeException e) {
+            // Os eventos reservados voltam para a fila depois de claim-timeout
+            log.error("Falha ao processar notificações dos provedores: {}", e.getMessage());
+            return 0;
+        }
+        return batch.size();
+    }
+
+    @Scheduled(cron = "${wivipay.webhooks.purge-cron:0 30 4 * * *}")
+    public int purge() {
+        int purged = inbox.purge();
+        if (purged > 0) {
+            log.info("{} notificações processadas removidas da fila", purged);
+        }
+        return purged;
+    }
+
+    private void process(String providerName, List<QueuedEvent> events) {
+        Set<String> ids = events.stream().map(QueuedEvent::providerTransactionId).collect(Collectors.toSet());
+        Map<String, PaymentTransaction> transactions = repository.findCurrentByProviderAndProviderTransactionIdIn(providerName, ids)
+                .stream()
+                .collect(Collectors.toMap(PaymentTransaction::getProviderTransactionId, Function.identity(), (a, b) -> a));
+        for (QueuedEvent event : events) {
+            try {
+                apply(event, transactions.get(event.providerTransactionId()));
+            } catch (RuntimeException e) {
+                log.warn("Notificação {} de {} falhou: {}", event.eventId(), event.provider(), e.getMessage());
+                retry(event, e.getMessage());
+            }
+        }
+    }
+
+    private void apply(QueuedEvent event, PaymentTransaction transaction) {
+        if (transaction == null) {
+            // A notificação pode chegar antes de a autorização ser gravada (diário, réplica)
+            retry(event, "Transação " + event.providerTransactionId() + " não encontrada");
+            return;
+        }
+        // Antes da consulta ao provedor: em captura ou estorno o evento espera de qualquer forma
+        if (transaction.getStatus().isInFlight()) {
+            retry(event, "Transação em " + transaction.getStatus());
+            return;
+        }
+        PaymentStatus current = transaction.getStatus();
+        PaymentStatus target = event.targetStatus() != null
+                ? event.targetStatus()
+                : findProvider(event.provider()).retrieveStatus(event.providerTransactionId());
+        switch (paymentService.applyProviderStatus(transaction, target,
+                "notificação " + event.eventType() + " de " + event.provider())) {
+            case APPLIED, UNCHANGED -> finish(event, WebhookEvent.Status.APPLIED, null);
+            case REJECTED -> finish(event, WebhookEvent.Status.IGNORED,
+                    "Transição de " + current + " para " + target + " não aceita");
+            case IN_FLIGHT -> retry(event, "Transação em " + current);
+            case CONFLICT -> retry(event, "Transação alterada durante o processamento");
+        }
+    }
+
+    private void finish(QueuedEvent event, WebhookEvent.Status status, String message) {
+        inbox.finish(event, status, message);
+        outcomes.get(status).increment();
+    }
+
+    private void retry(QueuedEvent event, String reason) {
+        if (!inbox.retry(event, reason)) {
+            log.error("Notificação {} de {} descartada após {} tentativas: {}",
+                    event.eventId(), event.provider(), event.attempts(), reason);
+            outcomes.get(WebhookEvent.Status.FAILED).increment();
+        }
+    }
+
+    private PaymentProvider findProvider(String providerName) {
+        return providers.stream()
+                .filter(p -> p.supports(providerName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Provedor não suportado: " + providerName));
+    }
+}
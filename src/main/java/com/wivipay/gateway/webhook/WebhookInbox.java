@@ -0,0 +1,148 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.model.WebhookEvent;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fila durável das notificações, na tabela {@code webhook_events}. A chave primária
+ * (provider, event_id) deduplica os reenvios; o consumo reserva lotes com
+ * {@code FOR UPDATE SKIP LOCKED}, então várias instâncias consomem sem pegar o mesmo evento.
+ */
+public class WebhookInbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO webhook_events (provider, event_id, event_type, provider_transaction_id, target_status, " +
+            "status, attempts, received_at, available_at) VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    // PROCESSING antigo: reservado por uma instância que não terminou o lote
+    private static final String SELECT_SQL =
+            "SELECT provider, event_id, event_type, provider_transaction_id, target_status, attempts " +
+            "FROM webhook_events WHERE (status = 'PENDING' AND available_at <= ?) " +
+            "OR (status = 'PROCESSING' AND claimed_at < ?) " +
+            "ORDER BY available_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_SQL =
+            "UPDATE webhook_events SET status = 'PROCESSING', claimed_at = ?, attempts = attempts + 1 " +
+            "WHERE provider = ? AND event_id = ?";
+
+    private static final String FINISH_SQL =
+            "UPDATE webhook_events SET status = ?, processed_at = ?, last_error = ? " +
+            "WHERE provider = ? AND event_id = ? AND status = 'PROCESSING'";
+
+    private static final String RETRY_SQL =
+            "UPDATE webhook_events SET status = 'PENDING', available_at = ?, last_error = ? " +
+            "WHERE provider = ? AND event_id = ? AND status = 'PROCESSING'";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM webhook_events WHERE status IN ('APPLIED', 'IGNORED', 'FAILED') AND processed_at < ?";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final RowMapper<QueuedEvent> ROW_MAPPER = (rs, rowNum) -> {
+        String target = rs.getString("target_status");
+        return new QueuedEvent(rs.getString("provider"), rs.getString("event_id"), rs.getString("event_type"),
+                rs.getString("provider_transaction_id"), target == null ? null : PaymentStatus.valueOf(target),
+                rs.getInt("attempts") + 1);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WebhookProperties properties;
+    private final Clock clock;
+
+    public WebhookInbox(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        WebhookProperties properties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @return false se o evento já estava na fila (reenvio do provedor)
+     */
+    public boolean enqueue(WebhookNotification notification) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            jdbcTemplate.update(INSERT_SQL, notification.provider(), notification.eventId(), notification.eventType(),
+                    notification.providerTransactionId(),
+                    notification.targetStatus() == null ? null : notification.targetStatus().name(), now, now);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reserva até {@code limit} eventos prontos, em ordem de disponibilidade. Cada reserva conta uma
+     * tentativa.
+     */
+    public List<QueuedEvent> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime staleClaim = now.minus(properties.getClaimTimeout());
+        return transactionTemplate.execute(status -> {
+            List<QueuedEvent> events = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, now, staleClaim, limit);
+            if (!events.isEmpty()) {
+                jdbcTemplate.batchUpdate(CLAIM_SQL, events, events.size(), (ps, event) -> {
+                    ps.setObject(1, now);
+                    ps.setString(2, event.provider());
+                    ps.setString(3, event.eventId());
+                });
+            }
+            return events;
+        });
+    }
+
+    public void finish(QueuedEvent event, WebhookEvent.Status status, String message) {
+        jdbcTemplate.update(FINISH_SQL, status.name(), LocalDateTime.now(clock), truncate(message),
+                event.provider(), event.eventId());
+    }
+
+    /**
+     * Devolve o evento à fila com espera crescente, ou o encerra como FAILED depois de
+     * {@code max-attempts} tentativas.
+     *
+     * @return false se o evento foi encerrado
+     */
+    public boolean retry(QueuedEvent event, String reason) {
+        if (event.attempts() >= properties.getMaxAttempts()) {
+            finish(event, WebhookEvent.Status.FAILED, reason);
+            return false;
+        }
+        LocalDateTime availableAt = LocalDateTime.now(clock).plus(properties.getRetryDelay().multipliedBy(event.attempts()));
+        jdbcTemplate.update(RETRY_SQL, availableAt, truncate(reason), event.provider(), event.eventId());
+        return true;
+    }
+
+    /**
+     * @return eventos encerrados removidos
+     */
+    public int purge() {
+        return jdbcTemplate.update(PURGE_SQL, LocalDateTime.now(clock).minus(properties.getRetention()));
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Evento reservado para processamento.
+     *
+     * @param attempts tentativas contando a atual
+     */
+    public record QueuedEvent(String provider,
+                              String eventId,
+                              String eventType,
+                              String providerTransactionId,
+                              PaymentStatus targetStatus,
+                              int attempts) {
+    }
+}
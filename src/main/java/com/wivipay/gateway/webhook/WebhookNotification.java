@@ -0,0 +1,15 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+
+/**
+ * Notificação já verificada e reduzida ao que o processamento precisa.
+ *
+ * @param targetStatus status informado pelo provedor; null quando precisa ser consultado
+ */
+public record WebhookNotification(String provider,
+                                  String eventId,
+                                  String eventType,
+                                  String providerTransactionId,
+                                  PaymentStatus targetStatus) {
+}
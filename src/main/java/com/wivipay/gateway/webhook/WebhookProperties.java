@@ -0,0 +1,50 @@
+package com.wivipay.gateway.webhook;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "wivipay.webhooks")
+public class WebhookProperties {
+
+    private Stripe stripe = new Stripe();
+    private PayPal paypal = new PayPal();
+    private Cielo cielo = new Cielo();
+
+    // Liga o consumo da fila; o recebimento funciona sempre
+    private boolean processingEnabled = true;
+
+    // Eventos reservados por rodada do processamento
+    private int batchSize = 100;
+
+    // Evento reservado há mais que isto volta para a fila (instância que caiu no meio do lote)
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    // Transação ainda não gravada ou em captura/estorno: nova tentativa depois de retryDelay * tentativas
+    private int maxAttempts = 10;
+    private Duration retryDelay = Duration.ofSeconds(30);
+
+    // Eventos processados ficam este tempo na tabela para deduplicar reenvios
+    private Duration retention = Duration.ofDays(7);
+
+    @Data
+    public static class Stripe {
+        // whsec_... do endpoint cadastrado na Stripe
+        private String secret;
+        private Duration tolerance = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class PayPal {
+        // Id do webhook cadastrado no PayPal; entra na mensagem assinada
+        private String webhookId;
+    }
+
+    @Data
+    public static class Cielo {
+        // Valor do cabeçalho X-Wivipay-Token cadastrado na Cielo
+        private String token;
+    }
+}
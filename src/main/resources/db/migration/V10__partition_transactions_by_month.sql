@@ -0,0 +1,71 @@
+-- Migration V10: Particionar payment_transactions e transaction_logs por mês em created_at
+-- Data: 2026-10-XX
+--
+-- Requer PostgreSQL 14+ (DETACH PARTITION CONCURRENTLY no arquivamento). Reescreve as duas tabelas;
+-- executar em janela de manutenção, com a aplicação parada. Depois desta migration as partições
+-- futuras são criadas e as antigas arquivadas pelo PartitionMaintenanceService.
+
+-- Cria uma partição por mês, de first_month até last_month (inclusive), com nome <tabela>_pAAAAMM
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, first_month DATE, last_month DATE)
+RETURNS void AS $$
+DECLARE
+    partition_month DATE := date_trunc('month', first_month);
+BEGIN
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       parent || '_p' || to_char(partition_month, 'YYYYMM'), parent,
+                       partition_month::timestamp, (partition_month + INTERVAL '1 month')::timestamp);
+        partition_month := partition_month + INTERVAL '1 month';
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE transaction_logs RENAME TO transaction_logs_heap;
+ALTER TABLE payment_transactions RENAME TO payment_transactions_heap;
+
+-- LIKE copia colunas e defaults da tabela atual, incluindo o que o ddl-auto acrescentou
+CREATE TABLE payment_transactions (LIKE payment_transactions_heap INCLUDING DEFAULTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+CREATE TABLE transaction_logs (LIKE transaction_logs_heap INCLUDING DEFAULTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partitions('payment_transactions',
+       COALESCE((SELECT min(created_at) FROM payment_transactions_heap), CURRENT_TIMESTAMP)::date,
+       (CURRENT_TIMESTAMP + INTERVAL '3 months')::date);
+SELECT create_monthly_partitions('transaction_logs',
+       COALESCE((SELECT min(created_at) FROM transaction_logs_heap), CURRENT_TIMESTAMP)::date,
+       (CURRENT_TIMESTAMP + INTERVAL '3 months')::date);
+
+INSERT INTO payment_transactions SELECT * FROM payment_transactions_heap;
+INSERT INTO transaction_logs SELECT * FROM transaction_logs_heap;
+
+DROP TABLE transaction_logs_heap;
+DROP TABLE payment_transactions_heap CASCADE;
+
+-- A chave de partição precisa fazer parte da chave primária. Por isso a FK de transaction_logs
+-- para payment_transactions(id) deixa de existir: o vínculo passa a ser garantido pela aplicação.
+ALTER TABLE payment_transactions ADD PRIMARY KEY (id, created_at);
+ALTER TABLE transaction_logs ADD PRIMARY KEY (id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_provider ON payment_transactions(provider);
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_status ON payment_transactions(status);
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_customer_id ON payment_transactions(customer_id);
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_created_at ON payment_transactions(created_at);
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_description ON payment_transactions(description);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_transaction_id ON transaction_logs(transaction_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_status ON transaction_logs(status);
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_created_at ON transaction_logs(created_at);
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_transaction_status ON transaction_logs(transaction_id, status);
+
+CREATE TRIGGER update_payment_transactions_updated_at
+    BEFORE UPDATE ON payment_transactions
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Partições arquivadas são movidas para cá; podem ser exportadas (pg_dump) e removidas quando convier
+CREATE SCHEMA IF NOT EXISTS archive;
+
+COMMENT ON TABLE payment_transactions IS 'Transações de pagamento, particionadas por mês em created_at';
+COMMENT ON TABLE transaction_logs IS 'Logs de auditoria das transações, particionados por mês em created_at';
+COMMENT ON COLUMN transaction_logs.transaction_id IS 'ID da transação (sem FK: payment_transactions é particionada)';
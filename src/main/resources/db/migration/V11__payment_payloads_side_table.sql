@@ -0,0 +1,46 @@
+-- Migration V11: Mover a resposta bruta dos provedores para payment_payloads, comprimida
+-- Data: 2026-10-XX
+--
+-- Requer a V10 (usa create_monthly_partitions). Executar com a aplicação parada, como a V10.
+-- O payload é gravado pela aplicação como bytea: primeiro byte = formato (0 = UTF-8, 1 = deflate).
+-- Os raw_response existentes são copiados como UTF-8 e não são recomprimidos.
+
+-- Se a aplicação já subiu com o ddl-auto, a tabela existe sem partições; os dados dela são mantidos
+ALTER TABLE IF EXISTS payment_payloads RENAME TO payment_payloads_heap;
+
+CREATE TABLE payment_payloads (
+    id UUID NOT NULL,
+    transaction_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partitions('payment_payloads',
+       COALESCE((SELECT min(created_at) FROM payment_transactions), CURRENT_TIMESTAMP)::date,
+       (CURRENT_TIMESTAMP + INTERVAL '3 months')::date);
+
+DO $$
+BEGIN
+    IF to_regclass('payment_payloads_heap') IS NOT NULL THEN
+        INSERT INTO payment_payloads (id, transaction_id, status, payload, created_at)
+        SELECT id, transaction_id, status, payload, created_at FROM payment_payloads_heap;
+        DROP TABLE payment_payloads_heap;
+    END IF;
+END;
+$$;
+
+-- Uma linha por transação: o raw_response guardava só a última operação
+INSERT INTO payment_payloads (id, transaction_id, status, payload, created_at)
+SELECT gen_random_uuid(), id, status, '\x00'::bytea || convert_to(raw_response, 'UTF8'),
+       COALESCE(updated_at, created_at)
+FROM payment_transactions
+WHERE raw_response IS NOT NULL;
+
+ALTER TABLE payment_transactions DROP COLUMN IF EXISTS raw_response;
+
+CREATE INDEX IF NOT EXISTS idx_payment_payloads_transaction_id ON payment_payloads(transaction_id);
+
+COMMENT ON TABLE payment_payloads IS 'Respostas brutas dos provedores por operação, particionadas por mês em created_at';
+COMMENT ON COLUMN payment_payloads.payload IS 'Primeiro byte = formato (0 = UTF-8, 1 = deflate), seguido do corpo';
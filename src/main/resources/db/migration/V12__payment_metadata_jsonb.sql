@@ -0,0 +1,38 @@
+-- Migration V12: Metadados como JSONB com índice GIN, para busca por chave e valor (ex.: orderId)
+-- Data: 2026-10-XX
+--
+-- A aplicação grava os metadados na forma canônica (objeto plano, valores como texto). Os registros
+-- antigos são convertidos para a mesma forma; texto que não é um objeto JSON fica em {"raw": ...}.
+
+CREATE OR REPLACE FUNCTION metadata_to_jsonb(metadata TEXT)
+RETURNS JSONB AS $$
+DECLARE
+    parsed JSONB;
+BEGIN
+    IF metadata IS NULL OR btrim(metadata) = '' THEN
+        RETURN NULL;
+    END IF;
+    BEGIN
+        parsed := metadata::jsonb;
+    EXCEPTION WHEN invalid_text_representation THEN
+        RETURN jsonb_build_object('raw', metadata);
+    END;
+    IF jsonb_typeof(parsed) <> 'object' THEN
+        RETURN jsonb_build_object('raw', metadata);
+    END IF;
+    -- Valores como texto; objetos e listas aninhados viram o próprio JSON em texto
+    RETURN (SELECT jsonb_object_agg(key, value) FROM jsonb_each_text(parsed) WHERE value IS NOT NULL);
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Reescreve todas as partições; executar em janela de manutenção
+ALTER TABLE payment_transactions
+    ALTER COLUMN metadata TYPE JSONB USING metadata_to_jsonb(metadata);
+
+DROP FUNCTION metadata_to_jsonb(TEXT);
+
+-- jsonb_path_ops: índice menor, atende ao operador @> usado pela busca
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_metadata
+    ON payment_transactions USING GIN (metadata jsonb_path_ops);
+
+COMMENT ON COLUMN payment_transactions.metadata IS 'Metadados do lojista: objeto JSON plano, valores como texto';
@@ -0,0 +1,33 @@
+-- Migration V13: Fila de notificações dos provedores (webhooks) e novo status CHARGED_BACK
+-- Data: 2026-10-XX
+--
+-- webhook_events guarda cada evento recebido até ser aplicado; a chave primária deduplica os
+-- reenvios. O processamento reserva lotes com FOR UPDATE SKIP LOCKED pelo índice de status.
+
+CREATE TABLE IF NOT EXISTS webhook_events (
+    provider VARCHAR(20) NOT NULL,
+    event_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    provider_transaction_id VARCHAR(100) NOT NULL,
+    target_status VARCHAR(20),
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    received_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    claimed_at TIMESTAMP,
+    processed_at TIMESTAMP,
+    last_error VARCHAR(500),
+    PRIMARY KEY (provider, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_events_status_available ON webhook_events(status, available_at);
+
+-- As notificações localizam a transação pelo id do provedor (índice criado em cada partição)
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_provider_transaction_id
+    ON payment_transactions(provider, provider_transaction_id);
+
+-- Check gerado pelo Hibernate para o enum, sem o novo status
+ALTER TABLE payment_transactions DROP CONSTRAINT IF EXISTS payment_transactions_status_check;
+
+COMMENT ON TABLE webhook_events IS 'Notificações recebidas dos provedores, processadas em lote';
+COMMENT ON COLUMN webhook_events.target_status IS 'Status informado pelo provedor; nulo quando é consultado no processamento (Cielo)';
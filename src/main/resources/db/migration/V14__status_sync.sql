@@ -0,0 +1,13 @@
+-- Migration V14: Sincronização de status das transações paradas em PENDING ou AUTHORIZED
+-- Data: 2026-10-XX
+--
+-- status_checked_at marca a última consulta ao provedor e serve de reserva entre instâncias: o
+-- sincronizador seleciona com FOR UPDATE SKIP LOCKED e grava a coluna na mesma transação.
+
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS status_checked_at TIMESTAMP;
+
+-- Varredura por provedor e status em ordem de updated_at (índice criado em cada partição)
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_status_sync
+    ON payment_transactions(provider, status, updated_at);
+
+COMMENT ON COLUMN payment_transactions.status_checked_at IS 'Última consulta de status ao provedor pelo sincronizador';
@@ -0,0 +1,17 @@
+-- Migration V15: Prazos das autorizações (captura automática e expiração) e novo status EXPIRED
+-- Data: 2026-10-XX
+--
+-- Os prazos são gravados no insert da autorização e agendados em memória numa roda de tempo; a
+-- tabela só é lida para recriar a roda na subida e para buscar as autorizações de outras instâncias.
+
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS capture_at TIMESTAMP;
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Parcial: só autorizações em aberto com prazo, a fração pequena da tabela que a roda precisa reler
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_deadlines
+    ON payment_transactions(created_at)
+    WHERE status = 'AUTHORIZED' AND expires_at IS NOT NULL;
+
+COMMENT ON COLUMN payment_transactions.capture_at IS 'Captura automática pedida pelo lojista';
+COMMENT ON COLUMN payment_transactions.expires_at IS 'Fim da validade da autorização no provedor; depois dele a transação vai para EXPIRED';
+COMMENT ON COLUMN payment_transactions.status IS 'Status da transação (PENDING, AUTHORIZED, CAPTURING, CAPTURED, REFUNDING, REFUNDED, FAILED, CHARGED_BACK, EXPIRED)';
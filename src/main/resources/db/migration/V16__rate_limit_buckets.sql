@@ -0,0 +1,17 @@
+-- Migration V16: Baldes do limite de taxa compartilhado entre instâncias (wivipay.rate-limit.store=SHARED)
+-- Data: 2026-10-XX
+--
+-- Uma linha por cliente e endpoint, com o TAT do GCRA em microssegundos desde a época. UNLOGGED: o
+-- estado é descartável (no pior caso os clientes ganham um balde cheio depois de um crash) e não
+-- precisa passar pelo WAL nem pelas réplicas.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tat BIGINT NOT NULL
+);
+
+-- Linhas pequenas e atualizadas o tempo todo: espaço livre na página para updates HOT
+ALTER TABLE rate_limit_buckets SET (fillfactor = 70);
+
+COMMENT ON TABLE rate_limit_buckets IS 'Baldes do limite de taxa por cliente e endpoint (GCRA)';
+COMMENT ON COLUMN rate_limit_buckets.tat IS 'Instante teórico da próxima ficha, em microssegundos desde a época';
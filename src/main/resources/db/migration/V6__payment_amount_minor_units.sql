@@ -0,0 +1,19 @@
+-- Migration V6: Valor da transação em unidades mínimas da moeda
+-- Data: 2026-10-XX
+
+-- Nova coluna inteira (centavos); todas as moedas suportadas têm 2 casas decimais
+ALTER TABLE payment_transactions
+ADD COLUMN IF NOT EXISTS amount_minor BIGINT;
+
+UPDATE payment_transactions
+SET amount_minor = ROUND(amount * 100)
+WHERE amount_minor IS NULL;
+
+ALTER TABLE payment_transactions
+ALTER COLUMN amount_minor SET NOT NULL;
+
+-- A coluna decimal deixa de ser usada pela aplicação
+ALTER TABLE payment_transactions
+DROP COLUMN IF EXISTS amount;
+
+COMMENT ON COLUMN payment_transactions.amount_minor IS 'Valor da transação em unidades mínimas da moeda (centavos)';
@@ -0,0 +1,10 @@
+-- Migration V7: Controle de concorrência otimista nas transações de pagamento
+-- Data: 2026-10-XX
+
+-- Versão incrementada a cada mudança de status (UPDATE ... WHERE status = ? AND version = ?)
+ALTER TABLE payment_transactions
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Novos status intermediários: CAPTURING e REFUNDING
+COMMENT ON COLUMN payment_transactions.status IS 'Status da transação (PENDING, AUTHORIZED, CAPTURING, CAPTURED, REFUNDING, REFUNDED, FAILED)';
+COMMENT ON COLUMN payment_transactions.version IS 'Versão para controle de concorrência otimista';
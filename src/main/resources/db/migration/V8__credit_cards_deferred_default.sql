@@ -0,0 +1,17 @@
+-- Migration V8: Troca do cartão padrão em um único UPDATE
+-- Data: 2026-10-XX
+
+-- O índice único parcial da V3 é verificado linha a linha: um UPDATE que marca o novo padrão
+-- antes de desmarcar o antigo falha no meio do comando. A mesma regra como restrição de
+-- exclusão DEFERRABLE só é verificada no commit.
+DROP INDEX IF EXISTS idx_credit_cards_customer_default;
+
+ALTER TABLE credit_cards
+ADD CONSTRAINT credit_cards_single_default_per_customer
+    EXCLUDE USING btree (customer_id WITH =) WHERE (is_default)
+    DEFERRABLE INITIALLY DEFERRED;
+
+-- O filtro de cartão padrão passa a usar o índice da restrição
+DROP INDEX IF EXISTS idx_credit_cards_is_default;
+
+COMMENT ON CONSTRAINT credit_cards_single_default_per_customer ON credit_cards IS 'No máximo um cartão padrão por cliente, verificado no commit';
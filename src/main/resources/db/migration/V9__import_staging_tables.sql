@@ -0,0 +1,47 @@
+-- Migration V9: Áreas de preparação da importação em lote de clientes e cartões
+-- Data: 2026-10-XX
+
+-- UNLOGGED: sem WAL, o COPY grava bem mais rápido. O conteúdo é descartável (cada importação
+-- apaga as próprias linhas no fim) e some num crash, o que não tem problema aqui.
+CREATE UNLOGGED TABLE IF NOT EXISTS customer_import_staging (
+    import_id UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    customer_id UUID NOT NULL,
+    external_id VARCHAR(100) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    document VARCHAR(20),
+    phone VARCHAR(20),
+    existing BOOLEAN DEFAULT FALSE,
+    error VARCHAR(255),
+    PRIMARY KEY (import_id, line_number)
+);
+
+CREATE INDEX IF NOT EXISTS idx_customer_import_external_id ON customer_import_staging(import_id, external_id, line_number);
+CREATE INDEX IF NOT EXISTS idx_customer_import_email ON customer_import_staging(import_id, email, line_number);
+CREATE INDEX IF NOT EXISTS idx_customer_import_document ON customer_import_staging(import_id, document, line_number);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS credit_card_import_staging (
+    import_id UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    card_id UUID NOT NULL,
+    customer_external_id VARCHAR(100) NOT NULL,
+    customer_id UUID,
+    provider_card_id VARCHAR(100) NOT NULL,
+    last_four_digits VARCHAR(4) NOT NULL,
+    brand VARCHAR(20) NOT NULL,
+    expiration_month INTEGER NOT NULL,
+    expiration_year INTEGER NOT NULL,
+    is_default BOOLEAN DEFAULT FALSE,
+    existing BOOLEAN DEFAULT FALSE,
+    error VARCHAR(255),
+    PRIMARY KEY (import_id, line_number)
+);
+
+CREATE INDEX IF NOT EXISTS idx_credit_card_import_provider_card ON credit_card_import_staging(import_id, provider_card_id, line_number);
+CREATE INDEX IF NOT EXISTS idx_credit_card_import_customer ON credit_card_import_staging(import_id, customer_id, line_number);
+
+COMMENT ON TABLE customer_import_staging IS 'Linhas de uma importação de clientes em andamento';
+COMMENT ON TABLE credit_card_import_staging IS 'Linhas de uma importação de cartões em andamento';
+COMMENT ON COLUMN customer_import_staging.existing IS 'Cliente já cadastrado; a linha é ignorada sem erro';
+COMMENT ON COLUMN customer_import_staging.error IS 'Motivo da rejeição da linha (NULL = válida)';
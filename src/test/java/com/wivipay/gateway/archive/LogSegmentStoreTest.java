@@ -0,0 +1,86 @@
+package com.wivipay.gateway.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSegmentStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 10, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldFindLogsOfTransactionAcrossManyBlocks() throws Exception {
+        LogSegmentStore store = new LogSegmentStore(directory, 1024);
+        List<UUID> transactions = new ArrayList<>();
+        List<ArchivedLog> logs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            UUID transactionId = UUID.randomUUID();
+            transactions.add(transactionId);
+            logs.add(log(transactionId, "CAPTURED", START.plusMinutes(i).plusSeconds(30)));
+            logs.add(log(transactionId, "AUTHORIZED", START.plusMinutes(i)));
+        }
+
+        LogSegment segment = store.append(logs);
+
+        assertEquals(4000, segment.recordCount());
+        assertTrue(Files.size(segment.path()) < 4000L * 64, "blocos deveriam estar comprimidos");
+        for (UUID transactionId : List.of(transactions.get(0), transactions.get(977), transactions.get(1999))) {
+            List<ArchivedLog> found = store.find(transactionId, START);
+            assertEquals(List.of("AUTHORIZED", "CAPTURED"), found.stream().map(ArchivedLog::status).toList());
+            assertTrue(found.stream().allMatch(entry -> entry.transactionId().equals(transactionId)));
+        }
+        assertTrue(store.find(UUID.randomUUID(), START).isEmpty());
+    }
+
+    @Test
+    void shouldReopenSegmentsAndIgnoreUnfinishedFiles() throws Exception {
+        UUID transactionId = UUID.randomUUID();
+        ArchivedLog written = log(transactionId, "REFUNDED", START);
+        new LogSegmentStore(directory, 1024).append(List.of(written));
+        Files.write(directory.resolve("logs-incompleto" + LogSegment.TEMP_SUFFIX), new byte[]{1, 2, 3});
+
+        LogSegmentStore reopened = new LogSegmentStore(directory, 1024);
+        reopened.refresh();
+
+        assertEquals(1, reopened.segmentCount());
+        assertEquals(List.of(written), reopened.find(transactionId, START.minusDays(1)));
+    }
+
+    @Test
+    void shouldSkipSegmentsEndingBeforeLowerBound() {
+        LogSegmentStore store = new LogSegmentStore(directory, 1024);
+        UUID transactionId = UUID.randomUUID();
+        store.append(List.of(log(transactionId, "AUTHORIZED", START)));
+
+        assertTrue(store.find(transactionId, START.plusSeconds(1)).isEmpty());
+        assertEquals(1, store.find(transactionId, START).size());
+    }
+
+    @Test
+    void shouldKeepNullAndLargeMessages() {
+        LogSegmentStore store = new LogSegmentStore(directory, 1024);
+        UUID transactionId = UUID.randomUUID();
+        String large = "é".repeat(70_000);
+        ArchivedLog withoutMessage = new ArchivedLog(UUID.randomUUID(), transactionId, "PENDING", null, START);
+        ArchivedLog withLargeMessage = new ArchivedLog(UUID.randomUUID(), transactionId, "FAILED", large, START.plusSeconds(1));
+
+        store.append(List.of(withLargeMessage, withoutMessage));
+
+        assertEquals(List.of(withoutMessage, withLargeMessage), store.find(transactionId, START));
+    }
+
+    private static ArchivedLog log(UUID transactionId, String status, LocalDateTime createdAt) {
+        return new ArchivedLog(UUID.randomUUID(), transactionId, status, "Pagamento " + status.toLowerCase(), createdAt);
+    }
+}
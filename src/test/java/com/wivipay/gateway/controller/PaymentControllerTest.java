@@ -0,0 +1,59 @@
+package com.wivipay.gateway.controller;
+
+import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET condicional de um pagamento; a autorização fica de fora (controller sem a cadeia de segurança).
+ */
+class PaymentControllerTest {
+
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PaymentController(paymentService)).build();
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingPayment() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(paymentService.getPaymentETag(id)).thenReturn("\"3\"");
+
+        mockMvc.perform(get("/payments/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(paymentService, never()).getPayment(any());
+    }
+
+    @Test
+    void shouldReturnPaymentWithETagWhenChanged() throws Exception {
+        UUID id = UUID.randomUUID();
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(id);
+        payment.setStatus(PaymentStatus.CAPTURED);
+        payment.setMoney(Money.ofMinor(15075, CurrencyCode.BRL));
+        when(paymentService.getPaymentETag(id)).thenReturn("\"4\"");
+        when(paymentService.getPayment(id)).thenReturn(payment);
+
+        mockMvc.perform(get("/payments/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.status").value("CAPTURED"))
+                .andExpect(jsonPath("$.amount").value(150.75))
+                .andExpect(jsonPath("$.currency").value("BRL"))
+                .andExpect(jsonPath("$.money").doesNotExist());
+    }
+}
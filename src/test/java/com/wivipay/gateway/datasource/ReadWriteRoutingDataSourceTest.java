@@ -0,0 +1,114 @@
+package com.wivipay.gateway.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primário e réplica são dois bancos H2 em memória; cada um responde o próprio nome na tabela
+ * {@code node}, o que mostra para onde a transação foi roteada.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private String user = "terminal-1";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE lag_probe (seconds DOUBLE)");
+        replicaJdbc.update("INSERT INTO lag_probe VALUES (0)");
+
+        DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+        properties.setReadYourWritesWindow(Duration.ofSeconds(2));
+        properties.setMaxReplicaLag(Duration.ofSeconds(5));
+
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(Map.of("replica-0", replica), "SELECT seconds FROM lag_probe", meterRegistry);
+        lagMonitor.check();
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, Map.of("replica-0", replica),
+                lagMonitor, properties, () -> user, clock::get, meterRegistry);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplica() {
+        assertEquals("replica", readTx.execute(status -> node()));
+        assertEquals(1.0, meterRegistry.get("wivipay.datasource.routing")
+                .tag("target", "replica-0").tag("reason", "read").counter().count());
+    }
+
+    @Test
+    void shouldSendWriteTransactionsToPrimary() {
+        assertEquals("primary", writeTx.execute(status -> node()));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryInsideWindow() {
+        writeTx.execute(status -> jdbc.update("UPDATE node SET touched = TRUE"));
+
+        assertEquals("primary", readTx.execute(status -> node()));
+
+        user = "terminal-2";
+        assertEquals("replica", readTx.execute(status -> node()));
+
+        user = "terminal-1";
+        clock.addAndGet(2_000);
+        assertEquals("replica", readTx.execute(status -> node()));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLags() {
+        replicaJdbc.update("UPDATE lag_probe SET seconds = 12.5");
+        lagMonitor.check();
+
+        assertEquals("primary", readTx.execute(status -> node()));
+        assertEquals(12.5, meterRegistry.get("wivipay.datasource.replica.lag").tag("pool", "replica-0").gauge().value());
+
+        replicaJdbc.update("UPDATE lag_probe SET seconds = 0.2");
+        lagMonitor.check();
+
+        assertEquals("replica", readTx.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20), touched BOOLEAN DEFAULT FALSE)");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,126 @@
+package com.wivipay.gateway.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadRoutingDataSourceTest {
+
+    private HikariDataSource defaultPool;
+    private HikariDataSource paymentsPool;
+    private HikariDataSource crudPool;
+    private WorkloadRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        defaultPool = pool("primary", 2);
+        paymentsPool = pool("payments", 2);
+        crudPool = pool("crud", 1);
+        routing = new WorkloadRoutingDataSource(defaultPool,
+                Map.of(WorkloadType.PAYMENTS, paymentsPool, WorkloadType.CRUD, crudPool));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    void shouldRouteToPoolOfCurrentWorkload() {
+        assertEquals("payments", inWorkload(WorkloadType.PAYMENTS, this::node));
+        assertEquals("crud", inWorkload(WorkloadType.CRUD, this::node));
+    }
+
+    @Test
+    void shouldUseDefaultPoolOutsideAnnotatedServicesAndForWorkloadsWithoutPool() {
+        assertEquals("primary", node());
+        assertEquals("primary", inWorkload(WorkloadType.LOGGING, this::node));
+    }
+
+    @Test
+    void shouldKeepPaymentsAvailableWhenCrudPoolIsExhausted() throws Exception {
+        WorkloadType previous = WorkloadContext.enter(WorkloadType.CRUD);
+        try (Connection held = routing.getConnection()) {
+            long start = System.nanoTime();
+            SQLTransientConnectionException timeout = assertThrows(SQLTransientConnectionException.class,
+                    routing::getConnection);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+            assertTrue(timeout.getMessage().startsWith("crud"));
+
+            WorkloadContext.enter(WorkloadType.PAYMENTS);
+            try (Connection payment = routing.getConnection()) {
+                assertTrue(payment.isValid(1));
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    @Test
+    void shouldPublishWorkloadOfAnnotatedServiceAndRestorePrevious() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BackOffice());
+        factory.addAspect(new WorkloadAspect());
+        factory.setProxyTargetClass(true);
+        BackOffice backOffice = factory.getProxy();
+
+        assertEquals(WorkloadType.CRUD, backOffice.current());
+        assertEquals(WorkloadType.LOGGING, backOffice.audit());
+        assertEquals(WorkloadType.CRUD, inWorkload(WorkloadType.PAYMENTS, backOffice::current));
+        assertNull(WorkloadContext.current());
+    }
+
+    @Workload(WorkloadType.CRUD)
+    static class BackOffice {
+
+        WorkloadType current() {
+            return WorkloadContext.current();
+        }
+
+        @Workload(WorkloadType.LOGGING)
+        WorkloadType audit() {
+            return WorkloadContext.current();
+        }
+    }
+
+    private String node() {
+        return new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static <T> T inWorkload(WorkloadType workload, Supplier<T> action) {
+        WorkloadType previous = WorkloadContext.enter(workload);
+        try {
+            return action.get();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private static HikariDataSource pool(String name, int size) {
+        String url = "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(url, "sa", "", true));
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setMaximumPoolSize(size);
+        config.setConnectionTimeout(250);
+        return new HikariDataSource(config);
+    }
+}
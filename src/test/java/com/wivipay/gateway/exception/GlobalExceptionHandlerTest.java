@@ -0,0 +1,129 @@
+package com.wivipay.gateway.exception;
+
+import com.wivipay.gateway.dto.ErrorResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void shouldMapValidationToBadRequestWithAllViolations() {
+        ResponseEntity<ErrorResponse> response = handler.handleValidation(
+                new ValidationException(List.of("Moeda é obrigatória", "Provedor é obrigatório")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("VALIDATION_ERROR", response.getBody().getCode());
+        assertEquals("Moeda é obrigatória", response.getBody().getMessage());
+        assertEquals(2, response.getBody().getViolations().size());
+    }
+
+    @Test
+    void shouldMapNotFoundAndConflict() {
+        assertEquals(HttpStatus.NOT_FOUND,
+                handler.handleNotFound(new ResourceNotFoundException("Transação não encontrada")).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT,
+                handler.handleConflict(new ConflictException("Email já cadastrado")).getStatusCode());
+    }
+
+    @Test
+    void shouldMapDeferredConstraintViolationToConflict() {
+        SQLException commit = new SQLException("conflicting key value violates exclusion constraint", "23P01");
+        ResponseEntity<ErrorResponse> response = handler.handleIntegrityViolation(
+                new DataIntegrityViolationException("commit", commit));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("CONFLICT", response.getBody().getCode());
+    }
+
+    @Test
+    void shouldMapDefaultCardConstraintByNameToConflict() {
+        ConstraintViolationException violation = new ConstraintViolationException("commit",
+                new SQLException("violação", "23000"), "credit_cards_single_default_per_customer");
+
+        assertEquals(HttpStatus.CONFLICT,
+                handler.handleIntegrityViolation(new DataIntegrityViolationException("commit", violation)).getStatusCode());
+    }
+
+    @Test
+    void shouldNotOfferRetryForOtherConstraintViolations() {
+        ConstraintViolationException violation = new ConstraintViolationException("insert",
+                new SQLException("null value in column \"currency\"", "23502"), "payment_transactions_currency_not_null");
+
+        ResponseEntity<ErrorResponse> response = handler.handleIntegrityViolation(
+                new DataIntegrityViolationException("insert", violation));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("INTERNAL_ERROR", response.getBody().getCode());
+    }
+
+    @Test
+    void shouldMapDeclineToPaymentRequiredWithDeclineCode() {
+        ResponseEntity<ErrorResponse> response = handler.handleDeclined(
+                new ProviderDeclinedException("stripe", "card_declined", "Pagamento recusado pelo provedor stripe"));
+
+        assertEquals(HttpStatus.PAYMENT_REQUIRED, response.getStatusCode());
+        assertEquals("card_declined", response.getBody().getDeclineCode());
+    }
+
+    @Test
+    void shouldMapUnavailableToServiceUnavailableWithRetryAfter() {
+        ResponseEntity<ErrorResponse> response = handler.handleUnavailable(new ProviderUnavailableException(
+                "cielo", "Provedor cielo indisponível", new IOException("timeout"), Duration.ofSeconds(3)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldMapRateLimitToTooManyRequestsRoundingRetryAfterUp() {
+        ResponseEntity<ErrorResponse> response = handler.handleRateLimit(new RateLimitExceededException(
+                "Limite de requisições excedido para POST /payments/authorize", Duration.ofMillis(1200)));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("RATE_LIMIT_EXCEEDED", response.getBody().getCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldMapExhaustedPoolToServiceUnavailable() {
+        ResponseEntity<ErrorResponse> response = handler.handleDatabaseUnavailable(new DataAccessResourceFailureException(
+                "crud - Connection is not available, request timed out after 250ms"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("DATABASE_UNAVAILABLE", response.getBody().getCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldNotFillStackTraceForDomainExceptions() {
+        IOException cause = new IOException("timeout");
+        ProviderUnavailableException exception = new ProviderUnavailableException("paypal", "indisponível", cause);
+
+        assertEquals(0, new ValidationException("Valor é obrigatório").getStackTrace().length);
+        assertEquals(0, exception.getStackTrace().length);
+        assertSame(cause, exception.getCause());
+        assertTrue(cause.getStackTrace().length > 0);
+    }
+
+    @Test
+    void shouldHideUnexpectedErrorDetails() throws Exception {
+        ResponseEntity<ErrorResponse> response = handler.handleUnexpected(new IllegalStateException("detalhe interno"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Erro interno do servidor", response.getBody().getMessage());
+    }
+}
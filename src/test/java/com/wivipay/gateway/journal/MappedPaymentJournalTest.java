@@ -0,0 +1,166 @@
+package com.wivipay.gateway.journal;
+
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPaymentJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final String RAW_RESPONSE = "{\"object\":\"charge\",\"captured\":false}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRecoverUnappliedAuthorizationsAfterRestart() throws Exception {
+        PaymentTransaction pending = transaction("ch_1");
+        PaymentTransaction applied = transaction("ch_2");
+        MappedPaymentJournal journal = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+        assertTrue(journal.record(pending, RAW_RESPONSE));
+        assertTrue(journal.record(applied, RAW_RESPONSE));
+        journal.applied(applied.getId());
+        journal.close();
+
+        MappedPaymentJournal reopened = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(List.of(JournalEntry.of(pending, RAW_RESPONSE)), reopened.pending());
+        JournalEntry recovered = reopened.pending().get(0);
+        assertEquals(pending.getCreatedAt(), recovered.toTransaction().getCreatedAt());
+        assertEquals(pending.getMoney(), recovered.toTransaction().getMoney());
+    }
+
+    @Test
+    void shouldNotReplayAbandonedEntriesAfterRestart() throws Exception {
+        PaymentTransaction abandoned = transaction("ch_1");
+        PaymentTransaction pending = transaction("ch_2");
+        MappedPaymentJournal journal = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+        journal.record(abandoned, RAW_RESPONSE);
+        journal.record(pending, RAW_RESPONSE);
+        journal.abandon(abandoned.getId());
+        journal.close();
+
+        MappedPaymentJournal reopened = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(List.of(pending.getId()), reopened.pending().stream().map(JournalEntry::id).toList());
+    }
+
+    @Test
+    void shouldHideEntriesWhoseNormalWriteIsInFlight() throws Exception {
+        PaymentTransaction transaction = transaction("ch_1");
+        MappedPaymentJournal journal = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+        journal.record(transaction, RAW_RESPONSE);
+
+        assertTrue(journal.pending().isEmpty());
+        assertEquals(1, journal.pendingCount());
+
+        journal.release(transaction.getId());
+        assertEquals(1, journal.pending().size());
+    }
+
+    @Test
+    void shouldDropTornTailAndKeepAppending() throws Exception {
+        PaymentTransaction first = transaction("ch_1");
+        PaymentTransaction torn = transaction("ch_2");
+        MappedPaymentJournal journal = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+        journal.record(first, RAW_RESPONSE);
+        journal.record(torn, RAW_RESPONSE);
+        journal.close();
+        corruptLastRecord(segments().get(0));
+
+        MappedPaymentJournal reopened = new MappedPaymentJournal(directory, SEGMENT_SIZE);
+        assertEquals(List.of(first.getId()), reopened.pending().stream().map(JournalEntry::id).toList());
+
+        PaymentTransaction after = transaction("ch_3");
+        reopened.record(after, RAW_RESPONSE);
+        reopened.close();
+        assertEquals(List.of(first.getId(), after.getId()),
+                new MappedPaymentJournal(directory, SEGMENT_SIZE).pending().stream().map(JournalEntry::id).toList());
+    }
+
+    @Test
+    void shouldDeleteSegmentsWithoutPendingEntries() throws Exception {
+        MappedPaymentJournal journal = new MappedPaymentJournal(directory, 4096);
+        for (int i = 0; i < 50; i++) {
+            PaymentTransaction transaction = transaction("ch_" + i);
+            journal.record(transaction, RAW_RESPONSE);
+            journal.applied(transaction.getId());
+        }
+
+        assertEquals(1, segments().size());
+        assertEquals(0, journal.pendingCount());
+    }
+
+    @Test
+    void shouldGroupConcurrentRecordsIntoFewerFsyncs() throws Exception {
+        MappedPaymentJournal journal = new MappedPaymentJournal(directory, SEGMENT_SIZE * 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Boolean>> records = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                PaymentTransaction transaction = transaction("ch_" + i);
+                records.add(CompletableFuture.supplyAsync(() -> journal.record(transaction, RAW_RESPONSE), executor));
+            }
+            for (CompletableFuture<Boolean> record : records) {
+                assertTrue(record.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400, journal.recordCount());
+        assertTrue(journal.fsyncCount() <= journal.recordCount());
+        assertEquals(400, new MappedPaymentJournal(directory, SEGMENT_SIZE * 16).pendingCount());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    // Troca um byte do payload do último registro, como um write interrompido no meio
+    private static void corruptLastRecord(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int position = 8;
+            int last = position;
+            while (buffer.getInt(position) != 0) {
+                last = position;
+                position += 8 + buffer.getInt(position);
+            }
+            buffer.put(last + 20, (byte) (buffer.get(last + 20) ^ 0x5A));
+        }
+    }
+
+    private static PaymentTransaction transaction(String providerTransactionId) {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProvider("stripe");
+        transaction.setProviderTransactionId(providerTransactionId);
+        transaction.setMoney(Money.ofMinor(12345, CurrencyCode.BRL));
+        transaction.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
+        transaction.setPaymentMethod("card_token");
+        transaction.setCreatedAt(LocalDateTime.of(2026, 10, 19, 14, 30, 15, 250_000_000));
+        return transaction;
+    }
+}
@@ -0,0 +1,112 @@
+package com.wivipay.gateway.journal;
+
+import com.wivipay.gateway.lifecycle.PaymentDeadlines;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.repository.PaymentPayloadRepository;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import com.wivipay.gateway.service.EntityCountService;
+import com.wivipay.gateway.service.TransactionLogService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentJournalReplayerTest {
+
+    @Mock
+    private PaymentJournal journal;
+
+    @Mock
+    private PaymentTransactionRepository repository;
+
+    @Mock
+    private PaymentPayloadRepository payloadRepository;
+
+    @Mock
+    private TransactionLogService transactionLogService;
+
+    @Mock
+    private EntityCountService entityCountService;
+
+    @Mock
+    private PaymentDeadlines deadlines;
+
+    @InjectMocks
+    private PaymentJournalReplayer replayer;
+
+    @Test
+    void shouldSaveMissingTransactionsWithOriginalIdAndDate() {
+        JournalEntry entry = entry();
+        when(journal.pending()).thenReturn(List.of(entry));
+        when(repository.existsCurrentById(entry.id())).thenReturn(false);
+
+        assertEquals(1, replayer.replay());
+
+        verify(repository).save(argThat(saved -> saved.getId().equals(entry.id())
+                && saved.getCreatedAt().equals(entry.createdAt())));
+        verify(journal).applied(entry.id());
+        verify(payloadRepository).save(argThat(payload -> payload.getTransactionId().equals(entry.id())
+                && payload.getPayload().equals(entry.rawResponse())));
+        verify(transactionLogService).logPaymentAuthorization(any(PaymentTransaction.class));
+        verify(deadlines).schedule(argThat(saved -> saved.getId().equals(entry.id())));
+    }
+
+    @Test
+    void shouldOnlyMarkTransactionsAlreadyInDatabase() {
+        JournalEntry entry = entry();
+        when(journal.pending()).thenReturn(List.of(entry));
+        when(repository.existsCurrentById(entry.id())).thenReturn(true);
+
+        assertEquals(0, replayer.replay());
+
+        verify(repository, never()).save(any());
+        verify(journal).applied(entry.id());
+    }
+
+    @Test
+    void shouldStopWhileDatabaseIsUnavailable() {
+        JournalEntry first = entry();
+        JournalEntry second = entry();
+        when(journal.pending()).thenReturn(List.of(first, second));
+        when(repository.existsCurrentById(first.id())).thenThrow(new CannotCreateTransactionException("banco fora"));
+
+        assertEquals(0, replayer.replay());
+
+        verify(repository, never()).existsCurrentById(second.id());
+        verify(journal, never()).applied(any());
+    }
+
+    @Test
+    void shouldAbandonEntryRejectedByDatabase() {
+        JournalEntry rejected = entry();
+        JournalEntry next = entry();
+        when(journal.pending()).thenReturn(List.of(rejected, next));
+        when(repository.save(argThat(saved -> saved != null && saved.getId().equals(rejected.id()))))
+                .thenThrow(new DataIntegrityViolationException("constraint"));
+
+        assertEquals(1, replayer.replay());
+
+        verify(journal, never()).applied(rejected.id());
+        verify(journal).abandon(rejected.id());
+        verify(journal).applied(next.id());
+    }
+
+    private static JournalEntry entry() {
+        return new JournalEntry(UUID.randomUUID(), "stripe", "ch_" + UUID.randomUUID(), 10000, "BRL",
+                PaymentTransaction.PaymentStatus.AUTHORIZED, "card_token", "{}", null, null, null,
+                LocalDateTime.of(2026, 10, 19, 9, 0), null, null);
+    }
+}
@@ -0,0 +1,155 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.exception.ConflictException;
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.lifecycle.PaymentDeadline.Action;
+import com.wivipay.gateway.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+    @Mock
+    private TimingWheelDeadlines deadlines;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private LifecycleProperties properties;
+    private MovableClock clock;
+    private DeadlineDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LifecycleProperties();
+        properties.setBatchSize(2);
+        clock = new MovableClock(NOW.toInstant(ZoneOffset.UTC));
+        dispatcher = new DeadlineDispatcher(deadlines, paymentService, properties, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void shouldCaptureBeforeExpiringInBatches() {
+        PaymentDeadline capture = deadline(Action.CAPTURE);
+        List<PaymentDeadline> expiries = List.of(deadline(Action.EXPIRE), deadline(Action.EXPIRE), deadline(Action.EXPIRE));
+        when(deadlines.due()).thenReturn(List.of(expiries.get(0), capture, expiries.get(1), expiries.get(2)));
+        when(paymentService.expireAuthorizations(any(), eq(NOW))).thenReturn(2, 1);
+
+        assertEquals(4, dispatcher.dispatch());
+
+        InOrder order = inOrder(paymentService);
+        order.verify(paymentService).capture(capture.transactionId());
+        order.verify(paymentService).expireAuthorizations(expiries.subList(0, 2), NOW);
+        order.verify(paymentService).expireAuthorizations(expiries.subList(2, 3), NOW);
+    }
+
+    @Test
+    void shouldRetryCaptureWhenProviderIsUnavailable() {
+        PaymentDeadline capture = deadline(Action.CAPTURE);
+        when(deadlines.due()).thenReturn(List.of(capture));
+        when(paymentService.capture(capture.transactionId()))
+                .thenThrow(new ProviderUnavailableException("stripe", "timeout", null));
+
+        dispatcher.dispatch();
+
+        verify(deadlines).schedule(capture, NOW.plus(properties.getRetryDelay()));
+    }
+
+    @Test
+    void shouldSkipCaptureAlreadyHandledElsewhere() {
+        PaymentDeadline capture = deadline(Action.CAPTURE);
+        when(deadlines.due()).thenReturn(List.of(capture));
+        when(paymentService.capture(capture.transactionId()))
+                .thenThrow(new ConflictException("Transação no status CAPTURED não permite esta operação"));
+
+        dispatcher.dispatch();
+
+        verify(deadlines, never()).schedule(any(PaymentDeadline.class), any());
+    }
+
+    @Test
+    void shouldPushCapturesBeyondBatchToNextTick() {
+        List<PaymentDeadline> captures = List.of(deadline(Action.CAPTURE), deadline(Action.CAPTURE),
+                deadline(Action.CAPTURE));
+        when(deadlines.due()).thenReturn(captures);
+
+        assertEquals(2, dispatcher.dispatch());
+
+        verify(paymentService, never()).capture(captures.get(2).transactionId());
+        verify(deadlines).schedule(captures.get(2), NOW);
+    }
+
+    @Test
+    void shouldStopCapturingWhenTickBudgetIsSpent() {
+        properties.setBatchSize(10);
+        List<PaymentDeadline> captures = List.of(deadline(Action.CAPTURE), deadline(Action.CAPTURE),
+                deadline(Action.CAPTURE));
+        PaymentDeadline expiry = deadline(Action.EXPIRE);
+        when(deadlines.due()).thenReturn(List.of(captures.get(0), captures.get(1), captures.get(2), expiry));
+        // Provedor lento: a primeira captura já consome o orçamento do disparo
+        when(paymentService.capture(captures.get(0).transactionId())).thenAnswer(invocation -> {
+            clock.advance(properties.getCaptureBudget());
+            return null;
+        });
+        when(paymentService.expireAuthorizations(List.of(expiry), NOW)).thenReturn(1);
+
+        assertEquals(2, dispatcher.dispatch());
+
+        verify(paymentService, never()).capture(captures.get(1).transactionId());
+        verify(deadlines).schedule(captures.get(1), NOW);
+        verify(deadlines).schedule(captures.get(2), NOW);
+        verify(paymentService).expireAuthorizations(List.of(expiry), NOW);
+    }
+
+    private static PaymentDeadline deadline(Action action) {
+        return new PaymentDeadline(UUID.randomUUID(), NOW.minusDays(7), action);
+    }
+
+    private static final class MovableClock extends Clock {
+
+        private Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.wivipay.gateway.lifecycle;
+
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.lifecycle.PaymentDeadline.Action;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelDeadlinesTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+    private MovableClock clock;
+    private TimingWheelDeadlines deadlines;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MovableClock(START.toInstant(ZoneOffset.UTC));
+        deadlines = new TimingWheelDeadlines(new LifecycleProperties(), clock);
+    }
+
+    @Test
+    void shouldRejectCaptureDelayPastAuthorizationValidity() {
+        // Stripe: 7 dias de validade, menos 1 hora de margem
+        deadlines.validateCaptureDelay("stripe", Duration.ofDays(7).minusHours(1));
+
+        assertThrows(ValidationException.class,
+                () -> deadlines.validateCaptureDelay("stripe", Duration.ofDays(7).minusMinutes(59)));
+    }
+
+    @Test
+    void shouldFireCaptureAndThenExpiry() {
+        PaymentTransaction transaction = authorized();
+        deadlines.assign(transaction, Duration.ofHours(2));
+        deadlines.schedule(transaction);
+
+        assertEquals(START.plusHours(2), transaction.getCaptureAt());
+        assertEquals(START.plusDays(7), transaction.getExpiresAt());
+        assertEquals(2, deadlines.pending());
+
+        clock.advance(Duration.ofHours(2));
+        assertEquals(List.of(new PaymentDeadline(transaction.getId(), START, Action.CAPTURE)), deadlines.due());
+
+        clock.advance(Duration.ofDays(7));
+        assertEquals(List.of(new PaymentDeadline(transaction.getId(), START, Action.EXPIRE)), deadlines.due());
+        assertEquals(0, deadlines.pending());
+    }
+
+    @Test
+    void shouldDropDeadlinesOfCancelledTransaction() {
+        PaymentTransaction transaction = authorized();
+        deadlines.assign(transaction, Duration.ofHours(2));
+        deadlines.schedule(transaction);
+        // Agendar de novo (ex.: releitura do banco) não duplica
+        deadlines.schedule(transaction);
+
+        deadlines.cancel(transaction);
+
+        assertEquals(0, deadlines.pending());
+        clock.advance(Duration.ofDays(8));
+        assertEquals(List.of(), deadlines.due());
+    }
+
+    private static PaymentTransaction authorized() {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProvider("stripe");
+        transaction.setStatus(PaymentStatus.AUTHORIZED);
+        transaction.setCreatedAt(START);
+        return transaction;
+    }
+
+    private static final class MovableClock extends Clock {
+
+        private Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.wivipay.gateway.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void shouldNeverFireBeforeDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 0);
+        wheel.schedule("captura", 1500);
+
+        assertEquals(List.of(), wheel.advance(1999));
+        assertEquals(List.of("captura"), wheel.advance(2000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldFirePastDeadlineOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10_000);
+        wheel.advance(10_000);
+        wheel.schedule("vencido", 3_000);
+
+        assertEquals(List.of("vencido"), wheel.advance(11_000));
+    }
+
+    @Test
+    void shouldNotFireCancelledTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 0);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelado", 5_000_000);
+        wheel.schedule("mantido", 5_000_000);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("mantido"), wheel.advance(5_000_000));
+    }
+
+    @Test
+    void shouldCascadeDistantDeadlinesThroughAllLevels() {
+        long tick = 1000;
+        TimingWheel<Long> wheel = new TimingWheel<>(tick, 123_456);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        long horizon = 40L * 24 * 3600 * 1000;
+        for (long id = 0; id < 10_000; id++) {
+            long deadline = 123_456 + (long) (random.nextDouble() * horizon);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        long now = 123_456;
+        while (!deadlines.isEmpty()) {
+            now += 1 + (long) (random.nextDouble() * 6 * 3600 * 1000);
+            for (Long id : wheel.advance(now)) {
+                long deadline = deadlines.remove(id);
+                assertTrue(deadline <= now, "disparou antes do prazo");
+                fired.add(id);
+            }
+            long current = now;
+            assertTrue(deadlines.values().stream().allMatch(deadline -> deadline > current - tick),
+                    "prazo vencido ficou na roda");
+        }
+        assertEquals(10_000, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldRejectDeadlineBeyondHorizon() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule("longe", wheel.horizonMillis() + 1));
+    }
+}
@@ -0,0 +1,46 @@
+package com.wivipay.gateway.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void shouldKeepShortTextPlain() {
+        byte[] column = converter.convertToDatabaseColumn("{\"id\":\"ch_1\"}");
+
+        assertEquals(CompressedTextConverter.PLAIN, column[0]);
+        assertEquals("{\"id\":\"ch_1\"}", converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void shouldCompressProviderPayloads() {
+        String payload = ("{\"id\":\"ch_1\",\"object\":\"charge\",\"metadata\":{},\"outcome\":{\"network_status\":"
+                + "\"approved_by_network\",\"type\":\"authorized\"},\"payment_method_details\":{\"card\":"
+                + "{\"brand\":\"visa\",\"country\":\"BR\",\"exp_month\":12,\"exp_year\":2030,\"last4\":\"4242\"}},"
+                + "\"refunds\":{\"object\":\"list\",\"data\":[],\"has_more\":false}}").repeat(3);
+
+        byte[] column = converter.convertToDatabaseColumn(payload);
+
+        assertEquals(CompressedTextConverter.DEFLATE, column[0]);
+        assertTrue(column.length < payload.length() / 2);
+        assertEquals(payload, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void shouldReadUtf8WrittenByMigration() {
+        byte[] migrated = ("\0PaymentResponse(provider=cielo, descrição=ok)").getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("PaymentResponse(provider=cielo, descrição=ok)", converter.convertToEntityAttribute(migrated));
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute(new byte[]{7, 1, 2}));
+    }
+}
@@ -0,0 +1,51 @@
+package com.wivipay.gateway.model;
+
+import com.wivipay.gateway.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void shouldConvertDecimalToMinorUnits() {
+        Money money = Money.of(new BigDecimal("150.75"), CurrencyCode.BRL);
+
+        assertEquals(15075, money.minor());
+        assertEquals(CurrencyCode.BRL, money.currency());
+        assertEquals(new BigDecimal("150.75"), money.toBigDecimal());
+    }
+
+    @Test
+    void shouldKeepAmountsAboveIntegerRange() {
+        // 30 milhões de reais estouravam o intValue() usado no payload da Cielo
+        Money money = Money.of(new BigDecimal("30000000.00"), CurrencyCode.BRL);
+
+        assertEquals(3_000_000_000L, money.minor());
+    }
+
+    @Test
+    void shouldRejectFractionsSmallerThanMinorUnit() {
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> Money.of(new BigDecimal("10.001"), CurrencyCode.USD));
+
+        assertEquals("Valor 10.001 não pode ser representado em USD", exception.getMessage());
+    }
+
+    @Test
+    void shouldFormatDecimalStringWithoutScientificNotation() {
+        assertEquals("0.05", Money.ofMinor(5, CurrencyCode.EUR).toDecimalString());
+        assertEquals("100.00", Money.of(new BigDecimal("1E+2"), CurrencyCode.BRL).toDecimalString());
+        assertEquals("-12.30", Money.ofMinor(-1230, CurrencyCode.GBP).toDecimalString());
+    }
+
+    @Test
+    void shouldRejectComparisonBetweenCurrencies() {
+        Money brl = Money.ofMinor(100, CurrencyCode.BRL);
+        Money usd = Money.ofMinor(100, CurrencyCode.USD);
+
+        assertThrows(ValidationException.class, () -> brl.isGreaterThan(usd));
+    }
+}
@@ -0,0 +1,37 @@
+package com.wivipay.gateway.model;
+
+import com.wivipay.gateway.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentMetadataTest {
+
+    @Test
+    void shouldNormalizeToSortedTextValues() {
+        assertEquals("{\"active\":\"true\",\"orderId\":\"123\",\"total\":\"10.5\"}",
+                PaymentMetadata.normalize("{ \"total\": 10.5, \"orderId\": 123, \"active\": true, \"note\": null }"));
+    }
+
+    @Test
+    void shouldTreatEmptyMetadataAsAbsent() {
+        assertNull(PaymentMetadata.normalize(null));
+        assertNull(PaymentMetadata.normalize("  "));
+        assertNull(PaymentMetadata.normalize("{}"));
+    }
+
+    @Test
+    void shouldRejectInvalidMetadata() {
+        assertThrows(ValidationException.class, () -> PaymentMetadata.normalize("orderId=123"));
+        assertThrows(ValidationException.class, () -> PaymentMetadata.normalize("[\"123\"]"));
+        assertThrows(ValidationException.class, () -> PaymentMetadata.normalize("{\"order\":{\"id\":\"123\"}}"));
+        assertThrows(ValidationException.class, () -> PaymentMetadata.normalize("{\"" + "k".repeat(41) + "\":\"1\"}"));
+        assertThrows(ValidationException.class, () -> PaymentMetadata.normalize("{\"\":\"1\"}"));
+    }
+
+    @Test
+    void shouldBuildExactLikePattern() {
+        assertEquals("%\"orderId\":\"123\"%", PaymentMetadata.likePattern("orderId", "123"));
+        assertEquals("%\"ref\":\"a\\\\\"b\\%\\_\"%", PaymentMetadata.likePattern("ref", "a\"b%_"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.wivipay.gateway.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonthlyPartitionTest {
+
+    @Test
+    void shouldNameAndBoundPartitionByMonth() {
+        MonthlyPartition partition = new MonthlyPartition("payment_transactions", YearMonth.of(2026, 12));
+
+        assertEquals("payment_transactions_p202612", partition.name());
+        assertEquals(LocalDateTime.of(2026, 12, 1, 0, 0), partition.from());
+        assertEquals(LocalDateTime.of(2027, 1, 1, 0, 0), partition.to());
+    }
+
+    @Test
+    void shouldListCurrentAndPremadeMonths() {
+        List<MonthlyPartition> upcoming = MonthlyPartition.upcoming("transaction_logs", YearMonth.of(2026, 11), 3);
+
+        assertEquals(List.of("transaction_logs_p202611", "transaction_logs_p202612",
+                        "transaction_logs_p202701", "transaction_logs_p202702"),
+                upcoming.stream().map(MonthlyPartition::name).toList());
+    }
+
+    @Test
+    void shouldParseOnlyPartitionsOfTheTable() {
+        assertEquals(Optional.of(new MonthlyPartition("transaction_logs", YearMonth.of(2025, 3))),
+                MonthlyPartition.parse("transaction_logs", "transaction_logs_p202503"));
+        assertTrue(MonthlyPartition.parse("transaction_logs", "payment_transactions_p202503").isEmpty());
+        assertTrue(MonthlyPartition.parse("transaction_logs", "transaction_logs_default").isEmpty());
+        assertTrue(MonthlyPartition.parse("transaction_logs", "transaction_logs_p202513").isEmpty());
+    }
+
+    @Test
+    void shouldExpireMonthsBeforeRetentionWindow() {
+        YearMonth current = YearMonth.of(2026, 10);
+
+        assertTrue(new MonthlyPartition("transaction_logs", YearMonth.of(2025, 9)).isExpired(current, 12));
+        assertFalse(new MonthlyPartition("transaction_logs", YearMonth.of(2025, 10)).isExpired(current, 12));
+        assertFalse(new MonthlyPartition("transaction_logs", YearMonth.of(2020, 1)).isExpired(current, 0));
+    }
+}
@@ -0,0 +1,36 @@
+package com.wivipay.gateway.provider;
+
+import com.stripe.model.Charge;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripeProviderTest {
+
+    @Test
+    void shouldReportPartiallyRefundedChargeAsCaptured() {
+        // O status da cobrança não mostra estorno parcial; por isso REFUNDING não volta a partir dele
+        Charge charge = charge(true, false, 4_000L);
+
+        assertEquals(PaymentStatus.CAPTURED, StripeProvider.toStatus(charge));
+    }
+
+    @Test
+    void shouldReportFullyRefundedChargeAsRefunded() {
+        Charge charge = charge(true, true, 10_000L);
+
+        assertEquals(PaymentStatus.REFUNDED, StripeProvider.toStatus(charge));
+    }
+
+    private static Charge charge(boolean captured, boolean refunded, long amountRefunded) {
+        Charge charge = new Charge();
+        charge.setStatus("succeeded");
+        charge.setAmount(10_000L);
+        charge.setCaptured(captured);
+        charge.setRefunded(refunded);
+        charge.setAmountRefunded(amountRefunded);
+        charge.setDisputed(false);
+        return charge;
+    }
+}
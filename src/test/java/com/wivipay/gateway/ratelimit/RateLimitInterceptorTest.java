@@ -0,0 +1,97 @@
+package com.wivipay.gateway.ratelimit;
+
+import com.wivipay.gateway.controller.PaymentController;
+import com.wivipay.gateway.dto.PaymentRequest;
+import com.wivipay.gateway.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final ThrottledClients throttledClients = new ThrottledClients(10, meterRegistry);
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties.setScopes(Map.of("payments:write", new RateLimitProperties.Limit(1, 2)));
+        interceptor = new RateLimitInterceptor(new LocalRateLimiter(Duration.ofMinutes(10), () -> 0L),
+                properties, throttledClients, meterRegistry);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldThrottleClientOverScopeLimitWithRetryAfter() throws Exception {
+        HandlerMethod authorize = authorize();
+        authenticate("loja-a");
+        assertTrue(interceptor.preHandle(request(), new MockHttpServletResponse(), authorize));
+        assertTrue(interceptor.preHandle(request(), new MockHttpServletResponse(), authorize));
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request(), new MockHttpServletResponse(), authorize));
+
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        assertEquals(1.0, meterRegistry.counter("wivipay.rate_limit.requests", "scope", "payments:write",
+                "endpoint", "POST /payments/authorize", "outcome", "throttled").count());
+        assertEquals(Map.entry("loja-a", 1L), throttledClients.publish().get(0));
+
+        // Outro cliente tem o próprio balde
+        authenticate("loja-b");
+        assertTrue(interceptor.preHandle(request(), new MockHttpServletResponse(), authorize));
+    }
+
+    @Test
+    void shouldNotLimitEndpointsWithoutConfiguredScope() throws Exception {
+        HandlerMethod authorize = authorize();
+        properties.setScopes(Map.of());
+        authenticate("loja-a");
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(request(), new MockHttpServletResponse(), authorize));
+        }
+    }
+
+    @Test
+    void shouldResolveScopeFromPreAuthorize() throws Exception {
+        assertEquals("payments:write", RateLimitInterceptor.scope(authorize()));
+    }
+
+    private static HandlerMethod authorize() throws NoSuchMethodException {
+        return new HandlerMethod(new PaymentController(null),
+                PaymentController.class.getMethod("authorize", PaymentRequest.class));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/payments/authorize");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/payments/authorize");
+        return request;
+    }
+
+    private static void authenticate(String client) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("usuario-" + client)
+                .claim("azp", client)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
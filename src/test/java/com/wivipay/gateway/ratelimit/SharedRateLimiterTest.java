@@ -0,0 +1,106 @@
+package com.wivipay.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class SharedRateLimiterTest {
+
+    private static final String KEY = "loja-a POST /payments/authorize";
+    private static final RateLimitProperties.Limit LIMIT = new RateLimitProperties.Limit(10, 10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MovableClock clock = new MovableClock(Instant.parse("2026-10-19T12:00:00Z"));
+
+    @Test
+    void shouldShareOneBudgetAcrossInstances() {
+        SharedRateLimiter first = limiter(Duration.ofMillis(100));
+        SharedRateLimiter second = limiter(Duration.ofMillis(100));
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            allowed += first.tryAcquire(KEY, LIMIT).allowed() ? 1 : 0;
+            allowed += second.tryAcquire(KEY, LIMIT).allowed() ? 1 : 0;
+        }
+
+        // Rajada de 10 para as duas instâncias juntas, não 10 para cada
+        assertEquals(10, allowed);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class));
+    }
+
+    @Test
+    void shouldThrottleWithRetryAfterUntilTokensRefill() {
+        SharedRateLimiter limiter = limiter(Duration.ZERO);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(KEY, LIMIT).allowed());
+        }
+
+        RateLimiter.Decision denied = limiter.tryAcquire(KEY, LIMIT);
+        assertFalse(denied.allowed());
+        assertEquals(Duration.ofMillis(100), denied.retryAfter());
+
+        clock.advance(Duration.ofMillis(100));
+        assertTrue(limiter.tryAcquire(KEY, LIMIT).allowed());
+        assertFalse(limiter.tryAcquire(KEY, LIMIT).allowed());
+    }
+
+    @Test
+    void shouldPurgeIdleBuckets() {
+        SharedRateLimiter limiter = limiter(Duration.ZERO);
+        limiter.tryAcquire(KEY, LIMIT);
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class));
+    }
+
+    private SharedRateLimiter limiter(Duration leaseDuration) {
+        return new SharedRateLimiter(jdbcTemplate, new LocalRateLimiter(Duration.ofMinutes(10), System::nanoTime),
+                leaseDuration, Duration.ofMinutes(10), clock);
+    }
+
+    private static final class MovableClock extends Clock {
+
+        private Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
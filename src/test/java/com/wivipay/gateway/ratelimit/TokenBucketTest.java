@@ -0,0 +1,51 @@
+package com.wivipay.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void shouldAllowBurstThenThrottleWithRetryAfterOfOneToken() {
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(10, 5), 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(0).allowed());
+        }
+        RateLimiter.Decision denied = bucket.tryAcquire(0);
+
+        assertFalse(denied.allowed());
+        assertEquals(Duration.ofMillis(100), denied.retryAfter());
+    }
+
+    @Test
+    void shouldRefillAtRateWithoutExceedingBurst() {
+        TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(10, 5), 0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        // 250 ms repõem duas fichas
+        assertTrue(bucket.tryAcquire(SECOND / 4).allowed());
+        assertTrue(bucket.tryAcquire(SECOND / 4).allowed());
+        assertFalse(bucket.tryAcquire(SECOND / 4).allowed());
+
+        // Parado por um minuto, o balde enche só até a rajada
+        long later = 60 * SECOND;
+        assertTrue(bucket.isFullSince(later));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(later).allowed());
+        }
+        assertFalse(bucket.tryAcquire(later).allowed());
+    }
+
+    @Test
+    void shouldRejectNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(new RateLimitProperties.Limit(0, 5), 0));
+    }
+}
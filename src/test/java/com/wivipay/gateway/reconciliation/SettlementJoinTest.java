@@ -0,0 +1,109 @@
+package com.wivipay.gateway.reconciliation;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.reconciliation.Mismatch.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementJoinTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Collection<String>> lookups = new ArrayList<>();
+
+    @Test
+    void shouldReportEveryKindOfMismatch() {
+        List<Mismatch> mismatches = new ArrayList<>();
+        SettlementJoin.Result result = run(1000, mismatches);
+
+        assertFalse(result.spilled());
+        assertEquals(6, result.ledgerEntries());
+        assertEquals(6, result.settlementLines());
+        assertEquals(2, result.matched());
+        assertExpectedMismatches(result, mismatches);
+    }
+
+    @Test
+    void shouldGiveSameResultWhenJoinSpillsToDisk() {
+        List<Mismatch> mismatches = new ArrayList<>();
+        SettlementJoin.Result result = run(2, mismatches);
+
+        assertTrue(result.spilled());
+        assertEquals(2, result.matched());
+        assertExpectedMismatches(result, mismatches);
+        // Partições apagadas no close
+        assertFalse(Files.exists(directory.resolve("spill")));
+    }
+
+    @Test
+    void shouldCompareLinesOfTransactionsOutsideThePeriod() {
+        List<Mismatch> mismatches = new ArrayList<>();
+        try (SettlementJoin join = new SettlementJoin(1000, 4, directory.resolve("spill"),
+                ids -> List.of(ledger("ch_before", 500, PaymentStatus.CAPTURED)), mismatches::add)) {
+            join.probe(line(1, "ch_before", 500, PaymentStatus.CAPTURED));
+
+            SettlementJoin.Result result = join.finish();
+
+            assertEquals(1, result.matched());
+            assertTrue(mismatches.isEmpty());
+        }
+    }
+
+    private SettlementJoin.Result run(int maxInMemoryEntries, List<Mismatch> mismatches) {
+        try (SettlementJoin join = new SettlementJoin(maxInMemoryEntries, 4, directory.resolve("spill"),
+                ids -> {
+                    lookups.add(ids);
+                    return List.of();
+                }, mismatches::add)) {
+            join.addLedger(ledger("ch_ok", 1000, PaymentStatus.CAPTURED));
+            join.addLedger(ledger("ch_refunded", 2000, PaymentStatus.REFUNDED));
+            join.addLedger(ledger("ch_amount", 3000, PaymentStatus.CAPTURED));
+            join.addLedger(ledger("ch_status", 4000, PaymentStatus.CAPTURED));
+            join.addLedger(ledger("ch_unsettled", 5000, PaymentStatus.CAPTURED));
+            // Autorizada e não capturada: não precisa estar no arquivo
+            join.addLedger(ledger("ch_authorized", 6000, PaymentStatus.AUTHORIZED));
+
+            join.probe(line(1, "ch_ok", 1000, PaymentStatus.CAPTURED));
+            join.probe(line(2, "ch_refunded", 2000, PaymentStatus.REFUNDED));
+            join.probe(line(3, "ch_amount", 3001, PaymentStatus.CAPTURED));
+            join.probe(line(4, "ch_status", 4000, PaymentStatus.REFUNDED));
+            join.probe(line(5, "ch_unknown", 7000, PaymentStatus.CAPTURED));
+            join.probe(line(6, "ch_ok", 1000, PaymentStatus.CAPTURED));
+            return join.finish();
+        }
+    }
+
+    private void assertExpectedMismatches(SettlementJoin.Result result, List<Mismatch> mismatches) {
+        assertEquals(Map.of(Type.AMOUNT_DIFFERS, 1L, Type.STATUS_DIFFERS, 1L, Type.MISSING_IN_GATEWAY, 1L,
+                Type.MISSING_IN_SETTLEMENT, 1L, Type.DUPLICATE_IN_SETTLEMENT, 1L), result.mismatches());
+        mismatches.sort(Comparator.comparing(Mismatch::type));
+        assertEquals(List.of(
+                new Mismatch(Type.MISSING_IN_GATEWAY, "ch_unknown", 5, 7000L, null, "BRL", PaymentStatus.CAPTURED, null),
+                new Mismatch(Type.MISSING_IN_SETTLEMENT, "ch_unsettled", 0, null, 5000L, "BRL", null, PaymentStatus.CAPTURED),
+                new Mismatch(Type.AMOUNT_DIFFERS, "ch_amount", 3, 3001L, 3000L, "BRL", PaymentStatus.CAPTURED, PaymentStatus.CAPTURED),
+                new Mismatch(Type.STATUS_DIFFERS, "ch_status", 4, 4000L, 4000L, "BRL", PaymentStatus.REFUNDED, PaymentStatus.CAPTURED),
+                new Mismatch(Type.DUPLICATE_IN_SETTLEMENT, "ch_ok", 6, 1000L, null, "BRL", PaymentStatus.CAPTURED, null)),
+                mismatches);
+        // Só a linha sem transação no período é consultada por id
+        assertEquals(List.of(List.of("ch_unknown")), lookups.stream().map(List::copyOf).toList());
+    }
+
+    private static LedgerEntry ledger(String id, long amountMinor, PaymentStatus status) {
+        return new LedgerEntry(id, amountMinor, "BRL", status);
+    }
+
+    private static SettlementLine line(long line, String id, long amountMinor, PaymentStatus status) {
+        return new SettlementLine(line, id, amountMinor, "BRL", status);
+    }
+}
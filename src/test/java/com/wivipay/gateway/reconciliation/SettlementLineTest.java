@@ -0,0 +1,33 @@
+package com.wivipay.gateway.reconciliation;
+
+import com.wivipay.gateway.importer.ImportRecord;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementLineTest {
+
+    @Test
+    void shouldMapReversedCaptureToChargeback() {
+        // Mesmo status que a notificação PAYMENT.CAPTURE.REVERSED produz
+        assertEquals(PaymentStatus.CHARGED_BACK, parse("reversed").status());
+        assertEquals(PaymentStatus.REFUNDED, parse("refunded").status());
+    }
+
+    @Test
+    void shouldParseAmountInMinorUnits() {
+        SettlementLine line = parse("settled");
+
+        assertEquals(123450L, line.amountMinor());
+        assertEquals("BRL", line.currency());
+        assertEquals(PaymentStatus.CAPTURED, line.status());
+    }
+
+    private static SettlementLine parse(String status) {
+        return SettlementLine.parse(new ImportRecord(2, Map.of("transactionId", "ch_1", "amount", "1234.50",
+                "currency", "BRL", "status", status), null));
+    }
+}
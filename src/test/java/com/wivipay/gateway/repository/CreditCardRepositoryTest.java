@@ -0,0 +1,90 @@
+package com.wivipay.gateway.repository;
+
+import com.wivipay.gateway.model.CreditCard;
+import com.wivipay.gateway.model.Customer;
+import com.wivipay.gateway.repository.CreditCardRepository.CardVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consultas leves do GET condicional: leem só as colunas do ETag.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class CreditCardRepositoryTest {
+
+    @Autowired
+    private CreditCardRepository repository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void shouldReadCardVersionsReflectingDefaultSwitch() {
+        Customer customer = customer();
+        CreditCard first = card(customer, "card_1", true);
+        CreditCard second = card(customer, "card_2", false);
+        card(customer(), "card_3", true);
+
+        List<CardVersion> before = repository.findVersionsByCustomerIdOrderById(customer.getId());
+        repository.switchDefaultCard(customer.getId(), second.getId());
+        List<CardVersion> after = repository.findVersionsByCustomerIdOrderById(customer.getId());
+
+        // A ordem é a do banco (UUID sem sinal), só precisa ser estável entre leituras
+        assertEquals(Set.of(first.getId(), second.getId()), byId(before).keySet());
+        assertEquals(before.stream().map(CardVersion::getId).toList(), after.stream().map(CardVersion::getId).toList());
+        assertEquals(first.getUpdatedAt().truncatedTo(ChronoUnit.MICROS),
+                byId(before).get(first.getId()).getUpdatedAt().truncatedTo(ChronoUnit.MICROS));
+        assertTrue(byId(before).get(first.getId()).getIsDefault());
+        assertFalse(byId(after).get(first.getId()).getIsDefault());
+        assertTrue(byId(after).get(second.getId()).getIsDefault());
+    }
+
+    @Test
+    void shouldReadCustomerUpdatedAtWithoutLoadingIt() {
+        Customer customer = customer();
+
+        assertEquals(customer.getUpdatedAt().truncatedTo(ChronoUnit.MICROS),
+                customerRepository.findUpdatedAtById(customer.getId()).orElseThrow().truncatedTo(ChronoUnit.MICROS));
+        assertTrue(customerRepository.findUpdatedAtById(UUID.randomUUID()).isEmpty());
+    }
+
+    private static Map<UUID, CardVersion> byId(List<CardVersion> versions) {
+        return versions.stream().collect(Collectors.toMap(CardVersion::getId, Function.identity()));
+    }
+
+    private Customer customer() {
+        Customer customer = new Customer();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        customer.setExternalId("CLI-" + suffix);
+        customer.setName("João Silva");
+        customer.setEmail(suffix + "@email.com");
+        return customerRepository.saveAndFlush(customer);
+    }
+
+    private CreditCard card(Customer customer, String providerCardId, boolean isDefault) {
+        CreditCard card = new CreditCard();
+        card.setCustomer(customer);
+        card.setProviderCardId(providerCardId);
+        card.setLastFourDigits("1234");
+        card.setBrand("VISA");
+        card.setExpirationMonth(12);
+        card.setExpirationYear(2030);
+        card.setIsDefault(isDefault);
+        return repository.saveAndFlush(card);
+    }
+}
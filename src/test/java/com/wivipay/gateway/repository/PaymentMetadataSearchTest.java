@@ -0,0 +1,74 @@
+package com.wivipay.gateway.repository;
+
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentMetadata;
+import com.wivipay.gateway.model.PaymentTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caminho do H2 (LIKE sobre a forma canônica); o do PostgreSQL usa o operador @> do JSONB.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class PaymentMetadataSearchTest {
+
+    @Autowired
+    private PaymentTransactionRepository repository;
+
+    @Test
+    void shouldFindTransactionsByMetadataPair() {
+        PaymentTransaction older = save("{\"orderId\": 123, \"channel\": \"web\"}", LocalDateTime.of(2026, 9, 1, 10, 0));
+        PaymentTransaction newer = save("{\"channel\":\"app\",\"orderId\":\"123\"}", LocalDateTime.of(2026, 10, 1, 10, 0));
+        save("{\"orderId\":\"1234\"}", LocalDateTime.of(2026, 10, 2, 10, 0));
+        save("{\"parentOrderId\":\"123\"}", LocalDateTime.of(2026, 10, 3, 10, 0));
+        save(null, LocalDateTime.of(2026, 10, 4, 10, 0));
+
+        List<PaymentTransaction> found = repository.findByMetadata("orderId", "123", 10);
+
+        assertEquals(List.of(newer.getId(), older.getId()), found.stream().map(PaymentTransaction::getId).toList());
+        assertEquals("{\"channel\":\"web\",\"orderId\":\"123\"}", found.get(1).getMetadata());
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsLiterally() {
+        save("{\"orderId\":\"A_1%\"}", LocalDateTime.of(2026, 10, 1, 10, 0));
+        save("{\"orderId\":\"AB1x\"}", LocalDateTime.of(2026, 10, 2, 10, 0));
+
+        assertEquals(1, repository.findByMetadata("orderId", "A_1%", 10).size());
+        assertTrue(repository.findByMetadata("orderId", "A%", 10).isEmpty());
+    }
+
+    @Test
+    void shouldLimitResults() {
+        for (int day = 1; day <= 3; day++) {
+            save("{\"orderId\":\"42\"}", LocalDateTime.of(2026, 10, day, 10, 0));
+        }
+
+        assertEquals(2, repository.findByMetadata("orderId", "42", 2).size());
+    }
+
+    private PaymentTransaction save(String metadata, LocalDateTime createdAt) {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProvider("stripe");
+        transaction.setProviderTransactionId("ch_" + UUID.randomUUID());
+        transaction.setMoney(Money.ofMinor(1000, CurrencyCode.BRL));
+        transaction.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
+        transaction.setPaymentMethod("card_token");
+        transaction.setMetadata(PaymentMetadata.normalize(metadata));
+        transaction.setCreatedAt(createdAt);
+        return repository.saveAndFlush(transaction);
+    }
+}
@@ -0,0 +1,110 @@
+package com.wivipay.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T12:00:00Z");
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MovableClock clock = new MovableClock(NOW);
+
+    @Test
+    void shouldVerifyTokenOnceUntilItExpires() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(300)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry, clock);
+
+        Jwt first = decoder.decode("token-a");
+        clock.advance(Duration.ofSeconds(299));
+        assertSame(first, decoder.decode("token-a"));
+        verify(delegate, times(1)).decode("token-a");
+        assertEquals(1.0, meterRegistry.counter("wivipay.jwt.decode", "outcome", "hit").count());
+
+        // Expirado: volta ao delegate, que recusa
+        clock.advance(Duration.ofSeconds(1));
+        when(delegate.decode("token-a")).thenThrow(new BadJwtException("Jwt expired"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("token-a"));
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void shouldNotCacheFailuresOrTokensWithoutExpiry() {
+        when(delegate.decode("invalido")).thenThrow(new BadJwtException("Assinatura inválida"));
+        when(delegate.decode("sem-exp")).thenReturn(jwt("sem-exp", null));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry, clock);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalido"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalido"));
+        decoder.decode("sem-exp");
+        decoder.decode("sem-exp");
+
+        verify(delegate, times(2)).decode("invalido");
+        verify(delegate, times(2)).decode("sem-exp");
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void shouldStayWithinMaxSizeAndReclaimExpiredEntries() {
+        when(delegate.decode(anyString())).thenAnswer(call -> jwt(call.getArgument(0), clock.instant().plusSeconds(60)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 2, meterRegistry, clock);
+
+        decoder.decode("a");
+        decoder.decode("b");
+        decoder.decode("c");
+        assertEquals(2, decoder.size());
+
+        clock.advance(Duration.ofSeconds(61));
+        decoder.decode("d");
+        assertEquals(1, decoder.size());
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token).header("alg", "RS256").subject("pdv-001").issuedAt(NOW);
+        if (expiresAt != null) {
+            builder.expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+
+    private static final class MovableClock extends Clock {
+
+        private Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.wivipay.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestOperations;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrefetchingJwkSourceTest {
+
+    private static final URI JWK_SET_URI = URI.create("http://keycloak/realms/gateway/protocol/openid-connect/certs");
+
+    private final RestOperations restOperations = mock(RestOperations.class);
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final MovableClock clock = new MovableClock(Instant.parse("2026-10-19T12:00:00Z"));
+    private final PrefetchingJwkSource source = new PrefetchingJwkSource(restOperations, JWK_SET_URI,
+            Duration.ofSeconds(30), refreshes::add, clock);
+
+    @Test
+    void shouldVerifyByKidAndKeepKeysWhenKeycloakIsDown() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("k1").generate();
+        when(restOperations.getForObject(JWK_SET_URI, String.class)).thenReturn(new JWKSet(key).toString());
+        assertTrue(source.refresh());
+
+        when(restOperations.getForObject(JWK_SET_URI, String.class)).thenThrow(new ResourceAccessException("Connection refused"));
+        assertFalse(source.refresh());
+
+        assertEquals("pdv-001", decoder().decode(sign(key)).getSubject());
+        assertEquals(1, source.size());
+        // Só a privada ficou de fora
+        assertFalse(source.get(new JWKSelector(new JWKMatcher.Builder().keyID("k1").build()), null).get(0).isPrivate());
+    }
+
+    @Test
+    void shouldRejectUnknownKidWithoutBlockingAndRefreshInBackground() throws Exception {
+        RSAKey old = new RSAKeyGenerator(2048).keyID("k1").generate();
+        RSAKey rotated = new RSAKeyGenerator(2048).keyID("k2").generate();
+        when(restOperations.getForObject(JWK_SET_URI, String.class))
+                .thenReturn(new JWKSet(old).toString(), new JWKSet(List.of(old, rotated)).toString());
+        source.refresh();
+
+        String token = sign(rotated);
+        // Logo depois de uma leitura, o kid desconhecido não pede outra
+        assertThrows(BadJwtException.class, () -> decoder().decode(token));
+        assertTrue(refreshes.isEmpty());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThrows(BadJwtException.class, () -> decoder().decode(token));
+        assertThrows(JwtException.class, () -> decoder().decode(token));
+        // Só uma releitura agendada, e nenhuma feita na thread da requisição
+        verify(restOperations, times(1)).getForObject(JWK_SET_URI, String.class);
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+        assertEquals("pdv-001", decoder().decode(token).getSubject());
+    }
+
+    private NimbusJwtDecoder decoder() {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, source));
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static String sign(RSAKey key) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder().subject("pdv-001")
+                        .expirationTime(new Date(System.currentTimeMillis() + 300_000)).build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static final class MovableClock extends Clock {
+
+        private Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
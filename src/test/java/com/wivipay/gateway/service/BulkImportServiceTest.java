@@ -0,0 +1,196 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.dto.ImportReport;
+import com.wivipay.gateway.dto.ImportReport.RowError;
+import com.wivipay.gateway.importer.ImportFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Roda contra o H2 com o schema gerado pelas entidades, incluindo as tabelas de preparação;
+ * sem transação de teste, para que cada bloco da importação faça commit de verdade.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({BulkImportService.class, BusinessValidationService.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {"wivipay.import.chunk-size=2", "spring.jpa.show-sql=false"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkImportServiceTest {
+
+    private static final int NEXT_YEAR = Year.now().getValue() + 1;
+
+    @Autowired
+    private BulkImportService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EntityCountService entityCountService;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM credit_cards");
+        jdbcTemplate.update("DELETE FROM customers");
+    }
+
+    @Test
+    void shouldImportCustomersFromCsvAndReportRejectedRows() {
+        insertCustomer("CLI-EXISTENTE", "existente@email.com", "11111111111");
+
+        ImportReport report = service.importCustomers(csv("""
+                externalId,name,email,document,phone
+                CLI001,"Silva, João",joao@email.com,12345678901,+5511999999999
+                CLI002,Maria,maria@email,,
+                CLI001,João de novo,outro@email.com,,
+                CLI003,Ana,existente@email.com,,
+                CLI-EXISTENTE,Já cadastrado,,,
+                CLI004,Pedro,pedro@email.com,12345678901,
+                CLI005,"Carla ""Cacá"" Souza",,,
+                ,Sem ID,,,
+                """), ImportFormat.CSV);
+
+        assertEquals(8, report.getTotalRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getSkipped());
+        assertEquals(5, report.getRejected());
+        assertEquals(List.of(
+                new RowError(2, "CLI002", "Email deve ser válido"),
+                new RowError(3, "CLI001", "ID externo repetido no arquivo"),
+                new RowError(4, "CLI003", "Email já cadastrado"),
+                new RowError(6, "CLI004", "Documento repetido no arquivo"),
+                new RowError(8, null, "ID externo é obrigatório")), report.getErrors());
+
+        assertEquals("Silva, João", customerName("CLI001"));
+        assertEquals("Carla \"Cacá\" Souza", customerName("CLI005"));
+        assertEquals(0, stagedRows("customer_import_staging"));
+        // Um por bloco de 2 linhas que gravou alguém: linhas 1-2 (CLI001) e 7-8 (CLI005)
+        verify(entityCountService, times(2)).customersImported(1L);
+    }
+
+    @Test
+    void shouldImportCreditCardsFromNdjsonAgainstExistingCustomers() {
+        UUID customerId = insertCustomer("CLI001", null, null);
+        UUID otherId = insertCustomer("CLI002", null, null);
+        insertCard(customerId, "card_existente", true);
+        insertCard(otherId, "card_outro_cliente", false);
+
+        ImportReport report = service.importCreditCards(ndjson(
+                card("CLI001", "card_1", "VISA", false),
+                card("CLI002", "card_2", "MASTERCARD", true),
+                card("CLI002", "card_3", "VISA", true),
+                card("CLI404", "card_4", "VISA", false),
+                "{\"customerExternalId\": \"CLI001\", ",
+                card("CLI001", "card_existente", "VISA", false),
+                card("CLI001", "card_outro_cliente", "VISA", false),
+                card("CLI001", "card_5", "DINERS_CLUB_XYZ", false),
+                card("CLI001", "card_6", "VISA", true),
+                card("CLI002", "card_1", "VISA", false)), ImportFormat.NDJSON);
+
+        assertEquals(10, report.getTotalRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getSkipped());
+        assertEquals(List.of(3L, 4L, 5L, 7L, 8L, 9L, 10L),
+                report.getErrors().stream().map(RowError::getLine).toList());
+        assertEquals("Mais de um cartão padrão para o cliente no arquivo", report.getErrors().get(0).getMessage());
+        assertEquals("Cliente não encontrado", report.getErrors().get(1).getMessage());
+        assertTrue(report.getErrors().get(2).getMessage().startsWith("JSON inválido"));
+        assertEquals("Cartão já cadastrado para outro cliente", report.getErrors().get(3).getMessage());
+        assertTrue(report.getErrors().get(4).getMessage().startsWith("Bandeira não suportada"));
+        assertEquals("Cliente já possui cartão padrão", report.getErrors().get(5).getMessage());
+        assertEquals("Cartão repetido no arquivo", report.getErrors().get(6).getMessage());
+
+        assertEquals(customerId, cardOwner("card_1"));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT is_default FROM credit_cards WHERE provider_card_id = 'card_2'", Boolean.class));
+        assertEquals(0, stagedRows("credit_card_import_staging"));
+    }
+
+    @Test
+    void shouldSkipEverythingWhenSameFileIsImportedTwice() {
+        String file = """
+                externalId,name
+                CLI001,João
+                CLI002,Maria
+                CLI003,Ana
+                """;
+
+        ImportReport first = service.importCustomers(csv(file), ImportFormat.CSV);
+        ImportReport second = service.importCustomers(csv(file), ImportFormat.CSV);
+
+        assertEquals(3, first.getCreated());
+        assertEquals(0, second.getCreated());
+        assertEquals(3, second.getSkipped());
+        assertTrue(second.getErrors().isEmpty());
+    }
+
+    @Test
+    void shouldReportCsvRecordWithWrongNumberOfFields() {
+        ImportReport report = service.importCustomers(csv("externalId,name\r\nCLI001,João,extra\r\nCLI002,Maria\r\n"),
+                ImportFormat.CSV);
+
+        assertEquals(1, report.getCreated());
+        assertEquals("Registro com 3 campos; o cabeçalho tem 2", report.getErrors().get(0).getMessage());
+    }
+
+    private UUID insertCustomer(String externalId, String email, String document) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (id, external_id, name, email, document, created_at, updated_at) "
+                + "VALUES (?, ?, 'Cliente', ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", id, externalId, email, document);
+        return id;
+    }
+
+    private void insertCard(UUID customerId, String providerCardId, boolean isDefault) {
+        jdbcTemplate.update("INSERT INTO credit_cards (id, customer_id, provider_card_id, last_four_digits, brand, "
+                + "expiration_month, expiration_year, is_default, created_at, updated_at) "
+                + "VALUES (?, ?, ?, '1234', 'VISA', 12, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                UUID.randomUUID(), customerId, providerCardId, NEXT_YEAR, isDefault);
+    }
+
+    private String customerName(String externalId) {
+        return jdbcTemplate.queryForObject("SELECT name FROM customers WHERE external_id = ?", String.class, externalId);
+    }
+
+    private UUID cardOwner(String providerCardId) {
+        return jdbcTemplate.queryForObject("SELECT customer_id FROM credit_cards WHERE provider_card_id = ?",
+                UUID.class, providerCardId);
+    }
+
+    private long stagedRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static String card(String customerExternalId, String providerCardId, String brand, boolean isDefault) {
+        return String.format("{\"customerExternalId\": \"%s\", \"providerCardId\": \"%s\", \"lastFourDigits\": \"4242\", "
+                + "\"brand\": \"%s\", \"expirationMonth\": 12, \"expirationYear\": %d, \"isDefault\": %s}",
+                customerExternalId, providerCardId, brand, NEXT_YEAR, isDefault);
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return csv(String.join("\n", lines));
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,7 @@
 package com.wivipay.gateway.service;
 
 import com.wivipay.gateway.dto.PaymentRequest;
+import com.wivipay.gateway.exception.ValidationException;
 import com.wivipay.gateway.model.CreditCard;
 import com.wivipay.gateway.repository.CustomerRepository;
 import com.wivipay.gateway.repository.CreditCardRepository;
@@ -13,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -312,6 +314,44 @@ class BusinessValidationServiceTest {
         assertEquals("Últimos 4 dígitos devem ter exatamente 4 números", exception.getMessage());
     }
 
+    @Test
+    void shouldCollectAllPaymentViolationsWithoutQueryingCustomer() {
+        paymentRequest.setProvider("cielo");
+        paymentRequest.setCurrency("USD");
+        paymentRequest.setAmount(BigDecimal.valueOf(100.123));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> businessValidationService.validatePaymentRequest(paymentRequest));
+
+        assertEquals(List.of(
+                "Moeda USD não é suportada pelo provedor cielo",
+                "Valor não pode ter mais de 2 casas decimais",
+                "Token da Cielo deve começar com 'card_'"), exception.getViolations());
+        assertEquals("Moeda USD não é suportada pelo provedor cielo", exception.getMessage());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void shouldCollectAllCreditCardViolations() {
+        creditCard.setBrand("DISCOVER");
+        creditCard.setLastFourDigits("12ab");
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> businessValidationService.validateCreditCard(creditCard));
+
+        assertEquals(2, exception.getViolations().size());
+        assertEquals("Últimos 4 dígitos devem ter exatamente 4 números", exception.getViolations().get(1));
+    }
+
+    @Test
+    void shouldAcceptLowercaseCurrencyAndUppercaseProvider() {
+        paymentRequest.setCurrency("brl");
+        paymentRequest.setProvider("STRIPE");
+        paymentRequest.setCustomerId(null);
+
+        assertDoesNotThrow(() -> businessValidationService.validatePaymentRequest(paymentRequest));
+    }
+
     @Test
     void shouldValidateValidStripeToken() {
         paymentRequest.setProvider("stripe");
@@ -339,4 +379,28 @@ class BusinessValidationServiceTest {
 
         assertDoesNotThrow(() -> businessValidationService.validatePaymentRequest(paymentRequest));
     }
+
+    @Test
+    void shouldRejectFieldsLongerThanTheirColumnsBeforeQueryingCustomer() {
+        paymentRequest.setDescription("d".repeat(256));
+        paymentRequest.setCustomerId("c".repeat(101));
+        paymentRequest.setMetadata("{\"nota\":\"" + "m".repeat(1000) + "\"}");
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> businessValidationService.validatePaymentRequest(paymentRequest));
+
+        assertEquals(List.of("Descrição não pode exceder 255 caracteres",
+                "ID do cliente não pode exceder 100 caracteres",
+                "Metadados não podem exceder 1000 caracteres"), exception.getViolations());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void shouldAcceptFieldsAtTheirColumnLimits() {
+        when(customerRepository.existsByExternalId("c".repeat(100))).thenReturn(true);
+        paymentRequest.setDescription("d".repeat(255));
+        paymentRequest.setCustomerId("c".repeat(100));
+
+        assertDoesNotThrow(() -> businessValidationService.validatePaymentRequest(paymentRequest));
+    }
 }
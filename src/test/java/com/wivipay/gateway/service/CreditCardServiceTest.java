@@ -34,6 +34,9 @@ class CreditCardServiceTest {
     @Mock
     private BusinessValidationService businessValidationService;
 
+    @Mock
+    private EntityCountService entityCountService;
+
     @InjectMocks
     private CreditCardService creditCardService;
 
@@ -159,14 +162,13 @@ class CreditCardServiceTest {
     @Test
     void shouldSetDefaultCreditCardSuccessfully() {
         when(repository.findById(creditCardId)).thenReturn(Optional.of(creditCard));
-        when(repository.findByCustomerId(customerId)).thenReturn(List.of(creditCard));
-        when(repository.save(any(CreditCard.class))).thenReturn(creditCard);
 
         CreditCardResponse result = creditCardService.setDefaultCreditCard(creditCardId);
 
         assertNotNull(result);
         assertTrue(result.getIsDefault());
-        verify(repository, times(1)).save(any(CreditCard.class));
+        verify(repository).switchDefaultCard(customerId, creditCardId);
+        verify(repository, never()).save(any(CreditCard.class));
     }
 
     @Test
@@ -211,20 +213,63 @@ class CreditCardServiceTest {
     }
 
     @Test
-    void shouldUnsetOtherDefaultCardsWhenSettingNewDefault() {
-        CreditCard existingDefaultCard = new CreditCard();
-        existingDefaultCard.setId(UUID.randomUUID());
-        existingDefaultCard.setIsDefault(true);
-        existingDefaultCard.setCustomer(customer);
-
-        when(repository.findById(creditCardId)).thenReturn(Optional.of(creditCard));
-        when(repository.findByCustomerId(customerId)).thenReturn(List.of(existingDefaultCard, creditCard));
+    void shouldSwitchDefaultInBulkWhenCreatingDefaultCard() {
+        request.setIsDefault(true);
+        creditCard.setIsDefault(true);
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
         when(repository.save(any(CreditCard.class))).thenReturn(creditCard);
 
-        CreditCardResponse result = creditCardService.setDefaultCreditCard(creditCardId);
+        CreditCardResponse result = creditCardService.createCreditCard(request);
 
-        assertNotNull(result);
         assertTrue(result.getIsDefault());
-        verify(repository, times(2)).save(any(CreditCard.class));
+        verify(repository).switchDefaultCard(customerId, creditCardId);
+        verify(repository, never()).findByCustomerId(any());
+    }
+
+    @Test
+    void shouldNotTouchOtherCardsWhenCreatingNonDefaultCard() {
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(repository.save(any(CreditCard.class))).thenReturn(creditCard);
+
+        creditCardService.createCreditCard(request);
+
+        verify(repository, never()).switchDefaultCard(any(), any());
+    }
+
+    @Test
+    void shouldChangeCardListETagWhenDefaultCardSwitches() {
+        UUID otherId = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 19, 12, 0);
+        when(repository.findVersionsByCustomerIdOrderById(customerId))
+                .thenReturn(List.of(version(creditCardId, updatedAt, true), version(otherId, updatedAt, false)))
+                .thenReturn(List.of(version(creditCardId, updatedAt, true), version(otherId, updatedAt, false)))
+                .thenReturn(List.of(version(creditCardId, updatedAt, false), version(otherId, updatedAt, true)));
+
+        String etag = creditCardService.getCustomerCreditCardsETag(customerId);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, creditCardService.getCustomerCreditCardsETag(customerId));
+        // Só o cartão padrão mudou; o UPDATE em lote não mexe no updated_at
+        assertNotEquals(etag, creditCardService.getCustomerCreditCardsETag(customerId));
+        verify(repository, never()).findByCustomerId(any());
+    }
+
+    private static CreditCardRepository.CardVersion version(UUID id, LocalDateTime updatedAt, boolean isDefault) {
+        return new CreditCardRepository.CardVersion() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+
+            @Override
+            public Boolean getIsDefault() {
+                return isDefault;
+            }
+        };
     }
 }
@@ -2,6 +2,7 @@ package com.wivipay.gateway.service;
 
 import com.wivipay.gateway.dto.CustomerRequest;
 import com.wivipay.gateway.dto.CustomerResponse;
+import com.wivipay.gateway.exception.ResourceNotFoundException;
 import com.wivipay.gateway.model.Customer;
 import com.wivipay.gateway.repository.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +30,9 @@ class CustomerServiceTest {
     @Mock
     private BusinessValidationService businessValidationService;
 
+    @Mock
+    private EntityCountService entityCountService;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -113,6 +117,26 @@ class CustomerServiceTest {
         assertEquals(expectedResponse.getName(), result.getName());
     }
 
+    @Test
+    void shouldDeriveETagFromUpdatedAtWithoutLoadingCustomer() {
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 19, 12, 0, 0, 123_456_000);
+        when(repository.findUpdatedAtById(customerId))
+                .thenReturn(Optional.of(updatedAt), Optional.of(updatedAt.plusNanos(1_000)));
+
+        String etag = customerService.getCustomerETag(customerId);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertNotEquals(etag, customerService.getCustomerETag(customerId));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void shouldNotDeriveETagForMissingCustomer() {
+        when(repository.findUpdatedAtById(customerId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerETag(customerId));
+    }
+
     @Test
     void shouldGetCustomerByExternalIdSuccessfully() {
         when(repository.findByExternalId("CLI001")).thenReturn(Optional.of(customer));
@@ -0,0 +1,139 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.repository.CreditCardRepository;
+import com.wivipay.gateway.repository.CustomerRepository;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntityCountServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CreditCardRepository creditCardRepository;
+
+    @Mock
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private EntityCountService entityCountService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        entityCountService = new EntityCountService(customerRepository, creditCardRepository,
+                paymentTransactionRepository, jdbcTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldSeedFromPlannerEstimatesOnPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("customers"))).thenReturn(1500L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("credit_cards"))).thenReturn(3200L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("payment_transactions"))).thenReturn(-1L);
+        when(paymentTransactionRepository.count()).thenReturn(42L);
+
+        entityCountService.seed();
+
+        assertEquals(1500L, entityCountService.getCustomerCount());
+        assertEquals(3200L, entityCountService.getCreditCardCount());
+        assertEquals(42L, entityCountService.getTransactionCount());
+        verify(customerRepository, never()).count();
+        verify(creditCardRepository, never()).count();
+    }
+
+    @Test
+    void shouldSeedWithSingleCountOnOtherDatabases() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(customerRepository.count()).thenReturn(3L);
+        when(creditCardRepository.count()).thenReturn(5L);
+        when(paymentTransactionRepository.count()).thenReturn(7L);
+
+        entityCountService.seed();
+
+        assertEquals(3L, entityCountService.getCustomerCount());
+        assertEquals(5L, entityCountService.getCreditCardCount());
+        assertEquals(7L, entityCountService.getTransactionCount());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    void shouldTrackCreatesAndDeletesAndPublishGauges() {
+        entityCountService.customerCreated();
+        entityCountService.customerCreated();
+        entityCountService.customerDeleted();
+        entityCountService.creditCardCreated();
+        entityCountService.transactionCreated();
+
+        assertEquals(1.0, meterRegistry.get("wivipay.customers.total").gauge().value());
+        assertEquals(1.0, meterRegistry.get("wivipay.credit_cards.total").gauge().value());
+        assertEquals(1.0, meterRegistry.get("wivipay.transactions.total").gauge().value());
+    }
+
+    @Test
+    void shouldSubtractTransactionsInArchivedPartition() {
+        when(paymentTransactionRepository.count()).thenReturn(500L);
+        entityCountService.reconcile();
+
+        entityCountService.transactionsArchived(120);
+
+        assertEquals(380L, entityCountService.getTransactionCount());
+        assertEquals(380.0, meterRegistry.get("wivipay.transactions.total").gauge().value());
+    }
+
+    @Test
+    void shouldApplyDeltaOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        entityCountService.customerCreated();
+        assertEquals(0L, entityCountService.getCustomerCount());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, entityCountService.getCustomerCount());
+    }
+
+    @Test
+    void shouldReconcileWithActualCounts() {
+        entityCountService.customerCreated();
+        when(customerRepository.count()).thenReturn(10L);
+        when(creditCardRepository.count()).thenReturn(20L);
+        when(paymentTransactionRepository.count()).thenReturn(30L);
+
+        entityCountService.reconcile();
+
+        assertEquals(10L, entityCountService.getCustomerCount());
+        assertEquals(20L, entityCountService.getCreditCardCount());
+        assertEquals(30L, entityCountService.getTransactionCount());
+    }
+}
@@ -2,23 +2,45 @@ package com.wivipay.gateway.service;
 
 import com.wivipay.gateway.dto.PaymentRequest;
 import com.wivipay.gateway.dto.PaymentResponse;
+import com.wivipay.gateway.exception.ConflictException;
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.journal.PaymentJournal;
+import com.wivipay.gateway.lifecycle.PaymentDeadline;
+import com.wivipay.gateway.lifecycle.PaymentDeadlines;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentPayload;
 import com.wivipay.gateway.model.PaymentTransaction;
 import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.repository.PaymentPayloadRepository;
 import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,16 +58,30 @@ class PaymentServiceTest {
     @Mock
     private BusinessValidationService businessValidationService;
 
+    @Mock
+    private EntityCountService entityCountService;
+
+    @Mock
+    private PaymentJournal journal;
+
+    @Mock
+    private PaymentPayloadRepository payloadRepository;
+
+    @Mock
+    private PaymentDeadlines deadlines;
+
     private PaymentService paymentService;
 
     private PaymentRequest request;
     private PaymentResponse response;
     private PaymentTransaction transaction;
     private UUID transactionId;
+    private LocalDateTime createdAt;
 
     @BeforeEach
     void setUp() {
         transactionId = UUID.randomUUID();
+        createdAt = LocalDateTime.of(2026, 10, 1, 12, 0);
         
         request = new PaymentRequest();
         request.setAmount(BigDecimal.valueOf(100));
@@ -57,8 +93,7 @@ class PaymentServiceTest {
         response.setId(transactionId);
         response.setProvider("stripe");
         response.setProviderTransactionId("ch_123");
-        response.setAmount(BigDecimal.valueOf(100));
-        response.setCurrency("BRL");
+        response.setMoney(Money.ofMinor(10000, CurrencyCode.BRL));
         response.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
         response.setPaymentMethod("card_token");
 
@@ -66,17 +101,19 @@ class PaymentServiceTest {
         transaction.setId(transactionId);
         transaction.setProvider("stripe");
         transaction.setProviderTransactionId("ch_123");
-        transaction.setAmount(BigDecimal.valueOf(100));
-        transaction.setCurrency("BRL");
+        transaction.setMoney(Money.ofMinor(10000, CurrencyCode.BRL));
         transaction.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
         transaction.setPaymentMethod("card_token");
+        transaction.setVersion(3L);
+        transaction.setCreatedAt(createdAt);
 
         // Configurar mocks de forma mais flexível
         lenient().when(stripeProvider.supports(anyString())).thenReturn(false);
         lenient().when(stripeProvider.supports("stripe")).thenReturn(true);
         lenient().doNothing().when(businessValidationService).validatePaymentRequest(any(PaymentRequest.class));
         
-        paymentService = new PaymentService(List.of(stripeProvider), repository, transactionLogService, businessValidationService);
+        paymentService = new PaymentService(List.of(stripeProvider), repository, payloadRepository, transactionLogService, businessValidationService, entityCountService,
+                new PaymentOperationCoalescer(new SimpleMeterRegistry()), journal, deadlines);
     }
 
     @Test
@@ -92,30 +129,272 @@ class PaymentServiceTest {
         verify(repository).save(any(PaymentTransaction.class));
     }
 
+    @Test
+    void shouldJournalAuthorizationBeforeSavingIt() {
+        when(stripeProvider.authorize(request)).thenReturn(response);
+        when(journal.record(any(PaymentTransaction.class), any())).thenReturn(true);
+
+        PaymentResponse result = paymentService.authorize(request);
+
+        InOrder order = inOrder(journal, repository, transactionLogService);
+        order.verify(journal).record(argThat(recorded -> recorded.getId().equals(result.getId())), any());
+        order.verify(repository).save(any(PaymentTransaction.class));
+        order.verify(journal).applied(result.getId());
+        order.verify(transactionLogService).logPaymentAuthorization(any(PaymentTransaction.class));
+    }
+
+    @Test
+    void shouldKeepAuthorizationInJournalWhenDatabaseIsUnavailable() {
+        when(stripeProvider.authorize(request)).thenReturn(response);
+        when(journal.record(any(PaymentTransaction.class), any())).thenReturn(true);
+        when(repository.save(any(PaymentTransaction.class)))
+                .thenThrow(new CannotCreateTransactionException("pool esgotado"));
+
+        PaymentResponse result = paymentService.authorize(request);
+
+        assertNotNull(result.getId());
+        assertEquals(PaymentTransaction.PaymentStatus.AUTHORIZED, result.getStatus());
+        verify(journal).release(result.getId());
+        verify(journal, never()).applied(any());
+        verifyNoInteractions(transactionLogService, entityCountService);
+    }
+
+    @Test
+    void shouldAbandonJournalEntryWhenDatabaseRejectsAuthorization() {
+        when(stripeProvider.authorize(request)).thenReturn(response);
+        when(journal.record(any(PaymentTransaction.class), any())).thenReturn(true);
+        when(repository.save(any(PaymentTransaction.class)))
+                .thenThrow(new DataIntegrityViolationException("payment_transactions_currency_not_null"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> paymentService.authorize(request));
+
+        verify(journal).abandon(any(UUID.class));
+        verify(journal, never()).release(any());
+        verify(journal, never()).applied(any());
+    }
+
+    @Test
+    void shouldFailAuthorizationWhenDatabaseIsUnavailableAndJournalDidNotRecord() {
+        when(stripeProvider.authorize(request)).thenReturn(response);
+        when(repository.save(any(PaymentTransaction.class)))
+                .thenThrow(new CannotCreateTransactionException("pool esgotado"));
+
+        assertThrows(CannotCreateTransactionException.class, () -> paymentService.authorize(request));
+
+        verify(journal, never()).release(any());
+    }
+
+    @Test
+    void shouldStoreProviderPayloadOutsideTransaction() {
+        response.setRawPayload("{\"id\":\"ch_123\",\"object\":\"charge\"}");
+        when(stripeProvider.authorize(request)).thenReturn(response);
+
+        PaymentResponse result = paymentService.authorize(request);
+
+        verify(payloadRepository).save(argThat(payload -> payload.getTransactionId().equals(result.getId())
+                && payload.getStatus() == PaymentTransaction.PaymentStatus.AUTHORIZED
+                && payload.getPayload().equals(response.getRawPayload())));
+    }
+
+    @Test
+    void shouldKeepCaptureWhenPayloadCannotBeStored() {
+        response.setStatus(PaymentTransaction.PaymentStatus.CAPTURED);
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURING)).thenReturn(1);
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.CAPTURING,
+                4L, PaymentTransaction.PaymentStatus.CAPTURED)).thenReturn(1);
+        when(stripeProvider.capture("ch_123")).thenReturn(response);
+        when(payloadRepository.save(any(PaymentPayload.class))).thenThrow(new DataIntegrityViolationException("payload"));
+
+        paymentService.capture(transactionId);
+
+        assertEquals(PaymentTransaction.PaymentStatus.CAPTURED, transaction.getStatus());
+    }
+
+    @Test
+    void shouldNormalizeMetadataBeforeStoringIt() {
+        request.setMetadata("{ \"orderId\": 123 }");
+        when(stripeProvider.authorize(request)).thenReturn(response);
+
+        PaymentResponse result = paymentService.authorize(request);
+
+        assertEquals("{\"orderId\":\"123\"}", result.getMetadata());
+        verify(repository).save(argThat(saved -> "{\"orderId\":\"123\"}".equals(saved.getMetadata())));
+    }
+
+    @Test
+    void shouldRejectInvalidMetadataBeforeCallingProvider() {
+        request.setMetadata("{\"order\": {\"id\": 123}}");
+
+        assertThrows(ValidationException.class, () -> paymentService.authorize(request));
+
+        verifyNoInteractions(stripeProvider, repository, journal);
+    }
+
+    @Test
+    void shouldSearchPaymentsByMetadata() {
+        transaction.setMetadata("{\"orderId\":\"123\"}");
+        when(repository.findByMetadata("orderId", "123", 20)).thenReturn(List.of(transaction));
+
+        List<PaymentResponse> result = paymentService.searchByMetadata("orderId", "123", 20);
+
+        assertEquals(List.of(transactionId), result.stream().map(PaymentResponse::getId).toList());
+        assertThrows(ValidationException.class, () -> paymentService.searchByMetadata("orderId", "123", 501));
+    }
+
     @Test
     void shouldCapturePaymentSuccessfully() {
-        when(repository.findById(transactionId)).thenReturn(Optional.of(transaction));
+        response.setStatus(PaymentTransaction.PaymentStatus.CAPTURED);
+        
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURING)).thenReturn(1);
+        when(repository.transitionStatus(eq(transactionId), eq(createdAt), eq(PaymentTransaction.PaymentStatus.CAPTURING),
+                eq(4L), eq(PaymentTransaction.PaymentStatus.CAPTURED))).thenReturn(1);
         when(stripeProvider.capture("ch_123")).thenReturn(response);
 
         PaymentResponse result = paymentService.capture(transactionId);
 
         assertNotNull(result);
-        assertEquals(PaymentTransaction.PaymentStatus.AUTHORIZED, result.getStatus());
-        verify(repository).save(any(PaymentTransaction.class));
+        assertEquals(PaymentTransaction.PaymentStatus.CAPTURED, result.getStatus());
+        assertEquals(PaymentTransaction.PaymentStatus.CAPTURED, transaction.getStatus());
+        assertEquals(5L, transaction.getVersion());
+        verify(repository, never()).save(any(PaymentTransaction.class));
+    }
+
+    @Test
+    void shouldRejectCaptureWhenAnotherRequestWonTheRace() {
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURING)).thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> paymentService.capture(transactionId));
+
+        verify(stripeProvider, never()).capture(anyString());
+    }
+
+    @Test
+    void shouldRejectCaptureOfRefundedTransaction() {
+        transaction.setStatus(PaymentTransaction.PaymentStatus.REFUNDED);
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> paymentService.capture(transactionId));
+
+        assertEquals("Transação no status REFUNDED não permite esta operação", exception.getMessage());
+        verify(repository, never()).transitionStatus(any(), any(), any(), anyLong(), any());
+        verify(stripeProvider, never()).capture(anyString());
+    }
+
+    @Test
+    void shouldReleaseTransactionWhenProviderDidNotExecuteCapture() {
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURING)).thenReturn(1);
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.CAPTURING, 4L,
+                PaymentTransaction.PaymentStatus.AUTHORIZED)).thenReturn(1);
+        when(stripeProvider.capture("ch_123")).thenThrow(new ProviderUnavailableException("stripe",
+                "Provedor stripe indisponível", new ConnectException("Connection refused"), null, true));
+
+        assertThrows(ProviderUnavailableException.class, () -> paymentService.capture(transactionId));
+
+        assertEquals(PaymentTransaction.PaymentStatus.AUTHORIZED, transaction.getStatus());
+        verify(repository, never()).transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.CAPTURING, 4L,
+                PaymentTransaction.PaymentStatus.CAPTURED);
+    }
+
+    @Test
+    void shouldApplyStatusReportedByProvider() {
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURED)).thenReturn(1);
+
+        assertEquals(PaymentService.ProviderStatusUpdate.APPLIED, paymentService.applyProviderStatus(transaction,
+                PaymentTransaction.PaymentStatus.CAPTURED, "sincronização de status"));
+
+        assertEquals(PaymentTransaction.PaymentStatus.CAPTURED, transaction.getStatus());
+        assertEquals(4L, transaction.getVersion());
+        verify(transactionLogService).logTransactionStatus(transaction, "CAPTURED", "Status atualizado por sincronização de status");
+    }
+
+    @Test
+    void shouldNotApplyProviderStatusOutsideStateMachine() {
+        assertEquals(PaymentService.ProviderStatusUpdate.UNCHANGED, paymentService.applyProviderStatus(transaction,
+                PaymentTransaction.PaymentStatus.AUTHORIZED, "teste"));
+        transaction.setStatus(PaymentTransaction.PaymentStatus.REFUNDED);
+        assertEquals(PaymentService.ProviderStatusUpdate.REJECTED, paymentService.applyProviderStatus(transaction,
+                PaymentTransaction.PaymentStatus.CAPTURED, "teste"));
+        transaction.setStatus(PaymentTransaction.PaymentStatus.CAPTURING);
+        assertEquals(PaymentService.ProviderStatusUpdate.IN_FLIGHT, paymentService.applyProviderStatus(transaction,
+                PaymentTransaction.PaymentStatus.CAPTURED, "teste"));
+
+        verify(repository, never()).transitionStatus(any(), any(), any(), anyLong(), any());
+        verifyNoInteractions(transactionLogService);
+    }
+
+    @Test
+    void shouldReportConflictWhenTransactionChangedConcurrently() {
+        when(repository.transitionStatus(any(), any(), any(), anyLong(), any())).thenReturn(0);
+
+        assertEquals(PaymentService.ProviderStatusUpdate.CONFLICT, paymentService.applyProviderStatus(transaction,
+                PaymentTransaction.PaymentStatus.FAILED, "teste"));
+
+        assertEquals(PaymentTransaction.PaymentStatus.AUTHORIZED, transaction.getStatus());
+        verifyNoInteractions(transactionLogService);
     }
 
     @Test
     void shouldRefundPaymentSuccessfully() {
         response.setStatus(PaymentTransaction.PaymentStatus.REFUNDED);
         
-        when(repository.findById(transactionId)).thenReturn(Optional.of(transaction));
-        when(stripeProvider.refund("ch_123", BigDecimal.valueOf(100))).thenReturn(response);
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.REFUNDING)).thenReturn(1);
+        when(repository.transitionStatus(eq(transactionId), eq(createdAt), eq(PaymentTransaction.PaymentStatus.REFUNDING),
+                eq(4L), eq(PaymentTransaction.PaymentStatus.REFUNDED))).thenReturn(1);
+        when(stripeProvider.refund("ch_123", Money.ofMinor(10000, CurrencyCode.BRL))).thenReturn(response);
 
         PaymentResponse result = paymentService.refund(transactionId, BigDecimal.valueOf(100));
 
         assertNotNull(result);
         assertEquals(PaymentTransaction.PaymentStatus.REFUNDED, result.getStatus());
-        verify(repository).save(any(PaymentTransaction.class));
+        assertEquals(PaymentTransaction.PaymentStatus.REFUNDED, transaction.getStatus());
+    }
+
+    @Test
+    void shouldRejectRefundGreaterThanTransactionAmount() {
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> paymentService.refund(transactionId, new BigDecimal("100.01")));
+
+        assertEquals("Valor do estorno excede o valor da transação", exception.getMessage());
+        verifyNoInteractions(stripeProvider);
+    }
+
+    @Test
+    void shouldListPaymentsWithinPeriod() {
+        LocalDateTime from = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 11, 1, 0, 0);
+        when(repository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtDesc(
+                from, to, PageRequest.of(0, 50))).thenReturn(List.of(transaction));
+
+        List<PaymentResponse> result = paymentService.listPayments(from, to, 50);
+
+        assertEquals(1, result.size());
+        assertEquals(transactionId, result.get(0).getId());
+        assertEquals(createdAt, result.get(0).getCreatedAt());
+    }
+
+    @Test
+    void shouldRejectListingPeriodLongerThanLimit() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> paymentService.listPayments(from, from.plusDays(94), 50));
+
+        assertEquals("Período máximo da consulta é de 93 dias", exception.getMessage());
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -128,13 +407,130 @@ class PaymentServiceTest {
         assertEquals("Provedor não suportado: invalid_provider", exception.getMessage());
     }
 
+    @Test
+    void shouldKeepTransactionCapturingWhenProviderOutcomeIsUnknown() {
+        when(repository.findCurrentById(transactionId)).thenReturn(Optional.of(transaction));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURING)).thenReturn(1);
+        when(stripeProvider.capture("ch_123")).thenThrow(new ProviderUnavailableException("stripe",
+                "Provedor stripe não respondeu", new SocketTimeoutException("Read timed out")));
+
+        assertThrows(ProviderUnavailableException.class, () -> paymentService.capture(transactionId));
+
+        // A captura pode ter acontecido no provedor: devolver para AUTHORIZED permitiria capturar de novo
+        assertEquals(PaymentTransaction.PaymentStatus.CAPTURING, transaction.getStatus());
+        verify(repository, never()).transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.CAPTURING, 4L,
+                PaymentTransaction.PaymentStatus.AUTHORIZED);
+    }
+
+    @Test
+    void shouldResolveStaleCaptureWithProviderStatus() {
+        transaction.setStatus(PaymentTransaction.PaymentStatus.CAPTURING);
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.CAPTURING, 3L,
+                PaymentTransaction.PaymentStatus.CAPTURED)).thenReturn(1);
+
+        assertEquals(PaymentService.ProviderStatusUpdate.APPLIED, paymentService.resolveInFlight(transaction,
+                PaymentTransaction.PaymentStatus.CAPTURED, "sincronização de status"));
+
+        assertEquals(PaymentTransaction.PaymentStatus.CAPTURED, transaction.getStatus());
+        assertEquals(4L, transaction.getVersion());
+        verify(deadlines).cancel(transaction);
+        verify(transactionLogService).logTransactionStatus(eq(transaction), eq("CAPTURED"), any());
+    }
+
+    @Test
+    void shouldNotRollBackStaleRefundFromChargeStatus() {
+        // Estorno parcial já executado: o Stripe continua informando a cobrança como CAPTURED
+        transaction.setStatus(PaymentTransaction.PaymentStatus.REFUNDING);
+
+        assertEquals(PaymentService.ProviderStatusUpdate.IN_FLIGHT, paymentService.resolveInFlight(transaction,
+                PaymentTransaction.PaymentStatus.CAPTURED, "sincronização de status"));
+
+        assertEquals(PaymentTransaction.PaymentStatus.REFUNDING, transaction.getStatus());
+        verify(repository, never()).transitionStatus(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void shouldCompleteStaleRefundWhenProviderReportsRefunded() {
+        transaction.setStatus(PaymentTransaction.PaymentStatus.REFUNDING);
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.REFUNDING, 3L,
+                PaymentTransaction.PaymentStatus.REFUNDED)).thenReturn(1);
+
+        assertEquals(PaymentService.ProviderStatusUpdate.APPLIED, paymentService.resolveInFlight(transaction,
+                PaymentTransaction.PaymentStatus.REFUNDED, "sincronização de status"));
+
+        assertEquals(PaymentTransaction.PaymentStatus.REFUNDED, transaction.getStatus());
+    }
+
+    @Test
+    void shouldRejectStaleCaptureResolutionOutsideStateMachine() {
+        transaction.setStatus(PaymentTransaction.PaymentStatus.CAPTURING);
+
+        assertEquals(PaymentService.ProviderStatusUpdate.REJECTED, paymentService.resolveInFlight(transaction,
+                PaymentTransaction.PaymentStatus.REFUNDED, "sincronização de status"));
+
+        verify(repository, never()).transitionStatus(any(), any(), any(), anyLong(), any());
+    }
+
     @Test
     void shouldThrowExceptionWhenTransactionNotFound() {
-        when(repository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(repository.findCurrentById(any(UUID.class))).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> paymentService.capture(UUID.randomUUID()));
 
         assertEquals("Transação não encontrada", exception.getMessage());
     }
+
+    @Test
+    void shouldScheduleAutoCaptureOnlyAfterSavingAuthorization() {
+        request.setCaptureDelayMinutes(120);
+        when(stripeProvider.authorize(request)).thenReturn(response);
+
+        paymentService.authorize(request);
+
+        InOrder order = inOrder(deadlines, stripeProvider, repository);
+        order.verify(deadlines).validateCaptureDelay("stripe", Duration.ofMinutes(120));
+        order.verify(stripeProvider).authorize(request);
+        order.verify(deadlines).assign(any(PaymentTransaction.class), eq(Duration.ofMinutes(120)));
+        order.verify(repository).save(any(PaymentTransaction.class));
+        order.verify(deadlines).schedule(any(PaymentTransaction.class));
+    }
+
+    @Test
+    void shouldRejectCaptureDelayBeforeCallingProvider() {
+        request.setCaptureDelayMinutes(43200);
+        doThrow(new ValidationException("Captura automática em stripe deve ocorrer em até 10020 minutos"))
+                .when(deadlines).validateCaptureDelay("stripe", Duration.ofDays(30));
+
+        assertThrows(ValidationException.class, () -> paymentService.authorize(request));
+
+        verify(stripeProvider, never()).authorize(any());
+    }
+
+    @Test
+    void shouldExpireOnlyAuthorizationsPastTheirDeadline() {
+        LocalDateTime now = createdAt.plusDays(7);
+        transaction.setExpiresAt(now.minusSeconds(1));
+        PaymentTransaction captured = new PaymentTransaction();
+        captured.setId(UUID.randomUUID());
+        captured.setCreatedAt(createdAt.plusHours(1));
+        captured.setStatus(PaymentTransaction.PaymentStatus.CAPTURED);
+        captured.setExpiresAt(now.minusSeconds(1));
+        captured.setVersion(5L);
+        List<PaymentDeadline> batch = List.of(
+                new PaymentDeadline(transactionId, createdAt, PaymentDeadline.Action.EXPIRE),
+                new PaymentDeadline(captured.getId(), captured.getCreatedAt(), PaymentDeadline.Action.EXPIRE));
+        when(repository.findByIdInAndCreatedAtBetween(List.of(transactionId, captured.getId()), createdAt,
+                captured.getCreatedAt())).thenReturn(List.of(transaction, captured));
+        when(repository.transitionStatus(transactionId, createdAt, PaymentTransaction.PaymentStatus.AUTHORIZED, 3L,
+                PaymentTransaction.PaymentStatus.EXPIRED)).thenReturn(1);
+
+        assertEquals(1, paymentService.expireAuthorizations(batch, now));
+
+        assertEquals(PaymentTransaction.PaymentStatus.EXPIRED, transaction.getStatus());
+        verify(deadlines).cancel(transaction);
+        verify(transactionLogService).logTransactionStatus(eq(transaction), eq("EXPIRED"), anyString());
+        verify(repository, never()).transitionStatus(eq(captured.getId()), any(), any(), anyLong(), any());
+    }
 }
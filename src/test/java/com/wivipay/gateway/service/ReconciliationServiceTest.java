@@ -0,0 +1,121 @@
+package com.wivipay.gateway.service;
+
+import com.wivipay.gateway.dto.ReconciliationReport;
+import com.wivipay.gateway.exception.ValidationException;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.reconciliation.ReconciliationConfig;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cursor e consulta por id no H2; o join em si é coberto pelo SettlementJoinTest.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({ReconciliationService.class, ReconciliationConfig.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class ReconciliationServiceTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("wivipay.reconciliation.directory", directory::toString);
+    }
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 11, 1, 0, 0);
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private PaymentTransactionRepository repository;
+
+    @Test
+    void shouldReconcileSettlementFileAgainstPeriod() throws Exception {
+        save("stripe", "ch_1", 10000, PaymentStatus.CAPTURED, FROM.plusDays(1));
+        save("stripe", "ch_2", 2500, PaymentStatus.CAPTURED, FROM.plusDays(2));
+        save("stripe", "ch_3", 990, PaymentStatus.CAPTURED, FROM.plusDays(3));
+        // Criada no mês anterior e liquidada neste
+        save("stripe", "ch_0", 700, PaymentStatus.CAPTURED, FROM.minusHours(2));
+        // Outro provedor com o mesmo id: fora da conciliação
+        save("cielo", "ch_3", 990, PaymentStatus.CAPTURED, FROM.plusDays(3));
+        repository.flush();
+
+        String csv = """
+                transactionId,amount,currency,status
+                ch_1,100.00,BRL,settled
+                ch_2,25.01,BRL,captured
+                ch_0,7.00,BRL,paid
+                ch_9,1.00,BRL,captured
+                ch_x,abc,BRL,captured
+                """;
+
+        ReconciliationReport report = reconciliationService.reconcile("Stripe", FROM, TO, body(csv));
+
+        assertEquals("stripe", report.getProvider());
+        assertEquals(4, report.getSettlementRows());
+        assertEquals(3, report.getGatewayRows());
+        assertEquals(2, report.getMatched());
+        assertEquals(1, report.getAmountDiffers());
+        assertEquals(1, report.getMissingInGateway());
+        assertEquals(1, report.getMissingInSettlement());
+        assertEquals(1, report.getRejected());
+        assertEquals(5, report.getErrors().get(0).getLine());
+        assertEquals(3, report.getMismatches().size());
+
+        List<String> lines = Files.readAllLines(reconciliationService.mismatchesFile(report.getReconciliationId()));
+        assertEquals(4, lines.size());
+        assertTrue(lines.contains("AMOUNT_DIFFERS,ch_2,2,25.01,25.00,BRL,CAPTURED,CAPTURED"));
+        assertTrue(lines.contains("MISSING_IN_SETTLEMENT,ch_3,,,9.90,BRL,,CAPTURED"));
+    }
+
+    @Test
+    void shouldRejectUnknownProviderAndLongPeriods() {
+        assertThrows(ValidationException.class, () -> reconciliationService.reconcile("boleto", FROM, TO, body("")));
+        assertThrows(ValidationException.class,
+                () -> reconciliationService.reconcile("stripe", FROM, FROM.plusDays(120), body("")));
+        assertThrows(ValidationException.class, () -> reconciliationService.reconcile("stripe", TO, FROM, body("")));
+    }
+
+    private void save(String provider, String providerTransactionId, long amountMinor, PaymentStatus status,
+                      LocalDateTime createdAt) {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProvider(provider);
+        transaction.setProviderTransactionId(providerTransactionId);
+        transaction.setMoney(Money.ofMinor(amountMinor, CurrencyCode.BRL));
+        transaction.setStatus(status);
+        transaction.setPaymentMethod("card_123");
+        transaction.setCreatedAt(createdAt);
+        repository.save(transaction);
+    }
+
+    private static ByteArrayInputStream body(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
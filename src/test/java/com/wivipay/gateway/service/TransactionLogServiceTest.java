@@ -1,7 +1,12 @@
 package com.wivipay.gateway.service;
 
+import com.wivipay.gateway.archive.ArchivedLog;
+import com.wivipay.gateway.archive.LogSegmentStore;
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
 import com.wivipay.gateway.model.PaymentTransaction;
 import com.wivipay.gateway.model.TransactionLog;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
 import com.wivipay.gateway.repository.TransactionLogRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +15,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,24 +30,32 @@ class TransactionLogServiceTest {
     @Mock
     private TransactionLogRepository repository;
 
+    @Mock
+    private PaymentTransactionRepository transactionRepository;
+
+    @Mock
+    private LogSegmentStore archive;
+
     @InjectMocks
     private TransactionLogService transactionLogService;
 
     private PaymentTransaction transaction;
     private TransactionLog transactionLog;
     private UUID transactionId;
+    private LocalDateTime createdAt;
 
     @BeforeEach
     void setUp() {
         transactionId = UUID.randomUUID();
         LocalDateTime now = LocalDateTime.now();
+        createdAt = now.minusMinutes(5);
 
         transaction = new PaymentTransaction();
         transaction.setId(transactionId);
         transaction.setProvider("stripe");
-        transaction.setAmount(BigDecimal.valueOf(100.00));
-        transaction.setCurrency("BRL");
+        transaction.setMoney(Money.ofMinor(10000, CurrencyCode.BRL));
         transaction.setStatus(PaymentTransaction.PaymentStatus.AUTHORIZED);
+        transaction.setCreatedAt(createdAt);
 
         transactionLog = new TransactionLog();
         transactionLog.setId(UUID.randomUUID());
@@ -67,7 +80,9 @@ class TransactionLogServiceTest {
 
     @Test
     void shouldGetTransactionLogsSuccessfully() {
-        when(repository.findByTransactionIdOrderByCreatedAtDesc(transactionId))
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.of(createdAt));
+        when(repository.findByTransactionIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(transactionId,
+                createdAt.minusHours(1)))
                 .thenReturn(List.of(transactionLog));
 
         List<TransactionLog> result = transactionLogService.getTransactionLogs(transactionId);
@@ -79,7 +94,9 @@ class TransactionLogServiceTest {
 
     @Test
     void shouldGetTransactionLogsByStatusSuccessfully() {
-        when(repository.findByTransactionIdAndStatus(transactionId, "AUTHORIZED"))
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.of(createdAt));
+        when(repository.findByTransactionIdAndStatusAndCreatedAtGreaterThanEqual(transactionId, "AUTHORIZED",
+                createdAt.minusHours(1)))
                 .thenReturn(List.of(transactionLog));
 
         List<TransactionLog> result = transactionLogService.getTransactionLogsByStatus(transactionId, "AUTHORIZED");
@@ -131,7 +148,9 @@ class TransactionLogServiceTest {
 
     @Test
     void shouldReturnEmptyListWhenNoLogsFound() {
-        when(repository.findByTransactionIdOrderByCreatedAtDesc(transactionId))
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.of(createdAt));
+        when(repository.findByTransactionIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(transactionId,
+                createdAt.minusHours(1)))
                 .thenReturn(List.of());
 
         List<TransactionLog> result = transactionLogService.getTransactionLogs(transactionId);
@@ -142,7 +161,9 @@ class TransactionLogServiceTest {
 
     @Test
     void shouldReturnEmptyListWhenNoLogsByStatusFound() {
-        when(repository.findByTransactionIdAndStatus(transactionId, "FAILED"))
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.of(createdAt));
+        when(repository.findByTransactionIdAndStatusAndCreatedAtGreaterThanEqual(transactionId, "FAILED",
+                createdAt.minusHours(1)))
                 .thenReturn(List.of());
 
         List<TransactionLog> result = transactionLogService.getTransactionLogsByStatus(transactionId, "FAILED");
@@ -151,6 +172,38 @@ class TransactionLogServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void shouldMergeArchivedLogsWithoutDuplicates() {
+        LocalDateTime since = createdAt.minusHours(1);
+        transactionLog.setCreatedAt(createdAt.plusDays(100));
+        ArchivedLog authorized = new ArchivedLog(UUID.randomUUID(), transactionId, "AUTHORIZED",
+                "Pagamento autorizado com sucesso", createdAt);
+        // Exportação interrompida antes do DELETE: o mesmo log no banco e no segmento
+        ArchivedLog duplicate = new ArchivedLog(transactionLog.getId(), transactionId, "AUTHORIZED",
+                "Pagamento autorizado com sucesso", transactionLog.getCreatedAt());
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.of(createdAt));
+        when(repository.findByTransactionIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(transactionId, since))
+                .thenReturn(List.of(transactionLog));
+        when(archive.find(transactionId, since)).thenReturn(List.of(authorized, duplicate));
+
+        List<TransactionLog> result = transactionLogService.getTransactionLogs(transactionId);
+
+        assertEquals(2, result.size());
+        assertSame(transactionLog, result.get(0));
+        assertEquals(authorized.id(), result.get(1).getId());
+        assertSame(transaction, result.get(1).getTransaction());
+    }
+
+    @Test
+    void shouldNotQueryLogsOfUnknownTransaction() {
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.empty());
+
+        List<TransactionLog> result = transactionLogService.getTransactionLogs(transactionId);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(repository);
+    }
+
     @Test
     void shouldHandleMultipleLogsForSameTransaction() {
         TransactionLog log1 = new TransactionLog();
@@ -161,7 +214,9 @@ class TransactionLogServiceTest {
         log2.setStatus("CAPTURED");
         log2.setMessage("Pagamento capturado");
 
-        when(repository.findByTransactionIdOrderByCreatedAtDesc(transactionId))
+        when(transactionRepository.findCreatedAtById(transactionId)).thenReturn(Optional.of(createdAt));
+        when(repository.findByTransactionIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(transactionId,
+                createdAt.minusHours(1)))
                 .thenReturn(List.of(log2, log1)); // Ordem cronológica reversa
 
         List<TransactionLog> result = transactionLogService.getTransactionLogs(transactionId);
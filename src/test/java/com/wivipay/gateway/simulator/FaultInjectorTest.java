@@ -0,0 +1,81 @@
+package com.wivipay.gateway.simulator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultInjectorTest {
+
+    private SimulatorProperties properties;
+    private AtomicLong clock;
+    private FaultInjector faultInjector;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SimulatorProperties();
+        clock = new AtomicLong(10_000);
+        faultInjector = new FaultInjector(properties, () -> new Random(42), clock::get);
+    }
+
+    @Test
+    void shouldSucceedWithFixedLatencyByDefault() {
+        FaultInjector.Decision decision = faultInjector.decide("stripe");
+
+        assertEquals(FaultInjector.Outcome.OK, decision.outcome());
+        assertEquals(50, decision.delayMillis());
+    }
+
+    @Test
+    void shouldTimeoutWhenRateIsOne() {
+        SimulatorProperties.Profile profile = new SimulatorProperties.Profile();
+        profile.setTimeoutRate(1.0);
+        profile.setTimeout(Duration.ofSeconds(2));
+        properties.getProviders().put("cielo", profile);
+
+        FaultInjector.Decision decision = faultInjector.decide("cielo");
+
+        assertEquals(FaultInjector.Outcome.TIMEOUT, decision.outcome());
+        assertEquals(2000, decision.delayMillis());
+        assertEquals(FaultInjector.Outcome.OK, faultInjector.decide("paypal").outcome());
+    }
+
+    @Test
+    void shouldDeclineWhenOnlyDeclineRateIsSet() {
+        properties.getDefaults().setDeclineRate(1.0);
+
+        assertEquals(FaultInjector.Outcome.DECLINE, faultInjector.decide("paypal").outcome());
+    }
+
+    @Test
+    void shouldThrottleAboveMaxRequestsPerSecond() {
+        properties.getDefaults().setMaxRequestsPerSecond(2);
+
+        assertEquals(FaultInjector.Outcome.OK, faultInjector.decide("stripe").outcome());
+        assertEquals(FaultInjector.Outcome.OK, faultInjector.decide("stripe").outcome());
+        assertEquals(FaultInjector.Outcome.THROTTLE, faultInjector.decide("stripe").outcome());
+
+        clock.addAndGet(1000);
+        assertEquals(FaultInjector.Outcome.OK, faultInjector.decide("stripe").outcome());
+    }
+
+    @Test
+    void shouldClampSampledLatencyToBounds() {
+        SimulatorProperties.Latency latency = new SimulatorProperties.Latency();
+        latency.setDistribution(SimulatorProperties.Distribution.LOGNORMAL);
+        latency.setMean(Duration.ofMillis(100));
+        latency.setSigma(3.0);
+        latency.setMin(Duration.ofMillis(20));
+        latency.setMax(Duration.ofMillis(400));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            long sample = faultInjector.sampleLatency(latency, random);
+            assertTrue(sample >= 20 && sample <= 400, "latência fora dos limites: " + sample);
+        }
+    }
+}
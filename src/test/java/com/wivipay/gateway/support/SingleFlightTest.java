@@ -0,0 +1,110 @@
+package com.wivipay.gateway.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldShareResultWithConcurrentCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger shared = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("tx-1", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "capturado";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("tx-1", () -> {
+                    executions.incrementAndGet();
+                    return "duplicado";
+                }, shared::incrementAndGet));
+        waitUntil(() -> shared.get() == 1);
+        release.countDown();
+
+        assertEquals("capturado", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("capturado", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldPropagateFailureToConcurrentCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger shared = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("provedor indisponível");
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("tx-1", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("tx-1", () -> "duplicado", shared::incrementAndGet));
+        waitUntil(() -> shared.get() == 1);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+    }
+
+    @Test
+    void shouldRunAgainAfterPreviousCallFinished() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("tx-1", () -> "r" + executions.incrementAndGet());
+        String second = singleFlight.execute("tx-1", () -> "r" + executions.incrementAndGet());
+
+        assertEquals("r2", second);
+    }
+
+    @Test
+    void shouldNotBlockDifferentKeys() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> singleFlight.execute("tx-1", () -> {
+            await(release);
+            return "lento";
+        }));
+
+        assertEquals("rápido", singleFlight.execute("tx-2", () -> "rápido"));
+
+        release.countDown();
+        assertEquals("lento", slow.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condição não atendida a tempo");
+            Thread.sleep(1);
+        }
+    }
+}
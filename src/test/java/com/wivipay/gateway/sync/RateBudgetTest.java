@@ -0,0 +1,56 @@
+package com.wivipay.gateway.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateBudgetTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void shouldGrantAtMostOneSecondOfPermits() {
+        RateBudget budget = new RateBudget(10, now::get);
+
+        assertEquals(10, budget.take(100));
+        assertEquals(0, budget.take(100));
+
+        now.addAndGet(60_000_000_000L);
+        assertEquals(10, budget.take(100));
+    }
+
+    @Test
+    void shouldRefillProportionallyToElapsedTime() {
+        RateBudget budget = new RateBudget(10, now::get);
+        budget.take(10);
+
+        now.addAndGet(350_000_000L);
+
+        assertEquals(3, budget.take(100));
+        now.addAndGet(50_000_000L);
+        assertEquals(1, budget.take(100));
+    }
+
+    @Test
+    void shouldReturnUnusedPermits() {
+        RateBudget budget = new RateBudget(5, now::get);
+        assertEquals(3, budget.take(3));
+
+        budget.giveBack(3);
+
+        assertEquals(5, budget.take(100));
+    }
+
+    @Test
+    void shouldAllowOneCallWhenRateIsBelowOnePerSecond() {
+        RateBudget budget = new RateBudget(0.5, now::get);
+
+        assertEquals(1, budget.take(10));
+        now.addAndGet(1_000_000_000L);
+        assertEquals(0, budget.take(10));
+        now.addAndGet(1_000_000_000L);
+        assertEquals(1, budget.take(10));
+    }
+}
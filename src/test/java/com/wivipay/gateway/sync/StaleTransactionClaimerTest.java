@@ -0,0 +1,98 @@
+package com.wivipay.gateway.sync;
+
+import com.wivipay.gateway.model.CurrencyCode;
+import com.wivipay.gateway.model.Money;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class StaleTransactionClaimerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T12:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final StatusSyncProperties properties = new StatusSyncProperties();
+
+    @Test
+    void shouldClaimStaleTransactionsPendingFirstOldestFirst() {
+        UUID oldAuthorized = insert("stripe", PaymentStatus.AUTHORIZED, LOCAL_NOW.minusHours(5));
+        UUID pending = insert("stripe", PaymentStatus.PENDING, LOCAL_NOW.minusHours(1));
+        UUID authorized = insert("stripe", PaymentStatus.AUTHORIZED, LOCAL_NOW.minusHours(2));
+        // Recente, capturada, de outro provedor e antiga demais: fora da varredura
+        insert("stripe", PaymentStatus.AUTHORIZED, LOCAL_NOW.minusMinutes(5));
+        insert("stripe", PaymentStatus.CAPTURED, LOCAL_NOW.minusHours(3));
+        insert("cielo", PaymentStatus.PENDING, LOCAL_NOW.minusHours(3));
+        insert("stripe", PaymentStatus.PENDING, LOCAL_NOW.minusDays(10));
+
+        List<PaymentTransaction> claimed = claimer(Duration.ZERO).claim("stripe", 10);
+
+        assertEquals(List.of(pending, oldAuthorized, authorized), claimed.stream().map(PaymentTransaction::getId).toList());
+        assertEquals(PaymentStatus.PENDING, claimed.get(0).getStatus());
+        assertEquals(0L, claimed.get(0).getVersion());
+    }
+
+    @Test
+    void shouldClaimInFlightTransactionsAfterTheirOwnStaleness() {
+        UUID capturing = insert("stripe", PaymentStatus.CAPTURING, LOCAL_NOW.minusMinutes(3));
+        UUID refunding = insert("stripe", PaymentStatus.REFUNDING, LOCAL_NOW.minusMinutes(5));
+        // Chamada ao provedor possivelmente ainda em andamento: fora da varredura
+        insert("stripe", PaymentStatus.CAPTURING, LOCAL_NOW.minusSeconds(30));
+
+        List<PaymentTransaction> claimed = claimer(Duration.ZERO).claim("stripe", 10);
+
+        assertEquals(List.of(capturing, refunding), claimed.stream().map(PaymentTransaction::getId).toList());
+        assertEquals(PaymentStatus.CAPTURING, claimed.get(0).getStatus());
+    }
+
+    @Test
+    void shouldNotClaimAgainBeforeRecheckInterval() {
+        insert("stripe", PaymentStatus.PENDING, LOCAL_NOW.minusHours(1));
+        insert("stripe", PaymentStatus.PENDING, LOCAL_NOW.minusHours(2));
+
+        assertEquals(1, claimer(Duration.ZERO).claim("stripe", 1).size());
+        assertEquals(1, claimer(Duration.ZERO).claim("stripe", 10).size());
+        assertTrue(claimer(Duration.ofMinutes(5)).claim("stripe", 10).isEmpty());
+
+        assertEquals(2, claimer(properties.getRecheckInterval().plusMinutes(1)).claim("stripe", 10).size());
+    }
+
+    private StaleTransactionClaimer claimer(Duration elapsed) {
+        return new StaleTransactionClaimer(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                Clock.fixed(NOW.plus(elapsed), ZoneOffset.UTC));
+    }
+
+    private UUID insert(String provider, PaymentStatus status, LocalDateTime updatedAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO payment_transactions (id, provider, provider_transaction_id, amount_minor, " +
+                        "currency, status, payment_method, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                id, provider, "tx_" + id, Money.ofMinor(1000, CurrencyCode.BRL).minor(), "BRL", status.name(),
+                "card_123", updatedAt, updatedAt);
+        return id;
+    }
+}
@@ -0,0 +1,119 @@
+package com.wivipay.gateway.sync;
+
+import com.wivipay.gateway.exception.ProviderUnavailableException;
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.service.PaymentService;
+import com.wivipay.gateway.service.PaymentService.ProviderStatusUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusSynchronizerTest {
+
+    @Mock
+    private StaleTransactionClaimer claimer;
+
+    @Mock
+    private PaymentProvider stripe;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private final StatusSyncProperties properties = new StatusSyncProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StatusSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setRates(Map.of("stripe", 3.0));
+        when(stripe.getName()).thenReturn("stripe");
+        synchronizer = new StatusSynchronizer(claimer, List.of(stripe), paymentService, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldClaimOnlyAsManyTransactionsAsTheRateBudgetAllows() {
+        PaymentTransaction pending = transaction("ch_1", PaymentStatus.PENDING);
+        PaymentTransaction authorized = transaction("ch_2", PaymentStatus.AUTHORIZED);
+        when(claimer.claim(eq("stripe"), anyInt())).thenReturn(List.of(pending, authorized), List.of());
+        when(stripe.retrieveStatus("ch_1")).thenReturn(PaymentStatus.AUTHORIZED);
+        when(stripe.retrieveStatus("ch_2")).thenReturn(PaymentStatus.AUTHORIZED);
+        when(paymentService.applyProviderStatus(pending, PaymentStatus.AUTHORIZED, "sincronização de status"))
+                .thenReturn(ProviderStatusUpdate.APPLIED);
+        when(paymentService.applyProviderStatus(authorized, PaymentStatus.AUTHORIZED, "sincronização de status"))
+                .thenReturn(ProviderStatusUpdate.UNCHANGED);
+
+        assertEquals(2, synchronizer.synchronize());
+
+        assertEquals(1, meterRegistry.counter("wivipay.status_sync.checked", "provider", "stripe", "outcome", "applied").count());
+        assertEquals(1, meterRegistry.counter("wivipay.status_sync.checked", "provider", "stripe", "outcome", "unchanged").count());
+        // Sobrou uma ficha das três: a rodada seguinte, no mesmo instante, reserva no máximo uma
+        synchronizer.synchronize();
+        verify(claimer).claim("stripe", 3);
+        verify(claimer).claim(eq("stripe"), intThat(limit -> limit <= 1));
+    }
+
+    @Test
+    void shouldStopCallingUnavailableProvider() {
+        PaymentTransaction first = transaction("ch_1", PaymentStatus.PENDING);
+        PaymentTransaction second = transaction("ch_2", PaymentStatus.PENDING);
+        when(claimer.claim("stripe", 3)).thenReturn(List.of(first, second));
+        when(stripe.retrieveStatus("ch_1")).thenThrow(new ProviderUnavailableException("stripe", "Stripe fora do ar", null));
+
+        assertEquals(0, synchronizer.synchronize());
+
+        verify(stripe, never()).retrieveStatus("ch_2");
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void shouldContinueAfterFailureOfOneTransaction() {
+        PaymentTransaction missing = transaction("ch_1", PaymentStatus.PENDING);
+        PaymentTransaction next = transaction("ch_2", PaymentStatus.PENDING);
+        when(claimer.claim("stripe", 3)).thenReturn(List.of(missing, next));
+        when(stripe.retrieveStatus("ch_1")).thenThrow(new IllegalStateException("No such charge"));
+        when(stripe.retrieveStatus("ch_2")).thenReturn(PaymentStatus.FAILED);
+        when(paymentService.applyProviderStatus(next, PaymentStatus.FAILED, "sincronização de status"))
+                .thenReturn(ProviderStatusUpdate.APPLIED);
+
+        assertEquals(2, synchronizer.synchronize());
+
+        verify(paymentService).applyProviderStatus(next, PaymentStatus.FAILED, "sincronização de status");
+    }
+
+    @Test
+    void shouldResolveStaleCaptureInsteadOfWaitingForIt() {
+        PaymentTransaction capturing = transaction("ch_1", PaymentStatus.CAPTURING);
+        when(claimer.claim("stripe", 3)).thenReturn(List.of(capturing));
+        when(stripe.retrieveStatus("ch_1")).thenReturn(PaymentStatus.CAPTURED);
+        when(paymentService.resolveInFlight(capturing, PaymentStatus.CAPTURED, "sincronização de status"))
+                .thenReturn(ProviderStatusUpdate.APPLIED);
+
+        assertEquals(1, synchronizer.synchronize());
+
+        verify(paymentService, never()).applyProviderStatus(any(), any(), any());
+    }
+
+    private static PaymentTransaction transaction(String providerTransactionId, PaymentStatus status) {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProvider("stripe");
+        transaction.setProviderTransactionId(providerTransactionId);
+        transaction.setStatus(status);
+        transaction.setVersion(0L);
+        return transaction;
+    }
+}
@@ -0,0 +1,138 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.exception.WebhookSignatureException;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderWebhooksTest {
+
+    private static final String STRIPE_SECRET = "whsec_test";
+
+    @Test
+    void shouldParseSignedStripeEvent() throws Exception {
+        String body = "{\"id\":\"evt_1\",\"type\":\"charge.refunded\",\"data\":{\"object\":{\"id\":\"ch_1\"}}}";
+
+        Optional<WebhookNotification> notification = stripe().parse(stripeHeaders(body, STRIPE_SECRET), body);
+
+        assertEquals(new WebhookNotification("stripe", "evt_1", "charge.refunded", "ch_1", PaymentStatus.REFUNDED),
+                notification.orElseThrow());
+    }
+
+    @Test
+    void shouldUseChargeOfStripeDispute() throws Exception {
+        String body = "{\"id\":\"evt_2\",\"type\":\"charge.dispute.created\",\"data\":{\"object\":{\"id\":\"dp_1\",\"charge\":\"ch_1\"}}}";
+
+        WebhookNotification notification = stripe().parse(stripeHeaders(body, STRIPE_SECRET), body).orElseThrow();
+
+        assertEquals("ch_1", notification.providerTransactionId());
+        assertEquals(PaymentStatus.CHARGED_BACK, notification.targetStatus());
+    }
+
+    @Test
+    void shouldRejectStripeEventWithWrongSecret() throws Exception {
+        String body = "{\"id\":\"evt_1\",\"type\":\"charge.captured\",\"data\":{\"object\":{\"id\":\"ch_1\"}}}";
+
+        assertThrows(WebhookSignatureException.class, () -> stripe().parse(stripeHeaders(body, "whsec_other"), body));
+        assertThrows(WebhookSignatureException.class, () -> stripe().parse(new HttpHeaders(), body));
+    }
+
+    @Test
+    void shouldIgnoreStripeEventsThatDoNotChangeStatus() throws Exception {
+        String body = "{\"id\":\"evt_3\",\"type\":\"customer.created\",\"data\":{\"object\":{\"id\":\"cus_1\"}}}";
+
+        assertTrue(stripe().parse(stripeHeaders(body, STRIPE_SECRET), body).isEmpty());
+    }
+
+    @Test
+    void shouldVerifyPayPalSignatureWithCertificateKey() throws Exception {
+        KeyPair keys = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        PayPalCertificates certificates = mock(PayPalCertificates.class);
+        when(certificates.publicKey("https://api.paypal.com/cert.pem")).thenReturn(keys.getPublic());
+        PayPalWebhook webhook = new PayPalWebhook("WH-1", certificates);
+        String body = "{\"id\":\"WH-EVT-1\",\"event_type\":\"PAYMENT.CAPTURE.REVERSED\",\"resource\":{\"id\":\"CAP-1\"," +
+                "\"supplementary_data\":{\"related_ids\":{\"order_id\":\"ORDER-1\"}}}}";
+        HttpHeaders headers = payPalHeaders(body, "WH-1", keys);
+
+        WebhookNotification notification = webhook.parse(headers, body).orElseThrow();
+
+        assertEquals(new WebhookNotification("paypal", "WH-EVT-1", "PAYMENT.CAPTURE.REVERSED", "ORDER-1",
+                PaymentStatus.CHARGED_BACK), notification);
+        // Corpo alterado muda o CRC32 da mensagem assinada
+        assertThrows(WebhookSignatureException.class, () -> webhook.parse(headers, body.replace("CAP-1", "CAP-2")));
+        assertThrows(WebhookSignatureException.class,
+                () -> new PayPalWebhook("WH-2", certificates).parse(headers, body));
+    }
+
+    @Test
+    void shouldOnlyDownloadPayPalCertificatesFromPayPal() {
+        PayPalCertificates certificates = new PayPalCertificates(null);
+
+        assertThrows(WebhookSignatureException.class, () -> certificates.publicKey("https://evil.example/cert.pem"));
+        assertThrows(WebhookSignatureException.class, () -> certificates.publicKey("https://paypal.com.evil.example/c.pem"));
+        assertThrows(WebhookSignatureException.class, () -> certificates.publicKey("http://api.paypal.com/cert.pem"));
+    }
+
+    @Test
+    void shouldCheckCieloTokenAndDeriveEventId() {
+        CieloWebhook webhook = new CieloWebhook("segredo", Clock.fixed(Instant.ofEpochSecond(6_000), ZoneOffset.UTC));
+        String body = "{\"PaymentId\":\"pay-1\",\"ChangeType\":1}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CieloWebhook.TOKEN_HEADER, "segredo");
+
+        WebhookNotification notification = webhook.parse(headers, body).orElseThrow();
+
+        assertEquals("pay-1:1:100", notification.eventId());
+        assertNull(notification.targetStatus());
+        headers.set(CieloWebhook.TOKEN_HEADER, "outro");
+        assertThrows(WebhookSignatureException.class, () -> webhook.parse(headers, body));
+    }
+
+    private static StripeWebhook stripe() {
+        return new StripeWebhook(STRIPE_SECRET, Duration.ofMinutes(5));
+    }
+
+    private static HttpHeaders stripeHeaders(String body, String secret) throws Exception {
+        long timestamp = Instant.now().getEpochSecond();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = HexFormat.of().formatHex(mac.doFinal((timestamp + "." + body).getBytes(StandardCharsets.UTF_8)));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Stripe-Signature", "t=" + timestamp + ",v1=" + signature);
+        return headers;
+    }
+
+    private static HttpHeaders payPalHeaders(String body, String webhookId, KeyPair keys) throws Exception {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keys.getPrivate());
+        signer.update(("tx-1|2026-10-19T12:00:00Z|" + webhookId + "|" + crc.getValue()).getBytes(StandardCharsets.UTF_8));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("PAYPAL-TRANSMISSION-ID", "tx-1");
+        headers.set("PAYPAL-TRANSMISSION-TIME", "2026-10-19T12:00:00Z");
+        headers.set("PAYPAL-TRANSMISSION-SIG", Base64.getEncoder().encodeToString(signer.sign()));
+        headers.set("PAYPAL-CERT-URL", "https://api.paypal.com/cert.pem");
+        headers.set("PAYPAL-AUTH-ALGO", "SHA256withRSA");
+        return headers;
+    }
+}
@@ -0,0 +1,146 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.model.PaymentTransaction;
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.model.WebhookEvent;
+import com.wivipay.gateway.provider.PaymentProvider;
+import com.wivipay.gateway.repository.PaymentTransactionRepository;
+import com.wivipay.gateway.service.PaymentService;
+import com.wivipay.gateway.service.PaymentService.ProviderStatusUpdate;
+import com.wivipay.gateway.webhook.WebhookInbox.QueuedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookEventProcessorTest {
+
+    @Mock
+    private WebhookInbox inbox;
+
+    @Mock
+    private PaymentTransactionRepository repository;
+
+    @Mock
+    private PaymentProvider cielo;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private WebhookEventProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new WebhookEventProcessor(inbox, repository, List.of(cielo), paymentService,
+                new WebhookProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldApplyBatchWithOneLookupPerProvider() {
+        QueuedEvent refund = event("stripe", "ch_1", PaymentStatus.REFUNDED);
+        QueuedEvent capture = event("stripe", "ch_2", PaymentStatus.CAPTURED);
+        PaymentTransaction captured = transaction("ch_1", PaymentStatus.CAPTURED);
+        PaymentTransaction authorized = transaction("ch_2", PaymentStatus.AUTHORIZED);
+        when(inbox.claim(100)).thenReturn(List.of(refund, capture));
+        when(repository.findCurrentByProviderAndProviderTransactionIdIn("stripe", Set.of("ch_1", "ch_2")))
+                .thenReturn(List.of(captured, authorized));
+        when(paymentService.applyProviderStatus(any(), any(), anyString())).thenReturn(ProviderStatusUpdate.APPLIED);
+
+        assertEquals(2, processor.process());
+
+        verify(repository, times(1)).findCurrentByProviderAndProviderTransactionIdIn(any(), any());
+        verify(paymentService).applyProviderStatus(eq(captured), eq(PaymentStatus.REFUNDED), eq("notificação evento de stripe"));
+        verify(paymentService).applyProviderStatus(eq(authorized), eq(PaymentStatus.CAPTURED), anyString());
+        verify(inbox).finish(refund, WebhookEvent.Status.APPLIED, null);
+        verify(inbox).finish(capture, WebhookEvent.Status.APPLIED, null);
+    }
+
+    @Test
+    void shouldRetrieveStatusWhenNotificationHasNone() {
+        QueuedEvent event = event("cielo", "pay-1", null);
+        PaymentTransaction transaction = transaction("pay-1", PaymentStatus.AUTHORIZED);
+        when(inbox.claim(100)).thenReturn(List.of(event));
+        when(repository.findCurrentByProviderAndProviderTransactionIdIn("cielo", Set.of("pay-1"))).thenReturn(List.of(transaction));
+        when(cielo.supports("cielo")).thenReturn(true);
+        when(cielo.retrieveStatus("pay-1")).thenReturn(PaymentStatus.AUTHORIZED);
+        when(paymentService.applyProviderStatus(transaction, PaymentStatus.AUTHORIZED, "notificação evento de cielo"))
+                .thenReturn(ProviderStatusUpdate.UNCHANGED);
+
+        processor.process();
+
+        verify(inbox).finish(event, WebhookEvent.Status.APPLIED, null);
+    }
+
+    @Test
+    void shouldIgnoreTransitionsProvidersCannotMake() {
+        QueuedEvent event = event("stripe", "ch_1", PaymentStatus.CAPTURED);
+        when(inbox.claim(100)).thenReturn(List.of(event));
+        when(repository.findCurrentByProviderAndProviderTransactionIdIn(eq("stripe"), any()))
+                .thenReturn(List.of(transaction("ch_1", PaymentStatus.REFUNDED)));
+        when(paymentService.applyProviderStatus(any(), any(), anyString())).thenReturn(ProviderStatusUpdate.REJECTED);
+
+        processor.process();
+
+        verify(inbox).finish(eq(event), eq(WebhookEvent.Status.IGNORED), contains("REFUNDED para CAPTURED"));
+    }
+
+    @Test
+    void shouldRetryUnknownInFlightAndConcurrentlyChangedTransactions() {
+        QueuedEvent unknown = event("stripe", "ch_missing", PaymentStatus.CAPTURED);
+        QueuedEvent inFlight = event("stripe", "ch_2", PaymentStatus.REFUNDED);
+        QueuedEvent raced = event("stripe", "ch_3", PaymentStatus.CAPTURED);
+        when(inbox.claim(100)).thenReturn(List.of(unknown, inFlight, raced));
+        when(repository.findCurrentByProviderAndProviderTransactionIdIn(eq("stripe"), any())).thenReturn(List.of(
+                transaction("ch_2", PaymentStatus.REFUNDING), transaction("ch_3", PaymentStatus.AUTHORIZED)));
+        when(paymentService.applyProviderStatus(any(), any(), anyString())).thenReturn(ProviderStatusUpdate.CONFLICT);
+        when(inbox.retry(any(), anyString())).thenReturn(true);
+
+        processor.process();
+
+        verify(inbox).retry(eq(unknown), contains("não encontrada"));
+        verify(inbox).retry(eq(inFlight), contains("REFUNDING"));
+        verify(inbox).retry(eq(raced), contains("alterada"));
+        verify(paymentService, times(1)).applyProviderStatus(any(), any(), anyString());
+        verify(inbox, never()).finish(any(), any(), any());
+    }
+
+    @Test
+    void shouldRetryWhenProviderLookupFails() {
+        QueuedEvent event = event("cielo", "pay-1", null);
+        when(inbox.claim(100)).thenReturn(List.of(event));
+        when(repository.findCurrentByProviderAndProviderTransactionIdIn(eq("cielo"), any()))
+                .thenReturn(List.of(transaction("pay-1", PaymentStatus.AUTHORIZED)));
+        when(cielo.supports("cielo")).thenReturn(true);
+        when(cielo.retrieveStatus("pay-1")).thenThrow(new IllegalStateException("timeout"));
+
+        processor.process();
+
+        verify(inbox).retry(event, "timeout");
+    }
+
+    private static QueuedEvent event(String provider, String providerTransactionId, PaymentStatus target) {
+        return new QueuedEvent(provider, "evt_" + UUID.randomUUID(), "evento", providerTransactionId, target, 1);
+    }
+
+    private static PaymentTransaction transaction(String providerTransactionId, PaymentStatus status) {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setProviderTransactionId(providerTransactionId);
+        transaction.setStatus(status);
+        transaction.setVersion(3L);
+        transaction.setCreatedAt(LocalDateTime.of(2026, 10, 1, 10, 0));
+        return transaction;
+    }
+}
@@ -0,0 +1,110 @@
+package com.wivipay.gateway.webhook;
+
+import com.wivipay.gateway.model.PaymentTransaction.PaymentStatus;
+import com.wivipay.gateway.model.WebhookEvent;
+import com.wivipay.gateway.webhook.WebhookInbox.QueuedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class WebhookInboxTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T12:00:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final WebhookProperties properties = new WebhookProperties();
+
+    @Test
+    void shouldDiscardRedeliveredEvents() {
+        WebhookInbox inbox = inbox(Duration.ZERO);
+
+        assertTrue(inbox.enqueue(notification("evt_1")));
+        assertFalse(inbox.enqueue(notification("evt_1")));
+
+        assertEquals(1, inbox.claim(10).size());
+    }
+
+    @Test
+    void shouldClaimEachEventOnceUntilClaimTimeout() {
+        WebhookInbox inbox = inbox(Duration.ZERO);
+        inbox.enqueue(notification("evt_1"));
+        inbox.enqueue(new WebhookNotification("cielo", "pay_1:1:100", "ChangeType 1", "pay_1", null));
+
+        List<QueuedEvent> claimed = inbox.claim(10);
+
+        assertEquals(2, claimed.size());
+        assertEquals(PaymentStatus.CAPTURED, claimed.get(0).targetStatus());
+        assertNull(claimed.get(1).targetStatus());
+        assertEquals(1, claimed.get(0).attempts());
+        assertTrue(inbox.claim(10).isEmpty());
+
+        // A instância que reservou não terminou: o lote volta depois de claim-timeout
+        List<QueuedEvent> reclaimed = inbox(properties.getClaimTimeout().plusSeconds(1)).claim(10);
+        assertEquals(2, reclaimed.size());
+        assertEquals(2, reclaimed.get(0).attempts());
+    }
+
+    @Test
+    void shouldDelayRetriesAndFailAfterMaxAttempts() {
+        properties.setMaxAttempts(2);
+        WebhookInbox inbox = inbox(Duration.ZERO);
+        inbox.enqueue(notification("evt_1"));
+
+        assertTrue(inbox.retry(inbox.claim(10).get(0), "Transação não encontrada"));
+        assertTrue(inbox.claim(10).isEmpty());
+
+        WebhookInbox later = inbox(properties.getRetryDelay());
+        QueuedEvent second = later.claim(10).get(0);
+        assertEquals(2, second.attempts());
+        assertFalse(later.retry(second, "Transação não encontrada"));
+
+        assertEquals(WebhookEvent.Status.FAILED.name(), status("evt_1"));
+        assertTrue(inbox(Duration.ofDays(1)).claim(10).isEmpty());
+    }
+
+    @Test
+    void shouldPurgeOnlyFinishedEventsPastRetention() {
+        WebhookInbox inbox = inbox(Duration.ZERO);
+        inbox.enqueue(notification("evt_1"));
+        inbox.enqueue(notification("evt_2"));
+        inbox.finish(inbox.claim(1).get(0), WebhookEvent.Status.APPLIED, null);
+
+        assertEquals(0, inbox.purge());
+        assertEquals(1, inbox(properties.getRetention().plusMinutes(1)).purge());
+        assertEquals(WebhookEvent.Status.PENDING.name(), status("evt_2"));
+    }
+
+    private WebhookInbox inbox(Duration elapsed) {
+        return new WebhookInbox(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                Clock.fixed(NOW.plus(elapsed), ZoneOffset.UTC));
+    }
+
+    private String status(String eventId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM webhook_events WHERE event_id = ?", String.class, eventId);
+    }
+
+    private static WebhookNotification notification(String eventId) {
+        return new WebhookNotification("stripe", eventId, "charge.captured", "ch_1", PaymentStatus.CAPTURED);
+    }
+}